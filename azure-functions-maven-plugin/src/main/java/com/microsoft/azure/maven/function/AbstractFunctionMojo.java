@@ -13,6 +13,7 @@ import com.microsoft.azure.management.appservice.FunctionApp;
 import com.microsoft.azure.management.appservice.PricingTier;
 import com.microsoft.azure.maven.AbstractAppServiceMojo;
 import com.microsoft.azure.maven.auth.AzureAuthFailureException;
+import com.microsoft.azure.toolkit.lib.common.cache.ResourceCache;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugins.annotations.Parameter;
 
@@ -24,6 +25,7 @@ public abstract class AbstractFunctionMojo extends AbstractAppServiceMojo {
 
     private static final String FUNCTION_JAVA_VERSION_KEY = "functionJavaVersion";
     private static final String DISABLE_APP_INSIGHTS_KEY = "disableAppInsights";
+    private static final String FUNCTION_APP_CACHE_KEY = "functionApp";
 
     //region Properties
     /**
@@ -80,6 +82,9 @@ public abstract class AbstractFunctionMojo extends AbstractAppServiceMojo {
 
     //endregion
 
+    // Resources fetched during this execution, so steps which read the same resource don't send the same GET again
+    protected final ResourceCache resourceCache = new ResourceCache();
+
     //region Getter
 
     public PricingTier getPricingTier() throws AzureExecutionException {
@@ -118,7 +123,24 @@ public abstract class AbstractFunctionMojo extends AbstractAppServiceMojo {
 
     @Nullable
     public FunctionApp getFunctionApp() throws AzureAuthFailureException, AzureExecutionException {
-        return getAzureClient().appServices().functionApps().getByResourceGroup(getResourceGroup(), getAppName());
+        final FunctionApp cached = resourceCache.get(getFunctionAppCacheKey());
+        if (cached != null) {
+            return cached;
+        }
+        final FunctionApp functionApp = getAzureClient().appServices().functionApps().getByResourceGroup(getResourceGroup(), getAppName());
+        resourceCache.put(getFunctionAppCacheKey(), functionApp);
+        return functionApp;
+    }
+
+    /**
+     * Replace the cached function app with the model returned by a create or update call, null to invalidate it.
+     */
+    protected void cacheFunctionApp(@Nullable FunctionApp functionApp) {
+        resourceCache.put(getFunctionAppCacheKey(), functionApp);
+    }
+
+    private String getFunctionAppCacheKey() {
+        return ResourceCache.key(FUNCTION_APP_CACHE_KEY, getResourceGroup(), getAppName());
     }
 
     public RuntimeConfiguration getRuntime() {
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven.function;
+
+import com.microsoft.azure.maven.AbstractReactorDeployMojo;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Deploy the function apps of all modules in the reactor concurrently, each module with its own configuration of the deploy goal,
+ * e.g. `mvn package azure-functions:deploy-all -Ddeploy.parallelism=8`.
+ */
+@Mojo(name = "deploy-all", aggregator = true, threadSafe = true)
+public class DeployAllMojo extends AbstractReactorDeployMojo {
+}
@@ -32,6 +32,7 @@ import com.microsoft.azure.common.handlers.artifact.ZIPArtifactHandlerImpl;
 import com.microsoft.azure.common.logging.Log;
 import com.microsoft.azure.common.utils.AppServiceUtils;
 import com.microsoft.azure.functions.annotation.AuthorizationLevel;
+import com.microsoft.azure.management.Azure;
 import com.microsoft.azure.management.applicationinsights.v2015_05_01.ApplicationInsightsComponent;
 import com.microsoft.azure.management.appservice.AppServicePlan;
 import com.microsoft.azure.management.appservice.FunctionApp;
@@ -46,18 +47,22 @@ import com.microsoft.azure.maven.MavenDockerCredentialProvider;
 import com.microsoft.azure.maven.ProjectUtils;
 import com.microsoft.azure.maven.auth.AzureAuthFailureException;
 import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
+import com.microsoft.azure.tools.utils.Poller;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -69,11 +74,15 @@ import static com.microsoft.azure.common.appservice.DeploymentType.RUN_FROM_ZIP;
 /**
  * Deploy artifacts to target Azure Functions in Azure. If target Azure Functions doesn't exist, it will be created.
  */
-@Mojo(name = "deploy", defaultPhase = LifecyclePhase.DEPLOY)
+@Mojo(name = "deploy", defaultPhase = LifecyclePhase.DEPLOY, threadSafe = true)
 public class DeployMojo extends AbstractFunctionMojo {
 
-    private static final int LIST_TRIGGERS_MAX_RETRY = 3;
-    private static final int LIST_TRIGGERS_RETRY_PERIOD_IN_SECONDS = 10;
+    private static final int LIST_TRIGGERS_FAST_POLLS = 3;
+    private static final int LIST_TRIGGERS_FAST_INTERVAL_IN_SECONDS = 2;
+    private static final int LIST_TRIGGERS_MAX_INTERVAL_IN_SECONDS = 10;
+    private static final int LIST_TRIGGERS_TIMEOUT_IN_SECONDS = 60;
+    private static final String LIST_TRIGGERS_POLL_COUNT_KEY = "listTriggersPollCount";
+    private static final String LIST_TRIGGERS_TIME_KEY = "listTriggersTime";
     private static final String DEPLOY_START = "Starting deployment...";
     private static final String DEPLOY_FINISH =
             "Deployment done, you may access your resource through %s";
@@ -118,7 +127,7 @@ public class DeployMojo extends AbstractFunctionMojo {
     private static final String HTTP_TRIGGER = "httpTrigger";
     private static final String NO_TRIGGERS_FOUNDED = "No triggers found in deployed function app, " +
             "please try recompile the project by `mvn clean package` and deploy again.";
-    private static final String SYNCING_TRIGGERS_AND_FETCH_FUNCTION_INFORMATION = "Syncing triggers and fetching function information (Attempt %d/%d)...";
+    private static final String SYNCING_TRIGGERS_AND_FETCH_FUNCTION_INFORMATION = "Syncing triggers and fetching function information (Attempt %d)...";
     private static final String ARTIFACT_INCOMPATIBLE = "Your function app artifact compile version is higher than the java version in function host, " +
             "please downgrade the project compile version and try again.";
     private static final String FUNCTION_APP_NOT_EXISTS = "Cannot find the Function App '%s' when creating deployment slot.";
@@ -132,6 +141,57 @@ public class DeployMojo extends AbstractFunctionMojo {
     private static final String SET_FUNCTIONS_EXTENSION_VERSION = "Functions extension version " +
             "isn't configured, setting up the default value.";
 
+    /**
+     * Number of parallel FTP connections used by FTP deployment, files are uploaded over a single connection when it is 1.
+     *
+     * @since 1.10.0
+     */
+    @Parameter(property = "functions.ftpParallelism", defaultValue = "1")
+    protected int ftpParallelism;
+
+    /**
+     * Upload only new or changed files in FTP deployment, by comparing the staging directory with the remote directory.
+     *
+     * @since 1.10.0
+     */
+    @Parameter(property = "functions.ftpIncrementalSync", defaultValue = "false")
+    protected boolean ftpIncrementalSync;
+
+    /**
+     * Delete remote files which don't exist in the staging directory, only works with {@code <ftpIncrementalSync>}.
+     *
+     * @since 1.10.0
+     */
+    @Parameter(property = "functions.ftpDeleteStaleFiles", defaultValue = "false")
+    protected boolean ftpDeleteStaleFiles;
+
+    /**
+     * Only deploy files changed since the last ZIP deployment from this build directory, the full package is deployed
+     * when there is no record of last deployment.
+     *
+     * @since 1.10.0
+     */
+    @Parameter(property = "functions.zipDeltaDeploy", defaultValue = "false")
+    protected boolean zipDeltaDeploy;
+
+    /**
+     * Deflate the package with all available processors. Entries are spooled to temporary files first, which doubles
+     * the disk I/O, so it is only faster for packages with many large compressible files.
+     *
+     * @since 1.10.0
+     */
+    @Parameter(property = "functions.parallelCompression", defaultValue = "false")
+    protected boolean parallelCompression;
+
+    /**
+     * Skip uploading the package and updating app settings when the content of the package is the same as the deployed one,
+     * only works with zip, run_from_zip and run_from_blob deployment.
+     *
+     * @since 1.10.0
+     */
+    @Parameter(property = "functions.skipUnchangedDeploy", defaultValue = "false")
+    protected boolean skipUnchangedDeploy;
+
     private JavaVersion parsedJavaVersion;
 
     @Override
@@ -181,7 +241,9 @@ public class DeployMojo extends AbstractFunctionMojo {
             final FunctionDeploymentSlot deploymentSlot = FunctionUtils.getFunctionDeploymentSlotByName(app, getDeploymentSlotSetting().getName());
             return deploymentSlot == null ? createDeploymentSlot(app, runtimeHandler) : updateDeploymentSlot(deploymentSlot, runtimeHandler);
         } else {
-            return app == null ? createFunctionApp(runtimeHandler) : updateFunctionApp(app, runtimeHandler);
+            final FunctionApp result = app == null ? createFunctionApp(runtimeHandler) : updateFunctionApp(app, runtimeHandler);
+            cacheFunctionApp(result);
+            return result;
         }
     }
 
@@ -253,7 +315,7 @@ public class DeployMojo extends AbstractFunctionMojo {
             if (anonymousTriggers.size() < httpFunction.size()) {
                 Log.info(UNABLE_TO_LIST_NONE_ANONYMOUS_HTTP_TRIGGERS);
             }
-        } catch (AzureAuthFailureException | InterruptedException e) {
+        } catch (AzureAuthFailureException e) {
             Log.warn(FAILED_TO_LIST_TRIGGERS);
         } catch (AzureExecutionException e) {
             Log.warn(e.getMessage());
@@ -290,6 +352,7 @@ public class DeployMojo extends AbstractFunctionMojo {
                 .functionExtensionVersion(getFunctionExtensionVersion())
                 .javaVersion(parsedJavaVersion)
                 .azure(getAzureClient())
+                .resourceCache(resourceCache)
                 .build();
     }
 
@@ -308,20 +371,23 @@ public class DeployMojo extends AbstractFunctionMojo {
                 builder = new MSDeployArtifactHandlerImpl.Builder().functionAppName(this.getAppName());
                 break;
             case FTP:
-                builder = new FTPArtifactHandlerImpl.Builder();
+                builder = new FTPArtifactHandlerImpl.Builder()
+                        .parallelism(ftpParallelism)
+                        .incrementalSync(ftpIncrementalSync)
+                        .deleteStaleFiles(ftpDeleteStaleFiles);
                 break;
             case ZIP:
-                builder = new ZIPArtifactHandlerImpl.Builder();
+                builder = new ZIPArtifactHandlerImpl.Builder().deltaDeploy(zipDeltaDeploy).skipUnchanged(skipUnchangedDeploy);
                 break;
             case RUN_FROM_BLOB:
-                builder = new RunFromBlobArtifactHandlerImpl.Builder();
+                builder = new RunFromBlobArtifactHandlerImpl.Builder().skipUnchanged(skipUnchangedDeploy);
                 break;
             case DOCKER:
                 builder = new DockerArtifactHandler.Builder();
                 break;
             case EMPTY:
             case RUN_FROM_ZIP:
-                builder = new RunFromZipArtifactHandlerImpl.Builder();
+                builder = new RunFromZipArtifactHandlerImpl.Builder().skipUnchanged(skipUnchangedDeploy);
                 break;
             default:
                 throw new AzureExecutionException(UNKNOWN_DEPLOYMENT_TYPE);
@@ -329,6 +395,7 @@ public class DeployMojo extends AbstractFunctionMojo {
         return builder.project(ProjectUtils.convertCommonProject(this.getProject()))
                 .stagingDirectoryPath(this.getDeploymentStagingDirectoryPath())
                 .buildDirectoryAbsolutePath(this.getBuildDirectoryAbsolutePath())
+                .parallelCompression(parallelCompression)
                 .build();
     }
 
@@ -347,7 +414,7 @@ public class DeployMojo extends AbstractFunctionMojo {
     protected boolean isDedicatedPricingTier() throws AzureExecutionException {
         try {
             final FunctionApp functionApp = getFunctionApp();
-            final AppServicePlan appServicePlan = AppServiceUtils.getAppServicePlanByAppService(functionApp);
+            final AppServicePlan appServicePlan = AppServiceUtils.getAppServicePlanByAppService(functionApp, resourceCache);
             final PricingTier functionPricingTier = appServicePlan.pricingTier();
             return PricingTier.getAll().stream().anyMatch(pricingTier -> pricingTier.equals(functionPricingTier));
         } catch (AzureAuthFailureException e) {
@@ -439,31 +506,36 @@ public class DeployMojo extends AbstractFunctionMojo {
 
     /**
      * Sync triggers and return function list of deployed function app
-     * Will retry when get empty result, the max retry times is LIST_TRIGGERS_MAX_RETRY
+     * Will poll with backoff until get non-empty result or LIST_TRIGGERS_TIMEOUT_IN_SECONDS passes
      * @return List of functions in deployed function app
-     * @throws AzureExecutionException Throw if get empty result after LIST_TRIGGERS_MAX_RETRY times retry
+     * @throws AzureExecutionException Throw if get empty result before timeout
      * @throws AzureAuthFailureException Throw if meet Authentication exception while getting Azure client or Function app
-     * @throws InterruptedException Throw when thread was interrupted while sleeping between retry
      */
-    private List<FunctionResource> listFunctions() throws AzureExecutionException, AzureAuthFailureException, InterruptedException {
+    private List<FunctionResource> listFunctions() throws AzureExecutionException, AzureAuthFailureException {
         final FunctionApp functionApp = getFunctionApp();
-        for (int i = 0; i < LIST_TRIGGERS_MAX_RETRY; i++) {
-            Thread.sleep(LIST_TRIGGERS_RETRY_PERIOD_IN_SECONDS * 1000);
-            Log.info(String.format(SYNCING_TRIGGERS_AND_FETCH_FUNCTION_INFORMATION, i + 1, LIST_TRIGGERS_MAX_RETRY));
-            try {
-                functionApp.syncTriggers();
-                final List<FunctionResource> triggers = getAzureClient().appServices().functionApps()
-                        .listFunctions(getResourceGroup(), getAppName()).stream()
-                        .map(envelope -> FunctionResource.parseFunction(envelope))
-                        .filter(function -> function != null)
-                        .collect(Collectors.toList());
-                if (CollectionUtils.isNotEmpty(triggers)) {
-                    return triggers;
-                }
-            } catch (RuntimeException e) {
-                // swallow service exception while list triggers
-                continue;
-            }
+        final Azure azure = getAzureClient();
+        final AtomicInteger attempt = new AtomicInteger();
+        final List<FunctionResource> triggers = new Poller.Builder<List<FunctionResource>>()
+                .name("function triggers")
+                .fastPhase(Duration.ofSeconds(LIST_TRIGGERS_FAST_INTERVAL_IN_SECONDS), LIST_TRIGGERS_FAST_POLLS)
+                .maxInterval(Duration.ofSeconds(LIST_TRIGGERS_MAX_INTERVAL_IN_SECONDS))
+                .timeout(Duration.ofSeconds(LIST_TRIGGERS_TIMEOUT_IN_SECONDS))
+                .listener(statistics -> {
+                    getTelemetryProxy().addDefaultProperty(LIST_TRIGGERS_POLL_COUNT_KEY, String.valueOf(statistics.getPollCount()));
+                    getTelemetryProxy().addDefaultProperty(LIST_TRIGGERS_TIME_KEY, String.valueOf(statistics.getElapsedInMillis()));
+                })
+                .build()
+                .pollUntil(() -> {
+                    Log.info(String.format(SYNCING_TRIGGERS_AND_FETCH_FUNCTION_INFORMATION, attempt.incrementAndGet()));
+                    // service exceptions while syncing or listing triggers are swallowed by the poller, which polls again
+                    functionApp.syncTriggers();
+                    return azure.appServices().functionApps().listFunctions(getResourceGroup(), getAppName()).stream()
+                            .map(envelope -> FunctionResource.parseFunction(envelope))
+                            .filter(function -> function != null)
+                            .collect(Collectors.toList());
+                }, CollectionUtils::isNotEmpty);
+        if (CollectionUtils.isNotEmpty(triggers)) {
+            return triggers;
         }
         throw new AzureExecutionException(NO_TRIGGERS_FOUNDED);
     }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven.function;
+
+import com.microsoft.azure.common.logging.Log;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fingerprints of the inputs of every step of the last successful package, saved in the build directory. A step whose
+ * inputs have the same fingerprint in the next build can be skipped.
+ */
+public class PackageManifest {
+    private static final String LIST_SEPARATOR = ",";
+
+    private final Properties properties = new Properties();
+
+    public static PackageManifest load(final File manifestFile) {
+        final PackageManifest result = new PackageManifest();
+        if (!manifestFile.isFile()) {
+            return result;
+        }
+        try (final InputStream input = new FileInputStream(manifestFile)) {
+            result.properties.load(input);
+        } catch (IOException | IllegalArgumentException e) {
+            Log.debug(e);
+            result.properties.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Forget the last package, so an interrupted package will be followed by a full one.
+     */
+    public static void delete(final File manifestFile) {
+        if (manifestFile.exists() && !manifestFile.delete()) {
+            Log.debug(String.format("Failed to delete %s", manifestFile.getAbsolutePath()));
+        }
+    }
+
+    public void save(final File manifestFile) {
+        try {
+            manifestFile.getParentFile().mkdirs();
+            try (final OutputStream output = new FileOutputStream(manifestFile)) {
+                properties.store(output, "Azure Functions package manifest");
+            }
+        } catch (IOException e) {
+            // catch exceptions here to avoid blocking mojo execution, next package will be a full one.
+            Log.debug(e);
+        }
+    }
+
+    public String get(final String key) {
+        return properties.getProperty(key);
+    }
+
+    public void put(final String key, final String value) {
+        if (value == null) {
+            properties.remove(key);
+        } else {
+            properties.setProperty(key, value);
+        }
+    }
+
+    public List<String> getList(final String key) {
+        final String value = get(key);
+        return StringUtils.isEmpty(value) ? Collections.emptyList() : Arrays.asList(value.split(LIST_SEPARATOR));
+    }
+
+    public void putList(final String key, final Collection<String> values) {
+        put(key, values.stream().sorted().collect(Collectors.joining(LIST_SEPARATOR)));
+    }
+
+    /**
+     * @return whether the value of the key was recorded and equals to the fingerprint
+     */
+    public boolean isUpToDate(final String key, final String fingerprint) {
+        return fingerprint != null && StringUtils.equals(get(key), fingerprint);
+    }
+
+    /**
+     * @return SHA-256 hash of the content of the files under the directory whose name ends with the suffix, it changes
+     * with the content or the relative path of any of them
+     */
+    public static String hashContent(final File directory, final String suffix) throws IOException {
+        final StringBuilder result = new StringBuilder();
+        if (directory != null && directory.isDirectory()) {
+            final Path root = directory.toPath();
+            for (final Path file : listFiles(root, suffix)) {
+                try (final InputStream input = Files.newInputStream(file)) {
+                    result.append(root.relativize(file)).append('=').append(DigestUtils.sha256Hex(input)).append('\n');
+                }
+            }
+        }
+        return DigestUtils.sha256Hex(result.toString());
+    }
+
+    /**
+     * @return SHA-256 hash of the path, size and last modified time of the files (or the files under the directories),
+     * much cheaper than hashing the content of large files e.g. dependency jars
+     */
+    public static String hashMetadata(final Collection<File> files) throws IOException {
+        final StringBuilder result = new StringBuilder();
+        for (final File file : files) {
+            final List<Path> paths = file.isDirectory() ? listFiles(file.toPath(), "") : Collections.singletonList(file.toPath());
+            for (final Path path : paths) {
+                final File item = path.toFile();
+                result.append(item.getAbsolutePath()).append('|').append(item.length()).append('|')
+                        .append(item.lastModified()).append('\n');
+            }
+        }
+        return DigestUtils.sha256Hex(result.toString());
+    }
+
+    private static List<Path> listFiles(final Path root, final String suffix) throws IOException {
+        try (final Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
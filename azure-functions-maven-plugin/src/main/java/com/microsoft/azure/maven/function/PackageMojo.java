@@ -26,6 +26,7 @@ import com.microsoft.azure.common.function.handlers.CommandHandlerImpl;
 import com.microsoft.azure.common.function.handlers.FunctionCoreToolsHandler;
 import com.microsoft.azure.common.function.handlers.FunctionCoreToolsHandlerImpl;
 import com.microsoft.azure.common.logging.Log;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.input.BOMInputStream;
@@ -35,6 +36,7 @@ import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.filtering.MavenFilteringException;
@@ -48,6 +50,7 @@ import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -56,6 +59,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Generate configuration files (host.json, function.json etc.) and copy JARs to staging directory.
@@ -93,53 +97,193 @@ public class PackageMojo extends AbstractFunctionMojo {
     private static final String EXTENSION_BUNDLE_ID = "Microsoft.Azure.Functions.ExtensionBundle";
     private static final String SKIP_INSTALL_EXTENSIONS_BUNDLE = "Extension bundle specified, skip install extension";
     private static final String CAN_NOT_FIND_ARTIFACT = "Cannot find the maven artifact, please run `mvn package` first.";
+    private static final String LIST_SEPARATOR = ",";
+    private static final String SKIP_UNCHANGED_FUNCTIONS = "Classes and dependencies are unchanged since the last build, " +
+            "skip searching for functions and saving function.json.";
+    private static final String SKIP_UNCHANGED = "Inputs are unchanged since the last build, skip.";
+    private static final String FUNCTION_JSON_UNCHANGED = "Configuration is unchanged, skip saving function: ";
+    private static final String PACKAGE_MANIFEST = "azure-functions-package.manifest";
+    private static final String FUNCTIONS_KEY = "functions";
+    private static final String FUNCTION_NAMES_KEY = "functions.names";
+    private static final String BINDINGS_KEY = "functions.bindings";
+    private static final String HOST_JSON_KEY = "hostJson";
+    private static final String JARS_KEY = "jars";
+    private static final String EXTENSIONS_KEY = "extensions";
+    private static final String EXTENSIONS_INSTALLED_KEY = "extensions.installed";
+    private static final String EXTENSIONS_DIRECTORY = "bin";
+
+    /**
+     * Skip the steps whose inputs (classes, dependencies, host.json, jars) are unchanged since the last package of the
+     * build directory, and only rewrite the function.json files whose configuration changes. Disabled by default, so
+     * every package is a full one unless it is enabled with -Dfunctions.incremental=true.
+     */
+    @Parameter(property = "functions.incremental", defaultValue = "false")
+    protected boolean incremental;
+
+    /**
+     * Timeout in seconds of each command run to install function extensions, e.g. `func extensions install`,
+     * a non-positive value waits until the command exits.
+     */
+    @Parameter(property = "functions.extensionInstallTimeout", defaultValue = "600")
+    protected int extensionInstallTimeout;
+
     //region Entry Point
 
     @Override
     protected void doExecute() throws AzureExecutionException {
         promptCompileInfo();
 
-        final AnnotationHandler annotationHandler = getAnnotationHandler();
+        final File manifestFile = new File(getBuildDirectoryAbsolutePath(), PACKAGE_MANIFEST);
+        final PackageManifest previous = incremental ? PackageManifest.load(manifestFile) : new PackageManifest();
+        final PackageManifest current = new PackageManifest();
+        // forget the last package first, so a failed package will be followed by a full one
+        PackageManifest.delete(manifestFile);
 
-        Set<Method> methods = null;
         try {
-            methods = findAnnotatedMethods(annotationHandler);
-        } catch (MalformedURLException e) {
-            throw new AzureExecutionException("Invalid URL when resolving class path:" + e.getMessage(), e);
+            current.put(FUNCTIONS_KEY, incremental ? getFunctionsFingerprint() : null);
+            current.put(HOST_JSON_KEY, incremental ? getHostJsonFingerprint() : null);
+            current.put(JARS_KEY, incremental ? getJarsFingerprint() : null);
+        } catch (IOException e) {
+            throw new AzureExecutionException("Cannot perform IO operations due to error:" + e.getMessage(), e);
         }
 
-        if (methods.size() == 0) {
-            Log.info(NO_FUNCTIONS);
-            return;
-        }
+        Map<String, FunctionConfiguration> configMap = null;
+        final Set<BindingEnum> bindingClasses;
+        if (isFunctionsUpToDate(previous, current.get(FUNCTIONS_KEY))) {
+            Log.info(SKIP_UNCHANGED_FUNCTIONS);
+            current.put(FUNCTION_NAMES_KEY, previous.get(FUNCTION_NAMES_KEY));
+            bindingClasses = previous.getList(BINDINGS_KEY).stream().map(BindingEnum::valueOf).collect(Collectors.toSet());
+        } else {
+            final AnnotationHandler annotationHandler = getAnnotationHandler();
+
+            Set<Method> methods = null;
+            try {
+                methods = findAnnotatedMethods(annotationHandler);
+            } catch (MalformedURLException e) {
+                throw new AzureExecutionException("Invalid URL when resolving class path:" + e.getMessage(), e);
+            }
+
+            if (methods.size() == 0) {
+                Log.info(NO_FUNCTIONS);
+                return;
+            }
 
-        final Map<String, FunctionConfiguration> configMap = getFunctionConfigurations(annotationHandler, methods);
+            configMap = getFunctionConfigurations(annotationHandler, methods);
 
-        validateFunctionConfigurations(configMap);
+            validateFunctionConfigurations(configMap);
+
+            bindingClasses = this.getFunctionBindingEnums(configMap);
+            current.putList(FUNCTION_NAMES_KEY, configMap.keySet());
+        }
+        current.putList(BINDINGS_KEY, bindingClasses.stream().map(BindingEnum::name).collect(Collectors.toList()));
 
         final ObjectWriter objectWriter = getObjectWriter();
 
         try {
-            copyHostJsonFile(objectWriter);
+            if (previous.isUpToDate(HOST_JSON_KEY, current.get(HOST_JSON_KEY)) &&
+                    Paths.get(getDeploymentStagingDirectoryPath(), HOST_JSON).toFile().exists()) {
+                Log.info("");
+                Log.info(SAVE_HOST_JSON);
+                Log.info(SKIP_UNCHANGED);
+            } else {
+                copyHostJsonFile(objectWriter);
+            }
 
-            writeFunctionJsonFiles(objectWriter, configMap);
+            if (configMap != null) {
+                writeFunctionJsonFiles(objectWriter, configMap);
+            }
 
-            copyJarsToStageDirectory();
+            if (isJarsUpToDate(previous, current.get(JARS_KEY))) {
+                Log.info("");
+                Log.info(COPY_JARS + getDeploymentStagingDirectoryPath());
+                Log.info(SKIP_UNCHANGED);
+            } else {
+                copyJarsToStageDirectory();
+            }
         } catch (IOException e) {
             throw new AzureExecutionException("Cannot perform IO operations due to error:" + e.getMessage(), e);
         }
 
-        final CommandHandler commandHandler = new CommandHandlerImpl();
-        final FunctionCoreToolsHandler functionCoreToolsHandler = getFunctionCoreToolsHandler(commandHandler);
-        final Set<BindingEnum> bindingClasses = this.getFunctionBindingEnums(configMap);
+        // installed extensions depend on the bindings in use and the extension bundle in host.json
+        current.put(EXTENSIONS_KEY, current.get(HOST_JSON_KEY) == null ? null : String.join(LIST_SEPARATOR,
+                current.get(HOST_JSON_KEY), current.get(BINDINGS_KEY), getDeploymentStagingDirectoryPath()));
+        if (isExtensionsUpToDate(previous, current.get(EXTENSIONS_KEY))) {
+            Log.info(INSTALL_EXTENSIONS);
+            Log.info(SKIP_UNCHANGED);
+            current.put(EXTENSIONS_INSTALLED_KEY, previous.get(EXTENSIONS_INSTALLED_KEY));
+        } else {
+            final CommandHandler commandHandler = new CommandHandlerImpl(getExtensionInstallTimeout());
+            final FunctionCoreToolsHandler functionCoreToolsHandler = getFunctionCoreToolsHandler(commandHandler);
 
-        installExtension(functionCoreToolsHandler, bindingClasses);
+            final boolean installed = installExtension(functionCoreToolsHandler, bindingClasses);
+            current.put(EXTENSIONS_INSTALLED_KEY, String.valueOf(installed));
+        }
 
+        if (incremental) {
+            current.save(manifestFile);
+        }
         Log.info(BUILD_SUCCESS);
     }
 
     //endregion
 
+    protected Duration getExtensionInstallTimeout() {
+        return extensionInstallTimeout > 0 ? Duration.ofSeconds(extensionInstallTimeout) : null;
+    }
+
+    //region Fingerprint inputs of incremental package
+
+    /**
+     * @return fingerprint of everything the function configurations are generated from
+     */
+    protected String getFunctionsFingerprint() throws IOException {
+        final List<File> dependencies = getRuntimeClasspathElements().stream()
+                .map(File::new)
+                .filter(file -> !file.equals(outputDirectory))
+                .collect(Collectors.toList());
+        return DigestUtils.sha256Hex(String.join(LIST_SEPARATOR,
+                PackageManifest.hashContent(outputDirectory, ".class"),
+                PackageManifest.hashMetadata(dependencies),
+                getScriptFilePath(),
+                StringUtils.defaultString(getPluginVersion())));
+    }
+
+    protected String getHostJsonFingerprint() throws IOException {
+        final File hostJson = new File(project.getBasedir(), HOST_JSON);
+        return hostJson.exists() ? DigestUtils.sha256Hex(FileUtils.readFileToByteArray(hostJson)) : "none";
+    }
+
+    protected String getJarsFingerprint() throws IOException {
+        return DigestUtils.sha256Hex(String.join(LIST_SEPARATOR,
+                PackageManifest.hashMetadata(getJars()),
+                getDeploymentStagingDirectoryPath()));
+    }
+
+    protected boolean isJarsUpToDate(final PackageManifest previous, final String fingerprint) {
+        // the copied jars may be deleted from the staging directory, e.g. by a clean staging
+        return previous.isUpToDate(JARS_KEY, fingerprint) && getJars().stream()
+                .allMatch(jar -> Paths.get(getDeploymentStagingDirectoryPath(), jar.getName()).toFile().exists());
+    }
+
+    protected boolean isExtensionsUpToDate(final PackageManifest previous, final String fingerprint) {
+        return previous.isUpToDate(EXTENSIONS_KEY, fingerprint) && (!Boolean.parseBoolean(previous.get(EXTENSIONS_INSTALLED_KEY)) ||
+                Paths.get(getDeploymentStagingDirectoryPath(), EXTENSIONS_DIRECTORY).toFile().isDirectory());
+    }
+
+    private List<File> getJars() {
+        final File[] jars = new File(getBuildDirectoryAbsolutePath()).listFiles((dir, name) -> name.endsWith(".jar"));
+        return jars == null ? Collections.emptyList() : Arrays.stream(jars).sorted().collect(Collectors.toList());
+    }
+
+    protected boolean isFunctionsUpToDate(final PackageManifest previous, final String fingerprint) {
+        final List<String> functionNames = previous.getList(FUNCTION_NAMES_KEY);
+        // function.json files may be deleted from the staging directory, e.g. by azure-functions:deploy with a clean staging
+        return previous.isUpToDate(FUNCTIONS_KEY, fingerprint) && !functionNames.isEmpty() && functionNames.stream()
+                .allMatch(name -> Paths.get(getDeploymentStagingDirectoryPath(), name, FUNCTION_JSON).toFile().exists());
+    }
+
+    //endregion
+
     //region Process annotations
 
     protected AnnotationHandler getAnnotationHandler() {
@@ -177,13 +321,7 @@ public class PackageMojo extends AbstractFunctionMojo {
      */
     protected List<URL> getDependencyArtifactUrls() {
         final List<URL> urlList = new ArrayList<>();
-        final List<String> runtimeClasspathElements = new ArrayList<>();
-        try {
-            runtimeClasspathElements.addAll(this.getProject().getRuntimeClasspathElements());
-        } catch (DependencyResolutionRequiredException e) {
-            Log.debug("Failed to resolve dependencies for compile scope, exception: " + e.getMessage());
-        }
-        for (final String element : runtimeClasspathElements) {
+        for (final String element : getRuntimeClasspathElements()) {
             final File f = new File(element);
             try {
                 urlList.add(f.toURI().toURL());
@@ -194,6 +332,16 @@ public class PackageMojo extends AbstractFunctionMojo {
         return urlList;
     }
 
+    private List<String> getRuntimeClasspathElements() {
+        final List<String> runtimeClasspathElements = new ArrayList<>();
+        try {
+            runtimeClasspathElements.addAll(this.getProject().getRuntimeClasspathElements());
+        } catch (DependencyResolutionRequiredException e) {
+            Log.debug("Failed to resolve dependencies for compile scope, exception: " + e.getMessage());
+        }
+        return runtimeClasspathElements;
+    }
+
     //endregion
 
     //region Generate function configurations
@@ -260,6 +408,11 @@ public class PackageMojo extends AbstractFunctionMojo {
         Log.info(SAVE_FUNCTION_JSON + functionName);
         final File functionJsonFile = Paths.get(getDeploymentStagingDirectoryPath(),
                 functionName, FUNCTION_JSON).toFile();
+        if (incremental && functionJsonFile.exists() &&
+                Arrays.equals(objectWriter.writeValueAsBytes(config), FileUtils.readFileToByteArray(functionJsonFile))) {
+            Log.info(FUNCTION_JSON_UNCHANGED + functionName);
+            return;
+        }
         writeObjectToFile(objectWriter, config, functionJsonFile);
         Log.info(SAVE_SUCCESS + functionJsonFile.getAbsolutePath());
     }
@@ -328,15 +481,19 @@ public class PackageMojo extends AbstractFunctionMojo {
         return new FunctionCoreToolsHandlerImpl(commandHandler);
     }
 
-    protected void installExtension(final FunctionCoreToolsHandler handler,
-                                    Set<BindingEnum> bindingEnums) throws AzureExecutionException {
+    /**
+     * @return whether the extensions are installed to the staging directory, false if they are not needed
+     */
+    protected boolean installExtension(final FunctionCoreToolsHandler handler,
+                                       Set<BindingEnum> bindingEnums) throws AzureExecutionException {
         Log.info(INSTALL_EXTENSIONS);
         if (!isInstallingExtensionNeeded(bindingEnums)) {
-            return;
+            return false;
         }
         handler.installExtension(new File(this.getDeploymentStagingDirectoryPath()),
                 project.getBasedir());
         Log.info(INSTALL_EXTENSIONS_FINISH);
+        return true;
     }
 
     protected Set<BindingEnum> getFunctionBindingEnums(Map<String, FunctionConfiguration> configMap) {
@@ -8,6 +8,7 @@ package com.microsoft.azure.maven.function;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.function.handlers.CommandHandler;
 import com.microsoft.azure.common.function.handlers.CommandHandlerImpl;
+import com.microsoft.azure.common.function.handlers.FunctionCoreToolsHandlerImpl;
 import com.microsoft.azure.common.function.utils.CommandUtils;
 import com.microsoft.azure.common.logging.Log;
 
@@ -38,7 +39,6 @@ public class RunMojo extends AbstractFunctionMojo {
     private static final ComparableVersion FUNC_3 = new ComparableVersion("3");
     private static final ComparableVersion MINIMUM_JAVA_9_SUPPORTED_VERSION = new ComparableVersion("3.0.2630");
     private static final ComparableVersion MINIMUM_JAVA_9_SUPPORTED_VERSION_V2 = new ComparableVersion("2.7.2628");
-    private static final String FUNC_VERSION_CMD = "func -v";
     private static final String FUNCTION_CORE_TOOLS_OUT_OF_DATE = "Local function core tools didn't support java 9 or higher runtime, " +
             "to update it, see: https://aka.ms/azfunc-install.";
 
@@ -66,7 +66,8 @@ public class RunMojo extends AbstractFunctionMojo {
 
     @Override
     protected void doExecute() throws AzureExecutionException {
-        final CommandHandler commandHandler = new CommandHandlerImpl();
+        // no timeout, the functions host runs until it is stopped by the user
+        final CommandHandler commandHandler = new CommandHandlerImpl(null);
 
         checkStageDirectoryExistence();
 
@@ -114,7 +115,12 @@ public class RunMojo extends AbstractFunctionMojo {
             // No need to check within java 8 or lower
             return;
         }
-        final ComparableVersion funcVersion = new ComparableVersion(handler.runCommandAndGetOutput(FUNC_VERSION_CMD, false, null));
+        // version of the func binary is cached across builds, it is probed again only when core tools changes
+        final String localVersion = new FunctionCoreToolsHandlerImpl(handler).getLocalFunctionCoreToolsVersion();
+        if (localVersion == null) {
+            return;
+        }
+        final ComparableVersion funcVersion = new ComparableVersion(localVersion);
         final ComparableVersion minimumVersion = funcVersion.compareTo(FUNC_3) >= 0 ? MINIMUM_JAVA_9_SUPPORTED_VERSION :
                 MINIMUM_JAVA_9_SUPPORTED_VERSION_V2;
         if (funcVersion.compareTo(minimumVersion) < 0) {
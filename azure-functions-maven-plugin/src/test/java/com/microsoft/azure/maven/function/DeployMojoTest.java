@@ -17,6 +17,7 @@ import com.microsoft.azure.common.function.utils.FunctionUtils;
 import com.microsoft.azure.common.handlers.ArtifactHandler;
 import com.microsoft.azure.common.handlers.artifact.FTPArtifactHandlerImpl;
 import com.microsoft.azure.common.handlers.artifact.ZIPArtifactHandlerImpl;
+import com.microsoft.azure.management.Azure;
 import com.microsoft.azure.management.appservice.FunctionApp;
 import com.microsoft.azure.management.appservice.FunctionApp.DefinitionStages.WithCreate;
 import com.microsoft.azure.management.appservice.FunctionApp.Update;
@@ -40,6 +41,7 @@ import static com.microsoft.azure.common.appservice.OperatingSystemEnum.Linux;
 import static com.microsoft.azure.common.appservice.OperatingSystemEnum.Windows;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
@@ -47,11 +49,13 @@ import static org.mockito.ArgumentMatchers.refEq;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({FunctionUtils.class})
@@ -111,6 +115,22 @@ public class DeployMojoTest extends MojoTestBase {
         verify(mojoSpy).createFunctionApp(any());
     }
 
+    @Test
+    public void getFunctionAppFromCache() throws Exception {
+        final Azure azure = mock(Azure.class, RETURNS_DEEP_STUBS);
+        final FunctionApp app = mock(FunctionApp.class);
+        when(azure.appServices().functionApps().getByResourceGroup("resourceGroupName", "appName")).thenReturn(app);
+        doReturn(azure).when(mojoSpy).getAzureClient();
+
+        assertSame(app, mojoSpy.getFunctionApp());
+        assertSame(app, mojoSpy.getFunctionApp());
+        verify(azure.appServices().functionApps(), times(1)).getByResourceGroup("resourceGroupName", "appName");
+
+        final FunctionApp updated = mock(FunctionApp.class);
+        mojoSpy.cacheFunctionApp(updated);
+        assertSame(updated, mojoSpy.getFunctionApp());
+    }
+
     @Test
     public void updateFunctionApp() throws Exception {
         final FunctionApp app = mock(FunctionApp.class);
@@ -5,35 +5,52 @@
 
 package com.microsoft.azure.maven.function;
 
+import com.microsoft.azure.common.function.configurations.FunctionConfiguration;
 import com.microsoft.azure.common.function.handlers.AnnotationHandler;
 import com.microsoft.azure.common.function.handlers.AnnotationHandlerImpl;
+import com.microsoft.azure.common.function.handlers.FunctionCoreToolsHandler;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.filtering.MavenResourcesFiltering;
 import org.codehaus.plexus.util.ReflectionUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.File;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNotNull;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PackageMojoTest extends MojoTestBase {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void doExecute() throws Exception {
         final PackageMojo mojo = getMojoFromPom();
@@ -53,6 +70,89 @@ public class PackageMojoTest extends MojoTestBase {
         mojoSpy.doExecute();
     }
 
+    @Test
+    public void doExecuteIncrementally() throws Exception {
+        final File buildDirectory = folder.newFolder("target");
+        final File classFile = new File(buildDirectory, "classes/com/example/Function.class");
+        FileUtils.write(classFile, "class v1", StandardCharsets.UTF_8);
+        final File stagingDirectory = new File(buildDirectory, "azure-functions");
+        final Map<String, FunctionConfiguration> configMap = Collections.singletonMap("httpTrigger", new FunctionConfiguration());
+        final MavenProject project = mock(MavenProject.class);
+        doReturn(folder.getRoot()).when(project).getBasedir();
+
+        final PackageMojo mojoSpy = spy(getMojoFromPom());
+        ReflectionUtils.setVariableValueInObject(mojoSpy, "incremental", true);
+        ReflectionUtils.setVariableValueInObject(mojoSpy, "finalName", "artifact-0.1.0");
+        ReflectionUtils.setVariableValueInObject(mojoSpy, "outputDirectory", new File(buildDirectory, "classes"));
+        ReflectionUtils.setVariableValueInObject(mojoSpy, "project", project);
+        doReturn(Collections.singleton(this.getClass().getMethods()[0])).when(mojoSpy).findAnnotatedMethods(any());
+        doReturn(configMap).when(mojoSpy).getFunctionConfigurations(any(), any());
+        doNothing().when(mojoSpy).validateFunctionConfigurations(any());
+        doReturn(stagingDirectory.getAbsolutePath()).when(mojoSpy).getDeploymentStagingDirectoryPath();
+        doReturn(buildDirectory.getAbsolutePath()).when(mojoSpy).getBuildDirectoryAbsolutePath();
+        doReturn("1.0.0").when(mojoSpy).getPluginVersion();
+        doReturn(false).when(mojoSpy).isInstallingExtensionNeeded(any());
+        doNothing().when(mojoSpy).copyJarsToStageDirectory();
+        doNothing().when(mojoSpy).promptCompileInfo();
+
+        mojoSpy.doExecute();
+        mojoSpy.doExecute();
+        verify(mojoSpy, times(1)).findAnnotatedMethods(any());
+        verify(mojoSpy, times(1)).copyHostJsonFile(any());
+        verify(mojoSpy, times(1)).copyJarsToStageDirectory();
+        verify(mojoSpy, times(1)).installExtension(any(), any());
+
+        // a changed class leads to a new search, but the unchanged function.json is not rewritten
+        FileUtils.write(classFile, "class v2", StandardCharsets.UTF_8);
+        mojoSpy.doExecute();
+        verify(mojoSpy, times(2)).findAnnotatedMethods(any());
+        verify(mojoSpy, times(1)).writeObjectToFile(any(), any(FunctionConfiguration.class), any());
+    }
+
+    @Test
+    public void doExecuteIncrementallyWithCleanedStagingDirectory() throws Exception {
+        final File buildDirectory = folder.newFolder("target");
+        FileUtils.write(new File(buildDirectory, "classes/com/example/Function.class"), "class v1", StandardCharsets.UTF_8);
+        FileUtils.write(new File(buildDirectory, "artifact-0.1.0.jar"), "jar", StandardCharsets.UTF_8);
+        final File stagingDirectory = new File(buildDirectory, "azure-functions");
+        final Map<String, FunctionConfiguration> configMap = Collections.singletonMap("queueTrigger", new FunctionConfiguration());
+        final MavenProject project = mock(MavenProject.class);
+        doReturn(folder.getRoot()).when(project).getBasedir();
+        final FunctionCoreToolsHandler coreToolsHandler = mock(FunctionCoreToolsHandler.class);
+        doAnswer(invocation -> new File(stagingDirectory, "bin").mkdirs()).when(coreToolsHandler).installExtension(any(), any());
+
+        final PackageMojo mojoSpy = spy(getMojoFromPom());
+        ReflectionUtils.setVariableValueInObject(mojoSpy, "incremental", true);
+        ReflectionUtils.setVariableValueInObject(mojoSpy, "finalName", "artifact-0.1.0");
+        ReflectionUtils.setVariableValueInObject(mojoSpy, "outputDirectory", new File(buildDirectory, "classes"));
+        ReflectionUtils.setVariableValueInObject(mojoSpy, "project", project);
+        doReturn(Collections.singleton(this.getClass().getMethods()[0])).when(mojoSpy).findAnnotatedMethods(any());
+        doReturn(configMap).when(mojoSpy).getFunctionConfigurations(any(), any());
+        doNothing().when(mojoSpy).validateFunctionConfigurations(any());
+        doReturn(stagingDirectory.getAbsolutePath()).when(mojoSpy).getDeploymentStagingDirectoryPath();
+        doReturn(buildDirectory.getAbsolutePath()).when(mojoSpy).getBuildDirectoryAbsolutePath();
+        doReturn("1.0.0").when(mojoSpy).getPluginVersion();
+        doReturn(true).when(mojoSpy).isInstallingExtensionNeeded(any());
+        doReturn(coreToolsHandler).when(mojoSpy).getFunctionCoreToolsHandler(any());
+        doAnswer(invocation -> {
+            FileUtils.copyFileToDirectory(new File(buildDirectory, "artifact-0.1.0.jar"), stagingDirectory);
+            return null;
+        }).when(mojoSpy).copyJarsToStageDirectory();
+        doNothing().when(mojoSpy).promptCompileInfo();
+
+        mojoSpy.doExecute();
+        mojoSpy.doExecute();
+        verify(mojoSpy, times(1)).copyJarsToStageDirectory();
+        verify(coreToolsHandler, times(1)).installExtension(any(), any());
+
+        // the jar and the extensions are copied and installed again once they are deleted from the staging directory
+        FileUtils.deleteDirectory(stagingDirectory);
+        mojoSpy.doExecute();
+        verify(mojoSpy, times(2)).copyJarsToStageDirectory();
+        verify(coreToolsHandler, times(2)).installExtension(any(), any());
+        assertTrue(new File(stagingDirectory, "artifact-0.1.0.jar").exists());
+    }
+
     @Test
     public void getAnnotationHandler() throws Exception {
         final PackageMojo mojo = getMojoFromPom();
@@ -62,6 +162,16 @@ public class PackageMojoTest extends MojoTestBase {
         assertTrue(handler instanceof AnnotationHandlerImpl);
     }
 
+    @Test
+    public void getExtensionInstallTimeout() throws Exception {
+        final PackageMojo mojo = getMojoFromPom();
+        ReflectionUtils.setVariableValueInObject(mojo, "extensionInstallTimeout", 600);
+        assertEquals(Duration.ofSeconds(600), mojo.getExtensionInstallTimeout());
+
+        ReflectionUtils.setVariableValueInObject(mojo, "extensionInstallTimeout", 0);
+        assertNull(mojo.getExtensionInstallTimeout());
+    }
+
     @Test
     public void getScriptFilePath() throws Exception {
         final PackageMojo mojo = getMojoFromPom();
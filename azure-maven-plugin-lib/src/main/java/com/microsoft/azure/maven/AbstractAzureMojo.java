@@ -10,8 +10,9 @@ import com.microsoft.azure.AzureEnvironment;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.logging.Log;
-import com.microsoft.azure.common.utils.GetHashMac;
+import com.microsoft.azure.common.utils.InstallationIdUtils;
 import com.microsoft.azure.toolkit.lib.common.utils.TextUtils;
+import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemeter;
 import com.microsoft.azure.management.Azure;
 import com.microsoft.azure.management.resources.Subscription;
 import com.microsoft.azure.maven.auth.AuthConfiguration;
@@ -27,9 +28,10 @@ import com.microsoft.azure.maven.telemetry.TelemetryProxy;
 import com.microsoft.azure.maven.utils.CustomTextIoStringListReader;
 import com.microsoft.azure.maven.auth.MavenAuthManager;
 import com.microsoft.azure.maven.utils.MavenUtils;
-import com.microsoft.azure.maven.utils.ProxyUtils;
 import com.microsoft.azure.maven.utils.SystemPropertyUtils;
 import com.microsoft.azure.toolkit.lib.auth.util.AzureEnvironmentUtils;
+import com.microsoft.azure.toolkit.lib.auth.cache.AzureLoginCache;
+import com.microsoft.azure.toolkit.lib.auth.cache.CachedTokenCredential;
 import com.microsoft.azure.toolkit.lib.auth.exception.AzureLoginException;
 import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
@@ -67,6 +69,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -86,6 +89,8 @@ public abstract class AbstractAzureMojo extends AbstractMojo implements Telemetr
     private static final String AZURE_INIT_FAIL = "Failed to authenticate with Azure. Please check your configuration.";
     private static final String FAILURE_REASON = "failureReason";
     private static final String JVM_UP_TIME = "jvmUpTime";
+    private static final long TELEMETRY_DRAIN_TIMEOUT_IN_MILLIS = 2 * 1000;
+    private static final String AZURE_CLIENT_KEY = "azure";
     private static final String CONFIGURATION_PATH = Paths.get(System.getProperty("user.home"),
             ".azure", "mavenplugins.properties").toString();
     private static final String FIRST_RUN_KEY = "first.run";
@@ -205,7 +210,7 @@ public abstract class AbstractAzureMojo extends AbstractMojo implements Telemetr
 
     private String sessionId = UUID.randomUUID().toString();
 
-    private String installationId = GetHashMac.getHashMac();
+    private String installationId = InstallationIdUtils.getInstallationId();
 
     //endregion
 
@@ -334,12 +339,32 @@ public abstract class AbstractAzureMojo extends AbstractMojo implements Telemetr
     }
 
     protected Azure getOrCreateAzureClient() throws AzureAuthFailureException, AzureExecutionException {
-        try {
-            final MavenAuthConfiguration mavenAuthConfiguration = auth == null ? new MavenAuthConfiguration() : auth;
-            mavenAuthConfiguration.setType(getAuthType());
+        final MavenAuthConfiguration mavenAuthConfiguration = auth == null ? new MavenAuthConfiguration() : auth;
+        mavenAuthConfiguration.setType(getAuthType());
+        SystemPropertyUtils.injectCommandLineParameter("auth", mavenAuthConfiguration, MavenAuthConfiguration.class);
+
+        // modules of a reactor build with the same auth configuration and subscription share one authenticated client
+        final String key = String.join("|", AZURE_CLIENT_KEY, AzureSessionRegistry.getAuthKey(mavenAuthConfiguration), subscriptionId);
+        final AzureSessionRegistry registry = AzureSessionRegistry.forSession(session);
+        AuthenticatedAzure authenticated;
+        synchronized (registry) {
+            authenticated = registry.get(key);
+            if (authenticated == null) {
+                authenticated = createAzureClient(mavenAuthConfiguration);
+                if (authenticated == null) {
+                    return null;
+                }
+                registry.put(key, authenticated);
+            }
+        }
+        azureCredentialWrapper = AzureSessionRegistry.copyOf(authenticated.credential);
+        return authenticated.azure;
+    }
 
-            SystemPropertyUtils.injectCommandLineParameter("auth", mavenAuthConfiguration, MavenAuthConfiguration.class);
-            azureCredentialWrapper = MavenAuthManager.getInstance().login(session, settingsDecrypter, mavenAuthConfiguration);
+    private AuthenticatedAzure createAzureClient(MavenAuthConfiguration mavenAuthConfiguration)
+            throws AzureAuthFailureException, AzureExecutionException {
+        try {
+            azureCredentialWrapper = new MavenAuthManager().login(session, settingsDecrypter, mavenAuthConfiguration);
 
             if (Objects.isNull(azureCredentialWrapper)) {
                 return null;
@@ -351,13 +376,26 @@ public abstract class AbstractAzureMojo extends AbstractMojo implements Telemetr
                 Log.prompt(String.format(USING_AZURE_ENVIRONMENT, TextUtils.cyan(environmentName)));
             }
             Log.info(azureCredentialWrapper.getCredentialDescription());
-            final PagedList<Subscription> subscriptions = Azure.configure()
-                    .authenticate(azureCredentialWrapper.getAzureTokenCredentials()).subscriptions().list();
-            subscriptions.loadAll();
-            final String targetSubscriptionId = getTargetSubscriptionId(getSubscriptionId(), subscriptions);
-            checkSubscription(subscriptions, targetSubscriptionId);
+            final String account = azureCredentialWrapper.getTokenCredential() instanceof CachedTokenCredential ?
+                    ((CachedTokenCredential) azureCredentialWrapper.getTokenCredential()).getAccount() : null;
+            final List<String> cachedSubscriptionIds = account == null ? null : AzureLoginCache.getInstance().getSubscriptionIds(account);
+            final String targetSubscriptionId;
+            if (StringUtils.isNotBlank(getSubscriptionId()) && cachedSubscriptionIds != null && cachedSubscriptionIds.contains(getSubscriptionId())) {
+                // the configured subscription was available to the same account recently, skip listing all subscriptions
+                targetSubscriptionId = getSubscriptionId();
+            } else {
+                final PagedList<Subscription> subscriptions = Azure.configure()
+                        .authenticate(azureCredentialWrapper.getAzureTokenCredentials()).subscriptions().list();
+                subscriptions.loadAll();
+                if (account != null) {
+                    AzureLoginCache.getInstance().putSubscriptionIds(account,
+                            subscriptions.stream().map(Subscription::subscriptionId).collect(Collectors.toList()));
+                }
+                targetSubscriptionId = getTargetSubscriptionId(getSubscriptionId(), subscriptions);
+                checkSubscription(subscriptions, targetSubscriptionId);
+            }
             azureCredentialWrapper.withDefaultSubscriptionId(targetSubscriptionId);
-            return AzureClientFactory.getAzureClient(azureCredentialWrapper, getUserAgent());
+            return new AuthenticatedAzure(azureCredentialWrapper, AzureClientFactory.getAzureClient(azureCredentialWrapper, getUserAgent()));
         } catch (AzureLoginException | IOException e) {
             throw new AzureAuthFailureException(e.getMessage());
         }
@@ -439,9 +477,11 @@ public abstract class AbstractAzureMojo extends AbstractMojo implements Telemetr
 
     @Override
     public void execute() throws MojoExecutionException {
+        final AzureSessionRegistry registry = AzureSessionRegistry.forSession(session);
+        registry.enterExecution();
         try {
             // init proxy manager
-            ProxyUtils.initProxy(Optional.ofNullable(this.session).map(s -> s.getRequest()).orElse(null));
+            registry.initProxy(session);
 
             // Work around for Application Insights Java SDK:
             // Sometimes, NoClassDefFoundError will be thrown even after Maven build is completed successfully.
@@ -472,13 +512,17 @@ public abstract class AbstractAzureMojo extends AbstractMojo implements Telemetr
             // into endless loop when close, we need to call it in main thread.
             // Refer here for detail codes: https://github.com/Microsoft/ApplicationInsights-Java/blob/master/core/src
             // /main/java/com/microsoft/applicationinsights/internal/channel/common/ApacheSender43.java#L103
-            try {
-                // Sleep to wait ai sdk flush telemetries
-                Thread.sleep(2 * 1000);
-            } catch (InterruptedException e) {
-                // swallow this exception
+            // Wait for queued telemetries to be sent rather than sleeping for a fixed time
+            final long deadline = System.currentTimeMillis() + TELEMETRY_DRAIN_TIMEOUT_IN_MILLIS;
+            if (telemetryProxy != null) {
+                telemetryProxy.close(TELEMETRY_DRAIN_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            // The telemetry of toolkit libs and the http client of AI SDK are shared by executions which run
+            // concurrently, e.g. in deploy-all, only the last running execution flushes and closes them
+            if (registry.exitExecution()) {
+                AzureTelemeter.flush(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                ApacheSenderFactory.INSTANCE.create().close();
             }
-            ApacheSenderFactory.INSTANCE.create().close();
         }
     }
 
@@ -646,4 +690,13 @@ public abstract class AbstractAzureMojo extends AbstractMojo implements Telemetr
         }
     }
 
+    private static class AuthenticatedAzure {
+        private final AzureCredentialWrapper credential;
+        private final Azure azure;
+
+        AuthenticatedAzure(AzureCredentialWrapper credential, Azure azure) {
+            this.credential = credential;
+            this.azure = azure;
+        }
+    }
 }
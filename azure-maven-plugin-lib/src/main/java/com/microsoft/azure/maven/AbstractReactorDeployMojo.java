@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven;
+
+import com.microsoft.azure.common.logging.Log;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.PluginConfigurationException;
+import org.apache.maven.plugin.PluginManagerException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregator which runs the deploy goal of this plugin for all modules of the reactor which use the plugin, several
+ * modules at a time, so the remote operations of different apps (creating or updating resources, uploading packages and
+ * waiting for them to be ready) overlap instead of running one module after another. Each module is deployed with its
+ * own plugin configuration, as if the deploy goal were invoked from command line in that module.
+ * <p>
+ * The deploy goal must be declared thread safe, i.e. its executions keep their authentication and telemetry state to
+ * themselves, otherwise the modules are deployed one after another.
+ */
+public abstract class AbstractReactorDeployMojo extends AbstractMojo {
+    protected static final String DEPLOY_GOAL = "deploy";
+    private static final String EXECUTION_ID = "default-cli";
+    private static final String NO_TARGET = "No module in the reactor uses plugin %s, skip deployment.";
+    private static final String START_DEPLOY = "Deploying %d module(s) with parallelism %d.";
+    private static final String NOT_THREAD_SAFE = "Goal '%s' of plugin %s is not thread safe, deploy modules one after another.";
+    private static final String MODULE_FAILED = "Failed to deploy module %s: %s";
+    private static final String CANCEL_PENDING = "Cancel the deployment of modules which have not started since fail fast is enabled.";
+    private static final String DEPLOY_SUMMARY = "Deployment summary:";
+    private static final String DEPLOY_FAILED = "Failed to deploy %d of %d module(s): %s";
+    private static final String THREAD_NAME = "azure-reactor-deploy-%d";
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    protected MavenSession session;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true, required = true)
+    protected PluginDescriptor plugin;
+
+    @Component
+    protected BuildPluginManager pluginManager;
+
+    /**
+     * Max number of modules which are deployed at the same time, it is ignored if the deploy goal is not thread safe.
+     */
+    @Parameter(property = "deploy.parallelism", defaultValue = "4")
+    protected int parallelism;
+
+    /**
+     * If set to true, modules which have not started deploying are cancelled once a module fails, otherwise all
+     * modules are deployed and the failures are reported at the end.
+     */
+    @Parameter(property = "deploy.failFast", defaultValue = "false")
+    protected boolean failFast;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        final MojoDescriptor mojoDescriptor = plugin.getMojo(DEPLOY_GOAL);
+        if (mojoDescriptor == null) {
+            throw new MojoExecutionException(String.format("Goal '%s' is not found in plugin %s.", DEPLOY_GOAL, plugin.getPluginLookupKey()));
+        }
+        final List<MavenProject> targets = getDeployTargets();
+        if (targets.isEmpty()) {
+            Log.info(String.format(NO_TARGET, plugin.getPluginLookupKey()));
+            return;
+        }
+        final int threadCount = getThreadCount(mojoDescriptor, targets.size());
+        Log.info(String.format(START_DEPLOY, targets.size(), threadCount));
+
+        final List<DeployResult> results = deploy(targets, mojoDescriptor, threadCount);
+        printSummary(results);
+        final List<String> failures = results.stream().filter(result -> result.status != DeployStatus.SUCCESS)
+            .map(result -> result.project.getArtifactId()).collect(Collectors.toList());
+        if (!failures.isEmpty()) {
+            throw new MojoFailureException(String.format(DEPLOY_FAILED, failures.size(), targets.size(), String.join(", ", failures)));
+        }
+    }
+
+    /**
+     * @return modules which use this plugin in reactor order, parent modules of pom packaging are excluded
+     */
+    protected List<MavenProject> getDeployTargets() {
+        return session.getProjects().stream()
+            .filter(project -> !StringUtils.equalsIgnoreCase(project.getPackaging(), "pom"))
+            .filter(project -> project.getPlugin(plugin.getPluginLookupKey()) != null)
+            .collect(Collectors.toList());
+    }
+
+    private int getThreadCount(MojoDescriptor mojoDescriptor, int targetCount) {
+        final int threadCount = Math.max(1, Math.min(parallelism, targetCount));
+        if (threadCount > 1 && !mojoDescriptor.isThreadSafe()) {
+            Log.warn(String.format(NOT_THREAD_SAFE, DEPLOY_GOAL, plugin.getPluginLookupKey()));
+            return 1;
+        }
+        return threadCount;
+    }
+
+    private List<DeployResult> deploy(List<MavenProject> targets, MojoDescriptor mojoDescriptor, int threadCount) {
+        final List<DeployResult> results = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            results.add(new DeployResult(i, targets.get(i), DeployStatus.CANCELLED, 0, null));
+        }
+
+        final AtomicInteger threadIndex = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, String.format(THREAD_NAME, threadIndex.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletionService<DeployResult> completionService = new ExecutorCompletionService<>(executor);
+        final List<Future<DeployResult>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < targets.size(); i++) {
+                final int index = i;
+                futures.add(completionService.submit(() -> deploy(index, targets.get(index), mojoDescriptor)));
+            }
+            boolean cancelled = false;
+            for (int i = 0; i < targets.size(); i++) {
+                final DeployResult result = takeResult(completionService);
+                if (result == null) {
+                    continue;
+                }
+                results.set(result.index, result);
+                if (result.status == DeployStatus.FAILED && failFast && !cancelled) {
+                    Log.warn(CANCEL_PENDING);
+                    // modules which are deploying are not interrupted, they are still waited and reported
+                    futures.forEach(future -> future.cancel(false));
+                    cancelled = true;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private static DeployResult takeResult(CompletionService<DeployResult> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private DeployResult deploy(int index, MavenProject project, MojoDescriptor mojoDescriptor) {
+        final long start = System.currentTimeMillis();
+        final MavenSession projectSession = session.clone();
+        projectSession.setCurrentProject(project);
+        final MojoExecution execution = new MojoExecution(mojoDescriptor, EXECUTION_ID, MojoExecution.Source.CLI);
+        execution.setConfiguration(getMojoConfiguration(project, mojoDescriptor));
+        try {
+            pluginManager.executeMojo(projectSession, execution);
+            return new DeployResult(index, project, DeployStatus.SUCCESS, System.currentTimeMillis() - start, null);
+        } catch (MojoExecutionException | MojoFailureException | PluginConfigurationException | PluginManagerException | RuntimeException e) {
+            final String message = StringUtils.defaultIfEmpty(e.getMessage(), e.toString());
+            Log.error(String.format(MODULE_FAILED, project.getArtifactId(), message));
+            return new DeployResult(index, project, DeployStatus.FAILED, System.currentTimeMillis() - start, message);
+        }
+    }
+
+    /**
+     * Build the configuration of the deploy goal for a module the same way as maven does for a goal invoked from
+     * command line: the plugin configuration and the `default-cli` execution configuration of the module, merged with
+     * the default values of the goal and limited to the parameters of the goal.
+     */
+    protected static Xpp3Dom getMojoConfiguration(MavenProject project, MojoDescriptor mojoDescriptor) {
+        final Plugin projectPlugin = project.getPlugin(mojoDescriptor.getPluginDescriptor().getPluginLookupKey());
+        Xpp3Dom configuration = projectPlugin == null ? null : (Xpp3Dom) projectPlugin.getConfiguration();
+        final PluginExecution cliExecution = projectPlugin == null ? null : projectPlugin.getExecutionsAsMap().get(EXECUTION_ID);
+        if (cliExecution != null && cliExecution.getConfiguration() != null) {
+            configuration = Xpp3Dom.mergeXpp3Dom(new Xpp3Dom((Xpp3Dom) cliExecution.getConfiguration()), configuration);
+        }
+        final Xpp3Dom defaults = mojoDescriptor.getMojoConfiguration() == null ? null : toXpp3Dom(mojoDescriptor.getMojoConfiguration());
+        final Xpp3Dom result = new Xpp3Dom("configuration");
+        if (mojoDescriptor.getParameters() == null) {
+            return result;
+        }
+        for (final org.apache.maven.plugin.descriptor.Parameter parameter : mojoDescriptor.getParameters()) {
+            Xpp3Dom value = configuration == null ? null : configuration.getChild(parameter.getName());
+            if (value == null && configuration != null && StringUtils.isNotEmpty(parameter.getAlias())) {
+                value = configuration.getChild(parameter.getAlias());
+            }
+            value = Xpp3Dom.mergeXpp3Dom(value, defaults == null ? null : defaults.getChild(parameter.getName()), Boolean.TRUE);
+            if (value != null) {
+                value = new Xpp3Dom(value, parameter.getName());
+                if (StringUtils.isEmpty(value.getAttribute("implementation")) && StringUtils.isNotEmpty(parameter.getImplementation())) {
+                    value.setAttribute("implementation", parameter.getImplementation());
+                }
+                result.addChild(value);
+            }
+        }
+        return result;
+    }
+
+    private static Xpp3Dom toXpp3Dom(PlexusConfiguration configuration) {
+        final Xpp3Dom result = new Xpp3Dom(configuration.getName());
+        result.setValue(configuration.getValue(null));
+        for (final String name : configuration.getAttributeNames()) {
+            result.setAttribute(name, configuration.getAttribute(name));
+        }
+        for (final PlexusConfiguration child : configuration.getChildren()) {
+            result.addChild(toXpp3Dom(child));
+        }
+        return result;
+    }
+
+    private static void printSummary(List<DeployResult> results) {
+        Log.info(DEPLOY_SUMMARY);
+        for (final DeployResult result : results) {
+            Log.info(String.format("  %-40s %-9s %8.1fs %s", result.project.getArtifactId(), result.status,
+                result.durationInMillis / 1000.0, StringUtils.defaultString(result.message)));
+        }
+    }
+
+    private enum DeployStatus {
+        SUCCESS,
+        FAILED,
+        CANCELLED
+    }
+
+    private static class DeployResult {
+        private final int index;
+        private final MavenProject project;
+        private final DeployStatus status;
+        private final long durationInMillis;
+        private final String message;
+
+        DeployResult(int index, MavenProject project, DeployStatus status, long durationInMillis, String message) {
+            this.index = index;
+            this.project = project;
+            this.status = status;
+            this.durationInMillis = durationInMillis;
+            this.message = message;
+        }
+    }
+}
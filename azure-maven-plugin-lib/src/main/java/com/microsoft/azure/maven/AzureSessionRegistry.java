@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven;
+
+import com.microsoft.azure.maven.model.MavenAuthConfiguration;
+import com.microsoft.azure.maven.utils.ProxyUtils;
+import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Objects shared by all mojo executions of a plugin within one maven session, e.g. authenticated clients, so a reactor
+ * build which deploys many modules only logs in and handshakes with Azure once. The registry is kept in the session
+ * data of the repository session, which is shared by the cloned sessions of parallel builds and released together with
+ * the session.
+ */
+public class AzureSessionRegistry {
+    // Key on the class object, so plugins loaded by different class realms never see registries of each other
+    private static final Object SESSION_DATA_KEY = AzureSessionRegistry.class;
+
+    private final Map<String, Object> entries = new HashMap<>();
+    private final AtomicBoolean proxyInitialized = new AtomicBoolean(false);
+    private final AtomicInteger runningExecutions = new AtomicInteger();
+
+    /**
+     * @return the registry of the session, a new registry which is not shared if there is no repository session
+     */
+    public static AzureSessionRegistry forSession(@Nullable MavenSession session) {
+        final RepositorySystemSession repositorySession = session == null ? null : session.getRepositorySession();
+        if (repositorySession == null || repositorySession.getData() == null) {
+            return new AzureSessionRegistry();
+        }
+        final SessionData data = repositorySession.getData();
+        AzureSessionRegistry registry = (AzureSessionRegistry) data.get(SESSION_DATA_KEY);
+        while (registry == null) {
+            final AzureSessionRegistry created = new AzureSessionRegistry();
+            registry = data.set(SESSION_DATA_KEY, null, created) ? created : (AzureSessionRegistry) data.get(SESSION_DATA_KEY);
+        }
+        return registry;
+    }
+
+    /**
+     * Build the key of an auth configuration, secrets are hashed instead of kept in the key.
+     */
+    public static String getAuthKey(@Nonnull MavenAuthConfiguration auth) {
+        return DigestUtils.sha256Hex(String.join("\n", StringUtils.defaultString(auth.getServerId()),
+            StringUtils.defaultString(auth.getType()), StringUtils.defaultString(auth.getEnvironment()),
+            StringUtils.defaultString(auth.getClient()), StringUtils.defaultString(auth.getTenant()),
+            StringUtils.defaultString(auth.getKey()), StringUtils.defaultString(auth.getCertificate()),
+            StringUtils.defaultString(auth.getCertificatePassword())));
+    }
+
+    /**
+     * Copy the shared credential for a mojo, since mojos may update the default subscription of their credential.
+     */
+    public static AzureCredentialWrapper copyOf(@Nonnull AzureCredentialWrapper credential) {
+        return new AzureCredentialWrapper(credential.getAuthMethod(), credential.getTokenCredential(), credential.getEnv())
+            .withTenantId(credential.getTenantId())
+            .withDefaultSubscriptionId(credential.getDefaultSubscriptionId())
+            .withFilteredSubscriptionIds(credential.getFilteredSubscriptionIds());
+    }
+
+    /**
+     * @return the object registered with the key, callers should hold the lock of the registry while checking and creating
+     * an object, so it is only created once even in parallel builds
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(@Nonnull String key) {
+        return (T) entries.get(key);
+    }
+
+    public synchronized void put(@Nonnull String key, @Nonnull Object value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Mark a mojo execution of the session as running, it must be paired with {@link #exitExecution()}.
+     */
+    public void enterExecution() {
+        runningExecutions.incrementAndGet();
+    }
+
+    /**
+     * @return whether no other mojo execution of the session is running, so objects shared by concurrent executions
+     * (e.g. the http client of telemetry) can be released
+     */
+    public boolean exitExecution() {
+        return runningExecutions.decrementAndGet() <= 0;
+    }
+
+    public void initProxy(@Nullable MavenSession session) {
+        if (proxyInitialized.compareAndSet(false, true)) {
+            ProxyUtils.initProxy(Optional.ofNullable(session).map(MavenSession::getRequest).orElse(null));
+        }
+    }
+}
@@ -16,6 +16,7 @@ import com.microsoft.azure.toolkit.lib.auth.model.AuthType;
 import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
 import com.microsoft.azure.toolkit.lib.auth.util.ValidationUtil;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.settings.crypto.SettingsDecrypter;
 
@@ -24,15 +25,15 @@ import java.util.Objects;
 
 import static com.microsoft.azure.maven.auth.MavenSettingHelper.buildAuthConfigurationByServerId;
 
+/**
+ * Logs in with the auth configuration of a mojo, each mojo execution creates its own manager so executions which run
+ * concurrently share no state through it.
+ */
 public class MavenAuthManager extends AzureAuthManager {
     private static final String INVALID_AZURE_ENVIRONMENT = "Invalid environment string '%s', please replace it with one of " +
             "\"Azure\", \"AzureChina\", \"AzureGermany\", \"AzureUSGovernment\",.";
-
-    private static MavenAuthManager mavenAuthManager = new MavenAuthManager();
-
-    public static MavenAuthManager getInstance() {
-        return mavenAuthManager;
-    }
+    private static final String INVALID_PROBE_TIMEOUT = "Invalid probeTimeout '%s' in <auth> configuration, it should be a positive " +
+            "number of seconds.";
 
     public AzureCredentialWrapper login(MavenSession session, SettingsDecrypter settingsDecrypter, @Nonnull MavenAuthConfiguration auth)
             throws AzureExecutionException, MavenDecryptException, InvalidConfigurationException {
@@ -46,9 +47,22 @@ public class MavenAuthManager extends AzureAuthManager {
                     : "in <auth> configuration.";
             throw new AzureExecutionException(String.format("%s %s", ex.getMessage(), messagePostfix));
         }
+        // the probe timeout is not a credential, so it is taken from <auth> even if the credential is in a server
+        authConfiguration.setProbeTimeout(parseProbeTimeout(auth.getProbeTimeout()));
         return super.login(authConfiguration).toBlocking().value();
     }
 
+    private static Integer parseProbeTimeout(String probeTimeout) throws AzureExecutionException {
+        if (StringUtils.isBlank(probeTimeout)) {
+            return null;
+        }
+        final int result = NumberUtils.toInt(probeTimeout.trim(), -1);
+        if (result <= 0) {
+            throw new AzureExecutionException(String.format(INVALID_PROBE_TIMEOUT, probeTimeout));
+        }
+        return result;
+    }
+
     private static AuthConfiguration convertToAuthConfiguration(MavenAuthConfiguration mavenAuthConfiguration)
             throws InvalidConfigurationException {
         if (Objects.isNull(mavenAuthConfiguration)) {
@@ -19,4 +19,5 @@ public class MavenAuthConfiguration {
     private String key;
     private String certificate;
     private String certificatePassword;
+    private String probeTimeout;
 }
@@ -7,28 +7,32 @@ package com.microsoft.azure.maven.telemetry;
 
 import com.microsoft.applicationinsights.TelemetryClient;
 import com.microsoft.applicationinsights.internal.channel.common.ApacheSenderFactory;
-import com.microsoft.azure.common.utils.GetHashMac;
+import com.microsoft.azure.common.utils.InstallationIdUtils;
+import com.microsoft.azure.toolkit.lib.common.telemetry.AsyncTelemetrySender;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static com.microsoft.azure.maven.telemetry.TelemetryConstants.TELEMETRY_EVENT_TELEMETRY_NOT_ALLOWED;
 import static com.microsoft.azure.maven.telemetry.TelemetryConstants.TELEMETRY_KEY_INSTALLATIONID;
 import static com.microsoft.azure.maven.telemetry.TelemetryConstants.TELEMETRY_KEY_SESSION_ID;
 
-public enum AppInsightHelper implements TelemetryProxy {
-    INSTANCE;
-
+/**
+ * Telemetry of one mojo execution, executions which run concurrently in a reactor build each create their own helper.
+ */
+public class AppInsightHelper implements TelemetryProxy {
     private boolean isEnabled = true;
     private String sessionId;
     private TelemetryClient client = new TelemetryClient();
+    private AsyncTelemetrySender sender = new AsyncTelemetrySender(client);
     private Map<String, String> defaultProperties = new HashMap<>();
 
-    AppInsightHelper() {
+    public AppInsightHelper() {
         sessionId = UUID.randomUUID().toString();
         defaultProperties.put(TELEMETRY_KEY_SESSION_ID, sessionId);
-        defaultProperties.put(TELEMETRY_KEY_INSTALLATIONID, GetHashMac.getHashMac());
+        defaultProperties.put(TELEMETRY_KEY_INSTALLATIONID, InstallationIdUtils.getInstallationId());
         initTelemetryHttpClient();
     }
 
@@ -55,14 +59,22 @@ public enum AppInsightHelper implements TelemetryProxy {
         }
         try {
             final Map<String, String> properties = mergeProperties(customProperties, overrideDefaultProperties);
-            client.trackEvent(eventName, properties, null);
-            client.flush();
+            sender.send(eventName, properties);
         } catch (Exception ex) {
             // swallow this exception
             ex.printStackTrace();
         }
     }
 
+    /**
+     * Wait until queued events are sent or the timeout elapses, events tracked afterwards are dropped.
+     */
+    @Override
+    public void close(final long timeout, final TimeUnit unit) {
+        isEnabled = false;
+        sender.close(timeout, unit);
+    }
+
     // When maven goal executes too quick, The HTTPClient of AI SDK may not fully initialized and will step
     // into endless loop when close, we need to call it in main thread.
     // Refer here for detail codes: https://github.com/Microsoft/ApplicationInsights-Java/blob/master/core/src
@@ -80,7 +92,7 @@ public enum AppInsightHelper implements TelemetryProxy {
     }
 
     public String getInstallationId() {
-        return GetHashMac.getHashMac();
+        return InstallationIdUtils.getInstallationId();
     }
 
     public void addDefaultProperty(String key, String value) {
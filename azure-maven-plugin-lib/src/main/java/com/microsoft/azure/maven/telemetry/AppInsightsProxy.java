@@ -10,6 +10,7 @@ import com.microsoft.applicationinsights.channel.TelemetryChannel;
 import com.microsoft.applicationinsights.channel.concrete.TelemetryChannelBase;
 import com.microsoft.applicationinsights.channel.concrete.inprocess.InProcessTelemetryChannel;
 import com.microsoft.applicationinsights.internal.config.TelemetryConfigurationFactory;
+import com.microsoft.azure.toolkit.lib.common.telemetry.AsyncTelemetrySender;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -19,6 +20,7 @@ import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +31,10 @@ public class AppInsightsProxy implements TelemetryProxy {
         "</InstrumentationKey>");
     protected TelemetryClient client;
 
+    protected TelemetryChannel channel;
+
+    protected AsyncTelemetrySender sender;
+
     protected TelemetryConfiguration configuration;
 
     protected Map<String, String> defaultProperties;
@@ -38,6 +44,7 @@ public class AppInsightsProxy implements TelemetryProxy {
 
     public AppInsightsProxy(final TelemetryConfiguration config) {
         client = new TelemetryClient(readConfigurationFromFile());
+        sender = new AsyncTelemetrySender(client);
 
         if (config == null) {
             throw new NullPointerException();
@@ -55,7 +62,7 @@ public class AppInsightsProxy implements TelemetryProxy {
             new com.microsoft.applicationinsights.TelemetryConfiguration();
         final Map<String, String> channelProperties = new HashMap<>();
         channelProperties.put(TelemetryChannelBase.FLUSH_BUFFER_TIMEOUT_IN_SECONDS_NAME, "1");
-        final TelemetryChannel channel = new InProcessTelemetryChannel(channelProperties);
+        channel = new InProcessTelemetryChannel(channelProperties);
 
         telemetryConfiguration.setChannel(channel);
 
@@ -128,8 +135,19 @@ public class AppInsightsProxy implements TelemetryProxy {
         final Map<String, String> properties = mergeProperties(getDefaultProperties(), customProperties,
             overrideDefaultProperties);
 
-        client.trackEvent(eventName, properties, null);
-        client.flush();
+        sender.send(eventName, properties);
+    }
+
+    /**
+     * Wait until queued events are sent or the timeout elapses, events tracked afterwards are dropped and the sender
+     * thread exits.
+     */
+    public void close(final long timeout, final TimeUnit unit) {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        isEnabled = false;
+        sender.close(timeout, unit);
+        // Flushed events are sent by the channel asynchronously, stopping the channel waits for the pending requests
+        channel.stop(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
     }
 
     protected Map<String, String> mergeProperties(Map<String, String> defaultProperties,
@@ -6,6 +6,7 @@
 package com.microsoft.azure.maven.telemetry;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public interface TelemetryProxy {
     void trackEvent(final String eventName);
@@ -22,4 +23,9 @@ public interface TelemetryProxy {
     void enable();
 
     void disable();
+
+    /**
+     * Send events tracked so far, waiting no longer than the timeout.
+     */
+    void close(final long timeout, final TimeUnit unit);
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.Parameter;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class AbstractReactorDeployMojoTest {
+    private MojoDescriptor mojoDescriptor;
+    private AbstractReactorDeployMojo mojo;
+
+    @Before
+    public void setUp() throws Exception {
+        final PluginDescriptor plugin = new PluginDescriptor();
+        plugin.setGroupId("com.microsoft.azure");
+        plugin.setArtifactId("azure-functions-maven-plugin");
+        mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal("deploy");
+        mojoDescriptor.setPluginDescriptor(plugin);
+        mojoDescriptor.addParameter(newParameter("appName"));
+        mojoDescriptor.addParameter(newParameter("region"));
+        final XmlPlexusConfiguration defaults = new XmlPlexusConfiguration("configuration");
+        final XmlPlexusConfiguration region = new XmlPlexusConfiguration("region");
+        region.setValue("${functions.region}");
+        region.setAttribute("default-value", "westeurope");
+        defaults.addChild(region);
+        mojoDescriptor.setMojoConfiguration(defaults);
+        plugin.addMojo(mojoDescriptor);
+
+        mojo = new AbstractReactorDeployMojo() {
+        };
+        mojo.plugin = plugin;
+        mojo.pluginManager = mock(BuildPluginManager.class);
+        mojo.parallelism = 1;
+        mojo.session = mock(MavenSession.class);
+        doReturn(mock(MavenSession.class)).when(mojo.session).clone();
+    }
+
+    @Test
+    public void getMojoConfiguration() {
+        final Xpp3Dom configuration = AbstractReactorDeployMojo.getMojoConfiguration(newProject("app1", "jar"), mojoDescriptor);
+
+        assertEquals("app1", configuration.getChild("appName").getValue());
+        assertEquals("${functions.region}", configuration.getChild("region").getValue());
+        assertEquals("westeurope", configuration.getChild("region").getAttribute("default-value"));
+        // elements which are not parameters of the goal are dropped
+        assertNull(configuration.getChild("unknown"));
+    }
+
+    @Test
+    public void deployAllModulesAndReportFailures() throws Exception {
+        doReturn(Arrays.asList(newProject("parent", "pom"), newProject("app1", "jar"), newProject("app2", "jar"),
+            newProject("app3", "jar"))).when(mojo.session).getProjects();
+        doThrow(new MojoFailureException("boom")).when(mojo.pluginManager).executeMojo(any(), argThat(isApp("app1")));
+
+        try {
+            mojo.execute();
+            fail("Deployment should fail.");
+        } catch (MojoFailureException e) {
+            assertTrue(e.getMessage().contains("1 of 3"));
+            assertTrue(e.getMessage().contains("app1"));
+        }
+        verify(mojo.pluginManager, times(3)).executeMojo(any(), any());
+        verify(mojo.pluginManager, never()).executeMojo(any(), argThat(isApp("parent")));
+    }
+
+    @Test
+    public void deployOneAfterAnotherIfGoalIsNotThreadSafe() throws Exception {
+        mojo.parallelism = 4;
+        doReturn(Arrays.asList(newProject("app1", "jar"), newProject("app2", "jar"), newProject("app3", "jar")))
+            .when(mojo.session).getProjects();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(100);
+            running.decrementAndGet();
+            return null;
+        }).when(mojo.pluginManager).executeMojo(any(), any());
+
+        mojo.execute();
+        assertEquals(1, maxRunning.get());
+
+        mojoDescriptor.setThreadSafe(true);
+        mojo.execute();
+        assertTrue(maxRunning.get() > 1);
+    }
+
+    @Test
+    public void deployModulesConcurrently() throws Exception {
+        mojo.parallelism = 2;
+        mojoDescriptor.setThreadSafe(true);
+        doReturn(Arrays.asList(newProject("app1", "jar"), newProject("app2", "jar"))).when(mojo.session).getProjects();
+        // each deployment waits until the other one has started, which fails with a timeout if they run one after another
+        final CyclicBarrier bothStarted = new CyclicBarrier(2);
+        doAnswer(invocation -> bothStarted.await(5, TimeUnit.SECONDS)).when(mojo.pluginManager).executeMojo(any(), any());
+
+        mojo.execute();
+
+        verify(mojo.pluginManager, times(1)).executeMojo(any(), argThat(isApp("app1")));
+        verify(mojo.pluginManager, times(1)).executeMojo(any(), argThat(isApp("app2")));
+    }
+
+    @Test
+    public void failFast() throws Exception {
+        mojo.failFast = true;
+        doReturn(Arrays.asList(newProject("app1", "jar"), newProject("app2", "jar"), newProject("app3", "jar")))
+            .when(mojo.session).getProjects();
+        doThrow(new MojoFailureException("boom")).when(mojo.pluginManager).executeMojo(any(), argThat(isApp("app1")));
+        // app2 may start before app1 is reported as failed, keep the only worker busy with it so app3 is cancelled
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        }).when(mojo.pluginManager).executeMojo(any(), argThat(isApp("app2")));
+
+        try {
+            mojo.execute();
+            fail("Deployment should fail.");
+        } catch (MojoFailureException e) {
+            assertTrue(e.getMessage().contains("app1"));
+            assertTrue(e.getMessage().contains("app3"));
+        }
+        verify(mojo.pluginManager, never()).executeMojo(any(), argThat(isApp("app3")));
+    }
+
+    private static org.mockito.ArgumentMatcher<MojoExecution> isApp(String appName) {
+        return execution -> execution != null && execution.getConfiguration().getChild("appName") != null &&
+            appName.equals(execution.getConfiguration().getChild("appName").getValue());
+    }
+
+    private static Parameter newParameter(String name) {
+        final Parameter parameter = new Parameter();
+        parameter.setName(name);
+        return parameter;
+    }
+
+    private static MavenProject newProject(String appName, String packaging) {
+        final Xpp3Dom configuration = new Xpp3Dom("configuration");
+        final Xpp3Dom app = new Xpp3Dom("appName");
+        app.setValue(appName);
+        configuration.addChild(app);
+        configuration.addChild(new Xpp3Dom("unknown"));
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("com.microsoft.azure");
+        plugin.setArtifactId("azure-functions-maven-plugin");
+        plugin.setConfiguration(configuration);
+        final Build build = new Build();
+        build.addPlugin(plugin);
+        final Model model = new Model();
+        model.setArtifactId(appName);
+        model.setPackaging(packaging);
+        model.setBuild(build);
+        return new MavenProject(model);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven;
+
+import com.microsoft.azure.maven.model.MavenAuthConfiguration;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class AzureSessionRegistryTest {
+    @Test
+    public void shareRegistryWithinSession() {
+        final DefaultRepositorySystemSession repositorySession = new DefaultRepositorySystemSession();
+        final MavenSession session = mock(MavenSession.class);
+        doReturn(repositorySession).when(session).getRepositorySession();
+        // cloned sessions of parallel builds share the same repository session
+        final MavenSession clonedSession = mock(MavenSession.class);
+        doReturn(repositorySession).when(clonedSession).getRepositorySession();
+
+        final AzureSessionRegistry registry = AzureSessionRegistry.forSession(session);
+        registry.put("key", "value");
+
+        assertSame(registry, AzureSessionRegistry.forSession(clonedSession));
+        assertEquals("value", AzureSessionRegistry.forSession(clonedSession).get("key"));
+        assertNotSame(registry, AzureSessionRegistry.forSession(mock(MavenSession.class)));
+        assertNull(AzureSessionRegistry.forSession(null).get("key"));
+    }
+
+    @Test
+    public void getAuthKey() {
+        final MavenAuthConfiguration auth = new MavenAuthConfiguration();
+        auth.setClient("client");
+        auth.setTenant("tenant");
+        auth.setKey("secret");
+        final String key = AzureSessionRegistry.getAuthKey(auth);
+
+        assertEquals(key, AzureSessionRegistry.getAuthKey(auth));
+        assertEquals(-1, key.indexOf("secret"));
+        auth.setKey("another secret");
+        assertNotEquals(key, AzureSessionRegistry.getAuthKey(auth));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven.telemetry;
+
+import com.microsoft.applicationinsights.TelemetryClient;
+import com.microsoft.applicationinsights.channel.TelemetryChannel;
+import com.microsoft.azure.toolkit.lib.common.telemetry.AsyncTelemetrySender;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class AppInsightsProxyTest {
+    private AppInsightsProxy proxy;
+
+    private TelemetryClient client;
+
+    @Before
+    public void setUp() {
+        final Map<String, String> properties = new HashMap<>();
+        proxy = new AppInsightsProxy(() -> properties);
+        proxy.enable();
+        client = mock(TelemetryClient.class);
+        proxy.client = client;
+        proxy.channel = mock(TelemetryChannel.class);
+        proxy.sender = new AsyncTelemetrySender(client);
+    }
+
+    @Test
+    public void trackEventsAndClose() {
+        proxy.trackEvent("DeployMojo.start");
+        proxy.trackEvent("DeployMojo.success");
+
+        proxy.close(5, TimeUnit.SECONDS);
+
+        verify(client, times(1)).trackEvent(eq("DeployMojo.start"), anyMap(), isNull());
+        verify(client, times(1)).trackEvent(eq("DeployMojo.success"), anyMap(), isNull());
+        verify(proxy.channel, times(1)).stop(anyLong(), any(TimeUnit.class));
+
+        // events tracked after close are dropped
+        proxy.trackEvent("DeployMojo.failure");
+        verify(client, never()).trackEvent(eq("DeployMojo.failure"), anyMap(), isNull());
+    }
+
+    @Test
+    public void stopSenderThreadOnClose() throws Exception {
+        final AtomicReference<Thread> senderThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            senderThread.set(Thread.currentThread());
+            return null;
+        }).when(client).trackEvent(eq("DeployMojo.start"), anyMap(), isNull());
+        proxy.trackEvent("DeployMojo.start");
+
+        proxy.close(5, TimeUnit.SECONDS);
+
+        assertNotNull(senderThread.get());
+        senderThread.get().join(5000);
+        assertFalse(senderThread.get().isAlive());
+        assertFalse(proxy.sender.send("DeployMojo.failure", null));
+    }
+
+    @Test
+    public void countEventAsSentIfClientThrowsError() {
+        doThrow(new AssertionError("boom")).when(client).trackEvent(eq("DeployMojo.start"), anyMap(), isNull());
+        final AsyncTelemetrySender sender = proxy.sender;
+        sender.send("DeployMojo.start", null);
+
+        final long start = System.currentTimeMillis();
+        assertTrue(sender.flush(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start < 5000);
+
+        // the sender keeps working after its thread dies of the error
+        sender.send("DeployMojo.success", null);
+        assertTrue(sender.close(5, TimeUnit.SECONDS));
+        verify(client, times(1)).trackEvent(eq("DeployMojo.success"), any(), isNull());
+    }
+}
@@ -7,10 +7,11 @@ package com.microsoft.azure.maven.servicefabric;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessResult;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessRunner;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
-import org.codehaus.plexus.util.IOUtil;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
 
@@ -71,17 +72,11 @@ public class Utils {
     public static String executeCommand(Log logger, String command) throws MojoFailureException{
         try {
             logger.info(String.format("Executing command %s", command));
-            final Process p;
-            if (Utils.isWindows()){
-                p = Runtime.getRuntime().exec("cmd.exe /C" + command);
-            } else {
-                p = Runtime.getRuntime().exec(command);
-            }
-            p.waitFor();
-            final int exitCode = p.exitValue();
-            final String stderr = IOUtil.toString(p.getErrorStream(), "UTF-8");
-            final String stdout = IOUtil.toString(p.getInputStream(), "UTF-8");
-            logger.debug(String.format("STDOUT: %s", stdout));
+            // both streams are drained while the command runs, so verbose commands can't block on a full pipe
+            final ProcessResult result = ProcessRunner.shell(command).onStdout(logger::debug).run();
+            final int exitCode = result.getExitCode();
+            final String stderr = result.getStderrText();
+            final String stdout = result.getStdoutText();
             if (stderr != null && stderr.length() > 0){
                 if (exitCode != 0){
                     logger.error(String.format("Process exited with exit code %d", exitCode));
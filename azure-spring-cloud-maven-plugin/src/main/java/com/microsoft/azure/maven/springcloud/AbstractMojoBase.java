@@ -10,6 +10,7 @@ import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.logging.Log;
 import com.microsoft.azure.toolkit.lib.common.utils.TextUtils;
 import com.microsoft.azure.management.appplatform.v2020_07_01.implementation.AppPlatformManager;
+import com.microsoft.azure.maven.AzureSessionRegistry;
 import com.microsoft.azure.maven.exception.MavenDecryptException;
 import com.microsoft.azure.maven.model.MavenAuthConfiguration;
 import com.microsoft.azure.maven.springcloud.config.AppDeploymentMavenConfig;
@@ -17,7 +18,6 @@ import com.microsoft.azure.maven.springcloud.config.ConfigurationParser;
 import com.microsoft.azure.maven.telemetry.AppInsightHelper;
 import com.microsoft.azure.maven.telemetry.MojoStatus;
 import com.microsoft.azure.maven.auth.MavenAuthManager;
-import com.microsoft.azure.maven.utils.ProxyUtils;
 import com.microsoft.azure.toolkit.lib.auth.util.AzureEnvironmentUtils;
 import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
 import com.microsoft.azure.tools.exception.InvalidConfigurationException;
@@ -39,7 +39,7 @@ import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static com.microsoft.azure.maven.springcloud.TelemetryConstants.TELEMETRY_KEY_AUTH_METHOD;
 import static com.microsoft.azure.maven.springcloud.TelemetryConstants.TELEMETRY_KEY_CPU;
@@ -68,7 +68,10 @@ import static com.microsoft.azure.maven.springcloud.TelemetryConstants.TELEMETRY
 public abstract class AbstractMojoBase extends AbstractMojo {
     private static final String INIT_FAILURE = "InitFailure";
     private static final String AZURE_INIT_FAIL = "Failed to authenticate with Azure. Please check your configuration.";
+    private static final String CREDENTIAL_KEY = "credential|";
+    private static final String APP_PLATFORM_MANAGER_KEY = "appPlatformManager";
     private static final String USING_AZURE_ENVIRONMENT = "Using Azure environment: %s.";
+    private static final long TELEMETRY_DRAIN_TIMEOUT_IN_MILLIS = 2 * 1000;
 
     @Parameter(property = "auth")
     protected MavenAuthConfiguration auth;
@@ -117,7 +120,9 @@ public abstract class AbstractMojoBase extends AbstractMojo {
     protected AzureCredentialWrapper azureCredentialWrapper;
 
     protected Long timeStart;
+    protected AppInsightHelper telemetryHelper = new AppInsightHelper();
     private AppPlatformManager manager;
+    private String authKey;
 
     @Parameter(property = "authType")
     protected String authType;
@@ -143,21 +148,35 @@ public abstract class AbstractMojoBase extends AbstractMojo {
         } catch (Exception e) {
             handleException(e);
             throw new MojoFailureException(e.getMessage(), e);
+        } finally {
+            telemetryHelper.close(TELEMETRY_DRAIN_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS);
         }
     }
 
     protected void initExecution() throws MojoFailureException, MavenDecryptException, AzureExecutionException,
         com.microsoft.azure.toolkit.lib.auth.exception.InvalidConfigurationException {
         // init proxy manager
-        ProxyUtils.initProxy(Optional.ofNullable(this.session).map(s -> s.getRequest()).orElse(null));
+        final AzureSessionRegistry registry = AzureSessionRegistry.forSession(session);
+        registry.initProxy(session);
         // Init telemetries
         initTelemetry();
         trackMojoExecution(MojoStatus.Start);
         final MavenAuthConfiguration mavenAuthConfiguration = auth == null ? new MavenAuthConfiguration() : auth;
         mavenAuthConfiguration.setType(getAuthType());
-        this.azureCredentialWrapper = MavenAuthManager.getInstance().login(session, settingsDecrypter, mavenAuthConfiguration);
+        // modules of a reactor build with the same auth configuration share one login
+        this.authKey = AzureSessionRegistry.getAuthKey(mavenAuthConfiguration);
+        synchronized (registry) {
+            AzureCredentialWrapper credential = registry.get(CREDENTIAL_KEY + authKey);
+            if (credential == null) {
+                credential = new MavenAuthManager().login(session, settingsDecrypter, mavenAuthConfiguration);
+                if (credential != null) {
+                    registry.put(CREDENTIAL_KEY + authKey, credential);
+                }
+            }
+            this.azureCredentialWrapper = credential == null ? null : AzureSessionRegistry.copyOf(credential);
+        }
         if (Objects.isNull(azureCredentialWrapper)) {
-            AppInsightHelper.INSTANCE.trackEvent(INIT_FAILURE);
+            telemetryHelper.trackEvent(INIT_FAILURE);
             throw new MojoFailureException(AZURE_INIT_FAIL);
         }
         final AzureEnvironment env = azureCredentialWrapper.getEnv();
@@ -176,7 +195,7 @@ public abstract class AbstractMojoBase extends AbstractMojo {
         timeStart = System.currentTimeMillis();
         telemetries = new HashMap<>();
         if (!isTelemetryAllowed) {
-            AppInsightHelper.INSTANCE.disable();
+            telemetryHelper.disable();
         }
         tracePluginInformation();
     }
@@ -199,7 +218,7 @@ public abstract class AbstractMojoBase extends AbstractMojo {
 
     protected void trackMojoExecution(MojoStatus status) {
         final String eventName = String.format("%s.%s", this.getClass().getSimpleName(), status.name());
-        AppInsightHelper.INSTANCE.trackEvent(eventName, getTelemetryProperties(), false);
+        telemetryHelper.trackEvent(eventName, getTelemetryProperties(), false);
     }
 
     protected void tracePluginInformation() {
@@ -281,18 +300,26 @@ public abstract class AbstractMojoBase extends AbstractMojo {
 
     public AppPlatformManager getAppPlatformManager() {
         if (this.manager == null) {
-            final LogLevel logLevel = getLog().isDebugEnabled() ? LogLevel.BODY_AND_HEADERS : LogLevel.NONE;
-            this.manager = AppPlatformManager.configure()
-                .withLogLevel(logLevel)
-                .withUserAgent(getUserAgent())
-                .authenticate(azureCredentialWrapper.getAzureTokenCredentials(), subscriptionId);
+            final AzureSessionRegistry registry = AzureSessionRegistry.forSession(session);
+            final String key = String.join("|", APP_PLATFORM_MANAGER_KEY, authKey, subscriptionId, String.valueOf(getLog().isDebugEnabled()));
+            synchronized (registry) {
+                this.manager = registry.get(key);
+                if (this.manager == null) {
+                    final LogLevel logLevel = getLog().isDebugEnabled() ? LogLevel.BODY_AND_HEADERS : LogLevel.NONE;
+                    this.manager = AppPlatformManager.configure()
+                        .withLogLevel(logLevel)
+                        .withUserAgent(getUserAgent())
+                        .authenticate(azureCredentialWrapper.getAzureTokenCredentials(), subscriptionId);
+                    registry.put(key, this.manager);
+                }
+            }
         }
         return this.manager;
     }
 
     private String getUserAgent() {
         return isTelemetryAllowed ? String.format("%s/%s installationId:%s sessionId:%s", plugin.getArtifactId(), plugin.getVersion(),
-                AppInsightHelper.INSTANCE.getInstallationId(), AppInsightHelper.INSTANCE.getSessionId())
+                telemetryHelper.getInstallationId(), telemetryHelper.getSessionId())
                 : String.format("%s/%s", plugin.getArtifactId(), plugin.getVersion());
     }
 }
@@ -19,7 +19,7 @@ import com.microsoft.azure.toolkit.lib.springcloud.SpringCloudDeployment;
 import com.microsoft.azure.toolkit.lib.springcloud.config.SpringCloudAppConfig;
 import com.microsoft.azure.toolkit.lib.springcloud.config.SpringCloudDeploymentConfig;
 import com.microsoft.azure.toolkit.lib.springcloud.model.ScaleSettings;
-import com.microsoft.azure.tools.utils.RxUtils;
+import com.microsoft.azure.tools.utils.Poller;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
@@ -33,10 +33,16 @@ import org.codehaus.plexus.util.xml.Xpp3Dom;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
+import static com.microsoft.azure.maven.springcloud.TelemetryConstants.TELEMETRY_KEY_DEPLOYMENT_POLL_COUNT;
+import static com.microsoft.azure.maven.springcloud.TelemetryConstants.TELEMETRY_KEY_DEPLOYMENT_READY_TIME;
+import static com.microsoft.azure.maven.springcloud.TelemetryConstants.TELEMETRY_KEY_PUBLIC_URL_POLL_COUNT;
+import static com.microsoft.azure.maven.springcloud.TelemetryConstants.TELEMETRY_KEY_PUBLIC_URL_READY_TIME;
 import static com.microsoft.azure.toolkit.lib.springcloud.AzureSpringCloudConfigUtils.DEFAULT_DEPLOYMENT_NAME;
 
 @Mojo(name = "deploy")
@@ -145,7 +151,8 @@ public class DeployMojo extends AbstractMojoBase {
         tasks.add(new AzureTask<Void>(() -> {
             if (!noWait) {
                 log.info("Getting deployment status...");
-                if (!deployment.waitUntilReady(GET_STATUS_TIMEOUT)) {
+                if (!deployment.waitUntilReady(GET_STATUS_TIMEOUT,
+                    trackPolling(TELEMETRY_KEY_DEPLOYMENT_POLL_COUNT, TELEMETRY_KEY_DEPLOYMENT_READY_TIME))) {
                     log.warn(GET_DEPLOYMENT_STATUS_TIMEOUT);
                 }
             }
@@ -178,7 +185,13 @@ public class DeployMojo extends AbstractMojoBase {
         log.info("Getting public url of app({})...", TextUtils.cyan(app.name()));
         String publicUrl = app.entity().getApplicationUrl();
         if (!noWait && StringUtils.isEmpty(publicUrl)) {
-            publicUrl = RxUtils.pollUntil(() -> app.refresh().entity().getApplicationUrl(), StringUtils::isNotBlank, GET_URL_TIMEOUT);
+            publicUrl = new Poller.Builder<String>()
+                .name("public url")
+                .maxInterval(Duration.ofSeconds(10))
+                .timeout(Duration.ofSeconds(GET_URL_TIMEOUT))
+                .listener(trackPolling(TELEMETRY_KEY_PUBLIC_URL_POLL_COUNT, TELEMETRY_KEY_PUBLIC_URL_READY_TIME))
+                .build()
+                .pollUntil(() -> app.refresh().entity().getApplicationUrl(), StringUtils::isNotBlank);
         }
         if (StringUtils.isEmpty(publicUrl)) {
             log.warn("Failed to get application url");
@@ -187,6 +200,15 @@ public class DeployMojo extends AbstractMojoBase {
         }
     }
 
+    private Consumer<Poller.PollingStatistics> trackPolling(String pollCountKey, String readyTimeKey) {
+        return statistics -> {
+            telemetries.put(pollCountKey, String.valueOf(statistics.getPollCount()));
+            if (statistics.isReady()) {
+                telemetries.put(readyTimeKey, String.valueOf(statistics.getElapsedInMillis()));
+            }
+        };
+    }
+
     protected void printStatus(SpringCloudDeployment deployment) {
         final DeploymentResourceStatus status = deployment.entity().getStatus();
         log.info("Deployment Status: {}", color(status.toString()));
@@ -27,6 +27,10 @@ public class TelemetryConstants {
     public static final String TELEMETRY_KEY_IS_CREATE_NEW_APP = "isCreateNewApp";
     public static final String TELEMETRY_KEY_IS_CREATE_DEPLOYMENT = "isCreateDeployment";
     public static final String TELEMETRY_KEY_IS_DEPLOYMENT_NAME_GIVEN = "isDeploymentNameGiven";
+    public static final String TELEMETRY_KEY_DEPLOYMENT_POLL_COUNT = "deploymentPollCount";
+    public static final String TELEMETRY_KEY_DEPLOYMENT_READY_TIME = "deploymentReadyTime";
+    public static final String TELEMETRY_KEY_PUBLIC_URL_POLL_COUNT = "publicUrlPollCount";
+    public static final String TELEMETRY_KEY_PUBLIC_URL_READY_TIME = "publicUrlReadyTime";
 
     public static final String TELEMETRY_VALUE_AUTH_POM_CONFIGURATION = "Pom Configuration";
     public static final String TELEMETRY_VALUE_AUTH_MAVEN_SERVER = "Maven Server";
@@ -24,7 +24,6 @@ import org.apache.maven.project.MavenProject;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
-import org.powermock.reflect.Whitebox;
 
 import java.io.File;
 import java.io.IOException;
@@ -43,13 +42,11 @@ public class TestHelper {
         return reader.read(pomFile, Collections.emptyMap());
     }
 
-    public static void mockAppInsightHelper() throws Exception {
-        // mock for AppInsightHelper.INSTANCE
+    public static void mockAppInsightHelper(AbstractMojoBase mojo) throws Exception {
+        // mock for the telemetry helper of the mojo
         final TelemetryClient client = mock(TelemetryClient.class);
         PowerMockito.whenNew(TelemetryClient.class).withAnyArguments().thenReturn(client);
-        final AppInsightHelper mockAppInsightHelper = mock(AppInsightHelper.class);
-        Whitebox.setInternalState(AppInsightHelper.class, "INSTANCE", mockAppInsightHelper);
-
+        mojo.telemetryHelper = mock(AppInsightHelper.class);
     }
 
     public static List<MavenProject> prepareParentChildProjects() throws IOException {
@@ -12,8 +12,11 @@ import com.microsoft.azure.toolkit.lib.appservice.service.IAppServicePlan;
 import com.microsoft.azure.toolkit.lib.appservice.service.IWebApp;
 import com.microsoft.azure.toolkit.lib.appservice.service.IWebAppDeploymentSlot;
 import com.microsoft.azure.toolkit.lib.appservice.service.impl.AppServicePlan;
+import com.microsoft.azure.toolkit.lib.appservice.service.impl.AppServiceUtils;
 import com.microsoft.azure.toolkit.lib.appservice.service.impl.WebApp;
 import com.microsoft.azure.toolkit.lib.appservice.service.impl.WebAppDeploymentSlot;
+import com.microsoft.azure.toolkit.lib.appservice.service.impl.WebAppIndex;
+import com.microsoft.azure.toolkit.lib.common.cache.ResourceCache;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,9 +24,13 @@ import java.util.stream.Collectors;
 public class AzureAppService {
 
     private AzureResourceManager azureResourceManager;
+    // models of web apps and app service plans fetched through this instance, shared by their wrappers
+    private final ResourceCache resourceCache = new ResourceCache();
+    private final WebAppIndex webAppIndex;
 
     private AzureAppService(AzureResourceManager azureResourceManager) {
         this.azureResourceManager = azureResourceManager;
+        this.webAppIndex = new WebAppIndex(azureResourceManager);
     }
 
     public static AzureAppService auth(AzureResourceManager azureResourceManager) {
@@ -46,7 +53,7 @@ public class AzureAppService {
 
     public List<IWebApp> webapps() {
         return azureResourceManager.webApps().list().stream()
-            .map(webAppBasic -> webapp(webAppBasic.id()))
+            .map(webAppBasic -> webapp(AppServiceUtils.fromWebAppBasic(webAppBasic)))
             .collect(Collectors.toList());
     }
 
@@ -87,4 +94,12 @@ public class AzureAppService {
     public AzureResourceManager getAzureResourceManager() {
         return azureResourceManager;
     }
+
+    public ResourceCache getResourceCache() {
+        return resourceCache;
+    }
+
+    public WebAppIndex getWebAppIndex() {
+        return webAppIndex;
+    }
 }
@@ -7,6 +7,7 @@ package com.microsoft.azure.toolkit.lib.appservice.file;
 
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import retrofit2.Response;
 import rx.Observable;
 
 import java.util.List;
@@ -14,10 +15,26 @@ import java.util.List;
 public interface AppServiceFileClient {
     Observable<ResponseBody> getFileContent(String path);
 
+    /**
+     * @param range value of the http {@code Range} header, e.g. {@code bytes=1024-}
+     */
+    Observable<Response<ResponseBody>> getFileContentInRange(String path, String range);
+
     Observable<? extends List<? extends AppServiceFile>> getFilesInDirectory(String path);
 
+    /**
+     * @param etag value of the http {@code If-None-Match} header, the response is {@code 304 Not Modified} without
+     *             body if the listing still has the etag
+     */
+    Observable<Response<List<AppServiceFile>>> getFilesInDirectory(String path, String etag);
+
     Observable<Void> saveFile(String path, RequestBody requestBody);
 
+    /**
+     * @param etag value of the http {@code If-Match} header, {@code *} to overwrite the file whatever its version is
+     */
+    Observable<Void> saveFile(String path, String etag, RequestBody requestBody);
+
     Observable<ResponseBody> createDirectory(String path);
 
     Observable<ResponseBody> deleteFile(String path);
@@ -5,41 +5,77 @@
 
 package com.microsoft.azure.toolkit.lib.appservice.file;
 
-import com.google.common.base.Joiner;
 import com.microsoft.azure.management.appservice.WebAppBase;
-import com.microsoft.azure.management.appservice.implementation.AppServiceManager;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
-import com.microsoft.rest.RestClient;
-import lombok.SneakyThrows;
+import com.microsoft.azure.toolkit.lib.common.rest.KuduClientFactory;
+import lombok.extern.slf4j.Slf4j;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
-import okio.BufferedSource;
-import org.apache.commons.codec.binary.StringUtils;
-import rx.Emitter;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.lang3.StringUtils;
+import retrofit2.HttpException;
+import retrofit2.Response;
 import rx.Observable;
-import rx.functions.Action1;
+import rx.Subscriber;
 import rx.functions.Func1;
+import rx.observables.SyncOnSubscribe;
+import rx.schedulers.Schedulers;
 
 import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Method;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
+@Slf4j
 public class AppServiceFileService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RANGE_ATTEMPTS = 5;
+    private static final long MIN_RANGE_SIZE = 8L * 1024 * 1024;
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes \\d+-\\d+/(\\d+)");
+    private static final int HTTP_PRECONDITION_FAILED = 412;
+    private static final String ANY_ETAG = "*";
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final long LISTING_FRESHNESS_IN_MILLIS = 30 * 1000;
+    private static final String FILE_MODIFIED = "File(%s) has been modified since the version of etag(%s), reload it and try again";
 
     private final AppServiceFileClient client;
     private final WebAppBase app;
+    private final Map<String, DirectoryListing> listings = new ConcurrentHashMap<>();
 
-    private AppServiceFileService(final WebAppBase app, AppServiceFileClient client) {
+    AppServiceFileService(final WebAppBase app, AppServiceFileClient client) {
         this.app = app;
         this.client = client;
     }
 
+    /**
+     * The file is looked up in the cached listing of its parent directory, which is listed (or revalidated) only if it
+     * is not cached or not validated recently.
+     */
     @Nullable
     @AzureOperation(
         name = "appservice|file.get.path",
@@ -48,27 +84,91 @@ public class AppServiceFileService {
     )
     public AppServiceFile getFileByPath(String path) {
         final File file = new File(path);
-        final List<? extends AppServiceFile> result = getFilesInDirectory(file.getParent());
-        return result.stream()
-            .filter(appServiceFile -> StringUtils.equals(file.getName(), appServiceFile.getName()))
-            .findFirst()
-            .orElse(null);
+        return getDirectoryListing(file.getParent(), false).files.get(file.getName());
     }
 
+    /**
+     * List files in the directory, the cached listing is revalidated with its etag, so an unchanged directory is not
+     * transferred again.
+     */
     @AzureOperation(
         name = "appservice|file.list.dir",
         params = {"$dir", "@app.name()"},
         type = AzureOperation.Type.SERVICE
     )
     public List<? extends AppServiceFile> getFilesInDirectory(String dir) {
-        // this file is generated by kudu itself, should not be visible to user.
-        final Predicate<AppServiceFile> filter = file -> !"text/xml".equals(file.getMime()) || !file.getName().contains("LogFiles-kudu-trace_pending.xml");
-        final List<AppServiceFile> files = this.client.getFilesInDirectory(dir).toBlocking().first().stream().filter(filter).collect(Collectors.toList());
-        files.forEach(file -> {
-            file.setApp(this.app);
-            file.setPath(dir + "/" + file.getName());
-        });
-        return files;
+        return new ArrayList<>(getDirectoryListing(dir, true).files.values());
+    }
+
+    @AzureOperation(
+        name = "appservice|file.create_dir",
+        params = {"$path", "@app.name()"},
+        type = AzureOperation.Type.SERVICE
+    )
+    public void createDirectory(final String path) {
+        try {
+            this.client.createDirectory(path).toBlocking().first();
+        } finally {
+            invalidateDirectoryListing(path, false);
+        }
+    }
+
+    @AzureOperation(
+        name = "appservice|file.delete",
+        params = {"$path", "@app.name()"},
+        type = AzureOperation.Type.SERVICE
+    )
+    public void deleteFile(final String path) {
+        try {
+            this.client.deleteFile(path).toBlocking().first();
+        } finally {
+            invalidateDirectoryListing(path, true);
+        }
+    }
+
+    private DirectoryListing getDirectoryListing(final String dir, final boolean revalidate) {
+        final String key = getListingKey(dir);
+        final DirectoryListing cached = this.listings.get(key);
+        if (cached != null && !revalidate && System.currentTimeMillis() - cached.validatedAt < LISTING_FRESHNESS_IN_MILLIS) {
+            return cached;
+        }
+        final Response<List<AppServiceFile>> response = this.client.getFilesInDirectory(dir, cached == null ? null : cached.etag)
+            .toBlocking().first();
+        final DirectoryListing result;
+        if (cached != null && response.code() == HTTP_NOT_MODIFIED) {
+            result = new DirectoryListing(cached.etag, cached.files);
+        } else if (response.isSuccessful()) {
+            // this file is generated by kudu itself, should not be visible to user.
+            final Predicate<AppServiceFile> filter = file -> !"text/xml".equals(file.getMime()) || !file.getName().contains("LogFiles-kudu-trace_pending.xml");
+            final Map<String, AppServiceFile> files = new LinkedHashMap<>();
+            response.body().stream().filter(filter).forEach(file -> {
+                file.setApp(this.app);
+                file.setPath(dir + "/" + file.getName());
+                files.put(file.getName(), file);
+            });
+            result = new DirectoryListing(response.headers().get("ETag"), Collections.unmodifiableMap(files));
+        } else {
+            throw new HttpException(response);
+        }
+        this.listings.put(key, result);
+        return result;
+    }
+
+    /**
+     * Forget the listing of the parent directory of the path, and the listings of the path and its sub directories if
+     * the path is removed.
+     */
+    private void invalidateDirectoryListing(final String path, final boolean removed) {
+        final String key = getListingKey(path);
+        this.listings.remove(getListingKey(new File(key).getParent()));
+        if (removed) {
+            this.listings.keySet().removeIf(dir -> dir.equals(key) || dir.startsWith(key + "/"));
+        }
+    }
+
+    private static String getListingKey(@Nullable final String dir) {
+        final String result = StringUtils.removeEnd(StringUtils.defaultString(dir).replace('\\', '/'), "/");
+        return result.isEmpty() ? "/" : result;
     }
 
     @AzureOperation(
@@ -77,19 +177,206 @@ public class AppServiceFileService {
         type = AzureOperation.Type.SERVICE
     )
     public Observable<byte[]> getFileContent(final String path) {
-        return this.client.getFileContent(path).flatMap((Func1<ResponseBody, Observable<byte[]>>) responseBody -> {
-            final BufferedSource source = responseBody.source();
-            return Observable.create((Action1<Emitter<byte[]>>) emitter -> {
+        return this.client.getFileContent(path).concatMap((Func1<ResponseBody, Observable<byte[]>>) responseBody ->
+            // read one chunk per chunk requested by the subscriber, so a slow subscriber never makes the content pile up
+            // in memory, and the stream is closed once the content is read or the subscriber unsubscribes
+            Observable.using(responseBody::byteStream, input -> Observable.create(SyncOnSubscribe.<byte[]>createStateless(observer -> {
                 try {
-                    while (!source.exhausted()) {
-                        emitter.onNext(source.readByteArray());
+                    final byte[] buffer = new byte[BUFFER_SIZE];
+                    final int read = IOUtils.read(input, buffer);
+                    if (read > 0) {
+                        observer.onNext(read == BUFFER_SIZE ? buffer : Arrays.copyOf(buffer, read));
+                    } else {
+                        observer.onCompleted();
                     }
-                    emitter.onCompleted();
                 } catch (final IOException e) {
-                    emitter.onError(e);
+                    observer.onError(e);
+                }
+            })), IOUtils::closeQuietly));
+    }
+
+    /**
+     * Open a stream of the file content, the content is read from kudu as the stream is consumed and the caller must
+     * close the stream.
+     *
+     * @param offset position of the first byte to read, a range request is sent when it is positive
+     */
+    @AzureOperation(
+        name = "appservice|file.open_stream",
+        params = {"$path", "@app.name()"},
+        type = AzureOperation.Type.SERVICE
+    )
+    public InputStream openFileContent(final String path, final long offset) throws IOException {
+        final Response<ResponseBody> response = requestFileContent(path, offset, -1);
+        if (response.code() == HTTP_RANGE_NOT_SATISFIABLE) {
+            return new ByteArrayInputStream(new byte[0]); // offset is at or beyond the end of file
+        }
+        final InputStream input = response.body().byteStream();
+        if (offset > 0 && response.code() != HTTP_PARTIAL_CONTENT) {
+            // the range is ignored and the whole file is returned
+            IOUtils.skipFully(input, offset);
+        }
+        return input;
+    }
+
+    public InputStream openFileContent(final String path) throws IOException {
+        return openFileContent(path, 0);
+    }
+
+    /**
+     * Download the file to local path with constant memory. The transfer resumes from the last written byte when the
+     * connection breaks, and a large file is downloaded in parallel ranges if kudu supports range requests, or in a
+     * single stream if it stops honoring them.
+     *
+     * @param parallelism max number of ranges downloaded concurrently
+     */
+    @AzureOperation(
+        name = "appservice|file.download.path",
+        params = {"$path", "@app.name()", "$target"},
+        type = AzureOperation.Type.SERVICE
+    )
+    public void downloadFile(final String path, final Path target, final int parallelism) throws IOException {
+        final long size = parallelism > 1 ? getRangeableFileSize(path) : -1;
+        final int rangeCount = (int) Math.min(parallelism, size / MIN_RANGE_SIZE);
+        try (final FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (rangeCount > 1 && downloadRanges(path, channel, size, rangeCount)) {
+                return;
+            }
+            downloadRange(path, channel, 0, -1);
+        }
+    }
+
+    public void downloadFile(final String path, final Path target) throws IOException {
+        downloadFile(path, target, 1);
+    }
+
+    /**
+     * @return false if kudu stops honoring range requests for the file, the ranges are not all downloaded then
+     */
+    private boolean downloadRanges(final String path, final FileChannel channel, final long size, final int rangeCount) throws IOException {
+        final long rangeSize = (size + rangeCount - 1) / rangeCount;
+        try {
+            // ranges are written to their own positions of the file, so the order they finish in doesn't matter. the
+            // result is reduced instead of short-circuited, since interrupting a range in flight closes the channel
+            final boolean ranged = Observable.range(0, rangeCount)
+                .flatMap(index -> Observable.fromCallable(() ->
+                    downloadRange(path, channel, index * rangeSize, Math.min(size, (index + 1) * rangeSize) - 1)
+                ).subscribeOn(Schedulers.io()), rangeCount)
+                .reduce(Boolean::logicalAnd)
+                .toBlocking()
+                .single();
+            if (!ranged) {
+                log.debug("Range request is not supported for file({}), download it in a single stream", path);
+            }
+            return ranged;
+        } catch (final RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return size of the file, -1 if kudu doesn't support range requests for it
+     */
+    private long getRangeableFileSize(final String path) throws IOException {
+        final Response<ResponseBody> response = requestFileContent(path, 0, 0);
+        try (final ResponseBody ignored = response.body()) {
+            final String contentRange = response.headers().get("Content-Range");
+            final Matcher matcher = CONTENT_RANGE.matcher(contentRange == null ? "" : contentRange);
+            return response.code() == HTTP_PARTIAL_CONTENT && matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+        }
+    }
+
+    /**
+     * Download bytes from start to end (inclusive, -1 for the end of file) to the same positions of the channel, the
+     * download resumes from the last written byte if the connection breaks.
+     *
+     * @return false if kudu returns the whole file for a range which doesn't start at 0, nothing is written then
+     */
+    private boolean downloadRange(final String path, final FileChannel channel, final long start, final long end) throws IOException {
+        long position = start;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final Response<ResponseBody> response = requestFileContent(path, position, end);
+                if (response.code() == HTTP_RANGE_NOT_SATISFIABLE) {
+                    if (end < 0 && position > start) {
+                        return true; // the connection broke right after the last byte
+                    }
+                    throw new IOException(String.format("Range(%d-%d) of file(%s) is not satisfiable", position, end, path));
+                }
+                if (position > 0 && response.code() != HTTP_PARTIAL_CONTENT) {
+                    response.body().close();
+                    if (start > 0) {
+                        return false;
+                    }
+                    position = 0; // range is not supported, download the whole file again
+                    continue;
+                }
+                try (final InputStream input = response.body().byteStream()) {
+                    final byte[] buffer = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((end < 0 || position <= end) && (read = input.read(buffer)) != -1) {
+                        final int length = end < 0 ? read : (int) Math.min(read, end - position + 1);
+                        final ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, length);
+                        while (bytes.hasRemaining()) {
+                            position += channel.write(bytes, position);
+                        }
+                    }
+                }
+                if (end >= 0 && position <= end) {
+                    throw new EOFException(String.format("Stream of file(%s) ended at byte %d before %d", path, position, end));
                 }
-            }, Emitter.BackpressureMode.BUFFER);
+                return true;
+            } catch (final IOException e) {
+                if (attempt >= MAX_RANGE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Failed to download file({}) (attempt {}), resume from byte {}: {}", path, attempt, position, e.getMessage());
+            }
+        }
+    }
+
+    private Response<ResponseBody> requestFileContent(final String path, final long start, final long end) throws IOException {
+        final String range = start <= 0 && end < 0 ? null : String.format("bytes=%d-%s", start, end < 0 ? "" : String.valueOf(end));
+        final CompletableFuture<Response<ResponseBody>> future = new CompletableFuture<>();
+        // retrofit cancels the call once the subscriber unsubscribes, which also closes the streaming body. subscribe
+        // unsafely, so the subscriber is not unsubscribed on completion and the body stays readable until it is closed.
+        this.client.getFileContentInRange(path, range).unsafeSubscribe(new Subscriber<Response<ResponseBody>>() {
+            @Override
+            public void onNext(final Response<ResponseBody> response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onError(final Throwable e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
         });
+        final Response<ResponseBody> response;
+        try {
+            response = future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        if (!response.isSuccessful() && response.code() != HTTP_RANGE_NOT_SATISFIABLE) {
+            try (final ResponseBody errorBody = response.errorBody()) {
+                throw new IOException(String.format("Failed to get content of file(%s): %d %s", path, response.code(), response.message()));
+            }
+        }
+        return response;
     }
 
     @AzureOperation(
@@ -100,38 +387,96 @@ public class AppServiceFileService {
     public void uploadFileToPath(String content, String path) {
         // this file is generated by kudu itself, should not be visible to user.
         RequestBody body = RequestBody.create(MediaType.parse("application/octet-stream"), content);
-        this.client.saveFile(path, body).toBlocking().single();
+        try {
+            this.client.saveFile(path, body).toBlocking().single();
+        } finally {
+            invalidateDirectoryListing(path, false);
+        }
+    }
+
+    public void uploadFileToPath(final File file, final String path) throws IOException {
+        uploadFileToPath(file.toPath(), path, null, false);
+    }
+
+    public void uploadFileToPath(final Path file, final String path) throws IOException {
+        uploadFileToPath(file, path, null, false);
+    }
+
+    /**
+     * Upload the local file with constant memory, the content is streamed from disk to the connection.
+     *
+     * @param etag    etag of the remote file the upload is based on, the upload fails if the remote file has been
+     *                modified since then, null to overwrite the file whatever its version is
+     * @param chunked whether to send the content with chunked transfer encoding instead of a content length
+     */
+    @AzureOperation(
+        name = "appservice|file.upload",
+        params = {"$path", "@app.name()"},
+        type = AzureOperation.Type.SERVICE
+    )
+    public void uploadFileToPath(final Path file, final String path, @Nullable final String etag, final boolean chunked) throws IOException {
+        final long length = chunked ? -1 : Files.size(file);
+        saveFile(path, etag, new StreamingRequestBody(() -> Files.newInputStream(file), length, true));
+    }
+
+    /**
+     * Upload the content of the stream with constant memory, the stream is read until its end but not closed.
+     *
+     * @param contentLength length of the content, -1 if it is unknown and the content is sent with chunked transfer
+     *                      encoding
+     * @param etag          etag of the remote file the upload is based on, null to overwrite the file whatever its
+     *                      version is
+     */
+    @AzureOperation(
+        name = "appservice|file.upload",
+        params = {"$path", "@app.name()"},
+        type = AzureOperation.Type.SERVICE
+    )
+    public void uploadFileToPath(final InputStream content, final long contentLength, final String path, @Nullable final String etag)
+        throws IOException {
+        // the stream can only be read once, a retried request fails instead of sending partial content
+        saveFile(path, etag, new StreamingRequestBody(() -> new CloseShieldInputStream(content), contentLength, false));
+    }
+
+    public void uploadFileToPath(final InputStream content, final String path) throws IOException {
+        uploadFileToPath(content, -1, path, null);
+    }
+
+    private void saveFile(final String path, @Nullable final String etag, final RequestBody body) throws IOException {
+        try {
+            this.client.saveFile(path, etag == null ? ANY_ETAG : etag, body).toBlocking().single();
+        } catch (final HttpException e) {
+            if (e.code() == HTTP_PRECONDITION_FAILED) {
+                throw new AzureToolkitRuntimeException(String.format(FILE_MODIFIED, path, etag), e);
+            }
+            throw e;
+        } catch (final RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            // a listing loaded while the file is being uploaded may not have it yet
+            invalidateDirectoryListing(path, false);
+        }
     }
 
     public static AppServiceFileService forApp(final WebAppBase app) {
-        final AppServiceFileClient client = getClient(app);
+        final AppServiceFileClient client = KuduClientFactory.create(app.manager(), app.defaultHostName(), KuduFileClient.class);
         return new AppServiceFileService(app, client);
     }
 
-    private static AppServiceFileClient getClient(WebAppBase app) {
-        if (app.defaultHostName() == null) {
-            throw new UnsupportedOperationException("Cannot initialize kudu vfs client before web app is created");
-        } else {
-            String host = app.defaultHostName().toLowerCase().replace("http://", "").replace("https://", "");
-            final String[] parts = host.split("\\.", 2);
-            host = Joiner.on('.').join(parts[0], "scm", parts[1]);
-            final AppServiceManager manager = app.manager();
-            final RestClient restClient = getRestClient(manager);
-            return restClient.newBuilder()
-                .withBaseUrl("https://" + host)
-                .withConnectionTimeout(3L, TimeUnit.MINUTES)
-                .withReadTimeout(3L, TimeUnit.MINUTES)
-                .build()
-                .retrofit()
-                .create(KuduFileClient.class);
-        }
-    }
-
-    @SneakyThrows
-    private static RestClient getRestClient(final AppServiceManager manager) {
-        //TODO: @wangmi find a proper way to get rest client.
-        final Method method = manager.getClass().getDeclaredMethod("restClient");
-        method.setAccessible(true);
-        return (RestClient) method.invoke(manager);
+    /**
+     * Files of a directory indexed by name, with the etag kudu returned for the listing.
+     */
+    private static class DirectoryListing {
+        private final String etag;
+        private final Map<String, AppServiceFile> files;
+        private final long validatedAt = System.currentTimeMillis();
+
+        DirectoryListing(@Nullable final String etag, final Map<String, AppServiceFile> files) {
+            this.etag = etag;
+            this.files = files;
+        }
     }
 }
@@ -7,9 +7,11 @@ package com.microsoft.azure.toolkit.lib.appservice.file;
 
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import retrofit2.Response;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Headers;
 import retrofit2.http.PUT;
 import retrofit2.http.Path;
@@ -27,6 +29,14 @@ public interface KuduFileClient extends AppServiceFileClient {
     @Streaming
     Observable<ResponseBody> getFileContent(@Path("path") String path);
 
+    @Headers({
+        "Content-Type: application/json; charset=utf-8",
+        "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps getFile"
+    })
+    @GET("api/vfs/{path}")
+    @Streaming
+    Observable<Response<ResponseBody>> getFileContentInRange(@Path("path") String path, @Header("Range") String range);
+
     @Headers({
         "Content-Type: application/json; charset=utf-8",
         "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps getFilesInDirectory"
@@ -34,6 +44,13 @@ public interface KuduFileClient extends AppServiceFileClient {
     @GET("api/vfs/{path}/")
     Observable<List<AppServiceFile>> getFilesInDirectory(@Path("path") String path);
 
+    @Headers({
+        "Content-Type: application/json; charset=utf-8",
+        "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps getFilesInDirectory"
+    })
+    @GET("api/vfs/{path}/")
+    Observable<Response<List<AppServiceFile>>> getFilesInDirectory(@Path("path") String path, @Header("If-None-Match") String etag);
+
     @Headers({
         "Content-Type: application/json; charset=utf-8",
         "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps saveFile",
@@ -42,6 +59,12 @@ public interface KuduFileClient extends AppServiceFileClient {
     @PUT("api/vfs/{path}")
     Observable<Void> saveFile(@Path("path") String path, @Body RequestBody requestBody);
 
+    @Headers({
+        "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps saveFile"
+    })
+    @PUT("api/vfs/{path}")
+    Observable<Void> saveFile(@Path("path") String path, @Header("If-Match") String etag, @Body RequestBody requestBody);
+
     @Headers({
         "Content-Type: application/json; charset=utf-8",
         "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps createDirectory"
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.file;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Request body which copies the content from a stream to the connection, the content is never held in memory. Its
+ * length is unknown when it is sent with chunked transfer encoding.
+ */
+class StreamingRequestBody extends RequestBody {
+    private static final MediaType OCTET_STREAM = MediaType.parse("application/octet-stream");
+
+    private final ContentSupplier content;
+    private final long contentLength;
+    private final boolean replayable;
+    private final AtomicBoolean consumed = new AtomicBoolean(false);
+
+    /**
+     * @param contentLength length of the content, -1 to send it with chunked transfer encoding
+     * @param replayable    whether the supplier can open the content again, e.g. when okhttp retries the request
+     */
+    StreamingRequestBody(final ContentSupplier content, final long contentLength, final boolean replayable) {
+        this.content = content;
+        this.contentLength = contentLength;
+        this.replayable = replayable;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return OCTET_STREAM;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(final BufferedSink sink) throws IOException {
+        if (!consumed.compareAndSet(false, true) && !replayable) {
+            throw new IOException("Content stream has been consumed and cannot be sent again");
+        }
+        try (final Source source = Okio.source(content.open())) {
+            sink.writeAll(source);
+        }
+    }
+
+    @FunctionalInterface
+    interface ContentSupplier {
+        InputStream open() throws IOException;
+    }
+}
@@ -13,6 +13,7 @@ import com.microsoft.azure.toolkit.lib.appservice.service.IAppServicePlan;
 import com.microsoft.azure.toolkit.lib.appservice.service.IAppServicePlanCreator;
 import com.microsoft.azure.toolkit.lib.appservice.service.IAppServicePlanUpdater;
 import com.microsoft.azure.toolkit.lib.appservice.service.IWebApp;
+import com.microsoft.azure.toolkit.lib.common.cache.ResourceCache;
 import com.microsoft.azure.toolkit.lib.common.model.Region;
 import org.apache.commons.lang3.StringUtils;
 
@@ -22,6 +23,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class AppServicePlan implements IAppServicePlan {
+    private static final String CACHE_KEY_PREFIX = "plan";
 
     private AppServicePlanEntity entity;
     private AzureAppService azureAppService;
@@ -52,9 +54,8 @@ public class AppServicePlan implements IAppServicePlan {
 
     @Override
     public List<IWebApp> webapps() {
-        return getAppServicePlanInner().manager().webApps().list().stream()
-            .filter(webapp -> StringUtils.equals(webapp.appServicePlanId(), getAppServicePlanInner().id()))
-            .map(webapp -> new WebApp(AppServiceUtils.fromWebAppBasic(webapp), azureAppService))
+        return azureAppService.getWebAppIndex().getWebApps(getPlanId()).stream()
+            .map(site -> new WebApp(AppServiceUtils.fromSiteInner(site), azureAppService))
             .collect(Collectors.toList());
     }
 
@@ -65,13 +66,56 @@ public class AppServicePlan implements IAppServicePlan {
 
     public com.azure.resourcemanager.appservice.models.AppServicePlan getAppServicePlanInner() {
         if (appServicePlanInner == null) {
-            refreshAppServicePlanInner();
+            final com.azure.resourcemanager.appservice.models.AppServicePlan cached = azureAppService.getResourceCache().get(getCacheKey());
+            if (cached != null) {
+                setAppServicePlanInner(cached);
+            } else {
+                refreshAppServicePlanInner();
+            }
         }
         return appServicePlanInner;
     }
 
     public synchronized void refreshAppServicePlanInner() {
-        appServicePlanInner = AppServiceUtils.getAppServicePlan(entity, azureClient);
+        final com.azure.resourcemanager.appservice.models.AppServicePlan remote = AppServiceUtils.getAppServicePlan(entity, azureClient);
+        if (remote == null) {
+            appServicePlanInner = null;
+            invalidateCache();
+        } else {
+            setAppServicePlanInner(remote);
+        }
+    }
+
+    private void setAppServicePlanInner(com.azure.resourcemanager.appservice.models.AppServicePlan appServicePlan) {
+        appServicePlanInner = appServicePlan;
+        entity = AppServiceUtils.fromAppServicePlan(appServicePlan);
+        // cache by both id and name, since wrappers may be created with either of them
+        final ResourceCache cache = azureAppService.getResourceCache();
+        cache.put(appServicePlan.id(), appServicePlan);
+        cache.put(ResourceCache.key(CACHE_KEY_PREFIX, appServicePlan.resourceGroupName(), appServicePlan.name()), appServicePlan);
+    }
+
+    private void invalidateCache() {
+        final ResourceCache cache = azureAppService.getResourceCache();
+        if (StringUtils.isNotEmpty(entity.getId())) {
+            cache.invalidate(entity.getId());
+        }
+        if (StringUtils.isNoneEmpty(entity.getResourceGroup(), entity.getName())) {
+            cache.invalidate(ResourceCache.key(CACHE_KEY_PREFIX, entity.getResourceGroup(), entity.getName()));
+        }
+    }
+
+    private String getPlanId() {
+        if (appServicePlanInner != null) {
+            return appServicePlanInner.id();
+        }
+        return StringUtils.isNotEmpty(entity.getId()) ? entity.getId() :
+            azureAppService.getWebAppIndex().getPlanId(entity.getResourceGroup(), entity.getName());
+    }
+
+    private String getCacheKey() {
+        return StringUtils.isNotEmpty(entity.getId()) ? entity.getId() :
+            ResourceCache.key(CACHE_KEY_PREFIX, entity.getResourceGroup(), entity.getName());
     }
 
     @Override
@@ -123,12 +167,11 @@ public class AppServicePlan implements IAppServicePlan {
 
         @Override
         public IAppServicePlan commit() {
-            AppServicePlan.this.appServicePlanInner = azureClient.appServicePlans().define(name)
+            AppServicePlan.this.setAppServicePlanInner(azureClient.appServicePlans().define(name)
                 .withRegion(region.getName())
                 .withExistingResourceGroup(resourceGroup)
                 .withPricingTier(AppServiceUtils.toPricingTier(pricingTier))
-                .withOperatingSystem(convertOS(operatingSystem)).create();
-            AppServicePlan.this.entity = AppServiceUtils.fromAppServicePlan(AppServicePlan.this.appServicePlanInner);
+                .withOperatingSystem(convertOS(operatingSystem)).create());
             return AppServicePlan.this;
         }
 
@@ -150,7 +193,7 @@ public class AppServicePlan implements IAppServicePlan {
         @Override
         public AppServicePlan commit() {
             boolean modified = false;
-            com.azure.resourcemanager.appservice.models.AppServicePlan.Update update = appServicePlanInner.update();
+            com.azure.resourcemanager.appservice.models.AppServicePlan.Update update = getAppServicePlanInner().update();
             if (pricingTier != null && pricingTier.isPresent()) {
                 final com.azure.resourcemanager.appservice.models.PricingTier newPricingTier = AppServiceUtils.toPricingTier(pricingTier.get());
                 if (!Objects.equals(newPricingTier, AppServicePlan.this.getAppServicePlanInner().pricingTier())) {
@@ -159,9 +202,8 @@ public class AppServicePlan implements IAppServicePlan {
                 }
             }
             if (modified) {
-                AppServicePlan.this.appServicePlanInner = update.apply();
+                AppServicePlan.this.setAppServicePlanInner(update.apply());
             }
-            AppServicePlan.this.entity = AppServiceUtils.fromAppServicePlan(AppServicePlan.this.appServicePlanInner);
             return AppServicePlan.this;
         }
     }
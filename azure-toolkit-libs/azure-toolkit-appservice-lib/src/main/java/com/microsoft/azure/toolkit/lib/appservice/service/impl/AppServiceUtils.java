@@ -6,12 +6,14 @@ package com.microsoft.azure.toolkit.lib.appservice.service.impl;
 
 import com.azure.core.management.exception.ManagementException;
 import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.appservice.fluent.models.SiteInner;
 import com.azure.resourcemanager.appservice.models.AppServicePlan;
 import com.azure.resourcemanager.appservice.models.DeploymentSlot;
 import com.azure.resourcemanager.appservice.models.RuntimeStack;
 import com.azure.resourcemanager.appservice.models.SkuDescription;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
 import com.azure.resourcemanager.appservice.models.WebAppBasic;
+import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.microsoft.azure.toolkit.lib.appservice.entity.AppServicePlanEntity;
 import com.microsoft.azure.toolkit.lib.appservice.entity.WebAppDeploymentSlotEntity;
 import com.microsoft.azure.toolkit.lib.appservice.entity.WebAppEntity;
@@ -28,7 +30,7 @@ import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
 import java.util.Objects;
 
-class AppServiceUtils {
+public class AppServiceUtils {
 
     static Runtime getRuntimeFromWebApp(WebAppBase webAppBase) {
         if (StringUtils.startsWithIgnoreCase(webAppBase.linuxFxVersion(), "docker")) {
@@ -139,7 +141,7 @@ class AppServiceUtils {
             .build();
     }
 
-    static WebAppEntity fromWebAppBasic(WebAppBasic webAppBasic) {
+    public static WebAppEntity fromWebAppBasic(WebAppBasic webAppBasic) {
         return WebAppEntity.builder().name(webAppBasic.name())
             .id(webAppBasic.id())
             .region(Region.fromName(webAppBasic.regionName()))
@@ -150,6 +152,17 @@ class AppServiceUtils {
             .build();
     }
 
+    static WebAppEntity fromSiteInner(SiteInner site) {
+        return WebAppEntity.builder().name(site.name())
+            .id(site.id())
+            .region(Region.fromName(site.location()))
+            .resourceGroup(ResourceId.fromString(site.id()).resourceGroupName())
+            .subscriptionId(Utils.getSubscriptionId(site.id()))
+            .appServicePlanId(site.serverFarmId())
+            .defaultHostName(site.defaultHostname())
+            .build();
+    }
+
     static WebAppDeploymentSlotEntity fromWebAppDeploymentSlot(DeploymentSlot deploymentSlot) {
         return WebAppDeploymentSlotEntity.builder()
             .name(deploymentSlot.name())
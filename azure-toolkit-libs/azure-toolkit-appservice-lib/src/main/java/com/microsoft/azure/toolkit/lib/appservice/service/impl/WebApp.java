@@ -24,8 +24,10 @@ import com.microsoft.azure.toolkit.lib.appservice.service.AbstractAppServiceUpda
 import com.microsoft.azure.toolkit.lib.appservice.service.IAppServicePlan;
 import com.microsoft.azure.toolkit.lib.appservice.service.IWebApp;
 import com.microsoft.azure.toolkit.lib.appservice.service.IWebAppDeploymentSlot;
+import com.microsoft.azure.toolkit.lib.common.cache.ResourceCache;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.File;
 import java.util.List;
@@ -35,6 +37,7 @@ import java.util.stream.Collectors;
 public class WebApp implements IWebApp {
 
     private static final String UNSUPPORTED_OPERATING_SYSTEM = "Unsupported operating system %s";
+    private static final String CACHE_KEY_PREFIX = "webapp";
     private WebAppEntity entity;
     private AzureAppService azureAppService;
 
@@ -79,7 +82,10 @@ public class WebApp implements IWebApp {
 
     @Override
     public void delete() {
+        final String appServicePlanId = getWebAppInner().appServicePlanId();
         azureClient.webApps().deleteById(getWebAppInner().id());
+        invalidateCache();
+        azureAppService.getWebAppIndex().invalidate(appServicePlanId);
     }
 
     @Override
@@ -137,31 +143,65 @@ public class WebApp implements IWebApp {
 
     private com.azure.resourcemanager.appservice.models.WebApp getWebAppInner() {
         if (webAppInner == null) {
-            refreshWebAppInner();
+            // the entity is cached along with the model, since converting the model fetches its app settings
+            final Pair<com.azure.resourcemanager.appservice.models.WebApp, WebAppEntity> cached =
+                azureAppService.getResourceCache().get(getCacheKey());
+            if (cached != null) {
+                webAppInner = cached.getLeft();
+                entity = cached.getRight();
+            } else {
+                refreshWebAppInner();
+            }
         }
         return webAppInner;
     }
 
     synchronized void refreshWebAppInner() {
         try {
-            webAppInner = StringUtils.isNotEmpty(entity.getId()) ?
+            setWebAppInner(StringUtils.isNotEmpty(entity.getId()) ?
                 azureClient.webApps().getById(entity.getId()) :
-                azureClient.webApps().getByResourceGroup(entity.getResourceGroup(), entity.getName());
-            entity = AppServiceUtils.fromWebApp(webAppInner);
+                azureClient.webApps().getByResourceGroup(entity.getResourceGroup(), entity.getName()));
         } catch (ManagementException e) {
             // SDK will throw exception when resource not founded
             webAppInner = null;
+            invalidateCache();
         }
     }
 
+    private void setWebAppInner(com.azure.resourcemanager.appservice.models.WebApp webApp) {
+        webAppInner = webApp;
+        entity = AppServiceUtils.fromWebApp(webApp);
+        // cache by both id and name, since wrappers may be created with either of them
+        final ResourceCache cache = azureAppService.getResourceCache();
+        final Pair<com.azure.resourcemanager.appservice.models.WebApp, WebAppEntity> cached = Pair.of(webApp, entity);
+        cache.put(webApp.id(), cached);
+        cache.put(ResourceCache.key(CACHE_KEY_PREFIX, webApp.resourceGroupName(), webApp.name()), cached);
+    }
+
+    private void invalidateCache() {
+        final ResourceCache cache = azureAppService.getResourceCache();
+        if (StringUtils.isNotEmpty(entity.getId())) {
+            cache.invalidate(entity.getId());
+        }
+        if (StringUtils.isNoneEmpty(entity.getResourceGroup(), entity.getName())) {
+            cache.invalidate(ResourceCache.key(CACHE_KEY_PREFIX, entity.getResourceGroup(), entity.getName()));
+        }
+    }
+
+    private String getCacheKey() {
+        return StringUtils.isNotEmpty(entity.getId()) ? entity.getId() :
+            ResourceCache.key(CACHE_KEY_PREFIX, entity.getResourceGroup(), entity.getName());
+    }
+
     @Override
     public String id() {
-        return getWebAppInner().id();
+        // entities seeded from a listing have both id and name, don't fetch the web app for them
+        return StringUtils.isNoneEmpty(entity.getId(), entity.getName()) ? entity.getId() : getWebAppInner().id();
     }
 
     @Override
     public String name() {
-        return getWebAppInner().name();
+        return StringUtils.isNoneEmpty(entity.getId(), entity.getName()) ? entity.getName() : getWebAppInner().name();
     }
 
     public class WebAppCreator extends AbstractAppServiceCreator<WebApp> {
@@ -191,8 +231,8 @@ public class WebApp implements IWebApp {
                 // todo: support remove app settings
                 withCreate.withAppSettings(getAppSettings().get());
             }
-            WebApp.this.webAppInner = withCreate.create();
-            WebApp.this.entity = AppServiceUtils.fromWebApp(WebApp.this.webAppInner);
+            WebApp.this.setWebAppInner(withCreate.create());
+            azureAppService.getWebAppIndex().invalidate(appServicePlan.id());
             return WebApp.this;
         }
 
@@ -246,9 +286,13 @@ public class WebApp implements IWebApp {
                 update.withAppSettings(getAppSettings().get());
             }
             if (modified) {
-                WebApp.this.webAppInner = update.apply();
+                final String originalPlanId = getWebAppInner().appServicePlanId();
+                WebApp.this.setWebAppInner(update.apply());
+                if (!StringUtils.equalsIgnoreCase(originalPlanId, getWebAppInner().appServicePlanId())) {
+                    azureAppService.getWebAppIndex().invalidate(originalPlanId);
+                    azureAppService.getWebAppIndex().invalidate(getWebAppInner().appServicePlanId());
+                }
             }
-            WebApp.this.entity = AppServiceUtils.fromWebApp(WebApp.this.webAppInner);
             return WebApp.this;
         }
 
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.service.impl;
+
+import com.azure.core.management.exception.ManagementException;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.appservice.fluent.models.SiteInner;
+import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Web apps of app service plans indexed by plan id. The web apps of a plan are listed with the plan scoped listing
+ * ({@code serverfarms/{name}/sites}) rather than listing every web app of the subscription and filtering them on the
+ * client, and the sites in the listing payload are enough to build the entities of the web apps, so no follow-up GET is
+ * needed. Entries are listed again after the TTL, callers must invalidate the plans whose web apps were created, moved or
+ * deleted.
+ */
+@Slf4j
+public class WebAppIndex {
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+    private static final String PLAN_ID_TEMPLATE = "/subscriptions/%s/resourceGroups/%s/providers/Microsoft.Web/serverfarms/%s";
+    private static final String SLOTS = "/slots/";
+    private static final int HTTP_NOT_FOUND = 404;
+
+    private final AzureResourceManager azureClient;
+    private final Duration ttl;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public WebAppIndex(@Nonnull AzureResourceManager azureClient) {
+        this(azureClient, DEFAULT_TTL);
+    }
+
+    public WebAppIndex(@Nonnull AzureResourceManager azureClient, @Nonnull Duration ttl) {
+        this.azureClient = azureClient;
+        this.ttl = ttl;
+    }
+
+    /**
+     * @return id of the plan in the subscription of this index, built without fetching the plan
+     */
+    public String getPlanId(@Nonnull String resourceGroup, @Nonnull String name) {
+        return String.format(PLAN_ID_TEMPLATE, azureClient.subscriptionId(), resourceGroup, name);
+    }
+
+    /**
+     * @return sites of the web apps (deployment slots excluded) hosted in the plan, empty if the plan doesn't exist
+     */
+    @Nonnull
+    public List<SiteInner> getWebApps(@Nonnull String planId) {
+        final String key = StringUtils.lowerCase(planId);
+        final Entry cached = entries.get(key);
+        if (cached != null && cached.isFresh(ttl)) {
+            return cached.sites;
+        }
+        final Entry entry = new Entry(listWebApps(planId));
+        entries.put(key, entry);
+        return entry.sites;
+    }
+
+    public void invalidate(@Nullable String planId) {
+        if (StringUtils.isNotEmpty(planId)) {
+            entries.remove(StringUtils.lowerCase(planId));
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private List<SiteInner> listWebApps(String planId) {
+        final ResourceId plan = ResourceId.fromString(planId);
+        log.debug("Listing web apps of app service plan {}", planId);
+        try {
+            return Collections.unmodifiableList(azureClient.appServicePlans().manager().serviceClient().getAppServicePlans()
+                .listWebApps(plan.resourceGroupName(), plan.name()).stream()
+                .filter(site -> !StringUtils.containsIgnoreCase(site.id(), SLOTS))
+                .collect(Collectors.toList()));
+        } catch (ManagementException e) {
+            if (e.getResponse() != null && e.getResponse().getStatusCode() == HTTP_NOT_FOUND) {
+                return Collections.emptyList();
+            }
+            throw e;
+        }
+    }
+
+    private static class Entry {
+        private final List<SiteInner> sites;
+        private final long listedAt = System.currentTimeMillis();
+
+        Entry(List<SiteInner> sites) {
+            this.sites = sites;
+        }
+
+        boolean isFresh(Duration ttl) {
+            final long age = System.currentTimeMillis() - listedAt;
+            return age >= 0 && age < ttl.toMillis();
+        }
+    }
+}
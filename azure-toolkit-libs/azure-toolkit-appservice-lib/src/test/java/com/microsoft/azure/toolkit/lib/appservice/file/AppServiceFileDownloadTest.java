@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.file;
+
+import com.microsoft.azure.management.appservice.WebAppBase;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.ResponseBody;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava.RxJavaCallAdapterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Streaming;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives the downloads of {@link AppServiceFileService} against a fake kudu vfs endpoint over http.
+ */
+public class AppServiceFileDownloadTest {
+    // two ranges of the minimal range size, and a few more bytes
+    private static final byte[] CONTENT = new byte[16 * 1024 * 1024 + 123];
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private AppServiceFileService service;
+    /**
+     * Range header of every content request, "" for a request without range.
+     */
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Ends of the ranges whose first response is broken halfway.
+     */
+    private final Set<Long> brokenRanges = ConcurrentHashMap.newKeySet();
+    private volatile boolean rangeSupported = true;
+    private volatile boolean probeSupported = true;
+
+    @Before
+    public void setUp() throws IOException {
+        new Random(1).nextBytes(CONTENT);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/vfs/", this::handle);
+        server.start();
+
+        final KuduApi api = new Retrofit.Builder()
+            .baseUrl("http://localhost:" + server.getAddress().getPort() + "/")
+            .addCallAdapterFactory(RxJavaCallAdapterFactory.create())
+            .build()
+            .create(KuduApi.class);
+        // retrofit rejects service interfaces which extend others, e.g. KuduFileClient
+        final AppServiceFileClient client = (AppServiceFileClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class[]{AppServiceFileClient.class}, (proxy, method, args) -> KuduApi.class.getMethod(method.getName(),
+                method.getParameterTypes()).invoke(api, args));
+        final WebAppBase app = mock(WebAppBase.class);
+        doReturn("app").when(app).name();
+        service = new AppServiceFileService(app, client);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void resumeBrokenDownload() throws IOException {
+        brokenRanges.add(-1L);
+        final Path target = folder.newFile().toPath();
+
+        service.downloadFile("file.bin", target);
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertEquals(2, ranges.size());
+        assertEquals("", ranges.get(0));
+        assertEquals(String.format("bytes=%d-", CONTENT.length / 2), ranges.get(1));
+    }
+
+    @Test
+    public void downloadInParallelRanges() throws IOException {
+        final long half = (CONTENT.length + 1) / 2;
+        brokenRanges.add(half - 1);
+        brokenRanges.add(CONTENT.length - 1L);
+        final Path target = folder.newFile().toPath();
+
+        service.downloadFile("file.bin", target, 4);
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertTrue(ranges.contains("bytes=0-0"));
+        assertTrue(ranges.contains(String.format("bytes=0-%d", half - 1)));
+        assertTrue(ranges.contains(String.format("bytes=%d-%d", half, CONTENT.length - 1)));
+        // every range is resumed once from where its broken response ended
+        assertEquals(5, ranges.size());
+    }
+
+    @Test
+    public void downloadWithoutRangeSupport() throws IOException {
+        rangeSupported = false;
+        probeSupported = false;
+        brokenRanges.add(-1L);
+        final Path target = folder.newFile().toPath();
+
+        service.downloadFile("file.bin", target, 4);
+
+        // the probe is ignored, so the file is downloaded in a single stream, which restarts from the first byte when
+        // it breaks since the resuming range is ignored too
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertEquals(Arrays.asList("bytes=0-0", "", "bytes=" + CONTENT.length / 2 + "-", ""), ranges);
+    }
+
+    @Test
+    public void fallBackToSingleStreamIfRangesAreIgnored() throws IOException {
+        rangeSupported = false;
+        final Path target = folder.newFile().toPath();
+
+        service.downloadFile("file.bin", target, 4);
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertEquals("", ranges.get(ranges.size() - 1));
+    }
+
+    @Test
+    public void openFileContentFromOffset() throws IOException {
+        try (final InputStream input = service.openFileContent("file.bin", 5)) {
+            assertArrayEquals(Arrays.copyOfRange(CONTENT, 5, CONTENT.length), IOUtils.toByteArray(input));
+        }
+        rangeSupported = false;
+        probeSupported = false;
+        try (final InputStream input = service.openFileContent("file.bin", 5)) {
+            assertArrayEquals(Arrays.copyOfRange(CONTENT, 5, CONTENT.length), IOUtils.toByteArray(input));
+        }
+    }
+
+    @Test
+    public void getFileContentOnRequest() throws IOException {
+        final TestSubscriber<byte[]> subscriber = TestSubscriber.create(1);
+        service.getFileContent("file.bin").subscribeOn(Schedulers.io()).subscribe(subscriber);
+        subscriber.awaitValueCount(1, 10, TimeUnit.SECONDS);
+        // nothing more is emitted until the subscriber asks for it
+        subscriber.assertValueCount(1);
+        subscriber.assertNotCompleted();
+
+        subscriber.requestMore(Long.MAX_VALUE);
+        subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS);
+        subscriber.assertNoErrors();
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (final byte[] chunk : subscriber.getOnNextEvents()) {
+            assertTrue(chunk.length <= 64 * 1024);
+            content.write(chunk);
+        }
+        assertArrayEquals(CONTENT, content.toByteArray());
+    }
+
+    @Test
+    public void stopReadingFileContentOnUnsubscribe() {
+        final List<byte[]> chunks = service.getFileContent("file.bin").take(2).toList().toBlocking().single();
+
+        assertEquals(2, chunks.size());
+        assertArrayEquals(Arrays.copyOf(CONTENT, 64 * 1024), chunks.get(0));
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final String range = exchange.getRequestHeaders().getFirst("Range");
+        ranges.add(range == null ? "" : range);
+        long start = 0;
+        long end = CONTENT.length - 1;
+        final boolean probe = "bytes=0-0".equals(range);
+        if (range != null && (probe ? probeSupported : rangeSupported)) {
+            final String[] parts = range.substring("bytes=".length()).split("-", -1);
+            start = Long.parseLong(parts[0]);
+            end = parts[1].isEmpty() ? end : Long.parseLong(parts[1]);
+            exchange.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", start, end, CONTENT.length));
+            exchange.sendResponseHeaders(206, end - start + 1);
+        } else {
+            exchange.sendResponseHeaders(200, CONTENT.length);
+        }
+        final OutputStream output = exchange.getResponseBody();
+        if (brokenRanges.remove(range == null ? -1L : end)) {
+            // the server drops the connection of an exchange whose handler fails, the client sees the body end halfway
+            output.write(CONTENT, (int) start, (int) (end - start + 1) / 2);
+            output.flush();
+            throw new IOException("Connection is broken on purpose");
+        }
+        try {
+            output.write(CONTENT, (int) start, (int) (end - start + 1));
+            output.close();
+        } catch (final IOException e) {
+            // the client may close the connection once it has read the bytes it asked for
+        }
+    }
+
+    /**
+     * Retrofit service of the kudu vfs endpoints used by downloads.
+     */
+    interface KuduApi {
+        @GET("api/vfs/{path}")
+        @Streaming
+        Observable<ResponseBody> getFileContent(@retrofit2.http.Path("path") String path);
+
+        @GET("api/vfs/{path}")
+        @Streaming
+        Observable<Response<ResponseBody>> getFileContentInRange(@retrofit2.http.Path("path") String path, @Header("Range") String range);
+    }
+}
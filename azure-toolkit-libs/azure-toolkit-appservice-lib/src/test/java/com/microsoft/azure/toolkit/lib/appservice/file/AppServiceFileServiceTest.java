@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.file;
+
+import com.microsoft.azure.management.appservice.WebAppBase;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Response;
+import rx.Observable;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class AppServiceFileServiceTest {
+    private static final String ROOT = "site/wwwroot";
+
+    private FakeFileClient client;
+    private AppServiceFileService service;
+
+    @Before
+    public void setUp() {
+        final WebAppBase app = mock(WebAppBase.class);
+        doReturn("app").when(app).name();
+        client = new FakeFileClient();
+        client.addFile(ROOT, "index.html");
+        service = new AppServiceFileService(app, client);
+    }
+
+    @Test
+    public void getFileByPathFromCachedListing() {
+        assertNotNull(service.getFileByPath(ROOT + "/index.html"));
+        assertNull(service.getFileByPath(ROOT + "/missing.html"));
+
+        assertEquals(1, client.listings.size());
+    }
+
+    @Test
+    public void revalidateListingWithEtag() {
+        assertEquals(Collections.singletonList("index.html"), getNames(service.getFilesInDirectory(ROOT)));
+        assertEquals(Collections.singletonList("index.html"), getNames(service.getFilesInDirectory(ROOT)));
+        // the unchanged listing is revalidated with the etag of the cached one, and kudu answers 304 without body
+        assertEquals(2, client.listings.size());
+        assertNull(client.listings.get(0));
+        assertEquals("1", client.listings.get(1));
+
+        // the directory is changed by someone else, the new listing replaces the cached one
+        client.addFile(ROOT, "app.js");
+        assertEquals(2, service.getFilesInDirectory(ROOT).size());
+        assertEquals("1", client.listings.get(2));
+        assertNotNull(service.getFileByPath(ROOT + "/app.js"));
+        assertEquals(3, client.listings.size());
+    }
+
+    @Test
+    public void invalidateListingAfterUpload() throws Exception {
+        // the listing is loaded while the file is being uploaded, it doesn't have the file yet
+        client.beforeSave = () -> assertNull(service.getFileByPath(ROOT + "/app.js"));
+
+        service.uploadFileToPath(new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)), ROOT + "/app.js");
+
+        assertNotNull(service.getFileByPath(ROOT + "/app.js"));
+        assertEquals(2, client.listings.size());
+    }
+
+    @Test
+    public void invalidateListingAfterDelete() {
+        assertNotNull(service.getFileByPath(ROOT + "/index.html"));
+
+        service.deleteFile(ROOT + "/index.html");
+
+        assertNull(service.getFileByPath(ROOT + "/index.html"));
+        assertEquals(2, client.listings.size());
+    }
+
+    private static List<String> getNames(List<? extends AppServiceFile> files) {
+        return files.stream().map(AppServiceFile::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * Kudu vfs in memory, the etag of a directory listing is its version which increases with every change.
+     */
+    private static class FakeFileClient implements AppServiceFileClient {
+        private final Map<String, List<String>> directories = new ConcurrentHashMap<>();
+        private final Map<String, Integer> versions = new ConcurrentHashMap<>();
+        /**
+         * Etag sent with every listing request.
+         */
+        private final List<String> listings = Collections.synchronizedList(new ArrayList<>());
+        private Runnable beforeSave = () -> {
+        };
+
+        void addFile(String dir, String name) {
+            directories.computeIfAbsent(dir, key -> Collections.synchronizedList(new ArrayList<>())).add(name);
+            versions.merge(dir, 1, Integer::sum);
+        }
+
+        @Override
+        public Observable<Response<List<AppServiceFile>>> getFilesInDirectory(String path, String etag) {
+            return Observable.fromCallable(() -> {
+                listings.add(etag);
+                final String version = String.valueOf(versions.getOrDefault(path, 0));
+                final okhttp3.Response.Builder raw = new okhttp3.Response.Builder().protocol(Protocol.HTTP_1_1).message("OK")
+                    .request(new Request.Builder().url("https://app.scm.azurewebsites.net/api/vfs/" + path + "/").build())
+                    .header("ETag", version);
+                if (version.equals(etag)) {
+                    return Response.error(ResponseBody.create(MediaType.parse("application/json"), ""), raw.code(304).build());
+                }
+                final List<AppServiceFile> files = directories.getOrDefault(path, Collections.emptyList()).stream().map(name -> {
+                    final AppServiceFile file = new AppServiceFile();
+                    file.setName(name);
+                    file.setMime("text/plain");
+                    return file;
+                }).collect(Collectors.toList());
+                return Response.success(files, raw.code(200).build());
+            });
+        }
+
+        @Override
+        public Observable<Void> saveFile(String path, String etag, RequestBody requestBody) {
+            return Observable.fromCallable(() -> {
+                beforeSave.run();
+                final int index = path.lastIndexOf('/');
+                addFile(path.substring(0, index), path.substring(index + 1));
+                return null;
+            });
+        }
+
+        @Override
+        public Observable<ResponseBody> deleteFile(String path) {
+            return Observable.fromCallable(() -> {
+                final int index = path.lastIndexOf('/');
+                directories.get(path.substring(0, index)).remove(path.substring(index + 1));
+                versions.merge(path.substring(0, index), 1, Integer::sum);
+                return ResponseBody.create(MediaType.parse("application/json"), "");
+            });
+        }
+
+        @Override
+        public Observable<ResponseBody> getFileContent(String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Observable<Response<ResponseBody>> getFileContentInRange(String path, String range) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Observable<? extends List<? extends AppServiceFile>> getFilesInDirectory(String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Observable<Void> saveFile(String path, RequestBody requestBody) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Observable<ResponseBody> createDirectory(String path) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
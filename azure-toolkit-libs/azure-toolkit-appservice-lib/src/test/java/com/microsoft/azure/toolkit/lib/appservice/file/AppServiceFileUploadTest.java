@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.file;
+
+import com.microsoft.azure.management.appservice.WebAppBase;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperationBundle;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava.RxJavaCallAdapterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.Header;
+import retrofit2.http.PUT;
+import rx.Observable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives the uploads of {@link AppServiceFileService} against a fake kudu vfs endpoint over http.
+ */
+public class AppServiceFileUploadTest {
+    private static final byte[] CONTENT = "streamed content of the file".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private AppServiceFileService service;
+    private final List<Upload> uploads = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Etag of the remote file, uploads based on other versions fail with 412.
+     */
+    private volatile String remoteEtag = "\"1\"";
+
+    @BeforeClass
+    public static void setUpClass() {
+        // failed operations are wrapped with their titles
+        AzureOperationBundle.register((key, params) -> key);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/vfs/", this::handle);
+        server.start();
+
+        final KuduApi api = new Retrofit.Builder()
+            .baseUrl("http://localhost:" + server.getAddress().getPort() + "/")
+            .addCallAdapterFactory(RxJavaCallAdapterFactory.create())
+            .build()
+            .create(KuduApi.class);
+        // retrofit rejects service interfaces which extend others, e.g. KuduFileClient
+        final AppServiceFileClient client = (AppServiceFileClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class[]{AppServiceFileClient.class}, (proxy, method, args) -> KuduApi.class.getMethod(method.getName(),
+                method.getParameterTypes()).invoke(api, args));
+        final WebAppBase app = mock(WebAppBase.class);
+        doReturn("app").when(app).name();
+        service = new AppServiceFileService(app, client);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void uploadFileWithContentLength() throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, CONTENT);
+
+        service.uploadFileToPath(file, "site/wwwroot/app.txt");
+        service.uploadFileToPath(file.toFile(), "site/wwwroot/app.txt");
+
+        assertEquals(2, uploads.size());
+        for (final Upload upload : uploads) {
+            assertEquals(String.valueOf(CONTENT.length), upload.contentLength);
+            assertNull(upload.transferEncoding);
+            assertEquals("*", upload.ifMatch);
+            assertArrayEquals(CONTENT, upload.content);
+        }
+    }
+
+    @Test
+    public void uploadFileChunked() throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, CONTENT);
+
+        service.uploadFileToPath(file, "site/wwwroot/app.txt", null, true);
+
+        final Upload upload = uploads.get(0);
+        assertNull(upload.contentLength);
+        assertEquals("chunked", upload.transferEncoding);
+        assertArrayEquals(CONTENT, upload.content);
+    }
+
+    @Test
+    public void uploadStream() throws IOException {
+        service.uploadFileToPath(new ByteArrayInputStream(CONTENT), CONTENT.length, "site/wwwroot/app.txt", null);
+        service.uploadFileToPath(new ByteArrayInputStream(CONTENT), "site/wwwroot/app.txt");
+
+        assertEquals(String.valueOf(CONTENT.length), uploads.get(0).contentLength);
+        assertNull(uploads.get(1).contentLength);
+        assertEquals("chunked", uploads.get(1).transferEncoding);
+        assertArrayEquals(CONTENT, uploads.get(1).content);
+    }
+
+    @Test
+    public void uploadWithEtag() throws IOException {
+        service.uploadFileToPath(new ByteArrayInputStream(CONTENT), CONTENT.length, "site/wwwroot/app.txt", "\"1\"");
+        assertEquals("\"1\"", uploads.get(0).ifMatch);
+
+        remoteEtag = "\"2\"";
+        try {
+            service.uploadFileToPath(new ByteArrayInputStream(CONTENT), CONTENT.length, "site/wwwroot/app.txt", "\"1\"");
+            fail("upload based on a modified file should fail");
+        } catch (final AzureToolkitRuntimeException e) {
+            // the exception is wrapped by the upload operation
+            final Throwable modified = ExceptionUtils.getThrowableList(e).stream()
+                .filter(t -> StringUtils.contains(t.getMessage(), "has been modified")).findFirst().orElse(null);
+            assertTrue(modified instanceof AzureToolkitRuntimeException);
+            assertTrue(modified.getMessage().contains("site/wwwroot/app.txt"));
+        }
+    }
+
+    @Test
+    public void failToWriteConsumedStreamAgain() throws IOException {
+        final InputStream input = new ByteArrayInputStream(CONTENT);
+        final RequestBody body = new StreamingRequestBody(() -> input, CONTENT.length, false);
+        final Buffer first = new Buffer();
+        body.writeTo(first);
+        assertArrayEquals(CONTENT, first.readByteArray());
+
+        try {
+            body.writeTo(new Buffer());
+            fail("a stream which has been consumed should not be sent again");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains("consumed"));
+        }
+    }
+
+    @Test
+    public void writeReplayableContentAgain() throws IOException {
+        final RequestBody body = new StreamingRequestBody(() -> new ByteArrayInputStream(CONTENT), -1, true);
+        for (int i = 0; i < 2; i++) {
+            final Buffer sink = new Buffer();
+            body.writeTo(sink);
+            assertArrayEquals(CONTENT, sink.readByteArray());
+        }
+        assertEquals(-1, body.contentLength());
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final Headers headers = exchange.getRequestHeaders();
+        final Upload upload = new Upload();
+        upload.contentLength = headers.getFirst("Content-Length");
+        upload.transferEncoding = headers.getFirst("Transfer-Encoding");
+        upload.ifMatch = headers.getFirst("If-Match");
+        upload.content = IOUtils.toByteArray(exchange.getRequestBody());
+        uploads.add(upload);
+        final boolean matched = "*".equals(upload.ifMatch) || remoteEtag.equals(upload.ifMatch);
+        exchange.sendResponseHeaders(matched ? 204 : 412, -1);
+        exchange.close();
+    }
+
+    private static class Upload {
+        private String contentLength;
+        private String transferEncoding;
+        private String ifMatch;
+        private byte[] content;
+    }
+
+    /**
+     * Retrofit service of the kudu vfs endpoint used by uploads.
+     */
+    interface KuduApi {
+        @PUT("api/vfs/{path}")
+        Observable<Void> saveFile(@retrofit2.http.Path("path") String path, @Header("If-Match") String etag, @Body RequestBody requestBody);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.service.impl;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.management.AzureEnvironment;
+import com.azure.core.management.profile.AzureProfile;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.microsoft.azure.toolkit.lib.appservice.AzureAppService;
+import com.microsoft.azure.toolkit.lib.appservice.service.IAppServicePlan;
+import com.microsoft.azure.toolkit.lib.appservice.service.IWebApp;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the requests which web app and app service plan wrappers send to a fake ARM endpoint, to verify that they share
+ * the models cached by their {@link AzureAppService}.
+ */
+public class ResourceCacheSharingTest {
+    private static final String SUBSCRIPTION = "00000000-0000-0000-0000-000000000000";
+    private static final String RESOURCE_GROUP_ID = "/subscriptions/" + SUBSCRIPTION + "/resourceGroups/rg";
+    private static final String WEB_APP_ID = RESOURCE_GROUP_ID + "/providers/Microsoft.Web/sites/app";
+    private static final String PLAN_ID = RESOURCE_GROUP_ID + "/providers/Microsoft.Web/serverfarms/plan";
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile boolean planExists = true;
+    private AzureAppService service;
+
+    @Before
+    public void setUp() {
+        final TokenCredential credential = context -> Mono.just(new AccessToken("token", OffsetDateTime.now().plusHours(1)));
+        final AzureResourceManager azureClient = AzureResourceManager.configure()
+            .withHttpClient(new FakeArmClient())
+            .authenticate(credential, new AzureProfile(null, SUBSCRIPTION, AzureEnvironment.AZURE))
+            .withSubscription(SUBSCRIPTION);
+        service = AzureAppService.auth(azureClient);
+    }
+
+    @Test
+    public void shareWebAppModel() {
+        assertEquals("app.azurewebsites.net", service.webapp("rg", "app").hostName());
+        assertFalse(requests.isEmpty());
+        requests.clear();
+
+        // wrappers created later by name or id, in any case, reuse the fetched model
+        assertEquals("Running", service.webapp("RG", "App").state());
+        assertEquals("app.azurewebsites.net", service.webapp(WEB_APP_ID.toUpperCase()).hostName());
+        assertEquals(PLAN_ID, service.webapp(WEB_APP_ID).plan().entity().getId());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void invalidateDeletedWebApp() {
+        final IWebApp webApp = service.webapp(WEB_APP_ID);
+        webApp.hostName();
+        assertNotNull(service.getResourceCache().get(WEB_APP_ID));
+
+        webApp.delete();
+        assertTrue(requests.contains("DELETE " + WEB_APP_ID));
+        assertNull(service.getResourceCache().get(WEB_APP_ID));
+        assertNull(service.getResourceCache().get("webapp/rg/app"));
+    }
+
+    @Test
+    public void sharePlanModel() {
+        assertEquals("plan", service.appServicePlan(PLAN_ID).name());
+        requests.clear();
+
+        assertEquals(PLAN_ID, service.appServicePlan("rg", "PLAN").id());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void invalidateMissingPlan() {
+        final IAppServicePlan plan = service.appServicePlan("rg", "plan");
+        assertTrue(plan.exists());
+        assertNotNull(service.getResourceCache().get(PLAN_ID));
+
+        planExists = false;
+        assertFalse(plan.exists());
+        assertNull(service.getResourceCache().get(PLAN_ID));
+        assertNull(service.getResourceCache().get("plan/rg/plan"));
+        requests.clear();
+
+        // missing resources are not cached, so the next wrapper asks again
+        assertFalse(service.appServicePlan("rg", "plan").exists());
+        assertFalse(requests.isEmpty());
+    }
+
+    private static String getSite() {
+        return "{\"id\":\"" + WEB_APP_ID + "\",\"name\":\"app\",\"type\":\"Microsoft.Web/sites\",\"kind\":\"app\"," +
+            "\"location\":\"East US\",\"properties\":{\"serverFarmId\":\"" + PLAN_ID + "\",\"state\":\"Running\"," +
+            "\"defaultHostName\":\"app.azurewebsites.net\",\"resourceGroup\":\"rg\"}}";
+    }
+
+    private static String getPlan() {
+        return "{\"id\":\"" + PLAN_ID + "\",\"name\":\"plan\",\"type\":\"Microsoft.Web/serverfarms\",\"kind\":\"app\"," +
+            "\"location\":\"East US\",\"sku\":{\"name\":\"B1\",\"tier\":\"Basic\",\"size\":\"B1\",\"family\":\"B\",\"capacity\":1}," +
+            "\"properties\":{\"resourceGroup\":\"rg\"}}";
+    }
+
+    private class FakeArmClient implements HttpClient {
+        @Override
+        public Mono<HttpResponse> send(HttpRequest request) {
+            final String path = request.getUrl().getPath();
+            requests.add(request.getHttpMethod() + " " + path);
+            if (request.getHttpMethod() == HttpMethod.DELETE) {
+                return respond(request, 200, "");
+            }
+            if (path.equalsIgnoreCase(WEB_APP_ID)) {
+                return respond(request, 200, getSite());
+            }
+            if (path.startsWith(WEB_APP_ID + "/config/")) {
+                // site config and diagnostic logs config, which are fetched along with the web app
+                return respond(request, 200, "{\"id\":\"" + path + "\",\"properties\":{}}");
+            }
+            if (path.equalsIgnoreCase(PLAN_ID) && planExists) {
+                return respond(request, 200, getPlan());
+            }
+            return respond(request, 404, "{\"error\":{\"code\":\"ResourceNotFound\",\"message\":\"" + path + " is not found\"}}");
+        }
+
+        private Mono<HttpResponse> respond(HttpRequest request, int statusCode, String content) {
+            final byte[] body = content.getBytes(StandardCharsets.UTF_8);
+            final HttpHeaders headers = new HttpHeaders().put("Content-Type", "application/json");
+            return Mono.just(new HttpResponse(request) {
+                @Override
+                public int getStatusCode() {
+                    return statusCode;
+                }
+
+                @Override
+                public String getHeaderValue(String name) {
+                    return headers.getValue(name);
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+
+                @Override
+                public Flux<ByteBuffer> getBody() {
+                    return Flux.just(ByteBuffer.wrap(body));
+                }
+
+                @Override
+                public Mono<byte[]> getBodyAsByteArray() {
+                    return Mono.just(body);
+                }
+
+                @Override
+                public Mono<String> getBodyAsString() {
+                    return Mono.just(content);
+                }
+
+                @Override
+                public Mono<String> getBodyAsString(Charset charset) {
+                    return Mono.just(new String(body, charset));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.service.impl;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.management.AzureEnvironment;
+import com.azure.core.management.profile.AzureProfile;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.microsoft.azure.toolkit.lib.appservice.AzureAppService;
+import com.microsoft.azure.toolkit.lib.appservice.service.IAppServicePlan;
+import com.microsoft.azure.toolkit.lib.appservice.service.IWebApp;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the requests sent to a fake ARM endpoint, whose subscription has {@link #TOTAL} web apps listed in pages of
+ * {@link #PAGE_SIZE}, {@link #IN_PLAN} of them (and a deployment slot) hosted in the plan.
+ */
+public class WebAppIndexTest {
+    private static final String SUBSCRIPTION = "00000000-0000-0000-0000-000000000000";
+    private static final String PLAN_ID = "/subscriptions/" + SUBSCRIPTION + "/resourceGroups/rg/providers/Microsoft.Web/serverfarms/plan";
+    private static final int TOTAL = 500;
+    private static final int PAGE_SIZE = 100;
+    private static final int IN_PLAN = 10;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private AzureResourceManager azureClient;
+
+    @Before
+    public void setUp() {
+        final TokenCredential credential = context -> Mono.just(new AccessToken("token", OffsetDateTime.now().plusHours(1)));
+        azureClient = AzureResourceManager.configure()
+            .withHttpClient(new FakeArmClient())
+            .authenticate(credential, new AzureProfile(null, SUBSCRIPTION, AzureEnvironment.AZURE))
+            .withSubscription(SUBSCRIPTION);
+    }
+
+    @Test
+    public void listWebAppsOfPlanWithOneRequest() {
+        // the subscription listing pages through every web app of the subscription to find the ones in the plan
+        final long inPlan = azureClient.webApps().list().stream().filter(webApp -> PLAN_ID.equals(webApp.appServicePlanId())).count();
+        assertEquals(IN_PLAN, inPlan);
+        assertEquals(TOTAL / PAGE_SIZE, requests.getAndSet(0));
+
+        final AzureAppService service = AzureAppService.auth(azureClient);
+        final IAppServicePlan plan = service.appServicePlan(PLAN_ID);
+        final List<IWebApp> webApps = plan.webapps();
+        assertEquals(IN_PLAN, webApps.size());
+        assertEquals(1, requests.getAndSet(0));
+
+        // the entities are built from the listing, the plan found by resource group and name shares the entry
+        assertEquals("app0", webApps.get(0).entity().getName());
+        assertEquals("rg", webApps.get(0).entity().getResourceGroup());
+        assertEquals(PLAN_ID, webApps.get(0).entity().getAppServicePlanId());
+        assertEquals(IN_PLAN, service.appServicePlan("rg", "plan").webapps().size());
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    public void listAgainAfterInvalidationOrTtl() {
+        final WebAppIndex index = new WebAppIndex(azureClient);
+        index.getWebApps(PLAN_ID);
+        index.getWebApps(PLAN_ID.toUpperCase());
+        assertEquals(1, requests.getAndSet(0));
+
+        index.invalidate(PLAN_ID);
+        index.getWebApps(PLAN_ID);
+        assertEquals(1, requests.getAndSet(0));
+
+        final WebAppIndex expired = new WebAppIndex(azureClient, Duration.ZERO);
+        expired.getWebApps(PLAN_ID);
+        expired.getWebApps(PLAN_ID);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void getWebAppsOfMissingPlan() {
+        final WebAppIndex index = new WebAppIndex(azureClient);
+
+        assertTrue(index.getWebApps(index.getPlanId("rg", "missing")).isEmpty());
+    }
+
+    private static String getSite(int index, String planId, boolean slot) {
+        final String name = slot ? "app" + index + "/slots/staging" : "app" + index;
+        return "{\"id\":\"/subscriptions/" + SUBSCRIPTION + "/resourceGroups/rg/providers/Microsoft.Web/sites/" + name + "\"," +
+            "\"name\":\"" + name + "\",\"type\":\"Microsoft.Web/sites\",\"kind\":\"app\",\"location\":\"East US\"," +
+            "\"properties\":{\"serverFarmId\":\"" + planId + "\",\"defaultHostName\":\"app" + index + ".azurewebsites.net\"," +
+            "\"resourceGroup\":\"rg\"}}";
+    }
+
+    private static String getPage(List<String> sites, String nextLink) {
+        return "{\"value\":[" + String.join(",", sites) + "]" + (nextLink == null ? "" : ",\"nextLink\":\"" + nextLink + "\"") + "}";
+    }
+
+    private class FakeArmClient implements HttpClient {
+        @Override
+        public Mono<HttpResponse> send(HttpRequest request) {
+            requests.incrementAndGet();
+            final String url = request.getUrl().toString();
+            final String path = request.getUrl().getPath();
+            if (path.endsWith("/serverfarms/plan/sites")) {
+                final List<String> sites = IntStream.range(0, IN_PLAN).mapToObj(i -> getSite(i, PLAN_ID, false)).collect(Collectors.toList());
+                sites.add(getSite(0, PLAN_ID, true));
+                return respond(request, 200, getPage(sites, null));
+            }
+            if (path.endsWith("/providers/Microsoft.Web/sites")) {
+                final int start = url.contains("page=") ? Integer.parseInt(url.replaceAll(".*page=(\\d+).*", "$1")) : 0;
+                final String nextLink = start + PAGE_SIZE >= TOTAL ? null : "https://management.azure.com/subscriptions/" +
+                    SUBSCRIPTION + "/providers/Microsoft.Web/sites?api-version=2019-08-01&page=" + (start + PAGE_SIZE);
+                return respond(request, 200, getPage(IntStream.range(start, start + PAGE_SIZE)
+                    .mapToObj(i -> getSite(i, i < IN_PLAN ? PLAN_ID : PLAN_ID + "other", false)).collect(Collectors.toList()), nextLink));
+            }
+            return respond(request, 404, "{\"error\":{\"code\":\"ResourceNotFound\",\"message\":\"" + path + " is not found\"}}");
+        }
+
+        private Mono<HttpResponse> respond(HttpRequest request, int statusCode, String content) {
+            final byte[] body = content.getBytes(StandardCharsets.UTF_8);
+            final HttpHeaders headers = new HttpHeaders().put("Content-Type", "application/json");
+            return Mono.just(new HttpResponse(request) {
+                @Override
+                public int getStatusCode() {
+                    return statusCode;
+                }
+
+                @Override
+                public String getHeaderValue(String name) {
+                    return headers.getValue(name);
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+
+                @Override
+                public Flux<ByteBuffer> getBody() {
+                    return Flux.just(ByteBuffer.wrap(body));
+                }
+
+                @Override
+                public Mono<byte[]> getBodyAsByteArray() {
+                    return Mono.just(body);
+                }
+
+                @Override
+                public Mono<String> getBodyAsString() {
+                    return Mono.just(content);
+                }
+
+                @Override
+                public Mono<String> getBodyAsString(Charset charset) {
+                    return Mono.just(new String(body, charset));
+                }
+            });
+        }
+    }
+}
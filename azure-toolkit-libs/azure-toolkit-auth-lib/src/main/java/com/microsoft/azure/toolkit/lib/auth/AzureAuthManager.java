@@ -8,6 +8,7 @@ package com.microsoft.azure.toolkit.lib.auth;
 import com.google.common.base.MoreObjects;
 import com.microsoft.azure.AzureEnvironment;
 import com.microsoft.azure.toolkit.lib.auth.core.ChainedCredentialRetriever;
+import com.microsoft.azure.toolkit.lib.auth.core.ConcurrentCredentialRetriever;
 import com.microsoft.azure.toolkit.lib.auth.core.ICredentialRetriever;
 import com.microsoft.azure.toolkit.lib.auth.core.azurecli.AzureCliCredentialRetriever;
 import com.microsoft.azure.toolkit.lib.auth.core.devicecode.DeviceCodeCredentialRetriever;
@@ -24,10 +25,15 @@ import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
 import com.microsoft.azure.toolkit.lib.auth.util.AzureEnvironmentUtils;
 import rx.Single;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class AzureAuthManager {
+    private static final Set<AuthType> INTERACTIVE_AUTH_TYPES = Collections.unmodifiableSet(EnumSet.of(AuthType.OAUTH2, AuthType.DEVICE_CODE));
+
     protected Single<AzureCredentialWrapper> login(AuthConfiguration configuration) {
         AuthConfiguration auth = MoreObjects.firstNonNull(configuration, new AuthConfiguration());
         AzureEnvironmentUtils.setupAzureEnvironment(auth.getEnvironment());
@@ -35,8 +41,23 @@ public class AzureAuthManager {
         AuthType authType = MoreObjects.firstNonNull(auth.getType(), AuthType.AUTO);
         Map<AuthType, ICredentialRetriever> allRetrievers = buildCredentialRetrievers(configuration);
         if (authType.equals(AuthType.AUTO)) {
-            for (ICredentialRetriever retriever : allRetrievers.values()) {
-                chainedCredentialRetriever.addRetriever(retriever);
+            // probe consecutive non-interactive retrievers concurrently, interactive ones keep their place in the chain
+            final long probeTimeout = auth.getProbeTimeout() == null ?
+                ConcurrentCredentialRetriever.DEFAULT_PROBE_TIMEOUT_IN_SECONDS : auth.getProbeTimeout();
+            ConcurrentCredentialRetriever concurrentRetriever = new ConcurrentCredentialRetriever(probeTimeout);
+            for (Map.Entry<AuthType, ICredentialRetriever> entry : allRetrievers.entrySet()) {
+                if (!INTERACTIVE_AUTH_TYPES.contains(entry.getKey())) {
+                    concurrentRetriever.addRetriever(entry.getValue());
+                    continue;
+                }
+                if (!concurrentRetriever.isEmpty()) {
+                    chainedCredentialRetriever.addRetriever(concurrentRetriever);
+                    concurrentRetriever = new ConcurrentCredentialRetriever(probeTimeout);
+                }
+                chainedCredentialRetriever.addRetriever(entry.getValue());
+            }
+            if (!concurrentRetriever.isEmpty()) {
+                chainedCredentialRetriever.addRetriever(concurrentRetriever);
             }
         } else {
             // for specific auth type:
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.cache;
+
+import com.azure.core.credential.AccessToken;
+import com.microsoft.azure.AzureEnvironment;
+import com.microsoft.azure.toolkit.lib.auth.core.maven.MavenLoginHelper;
+import com.microsoft.azure.toolkit.lib.auth.model.AuthMethod;
+import com.microsoft.azure.toolkit.lib.auth.util.AzureEnvironmentUtils;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypted on-disk cache of access tokens and subscription lists under the azure config folder, shared by all plugin
+ * invocations of current user, so a warm invocation does not need to acquire a token or list subscriptions again.
+ * The cache is encrypted with a random key stored in a sibling file which is only readable by the owner; any
+ * failure to read or write the cache is treated as a cache miss.
+ */
+@Slf4j
+public class AzureLoginCache {
+    private static final String CACHE_FILE = "azure-toolkit-login.cache";
+    private static final String KEY_FILE = "azure-toolkit-login.key";
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final String KEY_ALGORITHM = "AES";
+    private static final int KEY_SIZE = 128;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+    private static final long TOKEN_EXPIRY_MARGIN_IN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long SUBSCRIPTION_TTL_IN_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final AzureLoginCache INSTANCE = new AzureLoginCache(MavenLoginHelper.getAzureConfigFolder());
+
+    private final File cacheFile;
+    private final File keyFile;
+
+    public static AzureLoginCache getInstance() {
+        return INSTANCE;
+    }
+
+    public AzureLoginCache(@Nonnull File folder) {
+        this.cacheFile = new File(folder, CACHE_FILE);
+        this.keyFile = new File(folder, KEY_FILE);
+    }
+
+    /**
+     * Build the key of an account, credentials of different auth methods, clouds, tenants or identities never share
+     * cache entries.
+     */
+    public static String getAccountKey(@Nonnull AuthMethod method, @Nonnull AzureEnvironment env, @Nullable String tenantId,
+                                       @Nullable String identity) {
+        return String.join("|", method.name(), AzureEnvironmentUtils.azureEnvironmentToString(env),
+            StringUtils.defaultString(tenantId), StringUtils.defaultString(identity));
+    }
+
+    /**
+     * @return the cached token of the account for the resource, null if there is no token which is still valid for a while
+     */
+    @Nullable
+    public synchronized AccessToken getToken(@Nonnull String account, @Nonnull String resource) {
+        final TokenEntry entry = load().tokens.get(account + "|" + resource);
+        if (entry == null || entry.expiresOn - TOKEN_EXPIRY_MARGIN_IN_MILLIS < System.currentTimeMillis()) {
+            return null;
+        }
+        return new AccessToken(entry.token, OffsetDateTime.ofInstant(Instant.ofEpochMilli(entry.expiresOn), ZoneOffset.UTC));
+    }
+
+    public synchronized void putToken(@Nonnull String account, @Nonnull String resource, @Nonnull AccessToken token) {
+        final CacheData data = load();
+        data.tokens.put(account + "|" + resource, new TokenEntry(token.getToken(), token.getExpiresAt().toInstant().toEpochMilli()));
+        save(data);
+    }
+
+    /**
+     * @return the subscription ids of the account cached within the ttl, null if there is none
+     */
+    @Nullable
+    public synchronized List<String> getSubscriptionIds(@Nonnull String account) {
+        final SubscriptionEntry entry = load().subscriptions.get(account);
+        if (entry == null || entry.expiresOn < System.currentTimeMillis()) {
+            return null;
+        }
+        return new ArrayList<>(entry.subscriptionIds);
+    }
+
+    public synchronized void putSubscriptionIds(@Nonnull String account, @Nonnull List<String> subscriptionIds) {
+        final CacheData data = load();
+        data.subscriptions.put(account, new SubscriptionEntry(new ArrayList<>(subscriptionIds),
+            System.currentTimeMillis() + SUBSCRIPTION_TTL_IN_MILLIS));
+        save(data);
+    }
+
+    private CacheData load() {
+        if (!cacheFile.isFile() || !keyFile.isFile()) {
+            return new CacheData();
+        }
+        try {
+            final byte[] content = Files.readAllBytes(cacheFile.toPath());
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, readKey(), new GCMParameterSpec(TAG_LENGTH, content, 0, IV_LENGTH));
+            final String json = new String(cipher.doFinal(content, IV_LENGTH, content.length - IV_LENGTH), StandardCharsets.UTF_8);
+            final CacheData data = JsonUtils.fromJson(json, CacheData.class);
+            return data == null ? new CacheData() : data.prune();
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.debug("Failed to read login cache, it will be ignored.", e);
+            return new CacheData();
+        }
+    }
+
+    private void save(CacheData data) {
+        try {
+            final byte[] iv = new byte[IV_LENGTH];
+            new SecureRandom().nextBytes(iv);
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, getOrCreateKey(), new GCMParameterSpec(TAG_LENGTH, iv));
+            final byte[] encrypted = cipher.doFinal(JsonUtils.toJson(data.prune()).getBytes(StandardCharsets.UTF_8));
+            final byte[] content = Arrays.copyOf(iv, IV_LENGTH + encrypted.length);
+            System.arraycopy(encrypted, 0, content, IV_LENGTH, encrypted.length);
+            writeAtomically(cacheFile, content);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.debug("Failed to write login cache.", e);
+        }
+    }
+
+    private SecretKey readKey() throws IOException {
+        return new SecretKeySpec(Files.readAllBytes(keyFile.toPath()), KEY_ALGORITHM);
+    }
+
+    private SecretKey getOrCreateKey() throws IOException, GeneralSecurityException {
+        if (keyFile.isFile()) {
+            return readKey();
+        }
+        final KeyGenerator generator = KeyGenerator.getInstance(KEY_ALGORITHM);
+        generator.init(KEY_SIZE);
+        final SecretKey key = generator.generateKey();
+        writeAtomically(keyFile, key.getEncoded());
+        return key;
+    }
+
+    private static void writeAtomically(File file, byte[] content) throws IOException {
+        final File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException(String.format("Cannot create folder '%s'.", folder.getAbsolutePath()));
+        }
+        final Path temp = Files.createTempFile(folder.toPath(), file.getName(), ".tmp");
+        try {
+            restrictToOwner(temp.toFile());
+            Files.write(temp, content);
+            try {
+                Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void restrictToOwner(File file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file.toPath(), PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // not a posix file system, e.g. windows, where files under user home are private by default
+            file.setReadable(false, false);
+            file.setReadable(true, true);
+            file.setWritable(false, false);
+            file.setWritable(true, true);
+        }
+    }
+
+    private static class CacheData {
+        private Map<String, TokenEntry> tokens = new HashMap<>();
+        private Map<String, SubscriptionEntry> subscriptions = new HashMap<>();
+
+        private CacheData prune() {
+            final long now = System.currentTimeMillis();
+            tokens = tokens == null ? new HashMap<>() : tokens;
+            subscriptions = subscriptions == null ? new HashMap<>() : subscriptions;
+            tokens.values().removeIf(entry -> entry.expiresOn < now);
+            subscriptions.values().removeIf(entry -> entry.expiresOn < now);
+            return this;
+        }
+    }
+
+    private static class TokenEntry {
+        private final String token;
+        private final long expiresOn;
+
+        TokenEntry(String token, long expiresOn) {
+            this.token = token;
+            this.expiresOn = expiresOn;
+        }
+    }
+
+    private static class SubscriptionEntry {
+        private final List<String> subscriptionIds;
+        private final long expiresOn;
+
+        SubscriptionEntry(List<String> subscriptionIds, long expiresOn) {
+            this.subscriptionIds = subscriptionIds;
+            this.expiresOn = expiresOn;
+        }
+    }
+}
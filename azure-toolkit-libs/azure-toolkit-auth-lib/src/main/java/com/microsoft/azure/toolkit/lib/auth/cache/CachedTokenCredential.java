@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.cache;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.credential.TokenRequestContext;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Token credential which serves tokens from {@link AzureLoginCache} and only asks the underlying credential when there
+ * is no valid token for the requested scopes.
+ */
+public class CachedTokenCredential implements TokenCredential {
+    private final TokenCredential credential;
+    private final AzureLoginCache cache;
+    @Getter
+    private final String account;
+
+    public CachedTokenCredential(@Nonnull TokenCredential credential, @Nonnull AzureLoginCache cache, @Nonnull String account) {
+        this.credential = credential;
+        this.cache = cache;
+        this.account = account;
+    }
+
+    @Override
+    public Mono<AccessToken> getToken(TokenRequestContext request) {
+        final String resource = String.join(" ", request.getScopes());
+        return Mono.defer(() -> {
+            final AccessToken cached = cache.getToken(account, resource);
+            return cached != null ? Mono.just(cached) :
+                credential.getToken(request).doOnNext(token -> cache.putToken(account, resource, token));
+        });
+    }
+}
@@ -10,7 +10,10 @@ import com.azure.core.credential.TokenRequestContext;
 import com.azure.core.exception.ClientAuthenticationException;
 import com.google.common.base.MoreObjects;
 import com.microsoft.azure.AzureEnvironment;
+import com.microsoft.azure.toolkit.lib.auth.cache.AzureLoginCache;
+import com.microsoft.azure.toolkit.lib.auth.cache.CachedTokenCredential;
 import com.microsoft.azure.toolkit.lib.auth.exception.LoginFailureException;
+import com.microsoft.azure.toolkit.lib.auth.model.AuthMethod;
 import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
 import lombok.Setter;
 import rx.Single;
@@ -40,6 +43,15 @@ public abstract class AbstractCredentialRetriever implements ICredentialRetrieve
         }
     }
 
+    /**
+     * Serve tokens of the credential from the on-disk login cache, so later invocations with the same account do not need to
+     * acquire tokens again until they expire.
+     */
+    protected TokenCredential withTokenCache(TokenCredential credential, AuthMethod method, String tenantId, String identity) {
+        return new CachedTokenCredential(credential, AzureLoginCache.getInstance(),
+            AzureLoginCache.getAccountKey(method, getAzureEnvironment(), tenantId, identity));
+    }
+
     protected AzureEnvironment getAzureEnvironment() {
         return MoreObjects.firstNonNull(env, AzureEnvironment.AZURE);
     }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.core;
+
+import com.microsoft.azure.toolkit.lib.auth.exception.AzureLoginException;
+import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
+import rx.Observable;
+import rx.Single;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Probe all retrievers in parallel, each with its own timeout, and return the credential of the first retriever (in the
+ * order they are added) which succeeds, so the result is the same as {@link ChainedCredentialRetriever} while the
+ * latency is bounded by the slowest probe instead of the sum of them. Pending probes are cancelled once the result is
+ * decided. Interactive retrievers should not be added here, since they would prompt user even if a preceding retriever
+ * succeeds.
+ */
+public class ConcurrentCredentialRetriever implements ICredentialRetriever {
+    public static final long DEFAULT_PROBE_TIMEOUT_IN_SECONDS = 30;
+
+    private final List<ICredentialRetriever> retrievers = new ArrayList<>();
+    private final long probeTimeoutInSeconds;
+
+    public ConcurrentCredentialRetriever() {
+        this(DEFAULT_PROBE_TIMEOUT_IN_SECONDS);
+    }
+
+    public ConcurrentCredentialRetriever(long probeTimeoutInSeconds) {
+        this.probeTimeoutInSeconds = probeTimeoutInSeconds;
+    }
+
+    public void addRetriever(ICredentialRetriever credentialRetriever) {
+        this.retrievers.add(credentialRetriever);
+    }
+
+    public boolean isEmpty() {
+        return retrievers.isEmpty();
+    }
+
+    public Single<AzureCredentialWrapper> retrieve() {
+        if (retrievers.isEmpty()) {
+            return Single.error(new AzureLoginException("No retrievers are defined to get azure credentials."));
+        }
+        return Single.defer(() -> {
+            final AtomicReferenceArray<Throwable> errors = new AtomicReferenceArray<>(retrievers.size());
+            final List<Observable<AzureCredentialWrapper>> probes = new ArrayList<>();
+            for (int i = 0; i < retrievers.size(); i++) {
+                final int index = i;
+                probes.add(retrievers.get(i).retrieve()
+                    .subscribeOn(Schedulers.io())
+                    .timeout(probeTimeoutInSeconds, TimeUnit.SECONDS)
+                    .toObservable()
+                    .onErrorResumeNext(e -> {
+                        errors.set(index, e);
+                        return Observable.empty();
+                    }));
+            }
+            // concatEager subscribes all probes at once but emits their results in order, and take(1) unsubscribes
+            // from the remaining probes once the first credential in order is available
+            return Observable.concatEager(probes)
+                .take(1)
+                .switchIfEmpty(Observable.defer(() -> Observable.error(getLastError(errors))))
+                .toSingle();
+        });
+    }
+
+    private static Throwable getLastError(AtomicReferenceArray<Throwable> errors) {
+        // keep the same error as the chained retriever, which reports the error of the last retriever
+        for (int i = errors.length() - 1; i >= 0; i--) {
+            if (errors.get(i) != null) {
+                return errors.get(i);
+            }
+        }
+        return new AzureLoginException("Cannot get azure credentials from any retrievers.");
+    }
+}
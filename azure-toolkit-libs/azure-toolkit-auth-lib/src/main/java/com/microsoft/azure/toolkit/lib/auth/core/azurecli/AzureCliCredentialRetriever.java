@@ -5,7 +5,7 @@
 
 package com.microsoft.azure.toolkit.lib.auth.core.azurecli;
 
-import com.azure.identity.AzureCliCredential;
+import com.azure.core.credential.TokenCredential;
 import com.azure.identity.AzureCliCredentialBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
@@ -21,10 +21,13 @@ import com.microsoft.azure.toolkit.lib.common.utils.Utils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Objects;
 
 public class AzureCliCredentialRetriever extends AbstractCredentialRetriever {
     private static final String CLOUD_SHELL_ENV_KEY = "ACC_CLOUD";
+    // kill `az account show` if it hangs, e.g. waits for a prompt, instead of blocking the login
+    private static final Duration AZ_ACCOUNT_SHOW_TIMEOUT = Duration.ofSeconds(30);
 
     public AzureCliCredentialRetriever(AzureEnvironment env) {
         super(env);
@@ -33,9 +36,11 @@ public class AzureCliCredentialRetriever extends AbstractCredentialRetriever {
     public AzureCredentialWrapper retrieveInternal() throws LoginFailureException {
         AzureCliAccountProfile accountInfo = getProfile();
         checkAzureEnvironmentConflict(env, AzureEnvironmentUtils.stringToAzureEnvironment(accountInfo.getEnvironment()));
-        AzureCliCredential cliCredential = new AzureCliCredentialBuilder().build();
+        AuthMethod method = isInCloudShell() ? AuthMethod.CLOUD_SHELL : AuthMethod.AZURE_CLI;
+        TokenCredential cliCredential = withTokenCache(new AzureCliCredentialBuilder().build(), method,
+            accountInfo.getTenantId(), accountInfo.getUserName());
         validateTokenCredential(cliCredential);
-        return new AzureCredentialWrapper(isInCloudShell() ? AuthMethod.CLOUD_SHELL : AuthMethod.AZURE_CLI, cliCredential, getAzureEnvironment())
+        return new AzureCredentialWrapper(method, cliCredential, getAzureEnvironment())
             .withDefaultSubscriptionId(accountInfo.getSubscriptionId())
             .withTenantId(accountInfo.getTenantId());
     }
@@ -52,7 +57,7 @@ public class AzureCliCredentialRetriever extends AbstractCredentialRetriever {
     private static AzureCliAccountProfile getProfile() throws LoginFailureException {
         final String accountInfo;
         try {
-            accountInfo = Utils.executeCommandAndGetOutput("az account show", null);
+            accountInfo = Utils.executeCommandAndGetOutput("az account show", null, AZ_ACCOUNT_SHOW_TIMEOUT);
             final JsonObject accountObject = JsonUtils.getGson().fromJson(accountInfo, JsonObject.class);
             String tenantId = accountObject.get("tenantId").getAsString();
             String environment = accountObject.get("environmentName").getAsString();
@@ -16,9 +16,17 @@ import com.microsoft.azure.toolkit.lib.auth.model.AuthMethod;
 import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
 import com.microsoft.azure.toolkit.lib.auth.util.ValidationUtil;
 import lombok.Getter;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
 
 public class ServicePrincipalCredentialRetriever extends AbstractCredentialRetriever {
     @Getter
@@ -39,14 +47,35 @@ public class ServicePrincipalCredentialRetriever extends AbstractCredentialRetri
     }
 
     private AzureCredentialWrapper mavenSettingLogin(AuthMethod method, AuthConfiguration configuration) throws LoginFailureException {
-        TokenCredential clientSecretCredential = StringUtils.isNotBlank(configuration.getCertificate()) ?
+        TokenCredential clientSecretCredential = withTokenCache(StringUtils.isNotBlank(configuration.getCertificate()) ?
             new ClientCertificateCredentialBuilder().clientId(configuration.getClient())
                 .pfxCertificate(configuration.getCertificate(), configuration.getCertificatePassword())
                 .tenantId(configuration.getTenant()).build()
             : new ClientSecretCredentialBuilder().clientId(configuration.getClient())
-            .clientSecret(configuration.getKey()).tenantId(configuration.getTenant()).build();
+            .clientSecret(configuration.getKey()).tenantId(configuration.getTenant()).build(),
+            method, configuration.getTenant(), getIdentity(configuration));
         validateTokenCredential(clientSecretCredential);
         return new AzureCredentialWrapper(method, clientSecretCredential, getAzureEnvironment()).withTenantId(configuration.getTenant());
     }
 
+    /**
+     * Identity of the service principal in the login cache, it includes a hash of the secret (or the certificate and its
+     * password), so a rotated or wrong secret never gets tokens cached for the previous one and is always validated.
+     */
+    static String getIdentity(AuthConfiguration configuration) {
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        if (StringUtils.isNotBlank(configuration.getCertificate())) {
+            try {
+                digest.update(Files.readAllBytes(Paths.get(configuration.getCertificate())));
+            } catch (IOException | InvalidPathException e) {
+                // the credential fails to load the certificate too, hash the path so the key is still stable
+                digest.update(configuration.getCertificate().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(StringUtils.defaultString(configuration.getCertificatePassword()).getBytes(StandardCharsets.UTF_8));
+        } else {
+            digest.update(StringUtils.defaultString(configuration.getKey()).getBytes(StandardCharsets.UTF_8));
+        }
+        return configuration.getClient() + "#" + Hex.encodeHexString(digest.digest());
+    }
+
 }
@@ -19,4 +19,8 @@ public class AuthConfiguration {
     private String key;
     private String certificate;
     private String certificatePassword;
+    /**
+     * Timeout of each credential probe in auto auth type in seconds, null for the default timeout.
+     */
+    private Integer probeTimeout;
 }
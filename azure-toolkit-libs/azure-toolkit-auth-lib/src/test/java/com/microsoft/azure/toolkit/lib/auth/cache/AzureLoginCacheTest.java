@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.cache;
+
+import com.azure.core.credential.AccessToken;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AzureLoginCacheTest {
+    private static final String ACCOUNT = "SERVICE_PRINCIPAL|azure|tenant|client#hash";
+    private static final String RESOURCE = "https://management.azure.com//.default";
+    private static final String TOKEN = "secret-access-token";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File cacheFolder;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheFolder = folder.newFolder("azure");
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final OffsetDateTime expiresAt = OffsetDateTime.now().plusHours(1);
+        new AzureLoginCache(cacheFolder).putToken(ACCOUNT, RESOURCE, new AccessToken(TOKEN, expiresAt));
+        new AzureLoginCache(cacheFolder).putSubscriptionIds(ACCOUNT, Arrays.asList("sub1", "sub2"));
+
+        // a new instance reads what the previous ones wrote, as another plugin invocation does
+        final AzureLoginCache cache = new AzureLoginCache(cacheFolder);
+        final AccessToken token = cache.getToken(ACCOUNT, RESOURCE);
+        assertEquals(TOKEN, token.getToken());
+        assertEquals(expiresAt.toInstant().toEpochMilli(), token.getExpiresAt().toInstant().toEpochMilli());
+        assertEquals(Arrays.asList("sub1", "sub2"), cache.getSubscriptionIds(ACCOUNT));
+        assertNull(cache.getToken("another account", RESOURCE));
+
+        final String content = new String(Files.readAllBytes(getCacheFile().toPath()), StandardCharsets.ISO_8859_1);
+        assertFalse(content.contains(TOKEN));
+        assertFalse(content.contains("sub1"));
+    }
+
+    @Test
+    public void ignoreTamperedCache() throws IOException {
+        final AzureLoginCache cache = new AzureLoginCache(cacheFolder);
+        cache.putToken(ACCOUNT, RESOURCE, new AccessToken(TOKEN, OffsetDateTime.now().plusHours(1)));
+        final byte[] content = Files.readAllBytes(getCacheFile().toPath());
+        content[content.length - 1] ^= 1;
+        Files.write(getCacheFile().toPath(), content);
+
+        assertNull(cache.getToken(ACCOUNT, RESOURCE));
+
+        // the cache is rewritten by the next put
+        cache.putToken(ACCOUNT, RESOURCE, new AccessToken(TOKEN, OffsetDateTime.now().plusHours(1)));
+        assertEquals(TOKEN, cache.getToken(ACCOUNT, RESOURCE).getToken());
+    }
+
+    @Test
+    public void ignoreCorruptedCache() throws IOException {
+        final AzureLoginCache cache = new AzureLoginCache(cacheFolder);
+        cache.putToken(ACCOUNT, RESOURCE, new AccessToken(TOKEN, OffsetDateTime.now().plusHours(1)));
+        Files.write(getCacheFile().toPath(), new byte[]{1, 2, 3});
+
+        assertNull(cache.getToken(ACCOUNT, RESOURCE));
+        assertNull(cache.getSubscriptionIds(ACCOUNT));
+    }
+
+    @Test
+    public void ignoreCacheWithoutKey() throws IOException {
+        final AzureLoginCache cache = new AzureLoginCache(cacheFolder);
+        cache.putToken(ACCOUNT, RESOURCE, new AccessToken(TOKEN, OffsetDateTime.now().plusHours(1)));
+        assertTrue(new File(cacheFolder, "azure-toolkit-login.key").delete());
+
+        assertNull(cache.getToken(ACCOUNT, RESOURCE));
+    }
+
+    @Test
+    public void expireTokens() {
+        final AzureLoginCache cache = new AzureLoginCache(cacheFolder);
+        // tokens which expire within a few minutes are not served, they may expire during the request
+        cache.putToken(ACCOUNT, RESOURCE, new AccessToken(TOKEN, OffsetDateTime.now().plusMinutes(1)));
+        assertNull(cache.getToken(ACCOUNT, RESOURCE));
+
+        cache.putToken(ACCOUNT, RESOURCE, new AccessToken(TOKEN, OffsetDateTime.now().minusMinutes(1)));
+        assertNull(cache.getToken(ACCOUNT, RESOURCE));
+
+        cache.putToken(ACCOUNT, RESOURCE, new AccessToken(TOKEN, OffsetDateTime.now().plusMinutes(10)));
+        assertEquals(TOKEN, cache.getToken(ACCOUNT, RESOURCE).getToken());
+    }
+
+    private File getCacheFile() {
+        return new File(cacheFolder, "azure-toolkit-login.cache");
+    }
+}
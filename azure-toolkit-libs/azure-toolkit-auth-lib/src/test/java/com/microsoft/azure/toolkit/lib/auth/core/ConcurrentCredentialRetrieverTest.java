@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.core;
+
+import com.microsoft.azure.AzureEnvironment;
+import com.microsoft.azure.toolkit.lib.auth.exception.AzureLoginException;
+import com.microsoft.azure.toolkit.lib.auth.model.AuthMethod;
+import com.microsoft.azure.toolkit.lib.auth.model.AzureCredentialWrapper;
+import org.junit.Test;
+import rx.Observable;
+import rx.Single;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrentCredentialRetrieverTest {
+    @Test
+    public void preferFirstRetrieverInOrder() {
+        final ConcurrentCredentialRetriever retriever = new ConcurrentCredentialRetriever();
+        final CountDownLatch fastProbeDone = new CountDownLatch(1);
+        // the first probe only finishes after the second one, and still wins
+        retriever.addRetriever(() -> Single.fromCallable(() -> {
+            assertTrue(fastProbeDone.await(5, TimeUnit.SECONDS));
+            return credential(AuthMethod.SERVICE_PRINCIPAL);
+        }));
+        retriever.addRetriever(() -> Single.just(credential(AuthMethod.AZURE_CLI)).doOnSuccess(c -> fastProbeDone.countDown()));
+
+        assertEquals(AuthMethod.SERVICE_PRINCIPAL, retriever.retrieve().toBlocking().value().getAuthMethod());
+    }
+
+    @Test
+    public void skipFailedAndTimedOutProbes() {
+        final ConcurrentCredentialRetriever retriever = new ConcurrentCredentialRetriever(1);
+        retriever.addRetriever(() -> Single.error(new AzureLoginException("not configured")));
+        retriever.addRetriever(ConcurrentCredentialRetrieverTest::never);
+        retriever.addRetriever(() -> Single.just(credential(AuthMethod.AZURE_CLI)));
+
+        final long start = System.currentTimeMillis();
+        assertEquals(AuthMethod.AZURE_CLI, retriever.retrieve().toBlocking().value().getAuthMethod());
+        // the result waits for the hanging probe until it times out, since it precedes the successful one
+        assertTrue(System.currentTimeMillis() - start >= 900);
+    }
+
+    @Test
+    public void cancelPendingProbes() throws InterruptedException {
+        final ConcurrentCredentialRetriever retriever = new ConcurrentCredentialRetriever();
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch cancelled = new CountDownLatch(2);
+        // the first probe succeeds once the others are in flight
+        retriever.addRetriever(() -> Single.fromCallable(() -> {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            return credential(AuthMethod.SERVICE_PRINCIPAL);
+        }));
+        retriever.addRetriever(() -> never().doOnSubscribe(started::countDown).doOnUnsubscribe(cancelled::countDown));
+        retriever.addRetriever(() -> never().doOnSubscribe(started::countDown).doOnUnsubscribe(cancelled::countDown));
+
+        assertEquals(AuthMethod.SERVICE_PRINCIPAL, retriever.retrieve().toBlocking().value().getAuthMethod());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void reportErrorOfLastRetriever() {
+        final ConcurrentCredentialRetriever retriever = new ConcurrentCredentialRetriever(1);
+        retriever.addRetriever(() -> Single.error(new AzureLoginException("first")));
+        retriever.addRetriever(ConcurrentCredentialRetrieverTest::never);
+        try {
+            retriever.retrieve().toBlocking().value();
+            fail("no retriever succeeds");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    private static Single<AzureCredentialWrapper> never() {
+        return Observable.<AzureCredentialWrapper>never().toSingle();
+    }
+
+    private static AzureCredentialWrapper credential(AuthMethod method) {
+        return new AzureCredentialWrapper(method, request -> null, AzureEnvironment.AZURE);
+    }
+}
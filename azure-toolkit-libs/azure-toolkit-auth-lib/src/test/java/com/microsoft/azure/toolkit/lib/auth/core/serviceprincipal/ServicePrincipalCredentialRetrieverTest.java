@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.auth.core.serviceprincipal;
+
+import com.microsoft.azure.toolkit.lib.auth.model.AuthConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ServicePrincipalCredentialRetrieverTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void getIdentityWithSecret() {
+        final String identity = ServicePrincipalCredentialRetriever.getIdentity(createConfiguration("secret", null, null));
+
+        assertTrue(identity.startsWith("client#"));
+        assertFalse(identity.contains("secret"));
+        assertEquals(identity, ServicePrincipalCredentialRetriever.getIdentity(createConfiguration("secret", null, null)));
+        assertNotEquals(identity, ServicePrincipalCredentialRetriever.getIdentity(createConfiguration("rotated", null, null)));
+    }
+
+    @Test
+    public void getIdentityWithCertificate() throws IOException {
+        final File certificate = folder.newFile("cert.pfx");
+        Files.write(certificate.toPath(), new byte[]{1, 2, 3});
+        final String identity = ServicePrincipalCredentialRetriever.getIdentity(createConfiguration(null, certificate.getPath(), "password"));
+
+        assertNotEquals(identity, ServicePrincipalCredentialRetriever.getIdentity(createConfiguration(null, certificate.getPath(), "another")));
+        // a certificate renewed in place gets a new identity
+        Files.write(certificate.toPath(), new byte[]{4, 5, 6});
+        assertNotEquals(identity, ServicePrincipalCredentialRetriever.getIdentity(createConfiguration(null, certificate.getPath(), "password")));
+    }
+
+    private static AuthConfiguration createConfiguration(String key, String certificate, String certificatePassword) {
+        final AuthConfiguration configuration = new AuthConfiguration();
+        configuration.setClient("client");
+        configuration.setTenant("tenant");
+        configuration.setKey(key);
+        configuration.setCertificate(certificate);
+        configuration.setCertificatePassword(certificatePassword);
+        return configuration;
+    }
+}
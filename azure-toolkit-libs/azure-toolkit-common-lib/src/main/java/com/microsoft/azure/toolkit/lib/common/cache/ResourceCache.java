@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of remote resource models for the duration of one operation (e.g. one deployment), so a resource which is read by
+ * several steps is only fetched once. Keys are case insensitive like Azure resource ids, missing resources are never
+ * cached, and callers must put the new model or invalidate the key after creating, updating or deleting a resource.
+ * Owners which outlive one operation, e.g. a client shared by the modules of a build, invalidate all entries when a new
+ * operation starts.
+ */
+public class ResourceCache {
+    private final Map<String, Object> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Build a key from the parts of a resource name, e.g. {@code key("functionApp", resourceGroup, name)}.
+     */
+    public static String key(String... parts) {
+        return Arrays.stream(parts).map(StringUtils::defaultString).collect(Collectors.joining("/"));
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@Nonnull String key) {
+        return (T) resources.get(normalize(key));
+    }
+
+    /**
+     * @return the cached resource, or the resource returned by the loader which is cached if not null
+     */
+    @Nullable
+    public <T> T get(@Nonnull String key, @Nonnull Supplier<T> loader) {
+        final T cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final T resource = loader.get();
+        put(key, resource);
+        return resource;
+    }
+
+    /**
+     * Cache the resource, a null resource invalidates the key.
+     */
+    public void put(@Nonnull String key, @Nullable Object resource) {
+        if (resource == null) {
+            invalidate(key);
+        } else {
+            resources.put(normalize(key), resource);
+        }
+    }
+
+    public void invalidate(@Nonnull String key) {
+        resources.remove(normalize(key));
+    }
+
+    public void invalidateAll() {
+        resources.clear();
+    }
+
+    private static String normalize(String key) {
+        return StringUtils.lowerCase(key);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.process;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a process run by {@link ProcessRunner}, the output only contains the last lines kept by the runner, see
+ * {@link #truncated}.
+ */
+@Getter
+public class ProcessResult {
+    /**
+     * Exit code of the process, -1 if the process could not be killed after timeout.
+     */
+    private final int exitCode;
+    private final List<String> stdout;
+    private final List<String> stderr;
+    private final Duration duration;
+    private final boolean timedOut;
+    /**
+     * Whether older lines of stdout or stderr are dropped since the output exceeds the lines kept by the runner.
+     */
+    private final boolean truncated;
+
+    public ProcessResult(int exitCode, List<String> stdout, List<String> stderr, Duration duration, boolean timedOut) {
+        this(exitCode, stdout, stderr, duration, timedOut, false);
+    }
+
+    public ProcessResult(int exitCode, List<String> stdout, List<String> stderr, Duration duration, boolean timedOut, boolean truncated) {
+        this.exitCode = exitCode;
+        this.stdout = Collections.unmodifiableList(stdout);
+        this.stderr = Collections.unmodifiableList(stderr);
+        this.duration = duration;
+        this.timedOut = timedOut;
+        this.truncated = truncated;
+    }
+
+    public boolean isSuccess() {
+        return !timedOut && exitCode == 0;
+    }
+
+    public String getStdoutText() {
+        return String.join(System.lineSeparator(), stdout);
+    }
+
+    public String getStderrText() {
+        return String.join(System.lineSeparator(), stderr);
+    }
+}
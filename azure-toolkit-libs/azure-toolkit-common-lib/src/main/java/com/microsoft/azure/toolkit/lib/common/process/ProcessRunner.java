@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.process;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.SystemUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs a child process without blocking on its pipes: stdout and stderr are drained by their own threads while the
+ * process runs, each line is passed to the listener of the stream and the last lines are kept in bounded buffers. The
+ * process (and its descendants where the JVM supports it) is killed when it runs longer than the timeout.
+ */
+@Slf4j
+public class ProcessRunner {
+    private static final int DEFAULT_CAPTURE_LINES = 1000;
+    private static final long DRAIN_TIMEOUT_IN_MILLIS = 5000;
+    private static final String DRAIN_THREAD_NAME = "process-%s-drainer";
+
+    private final List<String> command;
+    private File workingDirectory;
+    private Map<String, String> environment;
+    private Duration timeout;
+    private int captureLines = DEFAULT_CAPTURE_LINES;
+    private boolean mergeErrorStream;
+    private Consumer<String> stdoutListener;
+    private Consumer<String> stderrListener;
+
+    public ProcessRunner(@Nonnull final List<String> command) {
+        this.command = new ArrayList<>(command);
+    }
+
+    public ProcessRunner(@Nonnull final String... command) {
+        this(Arrays.asList(command));
+    }
+
+    /**
+     * Run the command line with the shell of the OS, i.e. {@code cmd.exe /c} on Windows and {@code sh -c} otherwise.
+     */
+    public static ProcessRunner shell(@Nonnull final String commandLine) {
+        return SystemUtils.IS_OS_WINDOWS ? new ProcessRunner("cmd.exe", "/c", commandLine) : new ProcessRunner("sh", "-c", commandLine);
+    }
+
+    public ProcessRunner workingDirectory(@Nullable final File value) {
+        this.workingDirectory = value;
+        return this;
+    }
+
+    /**
+     * Variables added to the environment inherited from the current process.
+     */
+    public ProcessRunner environment(@Nullable final Map<String, String> value) {
+        this.environment = value;
+        return this;
+    }
+
+    /**
+     * Wall-clock timeout of the process, null to wait until it exits.
+     */
+    public ProcessRunner timeout(@Nullable final Duration value) {
+        this.timeout = value;
+        return this;
+    }
+
+    /**
+     * Max number of lines kept for each stream, older lines are dropped and the result is flagged as truncated. A
+     * non-positive value keeps every line.
+     */
+    public ProcessRunner captureLines(final int value) {
+        this.captureLines = value > 0 ? value : Integer.MAX_VALUE;
+        return this;
+    }
+
+    /**
+     * Merge stderr into stdout, like {@link ProcessBuilder#redirectErrorStream(boolean)}.
+     */
+    public ProcessRunner mergeErrorStream(final boolean value) {
+        this.mergeErrorStream = value;
+        return this;
+    }
+
+    public ProcessRunner onStdout(@Nullable final Consumer<String> listener) {
+        this.stdoutListener = listener;
+        return this;
+    }
+
+    public ProcessRunner onStderr(@Nullable final Consumer<String> listener) {
+        this.stderrListener = listener;
+        return this;
+    }
+
+    public ProcessResult run() throws IOException, InterruptedException {
+        log.debug("Executing command: {}", String.join(" ", command));
+        final long start = System.currentTimeMillis();
+        final ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(mergeErrorStream);
+        if (workingDirectory != null) {
+            builder.directory(workingDirectory);
+        }
+        if (environment != null) {
+            builder.environment().putAll(environment);
+        }
+        final Process process = builder.start();
+        // nothing is written to stdin, close it so the child never waits for input
+        process.getOutputStream().close();
+        final StreamDrainer stdout = new StreamDrainer(process.getInputStream(), captureLines, stdoutListener, "stdout");
+        final StreamDrainer stderr = mergeErrorStream ? null : new StreamDrainer(process.getErrorStream(), captureLines, stderrListener, "stderr");
+        boolean timedOut = false;
+        try {
+            if (timeout == null) {
+                process.waitFor();
+            } else if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                timedOut = true;
+                log.debug("Command timed out after {} ms, killing the process: {}", timeout.toMillis(), String.join(" ", command));
+                destroyProcessTree(process);
+                process.waitFor(DRAIN_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            destroyProcessTree(process);
+            throw e;
+        }
+        // descendants may still hold the pipes open, don't wait for them forever
+        stdout.join(DRAIN_TIMEOUT_IN_MILLIS);
+        if (stderr != null) {
+            stderr.join(DRAIN_TIMEOUT_IN_MILLIS);
+        }
+        final int exitCode = process.isAlive() ? -1 : process.exitValue();
+        final ProcessResult result = new ProcessResult(exitCode, stdout.getLines(), stderr == null ? Collections.emptyList() : stderr.getLines(),
+            Duration.ofMillis(System.currentTimeMillis() - start), timedOut, stdout.isTruncated() || (stderr != null && stderr.isTruncated()));
+        log.debug("Process exited with code {} in {} ms", exitCode, result.getDuration().toMillis());
+        if (result.isTruncated()) {
+            log.warn("Output of command is truncated to the last {} lines: {}", captureLines, String.join(" ", command));
+        }
+        return result;
+    }
+
+    private static void destroyProcessTree(final Process process) {
+        try {
+            // Process#descendants is only available since Java 9, on Java 8 only the process itself can be killed
+            final Method descendants = Process.class.getMethod("descendants");
+            final Method destroyForcibly = Class.forName("java.lang.ProcessHandle").getMethod("destroyForcibly");
+            try (final Stream<?> handles = (Stream<?>) descendants.invoke(process)) {
+                handles.forEach(handle -> {
+                    try {
+                        destroyForcibly.invoke(handle);
+                    } catch (ReflectiveOperationException e) {
+                        log.debug("Failed to kill descendant process", e);
+                    }
+                });
+            }
+        } catch (ReflectiveOperationException e) {
+            log.debug("Descendant processes are not killed: {}", e.getMessage());
+        }
+        process.destroyForcibly();
+    }
+
+    private static class StreamDrainer {
+        private final Deque<String> lines = new ArrayDeque<>();
+        private final int capacity;
+        private final Consumer<String> listener;
+        private final Thread thread;
+        private volatile boolean truncated;
+
+        StreamDrainer(final InputStream stream, final int capacity, final Consumer<String> listener, final String name) {
+            this.capacity = capacity;
+            this.listener = listener;
+            this.thread = new Thread(() -> drain(stream), String.format(DRAIN_THREAD_NAME, name));
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void drain(final InputStream stream) {
+            try (final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    synchronized (lines) {
+                        if (lines.size() == capacity) {
+                            lines.removeFirst();
+                            truncated = true;
+                        }
+                        lines.addLast(line);
+                    }
+                    if (listener != null) {
+                        listener.accept(line);
+                    }
+                }
+            } catch (IOException e) {
+                // the stream is closed when the process is killed
+                log.debug("Stopped reading process output: {}", e.getMessage());
+            }
+        }
+
+        void join(final long timeoutInMillis) throws InterruptedException {
+            thread.join(timeoutInMillis);
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        List<String> getLines() {
+            synchronized (lines) {
+                return new ArrayList<>(lines);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.rest;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.rest.RestClient;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates retrofit clients of the Kudu (SCM) site of an app service, authenticated with the rest client of the app
+ * service manager of the app.
+ */
+public class KuduClientFactory {
+    private static final String NO_HOST_NAME = "Cannot initialize kudu client before app is created";
+    private static final String NO_REST_CLIENT = "Cannot get the rest client of %s";
+    private static final long TIMEOUT_IN_MINUTES = 3;
+
+    /**
+     * @param manager         app service manager of the app, e.g. {@code app.manager()}
+     * @param defaultHostName default host name of the app, e.g. "foo.azurewebsites.net"
+     * @throws AzureToolkitRuntimeException if the app is not created yet or the rest client of the manager is not
+     *                                      accessible
+     */
+    public static <T> T create(@Nonnull final Object manager, @Nullable final String defaultHostName, @Nonnull final Class<T> api) {
+        if (StringUtils.isEmpty(defaultHostName)) {
+            throw new AzureToolkitRuntimeException(NO_HOST_NAME);
+        }
+        // Kudu site of app "foo.azurewebsites.net" is "foo.scm.azurewebsites.net"
+        final String host = defaultHostName.toLowerCase().replace("http://", "").replace("https://", "");
+        final String[] parts = host.split("\\.", 2);
+        return getRestClient(manager).newBuilder()
+            .withBaseUrl(String.format("https://%s.scm.%s", parts[0], parts[1]))
+            .withConnectionTimeout(TIMEOUT_IN_MINUTES, TimeUnit.MINUTES)
+            .withReadTimeout(TIMEOUT_IN_MINUTES, TimeUnit.MINUTES)
+            .build()
+            .retrofit()
+            .create(api);
+    }
+
+    private static RestClient getRestClient(final Object manager) {
+        // the rest client of app service manager is not public, while it carries the credentials and interceptors we need
+        try {
+            final Method method = manager.getClass().getDeclaredMethod("restClient");
+            method.setAccessible(true);
+            return (RestClient) method.invoke(manager);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | ClassCastException e) {
+            throw new AzureToolkitRuntimeException(String.format(NO_REST_CLIENT, manager.getClass().getName()), e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import com.microsoft.applicationinsights.TelemetryClient;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queue events in a bounded buffer and hand them to the telemetry client in batches on a daemon thread, so tracking an
+ * event never waits for the client. Events are dropped when the buffer is full or the sender is closed.
+ */
+public class AsyncTelemetrySender {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_BATCH_SIZE = 64;
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long FLUSH_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final String SENDER_THREAD_NAME = "azure-telemetry-sender";
+
+    private final TelemetryClient client;
+    private final int capacity;
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicReference<Thread> worker = new AtomicReference<>();
+    private volatile boolean closed;
+
+    public AsyncTelemetrySender(@Nonnull final TelemetryClient client) {
+        this(client, DEFAULT_CAPACITY);
+    }
+
+    public AsyncTelemetrySender(@Nonnull final TelemetryClient client, final int capacity) {
+        this.client = client;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return false if the event is dropped since the buffer is full or the sender is closed
+     */
+    public boolean send(final String eventName, final Map<String, String> properties) {
+        if (closed) {
+            return false;
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        queued.incrementAndGet();
+        // Callers may keep changing the map, e.g. default properties, after the event is queued
+        queue.offer(new Event(eventName, properties == null ? null : new HashMap<>(properties)));
+        if (worker.get() == null) {
+            startWorker();
+        }
+        return true;
+    }
+
+    /**
+     * Wait until all queued events are handed to the telemetry client and flushed, or the timeout elapses.
+     *
+     * @return whether all events are flushed before the timeout
+     */
+    public boolean flush(final long timeout, final TimeUnit unit) {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        final Thread thread = worker.get();
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        } else if (sent.get() < queued.get()) {
+            // the worker died of an error, start another one to send the rest
+            startWorker();
+        }
+        while (sent.get() < queued.get()) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, FLUSH_WAIT_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting events and wait until the queued events are flushed or the timeout elapses, the worker thread
+     * exits once the queue is drained.
+     *
+     * @return whether all events are flushed before the timeout
+     */
+    public boolean close(final long timeout, final TimeUnit unit) {
+        closed = true;
+        return flush(timeout, unit);
+    }
+
+    private void startWorker() {
+        final Thread thread = new Thread(this::run, SENDER_THREAD_NAME);
+        thread.setDaemon(true);
+        if (worker.compareAndSet(null, thread)) {
+            thread.start();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (sendBatch() == 0) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+                }
+            }
+        } finally {
+            worker.compareAndSet(Thread.currentThread(), null);
+        }
+    }
+
+    private int sendBatch() {
+        int count = 0;
+        try {
+            Event event;
+            while (count < MAX_BATCH_SIZE && (event = queue.poll()) != null) {
+                size.decrementAndGet();
+                count++;
+                try {
+                    client.trackEvent(event.name, event.properties, null);
+                } catch (RuntimeException e) {
+                    // telemetry failures should never break the caller
+                }
+            }
+            if (count > 0) {
+                try {
+                    client.flush();
+                } catch (RuntimeException e) {
+                    // telemetry failures should never break the caller
+                }
+            }
+        } finally {
+            // polled events count as sent even if the client throws an error, so flush never waits for them
+            sent.addAndGet(count);
+        }
+        return count;
+    }
+
+    private static class Event {
+        private final String name;
+        private final Map<String, String> properties;
+
+        Event(final String name, final Map<String, String> properties) {
+            this.name = name;
+            this.properties = properties;
+        }
+    }
+}
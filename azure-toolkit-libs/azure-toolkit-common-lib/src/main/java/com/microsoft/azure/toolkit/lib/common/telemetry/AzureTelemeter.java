@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class AzureTelemeter {
@@ -50,6 +51,8 @@ public class AzureTelemeter {
     @Setter
     private static Map<String, String> commonProperties;
     public static TelemetryClient client;
+    private static volatile AsyncTelemetrySender sender;
+    private static TelemetryClient senderClient;
 
     public static void afterCreate(final IAzureOperation op) {
         final Map<String, String> properties = serialize(op);
@@ -90,11 +93,32 @@ public class AzureTelemeter {
         if (client != null) {
             properties.putAll(getCommonProperties());
             final String eventName = getEventNamePrefix() + "/" + type.name();
-            client.trackEvent(eventName, properties, null);
-            client.flush();
+            getSender(client).send(eventName, properties);
         }
     }
 
+    /**
+     * Wait until logged events are handed to the telemetry client, or the timeout elapses.
+     */
+    public static void flush(final long timeout, final TimeUnit unit) {
+        final AsyncTelemetrySender current = sender;
+        if (current != null) {
+            current.flush(timeout, unit);
+        }
+    }
+
+    private static synchronized AsyncTelemetrySender getSender(@Nonnull final TelemetryClient telemetryClient) {
+        if (sender == null || senderClient != telemetryClient) {
+            if (sender != null) {
+                // the previous sender drains its queue in background and its thread exits
+                sender.close(0, TimeUnit.MILLISECONDS);
+            }
+            sender = new AsyncTelemetrySender(telemetryClient);
+            senderClient = telemetryClient;
+        }
+        return sender;
+    }
+
     @Nonnull
     private static Map<String, String> serialize(@Nonnull final IAzureOperation op) {
         final Deque<IAzureOperation> ctxOperations = AzureTaskContext.getContextOperations();
@@ -6,13 +6,14 @@
 package com.microsoft.azure.toolkit.lib.common.utils;
 
 import com.microsoft.azure.toolkit.lib.common.exception.CommandExecuteException;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessResult;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessRunner;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -23,14 +24,26 @@ public class Utils {
 
     public static String executeCommandAndGetOutput(final String cmd, File cwd)
         throws IOException, InterruptedException {
-        final String[] cmds = new String[]{isWindows ? "cmd.exe" : "bash", isWindows ? "/c" : "-c", cmd};
-        final Process p = Runtime.getRuntime().exec(cmds, null, cwd);
-        final int exitCode = p.waitFor();
-        if (exitCode != 0) {
-            String errorLog = IOUtils.toString(p.getErrorStream(), StandardCharsets.UTF_8);
-            throw new CommandExecuteException(String.format("Cannot execute '%s' due to error: %s", cmd, errorLog));
+        return executeCommandAndGetOutput(cmd, cwd, null);
+    }
+
+    /**
+     * @param timeout wall-clock timeout of the command, null to wait until it exits
+     */
+    public static String executeCommandAndGetOutput(final String cmd, File cwd, Duration timeout)
+        throws IOException, InterruptedException {
+        final ProcessResult result = new ProcessRunner(isWindows ? "cmd.exe" : "bash", isWindows ? "/c" : "-c", cmd)
+            .workingDirectory(cwd)
+            .timeout(timeout)
+            .run();
+        if (result.isTimedOut()) {
+            throw new CommandExecuteException(String.format("Cannot execute '%s' due to error: timed out after %d seconds",
+                cmd, timeout.getSeconds()));
+        }
+        if (result.getExitCode() != 0) {
+            throw new CommandExecuteException(String.format("Cannot execute '%s' due to error: %s", cmd, result.getStderrText()));
         }
-        return IOUtils.toString(p.getInputStream(), StandardCharsets.UTF_8);
+        return result.getStdoutText();
     }
 
     public static Collection<String> intersectIgnoreCase(List<String> list1, List<String> list2) {
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ResourceCacheTest {
+    private static final String ID = "/subscriptions/sub/resourceGroups/rg/providers/Microsoft.Web/sites/app";
+
+    @Test
+    public void getByKeyIgnoringCase() {
+        final ResourceCache cache = new ResourceCache();
+        final Object app = new Object();
+        cache.put(ID, app);
+
+        assertSame(app, cache.get(ID));
+        assertSame(app, cache.get(ID.toUpperCase()));
+
+        cache.put(ResourceCache.key("webapp", "rg", "app"), app);
+        assertSame(app, cache.get(ResourceCache.key("webapp", "RG", "App")));
+    }
+
+    @Test
+    public void buildKey() {
+        assertEquals("webapp/rg/app", ResourceCache.key("webapp", "rg", "app"));
+        assertEquals("webapp//app", ResourceCache.key("webapp", null, "app"));
+    }
+
+    @Test
+    public void loadOnce() {
+        final ResourceCache cache = new ResourceCache();
+        final AtomicInteger loads = new AtomicInteger();
+        final Object app = new Object();
+
+        assertSame(app, cache.get(ID, () -> {
+            loads.incrementAndGet();
+            return app;
+        }));
+        assertSame(app, cache.get(ID.toLowerCase(), () -> {
+            loads.incrementAndGet();
+            return new Object();
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void neverCacheMissingResource() {
+        final ResourceCache cache = new ResourceCache();
+        final AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get(ID, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get(ID, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidate() {
+        final ResourceCache cache = new ResourceCache();
+        cache.put(ID, new Object());
+        cache.put("webapp/rg/app", new Object());
+        cache.put("plan/rg/plan", new Object());
+
+        cache.invalidate(ID.toUpperCase());
+        assertNull(cache.get(ID));
+
+        cache.put("webapp/rg/app", null);
+        assertNull(cache.get("webapp/rg/app"));
+
+        cache.invalidateAll();
+        assertNull(cache.get("plan/rg/plan"));
+    }
+}
@@ -14,16 +14,19 @@ import com.microsoft.azure.toolkit.lib.common.utils.TextUtils;
 import com.microsoft.azure.toolkit.lib.springcloud.model.AzureRemotableArtifact;
 import com.microsoft.azure.toolkit.lib.springcloud.model.ScaleSettings;
 import com.microsoft.azure.toolkit.lib.springcloud.service.SpringCloudDeploymentManager;
-import com.microsoft.azure.tools.utils.RxUtils;
+import com.microsoft.azure.tools.utils.Poller;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 public class SpringCloudDeployment implements IAzureEntityManager<SpringCloudDeploymentEntity> {
@@ -71,7 +74,20 @@ public class SpringCloudDeployment implements IAzureEntityManager<SpringCloudDep
     }
 
     public boolean waitUntilReady(int timeoutInSeconds) {
-        final SpringCloudDeployment deployment = RxUtils.pollUntil(this::refresh, AzureSpringCloudConfigUtils::isDeploymentDone, timeoutInSeconds);
+        return waitUntilReady(timeoutInSeconds, null);
+    }
+
+    /**
+     * @param listener listener of the polling statistics, e.g. to report the time to readiness
+     */
+    public boolean waitUntilReady(int timeoutInSeconds, @Nullable Consumer<Poller.PollingStatistics> listener) {
+        final SpringCloudDeployment deployment = new Poller.Builder<SpringCloudDeployment>()
+            .name(String.format("deployment(%s)", this.name()))
+            .maxInterval(Duration.ofSeconds(10))
+            .timeout(Duration.ofSeconds(timeoutInSeconds))
+            .listener(listener)
+            .build()
+            .pollUntil(this::refresh, AzureSpringCloudConfigUtils::isDeploymentDone);
         return AzureSpringCloudConfigUtils.isDeploymentDone(deployment);
     }
 
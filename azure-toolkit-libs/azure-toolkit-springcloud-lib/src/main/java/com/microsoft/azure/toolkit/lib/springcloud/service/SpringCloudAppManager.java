@@ -6,18 +6,29 @@
 
 package com.microsoft.azure.toolkit.lib.springcloud.service;
 
+import com.microsoft.azure.common.UploadJournal;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.management.appplatform.v2020_07_01.implementation.AppPlatformManager;
 import com.microsoft.azure.management.appplatform.v2020_07_01.implementation.AppResourceInner;
 import com.microsoft.azure.management.appplatform.v2020_07_01.implementation.ResourceUploadDefinitionInner;
+import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.toolkit.lib.springcloud.SpringCloudAppEntity;
 import com.microsoft.azure.toolkit.lib.springcloud.SpringCloudClusterEntity;
 import com.microsoft.azure.tools.utils.StorageUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
 import java.util.Optional;
 
+@Slf4j
 public class SpringCloudAppManager {
+    private static final String RELATIVE_PATH = "relativePath";
+
     private final AppPlatformManager client;
 
     public SpringCloudAppManager(AppPlatformManager client) {
@@ -62,12 +73,59 @@ public class SpringCloudAppManager {
         return Optional.ofNullable(resource).map(r -> SpringCloudAppEntity.fromResource(r, cluster)).orElse(null);
     }
 
+    /**
+     * Upload the artifact with a journal next to it, an upload failed halfway is continued to the same file next time
+     * as long as the artifact is unchanged. The journal doesn't keep the sas token of the upload url, the file is
+     * continued with the token of a new upload url, which only works if the token grants access to the file.
+     */
     public ResourceUploadDefinitionInner uploadArtifact(String path, final SpringCloudAppEntity app) throws AzureExecutionException {
+        final File file = new File(path);
+        final UploadJournal journal;
+        try {
+            journal = UploadJournal.open(file);
+        } catch (IOException e) {
+            throw new AzureExecutionException(e.getMessage(), e);
+        }
         final ResourceUploadDefinitionInner definition = this.getUploadDefinition(app);
-        StorageUtils.uploadFileToStorage(new File(path), definition.uploadUrl());
+        final String pendingPath = journal.getAttribute(RELATIVE_PATH);
+        final String pendingUrl = journal.getCommittedChunkCount() > 0 ? getPendingUploadUrl(journal.getTarget(), definition.uploadUrl()) : null;
+        if (pendingUrl != null && pendingPath != null) {
+            try {
+                StorageUtils.uploadFileToStorage(file, pendingUrl, journal);
+                return new ResourceUploadDefinitionInner().withUploadUrl(pendingUrl).withRelativePath(pendingPath);
+            } catch (AzureExecutionException e) {
+                if (!isUploadUrlExpired(e)) {
+                    throw e;
+                }
+                log.info("Cannot continue the upload of the last run, uploading from the beginning.");
+            }
+        }
+        journal.setAttribute(RELATIVE_PATH, definition.relativePath());
+        StorageUtils.uploadFileToStorage(file, definition.uploadUrl(), journal);
         return definition;
     }
 
+    /**
+     * @return url of the pending target with the sas token of the new upload url, null if they are on different hosts
+     */
+    @Nullable
+    static String getPendingUploadUrl(@Nullable final String pendingTarget, final String uploadUrl) {
+        final String sasToken = StringUtils.substringAfter(uploadUrl, "?");
+        if (StringUtils.isAnyEmpty(pendingTarget, sasToken)) {
+            return null;
+        }
+        final String pendingHost = URI.create(pendingTarget).getHost();
+        return StringUtils.equalsIgnoreCase(pendingHost, URI.create(uploadUrl).getHost()) ? pendingTarget + "?" + sasToken : null;
+    }
+
+    private static boolean isUploadUrlExpired(final AzureExecutionException e) {
+        if (!(e.getCause() instanceof StorageException)) {
+            return false;
+        }
+        final int status = ((StorageException) e.getCause()).getHttpStatusCode();
+        return status == HttpURLConnection.HTTP_FORBIDDEN || status == HttpURLConnection.HTTP_NOT_FOUND;
+    }
+
     public ResourceUploadDefinitionInner getUploadDefinition(final SpringCloudAppEntity app) {
         return this.client.apps().inner().getResourceUploadUrlAsync(
             app.getCluster().getResourceGroup(),
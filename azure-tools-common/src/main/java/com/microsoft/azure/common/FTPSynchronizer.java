@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common;
+
+import com.microsoft.azure.common.ParallelFTPUploader.FTPClientProvider;
+import com.microsoft.azure.common.logging.Log;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPReply;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Synchronize a local directory to FTP server by uploading only new or changed files.
+ * <p>
+ * A file is considered unchanged when the remote file has the same size and either its content hash matches the
+ * manifest saved by the last successful sync, or, without a manifest entry, the remote file is not older than the
+ * local one.
+ */
+public class FTPSynchronizer {
+    public static final String SYNC_START = "Comparing local files with FTP server: %s --> %s";
+    public static final String SYNC_PLAN = "Found %d new or changed files, %d unchanged files and %d stale remote files.";
+    public static final String SYNC_UP_TO_DATE = "All files are up to date on FTP server, skip uploading.";
+    public static final String DELETE_STALE_FILE = "[DELETE] %s";
+    public static final String DELETE_STALE_FILE_FAILURE = "Failed to delete stale file %s: %s";
+    public static final String MANIFEST_SAVE_FAILURE = "Failed to save FTP sync manifest to %s";
+
+    private static final String MANIFEST_TARGET_KEY = "ftp.sync.target";
+    private static final List<Integer> MLSD_NOT_SUPPORTED_REPLIES = Arrays.asList(FTPReply.UNRECOGNIZED_COMMAND,
+            FTPReply.SYNTAX_ERROR_IN_ARGUMENTS, FTPReply.COMMAND_NOT_IMPLEMENTED, FTPReply.COMMAND_NOT_IMPLEMENTED_FOR_PARAMETER);
+
+    private final boolean deleteStaleFiles;
+    private final File manifestFile;
+
+    /**
+     * @param deleteStaleFiles Whether to delete remote files which don't exist in the local directory
+     * @param manifestFile Local file to cache content hashes of the last sync, size and modification time are
+     *                     compared only when it is null
+     */
+    public FTPSynchronizer(final boolean deleteStaleFiles, @Nullable final File manifestFile) {
+        this.deleteStaleFiles = deleteStaleFiles;
+        this.manifestFile = manifestFile;
+    }
+
+    /**
+     * Upload new or changed files to FTP server, and delete stale remote files if enabled.
+     *
+     * @param clientProvider provider of logged-in FTP clients
+     * @param uploader uploader used to upload changed files
+     * @param targetId identity of the FTP server, the manifest is ignored when it was saved for another target
+     * @param sourceDirectoryPath local directory to synchronize
+     * @param targetDirectoryPath absolute path of the remote directory
+     * @return the plan which has been applied
+     * @throws IOException if failed to list, upload or delete remote files
+     */
+    public SyncPlan synchronize(final FTPClientProvider clientProvider, final ParallelFTPUploader uploader, final String targetId,
+                                final String sourceDirectoryPath, final String targetDirectoryPath) throws IOException {
+        Log.prompt(String.format(SYNC_START, sourceDirectoryPath, targetDirectoryPath));
+        final Path sourceDirectory = Paths.get(sourceDirectoryPath);
+        final RemoteDirectory remoteDirectory;
+        final FTPClient listClient = clientProvider.getClient();
+        try {
+            remoteDirectory = listRemoteDirectory(listClient, targetDirectoryPath);
+        } finally {
+            disconnectQuietly(listClient);
+        }
+        final String manifestTarget = targetId + targetDirectoryPath;
+        final SyncPlan plan = plan(sourceDirectory, remoteDirectory, loadManifest(manifestTarget));
+        Log.prompt(String.format(SYNC_PLAN, plan.getFilesToUpload().size(), plan.getUnchangedFileCount(),
+                plan.getStaleFiles().size()));
+
+        if (plan.getFilesToUpload().isEmpty()) {
+            Log.prompt(SYNC_UP_TO_DATE);
+        } else {
+            uploader.uploadFiles(sourceDirectory, plan.getDirectoriesToCreate(), plan.getFilesToUpload(), targetDirectoryPath);
+        }
+        if (deleteStaleFiles && !plan.getStaleFiles().isEmpty()) {
+            deleteStaleFiles(clientProvider, plan.getStaleFiles(), targetDirectoryPath);
+        }
+        saveManifest(manifestTarget, plan.getLocalHashes());
+        return plan;
+    }
+
+    protected SyncPlan plan(final Path sourceDirectory, final RemoteDirectory remoteDirectory, final Properties manifest)
+            throws IOException {
+        final List<Path> localPaths;
+        try (final Stream<Path> paths = Files.walk(sourceDirectory)) {
+            localPaths = paths.filter(path -> !path.equals(sourceDirectory)).collect(Collectors.toList());
+        }
+        final SyncPlan plan = new SyncPlan();
+        final Set<String> localFiles = new HashSet<>();
+        for (final Path path : localPaths) {
+            final String relativePath = getRelativePath(sourceDirectory, path);
+            if (Files.isDirectory(path)) {
+                if (!remoteDirectory.getDirectories().contains(relativePath)) {
+                    plan.directoriesToCreate.add(path);
+                }
+                continue;
+            }
+            localFiles.add(relativePath);
+            final String localHash = manifestFile == null ? null : getContentHash(path.toFile());
+            if (localHash != null) {
+                plan.localHashes.put(relativePath, localHash);
+            }
+            final FTPFile remoteFile = remoteDirectory.getFiles().get(relativePath);
+            final String cachedHash = manifest.getProperty(relativePath);
+            final boolean isChanged = remoteFile == null || remoteFile.getSize() != path.toFile().length() ||
+                    (cachedHash == null ? isLocalFileNewer(path.toFile(), remoteFile) : !StringUtils.equals(cachedHash, localHash));
+            if (isChanged) {
+                plan.filesToUpload.add(path);
+            } else {
+                plan.unchangedFileCount++;
+            }
+        }
+        remoteDirectory.getFiles().keySet().stream().filter(file -> !localFiles.contains(file)).sorted().forEach(plan.staleFiles::add);
+        return plan;
+    }
+
+    /**
+     * List files of the remote directory recursively, MLSD is preferred and LIST is used when MLSD is not supported.
+     *
+     * @param ftpClient logged-in FTP client
+     * @param targetDirectoryPath absolute path of the remote directory
+     * @return remote files keyed by their path relative to the target directory
+     * @throws IOException if failed to list remote files
+     */
+    public static RemoteDirectory listRemoteDirectory(final FTPClient ftpClient, final String targetDirectoryPath) throws IOException {
+        final RemoteDirectory result = new RemoteDirectory();
+        listRemoteDirectory(ftpClient, StringUtils.removeEnd(targetDirectoryPath, "/"), "", result);
+        return result;
+    }
+
+    /**
+     * List files directly under the remote directory, MLSD is preferred and LIST is used when MLSD is not supported.
+     *
+     * @param ftpClient logged-in FTP client
+     * @param remoteDirectoryPath absolute path of the remote directory
+     * @return remote files and directories, empty if the directory doesn't exist
+     * @throws IOException if failed to list remote files
+     */
+    public static List<FTPFile> listFiles(final FTPClient ftpClient, final String remoteDirectoryPath) throws IOException {
+        FTPFile[] files = ftpClient.mlistDir(remoteDirectoryPath);
+        if (MLSD_NOT_SUPPORTED_REPLIES.contains(ftpClient.getReplyCode())) {
+            files = ftpClient.listFiles(remoteDirectoryPath);
+        }
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(files)
+                .filter(file -> file != null && !StringUtils.equalsAny(file.getName(), null, ".", ".."))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Check whether a local file differs from the remote one by size and modification time.
+     *
+     * @param localFile local file
+     * @param remoteFile remote file, null means it doesn't exist
+     * @return true if the local file should be uploaded
+     */
+    public static boolean isFileChanged(final File localFile, @Nullable final FTPFile remoteFile) {
+        return remoteFile == null || remoteFile.getSize() != localFile.length() || isLocalFileNewer(localFile, remoteFile);
+    }
+
+    private static boolean isLocalFileNewer(final File localFile, final FTPFile remoteFile) {
+        final Calendar remoteTimestamp = remoteFile.getTimestamp();
+        return remoteTimestamp == null || localFile.lastModified() > remoteTimestamp.getTimeInMillis();
+    }
+
+    private static void listRemoteDirectory(final FTPClient ftpClient, final String remotePath, final String relativePath,
+                                            final RemoteDirectory result) throws IOException {
+        for (final FTPFile file : listFiles(ftpClient, remotePath)) {
+            final String fileRelativePath = StringUtils.isEmpty(relativePath) ? file.getName() : relativePath + "/" + file.getName();
+            if (file.isDirectory()) {
+                result.directories.add(fileRelativePath);
+                listRemoteDirectory(ftpClient, remotePath + "/" + file.getName(), fileRelativePath, result);
+            } else if (file.isFile()) {
+                result.files.put(fileRelativePath, file);
+            }
+        }
+    }
+
+    private void deleteStaleFiles(final FTPClientProvider clientProvider, final List<String> staleFiles,
+                                  final String targetDirectoryPath) throws IOException {
+        final FTPClient ftpClient = clientProvider.getClient();
+        try {
+            for (final String staleFile : staleFiles) {
+                final String remotePath = StringUtils.removeEnd(targetDirectoryPath, "/") + "/" + staleFile;
+                Log.prompt(String.format(DELETE_STALE_FILE, remotePath));
+                if (!ftpClient.deleteFile(remotePath)) {
+                    Log.warn(String.format(DELETE_STALE_FILE_FAILURE, remotePath, StringUtils.trim(ftpClient.getReplyString())));
+                }
+            }
+        } finally {
+            disconnectQuietly(ftpClient);
+        }
+    }
+
+    private Properties loadManifest(final String manifestTarget) {
+        final Properties manifest = new Properties();
+        if (manifestFile == null || !manifestFile.exists()) {
+            return manifest;
+        }
+        try (final InputStream input = new FileInputStream(manifestFile)) {
+            manifest.load(input);
+        } catch (IOException e) {
+            Log.debug(e);
+            return new Properties();
+        }
+        // Hashes saved for another app or directory can't tell what is on the target server
+        return StringUtils.equals(manifest.getProperty(MANIFEST_TARGET_KEY), manifestTarget) ? manifest : new Properties();
+    }
+
+    private void saveManifest(final String manifestTarget, final Map<String, String> localHashes) {
+        if (manifestFile == null) {
+            return;
+        }
+        final Properties manifest = new Properties();
+        manifest.putAll(localHashes);
+        manifest.setProperty(MANIFEST_TARGET_KEY, manifestTarget);
+        try {
+            manifestFile.getParentFile().mkdirs();
+            try (final OutputStream output = new FileOutputStream(manifestFile)) {
+                manifest.store(output, "FTP sync manifest");
+            }
+        } catch (IOException e) {
+            // The manifest is only a cache, next sync will fall back to size and modification time
+            Log.warn(String.format(MANIFEST_SAVE_FAILURE, manifestFile.getAbsolutePath()));
+            Log.debug(e);
+        }
+    }
+
+    private static String getContentHash(final File file) throws IOException {
+        try (final InputStream input = new FileInputStream(file)) {
+            return DigestUtils.sha256Hex(input);
+        }
+    }
+
+    private static String getRelativePath(final Path sourceDirectory, final Path path) {
+        return sourceDirectory.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private static void disconnectQuietly(final FTPClient ftpClient) {
+        try {
+            if (ftpClient.isConnected()) {
+                ftpClient.disconnect();
+            }
+        } catch (IOException e) {
+            // swallow exception when closing connection
+            Log.debug(e);
+        }
+    }
+
+    public static class RemoteDirectory {
+        private final Map<String, FTPFile> files = new HashMap<>();
+        private final Set<String> directories = new HashSet<>();
+
+        public Map<String, FTPFile> getFiles() {
+            return files;
+        }
+
+        public Set<String> getDirectories() {
+            return directories;
+        }
+    }
+
+    public static class SyncPlan {
+        private final List<Path> filesToUpload = new ArrayList<>();
+        private final List<Path> directoriesToCreate = new ArrayList<>();
+        private final List<String> staleFiles = new ArrayList<>();
+        private final Map<String, String> localHashes = new HashMap<>();
+        private int unchangedFileCount;
+
+        public List<Path> getFilesToUpload() {
+            return filesToUpload;
+        }
+
+        public List<Path> getDirectoriesToCreate() {
+            return directoriesToCreate;
+        }
+
+        public List<String> getStaleFiles() {
+            return staleFiles;
+        }
+
+        public int getUnchangedFileCount() {
+            return unchangedFileCount;
+        }
+
+        Map<String, String> getLocalHashes() {
+            return localHashes;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.microsoft.azure.common.logging.Log;
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -32,6 +33,31 @@ public class FTPUploader {
     public static final String UPLOAD_FILE = "%s[FILE] %s --> %s";
     public static final String UPLOAD_FILE_REPLY = "%s.......Reply Message : %s";
 
+    private static final int DEFAULT_MAX_FILE_RETRY_COUNT = 3;
+
+    private final int parallelism;
+    private final FTPSynchronizer synchronizer;
+
+    public FTPUploader() {
+        this(1);
+    }
+
+    /**
+     * @param parallelism Number of FTP connections used to upload files, the parallel engine is used when it is above 1
+     */
+    public FTPUploader(final int parallelism) {
+        this(parallelism, null);
+    }
+
+    /**
+     * @param parallelism Number of FTP connections used to upload files, the parallel engine is used when it is above 1
+     * @param synchronizer Synchronizer to upload only new or changed files, the whole directory is uploaded when it is null
+     */
+    public FTPUploader(final int parallelism, @Nullable final FTPSynchronizer synchronizer) {
+        this.parallelism = parallelism;
+        this.synchronizer = synchronizer;
+    }
+
     /**
      * Upload directory to specified FTP server with retries.
      *
@@ -50,7 +76,15 @@ public class FTPUploader {
         while (retryCount < maxRetryCount) {
             retryCount++;
             Log.prompt(UPLOAD_START + ftpServer);
-            if (uploadDirectory(ftpServer, username, password, sourceDirectory, targetDirectory)) {
+            final boolean isSucceed;
+            if (synchronizer != null) {
+                isSucceed = syncDirectory(ftpServer, username, password, sourceDirectory, targetDirectory);
+            } else if (parallelism > 1) {
+                isSucceed = uploadDirectoryInParallel(ftpServer, username, password, sourceDirectory, targetDirectory);
+            } else {
+                isSucceed = uploadDirectory(ftpServer, username, password, sourceDirectory, targetDirectory);
+            }
+            if (isSucceed) {
                 Log.prompt(UPLOAD_SUCCESS + ftpServer);
                 return;
             } else {
@@ -91,6 +125,60 @@ public class FTPUploader {
         return false;
     }
 
+    /**
+     * Upload directory to specified FTP server with a pool of parallel connections, without directory level retries.
+     *
+     * @param ftpServer
+     * @param username
+     * @param password
+     * @param sourceDirectoryPath
+     * @param targetDirectoryPath
+     * @return Boolean to indicate whether uploading is successful.
+     */
+    protected boolean uploadDirectoryInParallel(final String ftpServer, final String username, final String password,
+                                                final String sourceDirectoryPath, final String targetDirectoryPath) {
+        Log.debug("FTP username: " + username);
+        try {
+            getParallelUploader(ftpServer, username, password).uploadDirectory(sourceDirectoryPath, targetDirectoryPath);
+            Log.prompt(String.format(UPLOAD_DIR_FINISH, sourceDirectoryPath, targetDirectoryPath));
+            return true;
+        } catch (Exception e) {
+            Log.debug(e);
+            Log.error(String.format(UPLOAD_DIR_FAILURE, sourceDirectoryPath, targetDirectoryPath));
+        }
+        return false;
+    }
+
+    /**
+     * Upload only new or changed files of the directory to specified FTP server, without directory level retries.
+     *
+     * @param ftpServer
+     * @param username
+     * @param password
+     * @param sourceDirectoryPath
+     * @param targetDirectoryPath
+     * @return Boolean to indicate whether synchronizing is successful.
+     */
+    protected boolean syncDirectory(final String ftpServer, final String username, final String password,
+                                    final String sourceDirectoryPath, final String targetDirectoryPath) {
+        Log.debug("FTP username: " + username);
+        try {
+            synchronizer.synchronize(() -> getFTPClient(ftpServer, username, password),
+                    getParallelUploader(ftpServer, username, password), ftpServer, sourceDirectoryPath, targetDirectoryPath);
+            Log.prompt(String.format(UPLOAD_DIR_FINISH, sourceDirectoryPath, targetDirectoryPath));
+            return true;
+        } catch (Exception e) {
+            Log.debug(e);
+            Log.error(String.format(UPLOAD_DIR_FAILURE, sourceDirectoryPath, targetDirectoryPath));
+        }
+        return false;
+    }
+
+    protected ParallelFTPUploader getParallelUploader(final String ftpServer, final String username, final String password) {
+        return new ParallelFTPUploader(() -> getFTPClient(ftpServer, username, password), parallelism,
+                DEFAULT_MAX_FILE_RETRY_COUNT);
+    }
+
     /**
      * Recursively upload a directory to FTP server with the provided FTP client object.
      *
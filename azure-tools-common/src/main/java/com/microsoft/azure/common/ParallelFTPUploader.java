@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common;
+
+import com.microsoft.azure.common.logging.Log;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.net.ftp.FTPClient;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Upload a directory to FTP server through a bounded pool of logged-in FTP connections.
+ * Remote directories are created once before the upload, then files are stored by absolute path in parallel.
+ */
+public class ParallelFTPUploader {
+    public static final String UPLOAD_PARALLEL_START = "Uploading %d files with %d parallel connections: %s --> %s";
+    public static final String UPLOAD_PARALLEL_FINISH = "Uploaded %d files (%.2f MB) in %.2f s: %.2f files/s, %.2f MB/s";
+    public static final String UPLOAD_FILE_RETRY = "Failed to upload file %s, retrying (%d/%d)";
+    public static final String UPLOAD_FILE_FAILURE = "Failed to upload file %s after %d retries: %s";
+    public static final String UPLOAD_FILE = "[FILE] %s --> %s";
+
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private final FTPClientProvider clientProvider;
+    private final int parallelism;
+    private final int maxRetryCount;
+
+    /**
+     * Create and log in a new FTP client, used to fill the connection pool and to replace broken connections.
+     */
+    @FunctionalInterface
+    public interface FTPClientProvider {
+        FTPClient getClient() throws IOException;
+    }
+
+    public ParallelFTPUploader(final FTPClientProvider clientProvider, final int parallelism, final int maxRetryCount) {
+        this.clientProvider = clientProvider;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxRetryCount = Math.max(1, maxRetryCount);
+    }
+
+    /**
+     * Upload all files under the source directory to the target directory.
+     *
+     * @param sourceDirectoryPath local directory to upload
+     * @param targetDirectoryPath absolute path of the remote directory
+     * @return statistics of the upload
+     * @throws IOException if any file still fails after retries
+     */
+    public UploadResult uploadDirectory(final String sourceDirectoryPath, final String targetDirectoryPath)
+            throws IOException {
+        final Path sourceDirectory = Paths.get(sourceDirectoryPath);
+        final List<Path> directories;
+        final List<Path> files;
+        try (final Stream<Path> paths = Files.walk(sourceDirectory)) {
+            final List<Path> allPaths = paths.filter(path -> !path.equals(sourceDirectory)).collect(Collectors.toList());
+            directories = allPaths.stream().filter(Files::isDirectory).collect(Collectors.toList());
+            files = allPaths.stream().filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        return uploadFiles(sourceDirectory, directories, files, targetDirectoryPath);
+    }
+
+    /**
+     * Upload the given files under the source directory to the target directory.
+     *
+     * @param sourceDirectory local directory which the files and directories are relative to
+     * @param directories local directories to create on the FTP server before uploading files, parents must come first
+     * @param files local files to upload
+     * @param targetDirectoryPath absolute path of the remote directory
+     * @return statistics of the upload
+     * @throws IOException if any file still fails after retries
+     */
+    public UploadResult uploadFiles(final Path sourceDirectory, final List<Path> directories, final List<Path> files,
+                                    final String targetDirectoryPath) throws IOException {
+        final String sourceDirectoryPath = sourceDirectory.toString();
+        final int connectionCount = Math.max(1, Math.min(parallelism, files.size()));
+        Log.prompt(String.format(UPLOAD_PARALLEL_START, files.size(), connectionCount, sourceDirectoryPath, targetDirectoryPath));
+
+        final long startTime = System.currentTimeMillis();
+        final BlockingQueue<FTPClient> pool = new ArrayBlockingQueue<>(connectionCount);
+        final ExecutorService executor = Executors.newFixedThreadPool(connectionCount);
+        final AtomicInteger uploadedFiles = new AtomicInteger();
+        final AtomicLong uploadedBytes = new AtomicLong();
+        try {
+            final FTPClient firstClient = clientProvider.getClient();
+            pool.add(firstClient);
+            createDirectories(firstClient, sourceDirectory, directories, targetDirectoryPath);
+            for (int i = 1; i < connectionCount; i++) {
+                pool.add(clientProvider.getClient());
+            }
+
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final Path file : files) {
+                final String remoteFilePath = getRemotePath(sourceDirectory, file, targetDirectoryPath);
+                futures.add(executor.submit(() -> {
+                    final long size = uploadFileWithRetries(pool, file.toFile(), remoteFilePath);
+                    uploadedFiles.incrementAndGet();
+                    uploadedBytes.addAndGet(size);
+                    return null;
+                }));
+            }
+            waitForAll(futures);
+        } finally {
+            executor.shutdownNow();
+            pool.forEach(ParallelFTPUploader::disconnectQuietly);
+        }
+
+        final UploadResult result = new UploadResult(uploadedFiles.get(), uploadedBytes.get(),
+                System.currentTimeMillis() - startTime);
+        Log.prompt(String.format(UPLOAD_PARALLEL_FINISH, result.getFileCount(), result.getTotalBytes() / BYTES_PER_MB,
+                result.getElapsedMillis() / 1000.0, result.getFilesPerSecond(), result.getMegabytesPerSecond()));
+        return result;
+    }
+
+    protected void createDirectories(final FTPClient ftpClient, final Path sourceDirectory, final List<Path> directories,
+                                     final String targetDirectoryPath) throws IOException {
+        // Parents always come before their children, so every directory is created with a single command
+        ftpClient.makeDirectory(targetDirectoryPath);
+        for (final Path directory : directories) {
+            ftpClient.makeDirectory(getRemotePath(sourceDirectory, directory, targetDirectoryPath));
+        }
+    }
+
+    protected long uploadFileWithRetries(final BlockingQueue<FTPClient> pool, final File sourceFile,
+                                         final String remoteFilePath) throws IOException, InterruptedException {
+        int retryCount = 0;
+        while (true) {
+            FTPClient ftpClient = pool.take();
+            try {
+                if (!ftpClient.isConnected()) {
+                    ftpClient = clientProvider.getClient();
+                }
+                uploadFile(ftpClient, sourceFile, remoteFilePath);
+                return sourceFile.length();
+            } catch (IOException e) {
+                // The connection may be broken, it will be re-created by the next task which takes it from the pool
+                disconnectQuietly(ftpClient);
+                if (++retryCount >= maxRetryCount) {
+                    throw new IOException(String.format(UPLOAD_FILE_FAILURE, sourceFile.getAbsolutePath(), maxRetryCount,
+                            e.getMessage()), e);
+                }
+                Log.warn(String.format(UPLOAD_FILE_RETRY, sourceFile.getAbsolutePath(), retryCount, maxRetryCount));
+            } finally {
+                pool.put(ftpClient);
+            }
+        }
+    }
+
+    protected void uploadFile(final FTPClient ftpClient, final File sourceFile, final String remoteFilePath)
+            throws IOException {
+        Log.debug(String.format(UPLOAD_FILE, sourceFile.getAbsolutePath(), remoteFilePath));
+        try (final InputStream is = new FileInputStream(sourceFile)) {
+            if (!ftpClient.storeFile(remoteFilePath, is)) {
+                throw new IOException(StringUtils.trim(ftpClient.getReplyString()));
+            }
+        }
+    }
+
+    private static String getRemotePath(final Path sourceDirectory, final Path path, final String targetDirectoryPath) {
+        final String relativePath = sourceDirectory.relativize(path).toString().replace(File.separatorChar, '/');
+        return StringUtils.removeEnd(targetDirectoryPath, "/") + "/" + relativePath;
+    }
+
+    private static void waitForAll(final List<Future<?>> futures) throws IOException {
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while uploading files to FTP server", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private static void disconnectQuietly(final FTPClient ftpClient) {
+        try {
+            if (ftpClient.isConnected()) {
+                ftpClient.disconnect();
+            }
+        } catch (IOException e) {
+            // swallow exception when closing connection
+            Log.debug(e);
+        }
+    }
+
+    public static class UploadResult {
+        private final int fileCount;
+        private final long totalBytes;
+        private final long elapsedMillis;
+
+        public UploadResult(int fileCount, long totalBytes, long elapsedMillis) {
+            this.fileCount = fileCount;
+            this.totalBytes = totalBytes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getFileCount() {
+            return fileCount;
+        }
+
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getFilesPerSecond() {
+            return fileCount * 1000.0 / Math.max(1, elapsedMillis);
+        }
+
+        public double getMegabytesPerSecond() {
+            return totalBytes / BYTES_PER_MB * 1000.0 / Math.max(1, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common;
+
+import com.microsoft.azure.common.logging.Log;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Journal of a chunked upload, saved next to the artifact so that a failed upload can be continued by the next run.
+ * Uploaded chunks are only reused when the artifact content, the target and the chunk size are all unchanged.
+ * <p>
+ * Only the target url without its query string is saved, so a sas token in the url never ends up in the build output.
+ */
+public class UploadJournal {
+    private static final String JOURNAL_SUFFIX = ".upload.properties";
+    private static final String FILE_HASH_KEY = "file.hash";
+    private static final String TARGET_KEY = "target";
+    // journals of older versions saved the target url with its sas token
+    private static final String LEGACY_TARGET_URL_KEY = "target.url";
+    private static final String CHUNK_SIZE_KEY = "chunk.size";
+    private static final String CHUNKS_KEY = "chunks";
+    private static final String ATTRIBUTE_PREFIX = "attribute.";
+    private static final String JOURNAL_SAVE_FAILURE = "Failed to save upload journal to %s, next upload will start from the beginning.";
+
+    private final File journalFile;
+    private final Properties properties = new Properties();
+    private final Set<Integer> chunks = new TreeSet<>();
+
+    private UploadJournal(final File journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Open the journal of the file, progress of the last upload is discarded if the file content has changed since then.
+     */
+    public static UploadJournal open(final File file) throws IOException {
+        final String fileHash;
+        try (final InputStream input = new FileInputStream(file)) {
+            fileHash = DigestUtils.sha256Hex(input);
+        }
+        final UploadJournal journal = new UploadJournal(new File(file.getParentFile(), file.getName() + JOURNAL_SUFFIX));
+        journal.load();
+        if (!StringUtils.equals(journal.properties.getProperty(FILE_HASH_KEY), fileHash)) {
+            journal.properties.clear();
+            journal.chunks.clear();
+            journal.properties.setProperty(FILE_HASH_KEY, fileHash);
+        }
+        return journal;
+    }
+
+    /**
+     * Start or continue uploading to the target, uploaded chunks are discarded if the target or chunk size is different.
+     * Urls of the same target with different sas tokens are the same target.
+     */
+    public synchronized void begin(final String targetUrl, final long chunkSize) {
+        final String target = getTarget(targetUrl);
+        if (!StringUtils.equals(getTarget(), target) || getChunkSize() != chunkSize) {
+            chunks.clear();
+            properties.setProperty(TARGET_KEY, target);
+            properties.setProperty(CHUNK_SIZE_KEY, String.valueOf(chunkSize));
+        }
+        save();
+    }
+
+    /**
+     * @return url of the target without query string, the caller has to get a new sas token to continue the upload
+     */
+    @Nullable
+    public synchronized String getTarget() {
+        return properties.getProperty(TARGET_KEY);
+    }
+
+    public static String getTarget(final String targetUrl) {
+        return StringUtils.substringBefore(targetUrl, "?");
+    }
+
+    public synchronized long getChunkSize() {
+        return Long.parseLong(properties.getProperty(CHUNK_SIZE_KEY, "0"));
+    }
+
+    @Nullable
+    public synchronized String getAttribute(final String name) {
+        return properties.getProperty(ATTRIBUTE_PREFIX + name);
+    }
+
+    /**
+     * Attach a value to the upload, e.g. an id of the target returned by the service. It is saved with the next change.
+     */
+    public synchronized void setAttribute(final String name, final String value) {
+        properties.setProperty(ATTRIBUTE_PREFIX + name, value);
+    }
+
+    public synchronized boolean isCommitted(final int chunk) {
+        return chunks.contains(chunk);
+    }
+
+    public synchronized int getCommittedChunkCount() {
+        return chunks.size();
+    }
+
+    public synchronized void commit(final int chunk) {
+        chunks.add(chunk);
+        save();
+    }
+
+    /**
+     * Forget uploaded chunks, e.g. when the service no longer keeps them.
+     */
+    public synchronized void reset() {
+        chunks.clear();
+        save();
+    }
+
+    /**
+     * Remove the journal once the upload is completed.
+     */
+    public synchronized void complete() {
+        chunks.clear();
+        journalFile.delete();
+    }
+
+    private void load() {
+        if (!journalFile.exists()) {
+            return;
+        }
+        try (final InputStream input = new FileInputStream(journalFile)) {
+            properties.load(input);
+        } catch (IOException e) {
+            Log.debug(e);
+            properties.clear();
+            return;
+        }
+        if (properties.remove(LEGACY_TARGET_URL_KEY) != null) {
+            // the saved url may carry a sas token, drop it together with the progress recorded for it
+            properties.remove(CHUNKS_KEY);
+            save();
+        }
+        Stream.of(StringUtils.split(properties.getProperty(CHUNKS_KEY, ""), ','))
+                .filter(StringUtils::isNumeric).map(Integer::valueOf).forEach(chunks::add);
+    }
+
+    private void save() {
+        properties.setProperty(CHUNKS_KEY, chunks.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        try (final OutputStream output = new FileOutputStream(journalFile)) {
+            properties.store(output, "Upload journal");
+        } catch (IOException e) {
+            Log.warn(String.format(JOURNAL_SAVE_FAILURE, journalFile.getAbsolutePath()));
+            Log.debug(e);
+        }
+    }
+}
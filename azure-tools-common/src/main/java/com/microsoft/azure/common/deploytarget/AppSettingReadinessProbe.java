@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.deploytarget;
+
+import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.common.utils.JsonUtils;
+import com.microsoft.azure.management.appservice.WebAppBase;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.rest.KuduClientFactory;
+import com.microsoft.azure.tools.utils.Poller;
+import okhttp3.ResponseBody;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Waits until an app setting which was just updated is observed by the Kudu site of the app, since Kudu restarts to pick
+ * up new app settings and deployments sent before that may be lost.
+ */
+public class AppSettingReadinessProbe {
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+    private final SettingsSource source;
+    private final Duration timeout;
+
+    /**
+     * Source of the settings seen by Kudu, a local stand-in can be used in tests.
+     */
+    @FunctionalInterface
+    public interface SettingsSource {
+        Map<String, String> getSettings() throws IOException;
+    }
+
+    public AppSettingReadinessProbe(final SettingsSource source, final Duration timeout) {
+        this.source = source;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return probe of the Kudu site of the app, empty if the Kudu client of the app cannot be initialized
+     */
+    public static Optional<AppSettingReadinessProbe> forApp(final WebAppBase app) {
+        final KuduSettingsClient client;
+        try {
+            client = KuduClientFactory.create(app.manager(), app.defaultHostName(), KuduSettingsClient.class);
+        } catch (AzureToolkitRuntimeException e) {
+            Log.debug(e);
+            return Optional.empty();
+        }
+        return Optional.of(new AppSettingReadinessProbe(() -> {
+            try (final ResponseBody body = client.getSettings().toBlocking().first()) {
+                final Map<?, ?> settings = JsonUtils.fromJson(body.string(), Map.class);
+                return settings.entrySet().stream()
+                        .collect(Collectors.toMap(entry -> String.valueOf(entry.getKey()), entry -> String.valueOf(entry.getValue())));
+            }
+        }, DEFAULT_TIMEOUT));
+    }
+
+    /**
+     * @return whether the setting has the value before the deadline
+     */
+    public boolean waitUntilObserved(final String key, final String value) {
+        final Map<String, String> settings = new Poller.Builder<Map<String, String>>()
+                .name(String.format("app setting %s", key))
+                .fastPhase(Duration.ofSeconds(1), 5)
+                .maxInterval(Duration.ofSeconds(5))
+                .timeout(timeout)
+                .build()
+                .pollUntil(source::getSettings, result -> isObserved(result, key, value));
+        return isObserved(settings, key, value);
+    }
+
+    private static boolean isObserved(final Map<String, String> settings, final String key, final String value) {
+        return settings != null && StringUtils.equals(settings.get(key), value);
+    }
+}
@@ -6,16 +6,22 @@
 package com.microsoft.azure.common.deploytarget;
 
 import com.microsoft.azure.common.appservice.DeployTargetType;
+import com.microsoft.azure.common.logging.Log;
 import com.microsoft.azure.management.appservice.AppSetting;
 import com.microsoft.azure.management.appservice.PublishingProfile;
 import com.microsoft.azure.management.appservice.WebAppBase;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 
 public class DeployTarget<T extends WebAppBase> {
+    private static final String DEPLOY_FINGERPRINT_PATH = "site/deployments/deploy.fingerprint";
+
     protected DeployTargetType type;
     protected T app;
 
@@ -48,6 +54,45 @@ public class DeployTarget<T extends WebAppBase> {
         app.zipDeploy(file);
     }
 
+    /**
+     * Update the changed entries and remove the deleted entries in place, files which are not mentioned are kept.
+     */
+    public void deltaZipDeploy(final File deltaZipFile, final Collection<String> deletedEntries) {
+        KuduZipDeployer.forApp(app).deploy(deltaZipFile, deletedEntries);
+    }
+
+    /**
+     * @return fingerprint of the package deployed last time, null if it is unknown
+     */
+    @Nullable
+    public String getDeployFingerprint() {
+        try {
+            return KuduZipDeployer.forApp(app).readFile(DEPLOY_FINGERPRINT_PATH).trim();
+        } catch (IOException | RuntimeException e) {
+            // Not found or Kudu is not available, either way the deployed content is unknown
+            Log.debug(e);
+            return null;
+        }
+    }
+
+    /**
+     * Record the fingerprint of deployed package in the app's file system rather than app settings, which would restart the app.
+     *
+     * @param fingerprint fingerprint of the deployed package, null to remove the record
+     */
+    public void setDeployFingerprint(@Nullable final String fingerprint) {
+        try {
+            final KuduZipDeployer deployer = KuduZipDeployer.forApp(app);
+            if (fingerprint == null) {
+                deployer.deleteFile(DEPLOY_FINGERPRINT_PATH);
+            } else {
+                deployer.writeFile(DEPLOY_FINGERPRINT_PATH, fingerprint);
+            }
+        } catch (RuntimeException e) {
+            Log.debug(e);
+        }
+    }
+
     public void msDeploy(final String packageUri, final boolean deleteExistingDeploymentSlot) {
         app.deploy()
             .withPackageUri(packageUri)
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.deploytarget;
+
+import okhttp3.ResponseBody;
+import retrofit2.http.GET;
+import retrofit2.http.Headers;
+import rx.Observable;
+
+/**
+ * Kudu API which returns the settings seen by the Kudu site, including the app settings of the app.
+ */
+public interface KuduSettingsClient {
+    @Headers({
+        "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps getSettings"
+    })
+    @GET("api/settings")
+    Observable<ResponseBody> getSettings();
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.deploytarget;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.http.Body;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.Headers;
+import retrofit2.http.PUT;
+import retrofit2.http.Path;
+import rx.Observable;
+
+/**
+ * Kudu APIs which update files in place, unlike zip deploy they keep the files which are not in the archive.
+ */
+public interface KuduZipClient {
+    @Headers({
+        "Content-Type: application/octet-stream",
+        "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps extractZip"
+    })
+    @PUT("api/zip/{path}/")
+    Observable<Void> extractZip(@Path("path") String path, @Body RequestBody zipFile);
+
+    @Headers({
+        "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps deleteFile",
+        "If-Match: *"
+    })
+    @DELETE("api/vfs/{path}")
+    Observable<Void> deleteFile(@Path("path") String path);
+
+    @Headers({
+        "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps getFile"
+    })
+    @GET("api/vfs/{path}")
+    Observable<ResponseBody> getFile(@Path("path") String path);
+
+    @Headers({
+        "Content-Type: application/octet-stream",
+        "x-ms-logging-context: com.microsoft.azure.management.appservice.WebApps putFile",
+        "If-Match: *"
+    })
+    @PUT("api/vfs/{path}")
+    Observable<Void> putFile(@Path("path") String path, @Body RequestBody content);
+}
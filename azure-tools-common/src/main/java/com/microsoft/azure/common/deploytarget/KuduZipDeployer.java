@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.deploytarget;
+
+import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.management.appservice.WebAppBase;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.rest.KuduClientFactory;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Apply a delta archive to the wwwroot of an App Service: changed entries are extracted over the existing files
+ * and deleted entries are removed one by one.
+ */
+public class KuduZipDeployer {
+    private static final String WWWROOT = "site/wwwroot";
+    private static final String DELETE_FILE = "Deleting %s from %s";
+    private static final MediaType ZIP_MEDIA_TYPE = MediaType.parse("application/octet-stream");
+
+    private final KuduZipClient client;
+
+    public KuduZipDeployer(final KuduZipClient client) {
+        this.client = client;
+    }
+
+    public void deploy(final File deltaZipFile, final Collection<String> deletedEntries) {
+        client.extractZip(WWWROOT, RequestBody.create(ZIP_MEDIA_TYPE, deltaZipFile)).toBlocking().firstOrDefault(null);
+        for (final String entry : deletedEntries) {
+            Log.debug(String.format(DELETE_FILE, entry, WWWROOT));
+            client.deleteFile(WWWROOT + "/" + entry).toBlocking().firstOrDefault(null);
+        }
+    }
+
+    /**
+     * @param path path relative to the home directory of the app, e.g. "site/deployments/deploy.fingerprint"
+     */
+    public String readFile(final String path) throws IOException {
+        try (final ResponseBody body = client.getFile(path).toBlocking().first()) {
+            return body.string();
+        }
+    }
+
+    public void writeFile(final String path, final String content) {
+        client.putFile(path, RequestBody.create(ZIP_MEDIA_TYPE, content)).toBlocking().firstOrDefault(null);
+    }
+
+    public void deleteFile(final String path) {
+        client.deleteFile(path).toBlocking().firstOrDefault(null);
+    }
+
+    /**
+     * @throws AzureToolkitRuntimeException if the app is not created yet or its Kudu client cannot be initialized
+     */
+    public static KuduZipDeployer forApp(final WebAppBase app) {
+        return new KuduZipDeployer(KuduClientFactory.create(app.manager(), app.defaultHostName(), KuduZipClient.class));
+    }
+}
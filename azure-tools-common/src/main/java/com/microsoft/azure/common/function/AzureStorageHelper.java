@@ -5,11 +5,14 @@
 
 package com.microsoft.azure.common.function;
 
+import com.microsoft.azure.common.UploadJournal;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.function.utils.DateUtils;
+import com.microsoft.azure.common.logging.Log;
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.blob.BlobContainerPublicAccessType;
+import com.microsoft.azure.storage.blob.BlockEntry;
 import com.microsoft.azure.storage.blob.CloudBlob;
 import com.microsoft.azure.storage.blob.CloudBlobClient;
 import com.microsoft.azure.storage.blob.CloudBlobContainer;
@@ -17,35 +20,199 @@ import com.microsoft.azure.storage.blob.CloudBlockBlob;
 import com.microsoft.azure.storage.blob.SharedAccessBlobPermissions;
 import com.microsoft.azure.storage.blob.SharedAccessBlobPolicy;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.security.InvalidKeyException;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class AzureStorageHelper {
     private static final int SAS_START_RESERVE_MINUTE = 5;
     private static final String FAIL_TO_DELETE_BLOB = "Fail to delete blob";
     private static final String FAIL_TO_UPLOAD_BLOB = "Fail to updload file as blob";
     private static final String FAIL_TO_GENERATE_BLOB_SAS_TOKEN = "Fail to generate blob sas token";
+    private static final String FAIL_TO_GET_BLOB = "Fail to get blob";
+    private static final String FAIL_TO_UPDATE_BLOB_METADATA = "Fail to update blob metadata";
+    private static final String UPLOAD_BLOCKS = "Uploading %s in %d blocks with %d parallel connections";
+    private static final String UPLOAD_BLOCK_RETRY = "Fail to upload block %d of %s, retrying (%d/%d)";
+    private static final String RESUME_UPLOAD = "Resuming upload of %s, %d of %d blocks were uploaded by the last run";
+    private static final String RESUME_UPLOAD_FAILED = "Fail to commit blocks uploaded by the last run, uploading %s from the beginning";
+    private static final int MAX_BLOCK_COUNT = 50000;
+
+    public static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_UPLOAD_CONCURRENCY = 4;
+    public static final int DEFAULT_BLOCK_RETRY_COUNT = 3;
 
     public static CloudBlockBlob uploadFileAsBlob(final File fileToUpload, final CloudStorageAccount storageAccount,
             final String containerName, final String blobName, final BlobContainerPublicAccessType accessType) throws AzureExecutionException {
+        return uploadFileAsBlob(fileToUpload, storageAccount, containerName, blobName, accessType, DEFAULT_BLOCK_SIZE,
+                DEFAULT_UPLOAD_CONCURRENCY);
+    }
+
+    /**
+     * Upload file as block blob, files larger than one block are uploaded block by block in parallel.
+     *
+     * @param blockSize size of each block in bytes, it is enlarged if the file can't fit in 50000 blocks
+     * @param concurrency max number of blocks being uploaded at the same time
+     */
+    public static CloudBlockBlob uploadFileAsBlob(final File fileToUpload, final CloudStorageAccount storageAccount,
+            final String containerName, final String blobName, final BlobContainerPublicAccessType accessType,
+            final int blockSize, final int concurrency) throws AzureExecutionException {
+        return uploadFileAsBlob(fileToUpload, storageAccount, containerName, blobName, accessType, blockSize, concurrency, null);
+    }
+
+    /**
+     * Upload file as block blob, blocks recorded by the journal are not uploaded again.
+     *
+     * @param journal journal of the upload, a failed upload can be continued with the same journal
+     */
+    public static CloudBlockBlob uploadFileAsBlob(final File fileToUpload, final CloudStorageAccount storageAccount,
+            final String containerName, final String blobName, final BlobContainerPublicAccessType accessType,
+            final int blockSize, final int concurrency, @Nullable final UploadJournal journal) throws AzureExecutionException {
         try {
             final CloudBlobContainer blobContainer = getBlobContainer(storageAccount, containerName);
             blobContainer.createIfNotExists(accessType, null, null);
 
             final CloudBlockBlob blob = blobContainer.getBlockBlobReference(blobName);
-            blob.upload(new FileInputStream(fileToUpload), fileToUpload.length());
+            if (fileToUpload.length() <= blockSize) {
+                try (final InputStream inputStream = new FileInputStream(fileToUpload)) {
+                    blob.upload(inputStream, fileToUpload.length());
+                }
+            } else {
+                uploadBlocks(blob, fileToUpload, blockSize, concurrency, DEFAULT_BLOCK_RETRY_COUNT, journal);
+            }
             return blob;
         } catch (URISyntaxException | StorageException | IOException e) {
             throw new AzureExecutionException(FAIL_TO_UPLOAD_BLOB, e);
         }
     }
 
+    /**
+     * Stage blocks of the file concurrently and commit them at the end, a failed block is retried on its own.
+     * Blocks are read from memory mapped regions of the file, so no extra copy is made on heap.
+     */
+    protected static void uploadBlocks(final CloudBlockBlob blob, final File file, final int blockSize, final int concurrency,
+                                       final int maxRetryCount) throws IOException, StorageException {
+        uploadBlocks(blob, file, blockSize, concurrency, maxRetryCount, null);
+    }
+
+    /**
+     * Uncommitted blocks are kept by the service for a week, so blocks recorded by the journal are staged already unless
+     * the blob was committed by others in between. In that case the commit fails and all blocks are uploaded again.
+     */
+    protected static void uploadBlocks(final CloudBlockBlob blob, final File file, final int blockSize, final int concurrency,
+                                       final int maxRetryCount, @Nullable final UploadJournal journal) throws IOException, StorageException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            final long actualBlockSize = Math.max(blockSize, (length + MAX_BLOCK_COUNT - 1) / MAX_BLOCK_COUNT);
+            final int blockCount = (int) ((length + actualBlockSize - 1) / actualBlockSize);
+            final int threadCount = Math.max(1, Math.min(concurrency, blockCount));
+            final int resumedCount = journal == null ? 0 : resume(journal, blob, actualBlockSize);
+            if (resumedCount > 0) {
+                Log.info(String.format(RESUME_UPLOAD, file.getName(), resumedCount, blockCount));
+            }
+            Log.info(String.format(UPLOAD_BLOCKS, file.getName(), blockCount, threadCount));
+
+            final List<BlockEntry> blocks = new ArrayList<>();
+            final List<Future<?>> futures = new ArrayList<>();
+            final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+            try {
+                for (int i = 0; i < blockCount; i++) {
+                    final int index = i;
+                    final long offset = index * actualBlockSize;
+                    final long size = Math.min(actualBlockSize, length - offset);
+                    // Block ids of a blob must have the same length
+                    final String blockId = Base64.getEncoder().encodeToString(String.format("%08d", index).getBytes(StandardCharsets.UTF_8));
+                    blocks.add(new BlockEntry(blockId));
+                    if (journal != null && journal.isCommitted(index)) {
+                        continue;
+                    }
+                    futures.add(executor.submit(() -> {
+                        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+                        uploadBlockWithRetries(blob, blockId, buffer, index, file.getName(), maxRetryCount);
+                        if (journal != null) {
+                            journal.commit(index);
+                        }
+                        return null;
+                    }));
+                }
+                waitForAll(futures);
+            } finally {
+                executor.shutdownNow();
+            }
+            try {
+                blob.commitBlockList(blocks);
+            } catch (StorageException e) {
+                if (resumedCount == 0) {
+                    throw e;
+                }
+                Log.warn(String.format(RESUME_UPLOAD_FAILED, file.getName()));
+                Log.debug(e);
+                journal.reset();
+                uploadBlocks(blob, file, blockSize, concurrency, maxRetryCount, journal);
+                return;
+            }
+            if (journal != null) {
+                journal.complete();
+            }
+        }
+    }
+
+    private static int resume(final UploadJournal journal, final CloudBlockBlob blob, final long blockSize) {
+        journal.begin(blob.getUri().toString(), blockSize);
+        return journal.getCommittedChunkCount();
+    }
+
+    private static void uploadBlockWithRetries(final CloudBlockBlob blob, final String blockId, final ByteBuffer buffer, final int index,
+                                               final String fileName, final int maxRetryCount) throws IOException, StorageException {
+        int retryCount = 0;
+        while (true) {
+            try {
+                blob.uploadBlock(blockId, new ByteBufferInputStream(buffer.duplicate()), buffer.remaining());
+                return;
+            } catch (IOException | StorageException e) {
+                if (++retryCount >= maxRetryCount) {
+                    throw e;
+                }
+                Log.warn(String.format(UPLOAD_BLOCK_RETRY, index, fileName, retryCount, maxRetryCount));
+            }
+        }
+    }
+
+    private static void waitForAll(final List<Future<?>> futures) throws IOException, StorageException {
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof StorageException) {
+                throw (StorageException) cause;
+            }
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        }
+    }
+
     public static void deleteBlob(final CloudStorageAccount storageAccount, final String containerName,
             final String blobName) throws AzureExecutionException {
         try {
@@ -59,6 +226,41 @@ public class AzureStorageHelper {
         }
     }
 
+    public static CloudBlockBlob getBlockBlob(final CloudStorageAccount storageAccount, final String containerName,
+            final String blobName) throws AzureExecutionException {
+        try {
+            return getBlobContainer(storageAccount, containerName).getBlockBlobReference(blobName);
+        } catch (URISyntaxException | StorageException e) {
+            throw new AzureExecutionException(FAIL_TO_GET_BLOB, e);
+        }
+    }
+
+    /**
+     * @return value of the metadata, null if either the blob or the metadata doesn't exist
+     */
+    @Nullable
+    public static String getBlobMetadata(final CloudBlob blob, final String key) {
+        try {
+            blob.downloadAttributes();
+            return blob.getMetadata().get(key);
+        } catch (StorageException e) {
+            Log.debug(e);
+            return null;
+        }
+    }
+
+    /**
+     * Add metadata to an existing blob, metadata is cleared whenever the blob is uploaded again.
+     */
+    public static void setBlobMetadata(final CloudBlob blob, final String key, final String value) throws AzureExecutionException {
+        try {
+            blob.getMetadata().put(key, value);
+            blob.uploadMetadata();
+        } catch (StorageException e) {
+            throw new AzureExecutionException(FAIL_TO_UPDATE_BLOB_METADATA, e);
+        }
+    }
+
     public static String getSASToken(final CloudBlob blob, Period period) throws AzureExecutionException {
         final SharedAccessBlobPolicy policy = new SharedAccessBlobPolicy();
         policy.setPermissions(EnumSet.of(SharedAccessBlobPermissions.READ));
@@ -83,4 +285,50 @@ public class AzureStorageHelper {
         final CloudBlobClient blobClient = storageAccount.createCloudBlobClient();
         return blobClient.getContainerReference(containerName);
     }
+
+    /**
+     * Read a byte buffer as stream, mark is supported so the storage client can re-read the block when retrying.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(final int readLimit) {
+            buffer.mark();
+        }
+
+        @Override
+        public synchronized void reset() {
+            buffer.reset();
+        }
+    }
 }
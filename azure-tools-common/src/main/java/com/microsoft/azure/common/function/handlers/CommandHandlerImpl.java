@@ -8,19 +8,32 @@ package com.microsoft.azure.common.function.handlers;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.function.utils.CommandUtils;
 import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessResult;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessRunner;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.List;
 
 public class CommandHandlerImpl implements CommandHandler {
+    private static final int DEFAULT_CAPTURE_LINES = 1000;
+
+    private final Duration timeout;
+
+    public CommandHandlerImpl() {
+        this(null);
+    }
+
+    /**
+     * @param timeout wall-clock timeout of each command, null to wait until the command exits
+     */
+    public CommandHandlerImpl(final Duration timeout) {
+        this.timeout = timeout;
+    }
+
     @Override
     public void runCommandWithReturnCodeCheck(final String command,
                                               final boolean showStdout,
@@ -28,9 +41,10 @@ public class CommandHandlerImpl implements CommandHandler {
                                               final List<Long> validReturnCodes,
                                               final String errorMessage) throws AzureExecutionException {
         try {
-            final Process process = runCommand(command, showStdout, workingDirectory);
+            final ProcessResult result = runCommand(command, showStdout, workingDirectory);
 
-            handleExitValue(process.exitValue(), validReturnCodes, errorMessage, process.getInputStream());
+            // output shown while the command runs is not repeated on failure
+            handleExitValue(result.getExitCode(), validReturnCodes, errorMessage, showStdout ? null : result.getStdoutText());
         } catch (IOException | InterruptedException ex) {
             throw new AzureExecutionException("Cannot execute '" + command + "'", ex);
         }
@@ -41,44 +55,39 @@ public class CommandHandlerImpl implements CommandHandler {
                                          final boolean showStdout,
                                          final String workingDirectory) throws AzureExecutionException {
         try {
-            final Process process = runCommand(command, showStdout, workingDirectory);
-            return getOutputFromProcess(process);
+            // the whole output is returned, keep every line instead of the last ones
+            final ProcessResult result = runCommand(command, showStdout, workingDirectory, 0);
+            return String.join("", result.getStdout()).trim();
         } catch (IOException | InterruptedException ex) {
             throw new AzureExecutionException("Cannot execute '" + command + "'", ex);
         }
     }
 
-    protected String getOutputFromProcess(final Process process) throws IOException {
-        try (final BufferedReader stdInput = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), Charset.forName("UTF-8")))) {
-            final StringBuffer stdout = new StringBuffer();
-            String s = null;
-            while ((s = stdInput.readLine()) != null) {
-                stdout.append(s);
-            }
-            return stdout.toString().trim();
-        }
+    protected ProcessResult runCommand(final String command,
+                                       final boolean showStdout,
+                                       final String workingDirectory) throws IOException, InterruptedException, AzureExecutionException {
+        return runCommand(command, showStdout, workingDirectory, DEFAULT_CAPTURE_LINES);
     }
 
-    protected Process runCommand(final String command,
-                                 final boolean showStdout,
-                                 final String workingDirectory) throws IOException, InterruptedException {
-        Log.debug("Executing command: " + StringUtils.join(command, " "));
-
-        final ProcessBuilder.Redirect redirect = getStdoutRedirect(showStdout);
-        final ProcessBuilder processBuilder = new ProcessBuilder(buildCommand(command))
-                .redirectOutput(redirect)
-                .redirectErrorStream(true);
-
-        if (workingDirectory != null) {
-            processBuilder.directory(new File(workingDirectory));
+    /**
+     * @param captureLines max number of the last output lines kept in the result, non-positive to keep every line
+     */
+    protected ProcessResult runCommand(final String command,
+                                       final boolean showStdout,
+                                       final String workingDirectory,
+                                       final int captureLines) throws IOException, InterruptedException, AzureExecutionException {
+        // output is drained while the process runs, a chatty process can't fill the pipe and block
+        final ProcessResult result = new ProcessRunner(buildCommand(command))
+                .workingDirectory(workingDirectory == null ? null : new File(workingDirectory))
+                .mergeErrorStream(true)
+                .timeout(timeout)
+                .captureLines(captureLines)
+                .onStdout(showStdout ? Log::info : Log::debug)
+                .run();
+        if (result.isTimedOut()) {
+            throw new AzureExecutionException(String.format("Command '%s' timed out after %d seconds", command, timeout.getSeconds()));
         }
-
-        final Process process = processBuilder.start();
-
-        process.waitFor();
-
-        return process;
+        return result;
     }
 
     protected static String[] buildCommand(final String command) {
@@ -87,27 +96,25 @@ public class CommandHandlerImpl implements CommandHandler {
                 new String[]{"sh", "-c", command};
     }
 
-    protected static ProcessBuilder.Redirect getStdoutRedirect(boolean showStdout) {
-        return showStdout ? ProcessBuilder.Redirect.INHERIT : ProcessBuilder.Redirect.PIPE;
-    }
-
+    /**
+     * @param output output of the command to report on failure, null if it has been shown already
+     */
     protected void handleExitValue(int exitValue,
                                    final List<Long> validReturnCodes,
                                    final String errorMessage,
-                                   final InputStream inputStream) throws AzureExecutionException, IOException {
+                                   final String output) throws AzureExecutionException {
         Log.debug("Process exit value: " + exitValue);
         if (!validReturnCodes.contains(Integer.toUnsignedLong(exitValue))) {
-            // input stream is a merge of standard output and standard error of the sub-process
-            showErrorIfAny(inputStream);
+            // output is a merge of standard output and standard error of the sub-process
+            showErrorIfAny(output);
             Log.error(errorMessage);
             throw new AzureExecutionException(errorMessage);
         }
     }
 
-    protected void showErrorIfAny(final InputStream inputStream) throws IOException {
-        if (inputStream != null) {
-            final String input = IOUtils.toString(inputStream, "utf8");
-            Log.error(StringUtils.strip(input, "\n"));
+    protected void showErrorIfAny(final String output) {
+        if (StringUtils.isNotEmpty(output)) {
+            Log.error(StringUtils.strip(output, "\n"));
         }
     }
 }
@@ -11,4 +11,9 @@ import java.io.File;
 
 public interface FunctionCoreToolsHandler {
     void installExtension(File stagingDirectory, File basedir) throws AzureExecutionException;
+
+    /**
+     * @return version of the local Azure Functions Core Tools, null if it is not installed or the version is unknown
+     */
+    String getLocalFunctionCoreToolsVersion();
 }
@@ -9,8 +9,15 @@ import com.github.zafarkhaja.semver.Version;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.function.utils.CommandUtils;
 import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessResult;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessRunner;
 
 import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class FunctionCoreToolsHandlerImpl implements FunctionCoreToolsHandler {
 
@@ -28,16 +35,29 @@ public class FunctionCoreToolsHandlerImpl implements FunctionCoreToolsHandler {
     public static final String GET_LOCAL_VERSION_FAIL = "Failed to get Azure Functions Core Tools version locally";
     public static final Version LEAST_SUPPORTED_VERSION = Version.valueOf("2.0.1-beta.26");
 
+    private static final String FUNC_BINARY = "func";
+    private static final long LATEST_VERSION_WAIT_IN_SECONDS = 5;
+    private static final long LATEST_VERSION_TIMEOUT_IN_SECONDS = 30;
+
     private CommandHandler commandHandler;
+    private FunctionCoreToolsVersionCache versionCache;
 
     public FunctionCoreToolsHandlerImpl(final CommandHandler commandHandler) {
+        this(commandHandler, new FunctionCoreToolsVersionCache());
+    }
+
+    public FunctionCoreToolsHandlerImpl(final CommandHandler commandHandler, final FunctionCoreToolsVersionCache versionCache) {
         this.commandHandler = commandHandler;
+        this.versionCache = versionCache;
     }
 
     @Override
     public void installExtension(File stagingDirectory, File basedir) throws AzureExecutionException {
-        assureRequirementAddressed();
+        // looking up the latest version queries npm, which is slow and fails offline, don't block packaging on it
+        final CompletableFuture<String> latestVersion = getLatestFunctionCoreToolsVersionAsync();
+        final String localVersion = assureLocalVersionSupported();
         installFunctionExtension(stagingDirectory, basedir);
+        checkUpdate(localVersion, latestVersion);
     }
 
     protected void installFunctionExtension(File stagingDirector, File basedir) throws AzureExecutionException {
@@ -51,12 +71,30 @@ public class FunctionCoreToolsHandlerImpl implements FunctionCoreToolsHandler {
     }
 
     protected void assureRequirementAddressed() throws AzureExecutionException {
+        final CompletableFuture<String> latestVersion = getLatestFunctionCoreToolsVersionAsync();
+        checkUpdate(assureLocalVersionSupported(), latestVersion);
+    }
+
+    protected String assureLocalVersionSupported() throws AzureExecutionException {
         final String localVersion = getLocalFunctionCoreToolsVersion();
-        final String latestCoreVersion = getLatestFunctionCoreToolsVersion();
         // Ensure azure function core tools has been installed and support extension auto-install
         if (localVersion == null || LEAST_SUPPORTED_VERSION.greaterThan(Version.valueOf(localVersion))) {
             throw new AzureExecutionException(CANNOT_AUTO_INSTALL);
         }
+        return localVersion;
+    }
+
+    protected void checkUpdate(final String localVersion, final CompletableFuture<String> latestVersion) {
+        final String latestCoreVersion;
+        try {
+            latestCoreVersion = latestVersion.get(LATEST_VERSION_WAIT_IN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | TimeoutException e) {
+            Log.warn(GET_LATEST_VERSION_FAIL);
+            return;
+        }
         // Verify whether local function core tools is the latest version
         if (latestCoreVersion == null) {
             Log.warn(GET_LATEST_VERSION_FAIL);
@@ -65,22 +103,52 @@ public class FunctionCoreToolsHandlerImpl implements FunctionCoreToolsHandler {
         }
     }
 
+    protected CompletableFuture<String> getLatestFunctionCoreToolsVersionAsync() {
+        if (versionCache.isLatestVersionFresh()) {
+            return CompletableFuture.completedFuture(versionCache.getLatestVersion());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            final String latestCoreVersion = getLatestFunctionCoreToolsVersion();
+            versionCache.putLatestVersion(latestCoreVersion);
+            return latestCoreVersion;
+        });
+    }
+
+    /**
+     * @return the latest version, or null if it can't be found, the failure is reported by {@link #checkUpdate}
+     */
     protected String getLatestFunctionCoreToolsVersion() {
         try {
-            final String latestCoreVersion = commandHandler.runCommandAndGetOutput(
-                    GET_LATEST_VERSION_CMD,
-                    false, /* showStdout */
-                    null /* workingDirectory */
-            );
+            // npm may hang without network, kill it rather than leaving it behind the build
+            final ProcessResult result = ProcessRunner.shell(GET_LATEST_VERSION_CMD)
+                    .timeout(Duration.ofSeconds(LATEST_VERSION_TIMEOUT_IN_SECONDS))
+                    .onStdout(Log::debug)
+                    .onStderr(Log::debug)
+                    .run();
+            if (!result.isSuccess()) {
+                Log.debug(String.format("'%s' exited with %d%s", GET_LATEST_VERSION_CMD, result.getExitCode(),
+                        result.isTimedOut() ? " after timing out" : ""));
+                return null;
+            }
+            final String latestCoreVersion = result.getStdoutText().trim();
             Version.valueOf(latestCoreVersion);
             return latestCoreVersion;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         } catch (Exception e) {
-            Log.warn(GET_LATEST_VERSION_FAIL);
+            Log.debug(e);
             return null;
         }
     }
 
-    protected String getLocalFunctionCoreToolsVersion() {
+    @Override
+    public String getLocalFunctionCoreToolsVersion() {
+        final File funcBinary = CommandUtils.findExecutable(FUNC_BINARY);
+        final String cachedVersion = versionCache.getLocalVersion(funcBinary);
+        if (cachedVersion != null) {
+            return cachedVersion;
+        }
         try {
             final String localVersion = commandHandler.runCommandAndGetOutput(
                     GET_LOCAL_VERSION_CMD,
@@ -88,6 +156,7 @@ public class FunctionCoreToolsHandlerImpl implements FunctionCoreToolsHandler {
                     null /* workingDirectory */
             );
             Version.valueOf(localVersion);
+            versionCache.putLocalVersion(funcBinary, localVersion);
             return localVersion;
         } catch (Exception e) {
             Log.warn(GET_LOCAL_VERSION_FAIL);
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.function.handlers;
+
+import com.microsoft.azure.common.logging.Log;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Versions of Azure Functions Core Tools cached across builds, so packaging doesn't fork {@code func} and query npm
+ * every time. The local version is keyed by the resolved path and the last modified time of the {@code func} binary,
+ * so it is probed again once core tools is updated or another binary is on the PATH. The latest version is kept for a
+ * TTL, failed lookups (e.g. offline builds) for a shorter one.
+ */
+public class FunctionCoreToolsVersionCache {
+    public static final Path DEFAULT_CACHE_PATH = Paths.get(System.getProperty("user.home"), ".azure", "mavenplugins.funccoretools");
+    public static final Duration DEFAULT_LATEST_VERSION_TTL = Duration.ofHours(24);
+    public static final Duration DEFAULT_LATEST_VERSION_FAILURE_TTL = Duration.ofHours(1);
+
+    private static final String LOCAL_PATH = "local.path";
+    private static final String LOCAL_LAST_MODIFIED = "local.lastModified";
+    private static final String LOCAL_VERSION = "local.version";
+    private static final String LATEST_VERSION = "latest.version";
+    private static final String LATEST_CHECKED_AT = "latest.checkedAt";
+
+    private final File cacheFile;
+    private final Duration latestVersionTtl;
+    private final Duration latestVersionFailureTtl;
+    private Properties properties;
+
+    public FunctionCoreToolsVersionCache() {
+        this(DEFAULT_CACHE_PATH.toFile(), DEFAULT_LATEST_VERSION_TTL, DEFAULT_LATEST_VERSION_FAILURE_TTL);
+    }
+
+    public FunctionCoreToolsVersionCache(final File cacheFile, final Duration latestVersionTtl, final Duration latestVersionFailureTtl) {
+        this.cacheFile = cacheFile;
+        this.latestVersionTtl = latestVersionTtl;
+        this.latestVersionFailureTtl = latestVersionFailureTtl;
+    }
+
+    /**
+     * @return cached version of the func binary, null if it was not probed since the binary was last modified
+     */
+    public synchronized String getLocalVersion(final File funcBinary) {
+        final Properties cache = load();
+        if (funcBinary == null || !StringUtils.equals(cache.getProperty(LOCAL_PATH), funcBinary.getAbsolutePath()) ||
+                funcBinary.lastModified() != NumberUtils.toLong(cache.getProperty(LOCAL_LAST_MODIFIED), -1)) {
+            return null;
+        }
+        return cache.getProperty(LOCAL_VERSION);
+    }
+
+    public synchronized void putLocalVersion(final File funcBinary, final String version) {
+        if (funcBinary == null || version == null) {
+            return;
+        }
+        final Properties cache = load();
+        cache.setProperty(LOCAL_PATH, funcBinary.getAbsolutePath());
+        cache.setProperty(LOCAL_LAST_MODIFIED, String.valueOf(funcBinary.lastModified()));
+        cache.setProperty(LOCAL_VERSION, version);
+        save(cache);
+    }
+
+    /**
+     * @return whether the latest version was looked up recently, {@link #getLatestVersion()} may still be null if the
+     * lookup failed
+     */
+    public synchronized boolean isLatestVersionFresh() {
+        final Properties cache = load();
+        final long checkedAt = NumberUtils.toLong(cache.getProperty(LATEST_CHECKED_AT), 0);
+        final Duration ttl = cache.getProperty(LATEST_VERSION) == null ? latestVersionFailureTtl : latestVersionTtl;
+        final long age = System.currentTimeMillis() - checkedAt;
+        return age >= 0 && age < ttl.toMillis();
+    }
+
+    public synchronized String getLatestVersion() {
+        return load().getProperty(LATEST_VERSION);
+    }
+
+    /**
+     * @param version latest version, null if the lookup failed
+     */
+    public synchronized void putLatestVersion(final String version) {
+        final Properties cache = load();
+        if (version == null) {
+            cache.remove(LATEST_VERSION);
+        } else {
+            cache.setProperty(LATEST_VERSION, version);
+        }
+        cache.setProperty(LATEST_CHECKED_AT, String.valueOf(System.currentTimeMillis()));
+        save(cache);
+    }
+
+    private Properties load() {
+        if (properties == null) {
+            properties = new Properties();
+            if (cacheFile.isFile()) {
+                try (final InputStream input = Files.newInputStream(cacheFile.toPath())) {
+                    properties.load(input);
+                } catch (IOException | IllegalArgumentException e) {
+                    Log.debug(e.getMessage());
+                    properties.clear();
+                }
+            }
+        }
+        return properties;
+    }
+
+    private void save(final Properties cache) {
+        try {
+            cacheFile.getParentFile().mkdirs();
+            // Write to a temporary file first, so concurrent builds never read a partial cache
+            final Path temp = Files.createTempFile(cacheFile.getParentFile().toPath(), cacheFile.getName(), ".tmp");
+            try (final OutputStream output = Files.newOutputStream(temp)) {
+                cache.store(output, null);
+            }
+            try {
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // catch exceptions here to avoid blocking mojo execution.
+            Log.debug(e.getMessage());
+        }
+    }
+}
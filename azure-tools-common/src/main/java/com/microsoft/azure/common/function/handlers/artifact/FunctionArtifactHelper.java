@@ -8,6 +8,8 @@ package com.microsoft.azure.common.function.handlers.artifact;
 import com.microsoft.azure.common.deploytarget.DeployTarget;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.function.Constants;
+import com.microsoft.azure.common.handlers.artifact.ZipDeployManifest;
+import com.microsoft.azure.common.utils.ZipPackager;
 import com.microsoft.azure.management.appservice.AppSetting;
 import com.microsoft.azure.management.appservice.FunctionApp;
 import com.microsoft.azure.management.appservice.FunctionDeploymentSlot;
@@ -15,11 +17,12 @@ import com.microsoft.azure.management.appservice.WebAppBase;
 import com.microsoft.azure.storage.CloudStorageAccount;
 
 import org.apache.commons.lang3.StringUtils;
-import org.zeroturnaround.zip.ZipUtil;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.Collections;
 import java.util.Map;
 
 import static com.microsoft.azure.common.function.Constants.INTERNAL_STORAGE_KEY;
@@ -33,6 +36,14 @@ public class FunctionArtifactHelper {
     private static final String UNSUPPORTED_DEPLOYMENT_TARGET = "Unsupported deployment target, only function is supported";
 
     public static File createFunctionArtifact(final String stagingDirectoryPath) throws AzureExecutionException {
+        return createFunctionArtifact(stagingDirectoryPath, false);
+    }
+
+    /**
+     * @param parallelCompression whether to deflate entries with all available processors
+     */
+    public static File createFunctionArtifact(final String stagingDirectoryPath, final boolean parallelCompression)
+            throws AzureExecutionException {
         final File stageDirectory = new File(stagingDirectoryPath);
         final File zipPackage = new File(stagingDirectoryPath.concat(Constants.ZIP_EXT));
 
@@ -40,10 +51,23 @@ public class FunctionArtifactHelper {
             throw new AzureExecutionException(STAGE_DIR_NOT_FOUND);
         }
 
-        ZipUtil.pack(stageDirectory, zipPackage);
-        ZipUtil.removeEntry(zipPackage, LOCAL_SETTINGS_FILE);
+        return new ZipPackager(stageDirectory).exclude(LOCAL_SETTINGS_FILE).parallel(parallelCompression).pack(zipPackage);
+    }
 
-        return zipPackage;
+    /**
+     * @return content hash of the files to be packed, it doesn't change with the modification time of files
+     */
+    public static String getArtifactFingerprint(final String stagingDirectoryPath) throws AzureExecutionException {
+        final File stageDirectory = new File(stagingDirectoryPath);
+        if (!stageDirectory.isDirectory()) {
+            throw new AzureExecutionException(STAGE_DIR_NOT_FOUND);
+        }
+        try {
+            return ZipDeployManifest.getFingerprint(
+                    ZipDeployManifest.getEntryHashes(stageDirectory, Collections.singleton(LOCAL_SETTINGS_FILE)));
+        } catch (IOException e) {
+            throw new AzureExecutionException(e.getMessage(), e);
+        }
     }
 
     public static void updateAppSetting(final DeployTarget deployTarget, final String key, final String value) throws AzureExecutionException {
@@ -5,18 +5,25 @@
 
 package com.microsoft.azure.common.function.handlers.artifact;
 
+import com.microsoft.azure.common.UploadJournal;
 import com.microsoft.azure.common.deploytarget.DeployTarget;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.function.AzureStorageHelper;
+import com.microsoft.azure.common.function.Constants;
 import com.microsoft.azure.common.handlers.artifact.ArtifactHandlerBase;
 import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.management.appservice.AppSetting;
 import com.microsoft.azure.management.appservice.FunctionApp;
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.storage.blob.BlobContainerPublicAccessType;
 import com.microsoft.azure.storage.blob.CloudBlockBlob;
 
+import org.apache.commons.lang3.StringUtils;
+
 import java.io.File;
+import java.io.IOException;
 import java.time.Period;
+import java.util.Map;
 
 import static com.microsoft.azure.common.function.Constants.APP_SETTING_WEBSITE_RUN_FROM_PACKAGE;
 
@@ -27,8 +34,15 @@ public class RunFromBlobArtifactHandlerImpl extends ArtifactHandlerBase {
 
     public static final int SAS_EXPIRE_DATE_BY_YEAR = 10;
     public static final String DEPLOYMENT_PACKAGE_CONTAINER = "java-functions-run-from-packages";
+    private static final String FINGERPRINT_METADATA = "contentsha256";
+    private static final String SKIP_UNCHANGED_DEPLOY = "The package is the same as the one deployed to %s, skip deploying.";
+    private static final String REUSE_UNCHANGED_PACKAGE = "The package is the same as the uploaded one, skip uploading.";
+
+    private final boolean skipUnchanged;
 
     public static class Builder extends ArtifactHandlerBase.Builder<RunFromBlobArtifactHandlerImpl.Builder> {
+        private boolean skipUnchanged = false;
+
         @Override
         protected RunFromBlobArtifactHandlerImpl.Builder self() {
             return this;
@@ -38,17 +52,52 @@ public class RunFromBlobArtifactHandlerImpl extends ArtifactHandlerBase {
         public RunFromBlobArtifactHandlerImpl build() {
             return new RunFromBlobArtifactHandlerImpl(this);
         }
+
+        public Builder skipUnchanged(final boolean value) {
+            this.skipUnchanged = value;
+            return self();
+        }
     }
 
     protected RunFromBlobArtifactHandlerImpl(RunFromBlobArtifactHandlerImpl.Builder builder) {
         super(builder);
+        this.skipUnchanged = builder.skipUnchanged;
     }
 
     @Override
     public void publish(DeployTarget deployTarget) throws AzureExecutionException {
-        final File zipPackage = FunctionArtifactHelper.createFunctionArtifact(stagingDirectoryPath);
         final CloudStorageAccount storageAccount = FunctionArtifactHelper.getCloudStorageAccount(deployTarget);
+        final String fingerprint = skipUnchanged ? FunctionArtifactHelper.getArtifactFingerprint(stagingDirectoryPath) : null;
+        if (fingerprint != null) {
+            final String packageName = new File(stagingDirectoryPath.concat(Constants.ZIP_EXT)).getName();
+            final CloudBlockBlob blob = AzureStorageHelper.getBlockBlob(storageAccount, DEPLOYMENT_PACKAGE_CONTAINER, packageName);
+            if (fingerprint.equals(AzureStorageHelper.getBlobMetadata(blob, FINGERPRINT_METADATA))) {
+                if (isRunningFromBlob(deployTarget, blob)) {
+                    // Updating the app setting restarts the app, so there is nothing to do at all
+                    Log.prompt(String.format(SKIP_UNCHANGED_DEPLOY, deployTarget.getName()));
+                } else {
+                    Log.prompt(REUSE_UNCHANGED_PACKAGE);
+                    updateRunFromPackage(deployTarget, blob);
+                }
+                return;
+            }
+        }
+        final File zipPackage = FunctionArtifactHelper.createFunctionArtifact(stagingDirectoryPath, parallelCompression);
         final CloudBlockBlob blob = deployArtifactToAzureStorage(deployTarget, zipPackage, storageAccount);
+        if (fingerprint != null) {
+            AzureStorageHelper.setBlobMetadata(blob, FINGERPRINT_METADATA, fingerprint);
+        }
+        updateRunFromPackage(deployTarget, blob);
+    }
+
+    private static boolean isRunningFromBlob(final DeployTarget deployTarget, final CloudBlockBlob blob) {
+        final Map<String, AppSetting> appSettings = deployTarget.getAppSettings();
+        final AppSetting setting = appSettings == null ? null : appSettings.get(APP_SETTING_WEBSITE_RUN_FROM_PACKAGE);
+        // The value is the blob url with a sas token, which is different every time it is generated
+        return setting != null && StringUtils.startsWith(setting.value(), blob.getUri().toString() + "?");
+    }
+
+    private static void updateRunFromPackage(final DeployTarget deployTarget, final CloudBlockBlob blob) throws AzureExecutionException {
         final String sasToken = AzureStorageHelper.getSASToken(blob, Period.ofYears(SAS_EXPIRE_DATE_BY_YEAR));
         FunctionArtifactHelper.updateAppSetting(deployTarget, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, sasToken);
     }
@@ -56,8 +105,16 @@ public class RunFromBlobArtifactHandlerImpl extends ArtifactHandlerBase {
     private CloudBlockBlob deployArtifactToAzureStorage(DeployTarget deployTarget, File zipPackage, CloudStorageAccount storageAccount)
             throws AzureExecutionException {
         Log.prompt(String.format(DEPLOY_START, deployTarget.getName()));
+        final UploadJournal journal;
+        try {
+            journal = UploadJournal.open(zipPackage);
+        } catch (IOException e) {
+            throw new AzureExecutionException(e.getMessage(), e);
+        }
+        // The package is built under the build directory, so is the journal which lets a failed upload resume next time
         final CloudBlockBlob blob = AzureStorageHelper.uploadFileAsBlob(zipPackage, storageAccount,
-                DEPLOYMENT_PACKAGE_CONTAINER, zipPackage.getName(), BlobContainerPublicAccessType.OFF);
+                DEPLOYMENT_PACKAGE_CONTAINER, zipPackage.getName(), BlobContainerPublicAccessType.OFF,
+                AzureStorageHelper.DEFAULT_BLOCK_SIZE, AzureStorageHelper.DEFAULT_UPLOAD_CONCURRENCY, journal);
         final String blobUri = blob.getUri().getHost() + blob.getUri().getPath();
         Log.prompt(String.format(DEPLOY_FINISH, blobUri));
         return blob;
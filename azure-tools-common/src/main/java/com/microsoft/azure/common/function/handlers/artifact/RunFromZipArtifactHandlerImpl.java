@@ -5,15 +5,22 @@
 
 package com.microsoft.azure.common.function.handlers.artifact;
 
+import com.microsoft.azure.common.deploytarget.AppSettingReadinessProbe;
 import com.microsoft.azure.common.deploytarget.DeployTarget;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.handlers.artifact.ZIPArtifactHandlerImpl;
+import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.management.appservice.AppSetting;
+
+import java.util.Map;
+import java.util.Optional;
 
 import static com.microsoft.azure.common.function.Constants.APP_SETTING_WEBSITE_RUN_FROM_PACKAGE;
 
 public class RunFromZipArtifactHandlerImpl extends ZIPArtifactHandlerImpl {
 
     protected static final String RUN_FROM_PACKAGE_VALUE = "1";
+    private static final String APP_SETTING_NOT_OBSERVED = "Cannot confirm app setting %s is applied, continue deploying.";
 
     public static class Builder extends ZIPArtifactHandlerImpl.Builder {
         @Override
@@ -33,13 +40,32 @@ public class RunFromZipArtifactHandlerImpl extends ZIPArtifactHandlerImpl {
 
     @Override
     public void publish(DeployTarget target) throws AzureExecutionException {
-        FunctionArtifactHelper.updateAppSetting(target, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, RUN_FROM_PACKAGE_VALUE);
-        try {
+        // Updating app settings restarts the app, skip it if unchanged deploys are skipped and the app runs from package already
+        if (!isSkipUnchanged() || !isRunFromPackageEnabled(target)) {
+            FunctionArtifactHelper.updateAppSetting(target, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, RUN_FROM_PACKAGE_VALUE);
             // work around for issue https://dev.azure.com/msazure/Unified%20Platform%20KPIs/_workitems/edit/7481871
-            Thread.sleep(20 * 1000);
-        } catch (InterruptedException e) {
-            // Sorrow exception here as we just wait for 20s for kudu app settings update, which is not required in normal cases
+            // wait for kudu to pick up the new app setting instead of sleeping for a fixed time
+            waitUntilAppSettingObserved(target);
         }
         super.publish(target);
     }
+
+    protected Optional<AppSettingReadinessProbe> getReadinessProbe(DeployTarget target) {
+        return AppSettingReadinessProbe.forApp(target.getApp());
+    }
+
+    private void waitUntilAppSettingObserved(DeployTarget target) {
+        final boolean observed = getReadinessProbe(target)
+                .map(probe -> probe.waitUntilObserved(APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, RUN_FROM_PACKAGE_VALUE))
+                .orElse(false);
+        if (!observed) {
+            Log.warn(String.format(APP_SETTING_NOT_OBSERVED, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE));
+        }
+    }
+
+    private static boolean isRunFromPackageEnabled(DeployTarget target) {
+        final Map<String, AppSetting> appSettings = target.getAppSettings();
+        final AppSetting setting = appSettings == null ? null : appSettings.get(APP_SETTING_WEBSITE_RUN_FROM_PACKAGE);
+        return setting != null && RUN_FROM_PACKAGE_VALUE.equals(setting.value());
+    }
 }
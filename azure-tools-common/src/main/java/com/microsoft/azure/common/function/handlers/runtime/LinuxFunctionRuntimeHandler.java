@@ -52,7 +52,7 @@ public class LinuxFunctionRuntimeHandler extends AbstractLinuxFunctionRuntimeHan
     @Override
     public WebAppBase.Update<FunctionDeploymentSlot> updateDeploymentSlot(FunctionDeploymentSlot deploymentSlot) {
         checkFunctionExtensionVersion();
-        final PricingTier pricingTier = AppServiceUtils.getAppServicePlanByAppService(deploymentSlot).pricingTier();
+        final PricingTier pricingTier = AppServiceUtils.getAppServicePlanByAppService(deploymentSlot, resourceCache).pricingTier();
         final String targetFxVersion = StringUtils.equals(pricingTier.toSkuDescription().tier(), SkuName.DYNAMIC.toString()) ?
                 getRuntimeStack().getLinuxFxVersionForConsumptionPlan() : getRuntimeStack().getLinuxFxVersionForDedicatedPlan();
         if (!StringUtils.equals(deploymentSlot.linuxFxVersion(), targetFxVersion)) {
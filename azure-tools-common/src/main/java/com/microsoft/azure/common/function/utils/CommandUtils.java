@@ -5,9 +5,13 @@
 
 package com.microsoft.azure.common.function.utils;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class CommandUtils {
@@ -16,6 +20,34 @@ public class CommandUtils {
         return SystemUtils.IS_OS_WINDOWS;
     }
 
+    /**
+     * Find the executable which the shell would run for the command name, symbolic links are resolved.
+     *
+     * @return the executable, null if it is not found in PATH
+     */
+    public static File findExecutable(final String name) {
+        final String path = System.getenv("PATH");
+        if (StringUtils.isBlank(path)) {
+            return null;
+        }
+        final List<String> extensions = isWindows() ?
+                Arrays.asList(StringUtils.split(StringUtils.defaultIfBlank(System.getenv("PATHEXT"), ".COM;.EXE;.BAT;.CMD"), ';')) :
+                Collections.singletonList("");
+        for (final String directory : path.split(File.pathSeparator)) {
+            for (final String extension : extensions) {
+                final File file = new File(directory, name + extension);
+                if (file.isFile() && file.canExecute()) {
+                    try {
+                        return file.toPath().toRealPath().toFile();
+                    } catch (IOException e) {
+                        return file;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
     public static List<Long> getDefaultValidReturnCodes() {
         return Arrays.asList(0L);
     }
@@ -20,11 +20,13 @@ public abstract class ArtifactHandlerBase implements ArtifactHandler {
     protected IProject project;
     protected String stagingDirectoryPath;
     protected String buildDirectoryAbsolutePath;
+    protected boolean parallelCompression;
 
     public abstract static class Builder<T extends Builder<T>> {
         private IProject project;
         private String stagingDirectoryPath;
         private String buildDirectoryAbsolutePath;
+        private boolean parallelCompression = false;
 
         protected abstract T self();
 
@@ -45,12 +47,22 @@ public abstract class ArtifactHandlerBase implements ArtifactHandler {
             return self();
         }
 
+        /**
+         * Deflate package entries with all available processors. Entries are spooled to temporary files before they are
+         * merged into the package, so it only pays off with many large compressible files and fast disks.
+         */
+        public T parallelCompression(final boolean value) {
+            this.parallelCompression = value;
+            return self();
+        }
+
     }
 
     protected ArtifactHandlerBase(Builder<?> builder) {
         this.project = builder.project;
         this.stagingDirectoryPath = builder.stagingDirectoryPath;
         this.buildDirectoryAbsolutePath = builder.buildDirectoryAbsolutePath;
+        this.parallelCompression = builder.parallelCompression;
     }
 
     protected void assureStagingDirectoryNotEmpty() throws AzureExecutionException {
@@ -5,23 +5,60 @@
 
 package com.microsoft.azure.common.handlers.artifact;
 
+import com.microsoft.azure.common.FTPSynchronizer;
 import com.microsoft.azure.common.FTPUploader;
 import com.microsoft.azure.common.deploytarget.DeployTarget;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.logging.Log;
 import com.microsoft.azure.management.appservice.FunctionApp;
 import com.microsoft.azure.management.appservice.PublishingProfile;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
 
 public class FTPArtifactHandlerImpl extends ArtifactHandlerBase {
     private static final String DEFAULT_WEBAPP_ROOT = "/site/wwwroot";
     private static final int DEFAULT_MAX_RETRY_TIMES = 3;
+    private static final String SYNC_MANIFEST_FILE = "azure-ftp-sync.properties";
+
+    private final int parallelism;
+    private final boolean incrementalSync;
+    private final boolean deleteStaleFiles;
 
     public static class Builder extends ArtifactHandlerBase.Builder<Builder> {
+        private int parallelism = 1;
+        private boolean incrementalSync;
+        private boolean deleteStaleFiles;
+
+        /**
+         * Number of parallel FTP connections, files are uploaded one by one over a single connection when it is 1.
+         */
+        public Builder parallelism(final int value) {
+            this.parallelism = value;
+            return self();
+        }
+
         @Override
         protected Builder self() {
             return this;
         }
 
+        /**
+         * Upload only new or changed files instead of the whole staging directory.
+         */
+        public Builder incrementalSync(final boolean value) {
+            this.incrementalSync = value;
+            return self();
+        }
+
+        /**
+         * Delete remote files which don't exist in the staging directory, only works with incremental sync.
+         */
+        public Builder deleteStaleFiles(final boolean value) {
+            this.deleteStaleFiles = value;
+            return self();
+        }
+
         @Override
         public FTPArtifactHandlerImpl build() {
             return new FTPArtifactHandlerImpl(this);
@@ -30,6 +67,9 @@ public class FTPArtifactHandlerImpl extends ArtifactHandlerBase {
 
     private FTPArtifactHandlerImpl(final Builder builder) {
         super(builder);
+        this.parallelism = builder.parallelism;
+        this.incrementalSync = builder.incrementalSync;
+        this.deleteStaleFiles = builder.deleteStaleFiles;
     }
 
     @Override
@@ -61,6 +101,11 @@ public class FTPArtifactHandlerImpl extends ArtifactHandlerBase {
     }
 
     protected FTPUploader getUploader() {
-        return new FTPUploader();
+        if (!incrementalSync) {
+            return new FTPUploader(parallelism);
+        }
+        final File manifestFile = StringUtils.isEmpty(buildDirectoryAbsolutePath) ? null :
+                new File(buildDirectoryAbsolutePath, SYNC_MANIFEST_FILE);
+        return new FTPUploader(parallelism, new FTPSynchronizer(deleteStaleFiles, manifestFile));
     }
 }
@@ -8,16 +8,38 @@ package com.microsoft.azure.common.handlers.artifact;
 import com.microsoft.azure.common.deploytarget.DeployTarget;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.common.utils.ZipPackager;
+import com.microsoft.azure.management.appservice.FunctionApp;
 
-import org.zeroturnaround.zip.ZipUtil;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.microsoft.azure.common.function.Constants.APP_SETTING_WEBSITE_RUN_FROM_PACKAGE;
 
 public class ZIPArtifactHandlerImpl extends ArtifactHandlerBase {
     private static final int DEFAULT_MAX_RETRY_TIMES = 3;
     private static final String LOCAL_SETTINGS_FILE = "local.settings.json";
+    private static final String DEPLOY_MANIFEST_FILE = "azure-zip-deploy.properties";
+    private static final String DELTA_DEPLOY_FULL = "No previous deployment is recorded for %s, deploying the full package.";
+    private static final String DELTA_DEPLOY_START = "Deploying %d changed and deleting %d removed files...";
+    private static final String DELTA_DEPLOY_UP_TO_DATE = "No file has changed since last deployment, skip deploying.";
+    private static final String DELTA_DEPLOY_FAILED = "Failed to deploy the changed files, deploying the full package instead.";
+    private static final String SKIP_UNCHANGED_DEPLOY = "The package is the same as the one deployed to %s, skip deploying.";
+
+    private final boolean deltaDeploy;
+    private final boolean skipUnchanged;
 
     public static class Builder extends ArtifactHandlerBase.Builder<ZIPArtifactHandlerImpl.Builder> {
+        private boolean deltaDeploy = false;
+        private boolean skipUnchanged = false;
+
         @Override
         protected ZIPArtifactHandlerImpl.Builder self() {
             return this;
@@ -27,27 +49,138 @@ public class ZIPArtifactHandlerImpl extends ArtifactHandlerBase {
         public ZIPArtifactHandlerImpl build() {
             return new ZIPArtifactHandlerImpl(this);
         }
+
+        public Builder deltaDeploy(final boolean value) {
+            this.deltaDeploy = value;
+            return self();
+        }
+
+        public Builder skipUnchanged(final boolean value) {
+            this.skipUnchanged = value;
+            return self();
+        }
     }
 
     protected ZIPArtifactHandlerImpl(final Builder builder) {
         super(builder);
+        this.deltaDeploy = builder.deltaDeploy;
+        this.skipUnchanged = builder.skipUnchanged;
+    }
+
+    protected boolean isSkipUnchanged() {
+        return skipUnchanged;
     }
 
     @Override
     public void publish(DeployTarget target) throws AzureExecutionException {
         assureStagingDirectoryNotEmpty();
 
-        final File zipFile = getZipFile();
+        final boolean isDeltaDeploy = deltaDeploy && StringUtils.isNotEmpty(buildDirectoryAbsolutePath);
+        final Map<String, String> entryHashes = isDeltaDeploy || skipUnchanged ? getEntryHashes() : null;
+        final String fingerprint = skipUnchanged ? ZipDeployManifest.getFingerprint(entryHashes) : null;
+        if (fingerprint != null) {
+            if (isUnchanged(target, fingerprint)) {
+                Log.prompt(String.format(SKIP_UNCHANGED_DEPLOY, target.getName()));
+                return;
+            }
+            // The remote state is unknown until this deploy succeeds
+            target.setDeployFingerprint(null);
+        }
+
+        if (isDeltaDeploy) {
+            publishDelta(target, new ZipDeployManifest(new File(buildDirectoryAbsolutePath, DEPLOY_MANIFEST_FILE)), entryHashes);
+        } else {
+            final File zipFile = getZipFile();
+            Log.prompt(String.format(DEPLOY_START, target.getName()));
+            deployWithRetries(() -> target.zipDeploy(zipFile));
+            Log.prompt(String.format(DEPLOY_FINISH, target.getDefaultHostName()));
+        }
+
+        if (fingerprint != null) {
+            target.setDeployFingerprint(fingerprint);
+        }
+    }
+
+    /**
+     * @return whether the deployed package has the same fingerprint, it takes a single request instead of a full deploy
+     */
+    protected boolean isUnchanged(final DeployTarget target, final String fingerprint) {
+        return fingerprint.equals(target.getDeployFingerprint());
+    }
+
+    protected File getZipFile() {
+        final File zipFile = new File(stagingDirectoryPath + ".zip");
+        final File stagingDirectory = new File(stagingDirectoryPath);
+
+        return new ZipPackager(stagingDirectory).exclude(LOCAL_SETTINGS_FILE).parallel(parallelCompression).pack(zipFile);
+    }
+
+    /**
+     * Pack the given entries only, parent directories are created by Kudu when the archive is extracted.
+     */
+    protected File getDeltaZipFile(final List<String> entries) {
+        final File zipFile = new File(stagingDirectoryPath + ".delta.zip");
+        final Set<String> entrySet = new HashSet<>(entries);
+        return new ZipPackager(new File(stagingDirectoryPath)).include(entrySet::contains).parallel(parallelCompression).pack(zipFile);
+    }
+
+    private Map<String, String> getEntryHashes() throws AzureExecutionException {
+        try {
+            return ZipDeployManifest.getEntryHashes(new File(stagingDirectoryPath), Collections.singleton(LOCAL_SETTINGS_FILE));
+        } catch (IOException e) {
+            throw new AzureExecutionException(e.getMessage(), e);
+        }
+    }
+
+    private void publishDelta(final DeployTarget target, final ZipDeployManifest manifest, final Map<String, String> entryHashes)
+            throws AzureExecutionException {
+        final String targetId = target.getApp().id();
+        // Files of a run-from-package app are mounted from the package, they can't be updated in place
+        final Map<String, String> previousHashes = target.getAppSettings().containsKey(APP_SETTING_WEBSITE_RUN_FROM_PACKAGE) ?
+                null : manifest.load(targetId);
+        // The remote state is unknown until this deploy succeeds
+        manifest.delete();
+
         Log.prompt(String.format(DEPLOY_START, target.getName()));
+        if (previousHashes == null) {
+            Log.info(String.format(DELTA_DEPLOY_FULL, target.getName()));
+            deployFull(target);
+        } else {
+            final List<String> changedEntries = ZipDeployManifest.getChangedEntries(previousHashes, entryHashes);
+            final List<String> deletedEntries = ZipDeployManifest.getDeletedEntries(previousHashes, entryHashes);
+            if (changedEntries.isEmpty() && deletedEntries.isEmpty()) {
+                Log.prompt(DELTA_DEPLOY_UP_TO_DATE);
+            } else {
+                Log.prompt(String.format(DELTA_DEPLOY_START, changedEntries.size(), deletedEntries.size()));
+                final File deltaZipFile = getDeltaZipFile(changedEntries);
+                try {
+                    deployWithRetries(() -> target.deltaZipDeploy(deltaZipFile, deletedEntries));
+                    if (target.getApp() instanceof FunctionApp) {
+                        ((FunctionApp) target.getApp()).syncTriggers();
+                    }
+                } catch (AzureExecutionException e) {
+                    Log.warn(DELTA_DEPLOY_FAILED);
+                    deployFull(target);
+                }
+            }
+        }
+        manifest.save(targetId, entryHashes);
+        Log.prompt(String.format(DEPLOY_FINISH, target.getDefaultHostName()));
+    }
+
+    private void deployFull(final DeployTarget target) throws AzureExecutionException {
+        final File zipFile = getZipFile();
+        deployWithRetries(() -> target.zipDeploy(zipFile));
+    }
 
+    private static void deployWithRetries(final Runnable deploy) throws AzureExecutionException {
         // Add retry logic here to avoid Kudu's socket timeout issue.
         // More details: https://github.com/Microsoft/azure-maven-plugins/issues/339
         int retryCount = 0;
         while (retryCount < DEFAULT_MAX_RETRY_TIMES) {
             retryCount += 1;
             try {
-                target.zipDeploy(zipFile);
-                Log.prompt(String.format(DEPLOY_FINISH, target.getDefaultHostName()));
+                deploy.run();
                 return;
             } catch (Exception e) {
                 Log.debug(
@@ -58,13 +191,4 @@ public class ZIPArtifactHandlerImpl extends ArtifactHandlerBase {
 
         throw new AzureExecutionException(String.format("The zip deploy failed after %d times of retry.", retryCount));
     }
-
-    protected File getZipFile() {
-        final File zipFile = new File(stagingDirectoryPath + ".zip");
-        final File stagingDirectory = new File(stagingDirectoryPath);
-
-        ZipUtil.pack(stagingDirectory, zipFile);
-        ZipUtil.removeEntry(zipFile, LOCAL_SETTINGS_FILE);
-        return zipFile;
-    }
 }
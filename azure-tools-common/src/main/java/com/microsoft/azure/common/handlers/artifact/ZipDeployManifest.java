@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.handlers.artifact;
+
+import com.microsoft.azure.common.logging.Log;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content hashes of every archive entry of the last successful zip deploy, used to compute the delta of next deploy.
+ */
+public class ZipDeployManifest {
+    private static final String TARGET_KEY = "zip.deploy.target";
+    private static final String MANIFEST_SAVE_FAILURE = "Failed to save zip deploy manifest to %s, next deploy will upload the full package.";
+
+    private final File manifestFile;
+
+    public ZipDeployManifest(final File manifestFile) {
+        this.manifestFile = manifestFile;
+    }
+
+    /**
+     * @param targetId id of the deploy target
+     * @return entry hashes of the last deploy, null if there is no manifest for the target
+     */
+    @Nullable
+    public Map<String, String> load(final String targetId) {
+        if (!manifestFile.exists()) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try (final InputStream input = new FileInputStream(manifestFile)) {
+            properties.load(input);
+        } catch (IOException e) {
+            Log.debug(e);
+            return null;
+        }
+        if (!StringUtils.equals(properties.getProperty(TARGET_KEY), targetId)) {
+            return null;
+        }
+        properties.remove(TARGET_KEY);
+        final Map<String, String> result = new TreeMap<>();
+        properties.stringPropertyNames().forEach(name -> result.put(name, properties.getProperty(name)));
+        return result;
+    }
+
+    public void save(final String targetId, final Map<String, String> entryHashes) {
+        final Properties properties = new Properties();
+        properties.putAll(entryHashes);
+        properties.setProperty(TARGET_KEY, targetId);
+        try {
+            manifestFile.getParentFile().mkdirs();
+            try (final OutputStream output = new FileOutputStream(manifestFile)) {
+                properties.store(output, "Zip deploy manifest");
+            }
+        } catch (IOException e) {
+            Log.warn(String.format(MANIFEST_SAVE_FAILURE, manifestFile.getAbsolutePath()));
+            Log.debug(e);
+        }
+    }
+
+    /**
+     * Forget the last deploy, so an interrupted deploy will be followed by a full one.
+     */
+    public void delete() {
+        if (manifestFile.exists() && !manifestFile.delete()) {
+            Log.debug(String.format("Failed to delete %s", manifestFile.getAbsolutePath()));
+        }
+    }
+
+    /**
+     * @param stagingDirectory directory to be packed
+     * @param excludedEntries entries which won't be packed
+     * @return SHA-256 hash of every file, keyed by its entry name in the archive
+     * @throws IOException if failed to read files
+     */
+    public static Map<String, String> getEntryHashes(final File stagingDirectory, final Collection<String> excludedEntries)
+            throws IOException {
+        final Path root = stagingDirectory.toPath();
+        final List<Path> files;
+        try (final Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        final Map<String, String> result = new TreeMap<>();
+        for (final Path file : files) {
+            final String entry = root.relativize(file).toString().replace(File.separatorChar, '/');
+            if (!excludedEntries.contains(entry)) {
+                try (final InputStream input = Files.newInputStream(file)) {
+                    result.put(entry, DigestUtils.sha256Hex(input));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a single hash of all entries, it changes with the content or the name of any entry
+     */
+    public static String getFingerprint(final Map<String, String> entryHashes) {
+        return DigestUtils.sha256Hex(new TreeMap<>(entryHashes).entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("\n")));
+    }
+
+    public static List<String> getChangedEntries(final Map<String, String> previous, final Map<String, String> current) {
+        return current.entrySet().stream()
+                .filter(entry -> !Objects.equals(previous.get(entry.getKey()), entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    public static List<String> getDeletedEntries(final Map<String, String> previous, final Map<String, String> current) {
+        return previous.keySet().stream()
+                .filter(entry -> !current.containsKey(entry))
+                .collect(Collectors.toList());
+    }
+}
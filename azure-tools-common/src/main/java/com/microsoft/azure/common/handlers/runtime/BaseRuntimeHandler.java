@@ -13,6 +13,7 @@ import com.microsoft.azure.management.appservice.AppServicePlan;
 import com.microsoft.azure.management.appservice.PricingTier;
 import com.microsoft.azure.management.appservice.WebAppBase;
 import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+import com.microsoft.azure.toolkit.lib.common.cache.ResourceCache;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -30,6 +31,7 @@ public abstract class BaseRuntimeHandler<T extends WebAppBase> implements Runtim
     protected Azure azure;
     protected String image;
     protected String registryUrl;
+    protected ResourceCache resourceCache;
 
     public abstract static class Builder<T extends Builder<T>> {
         protected String appName;
@@ -41,6 +43,7 @@ public abstract class BaseRuntimeHandler<T extends WebAppBase> implements Runtim
         protected Azure azure;
         protected String image;
         protected String registryUrl;
+        protected ResourceCache resourceCache;
 
         public T appName(final String value) {
             this.appName = value;
@@ -87,6 +90,11 @@ public abstract class BaseRuntimeHandler<T extends WebAppBase> implements Runtim
             return self();
         }
 
+        public T resourceCache(final ResourceCache value) {
+            this.resourceCache = value;
+            return self();
+        }
+
         public abstract BaseRuntimeHandler build();
 
         protected abstract T self();
@@ -103,6 +111,7 @@ public abstract class BaseRuntimeHandler<T extends WebAppBase> implements Runtim
         this.azure = builder.azure;
         this.image = builder.image;
         this.registryUrl = builder.registryUrl;
+        this.resourceCache = builder.resourceCache;
     }
 
     public abstract WebAppBase.DefinitionStages.WithCreate defineAppWithRuntime() throws AzureExecutionException;
@@ -113,7 +122,7 @@ public abstract class BaseRuntimeHandler<T extends WebAppBase> implements Runtim
 
     @Override
     public AppServicePlan updateAppServicePlan(T app) throws AzureExecutionException {
-        final AppServicePlan appServicePlan = AppServiceUtils.getAppServicePlanByAppService(app);
+        final AppServicePlan appServicePlan = AppServiceUtils.getAppServicePlanByAppService(app, resourceCache);
         final AppServicePlan targetAppServicePlan = StringUtils.isNotEmpty(servicePlanName) ? getAppServicePlan() : appServicePlan;
         if (targetAppServicePlan == null) {
             throw new AzureExecutionException(String.format(TARGET_APP_SERVICE_PLAN_DO_NOT_EXIST, servicePlanName,
@@ -122,7 +131,11 @@ public abstract class BaseRuntimeHandler<T extends WebAppBase> implements Runtim
         if (!AppServiceUtils.isEqualAppServicePlan(appServicePlan, targetAppServicePlan)) {
             changeAppServicePlan(app, targetAppServicePlan);
         }
-        return AppServiceUtils.updateAppServicePlan(targetAppServicePlan, pricingTier);
+        final AppServicePlan result = AppServiceUtils.updateAppServicePlan(targetAppServicePlan, pricingTier);
+        if (resourceCache != null) {
+            resourceCache.put(result.id(), result);
+        }
+        return result;
     }
 
     protected AppServicePlan getAppServicePlan() {
@@ -14,6 +14,7 @@ import com.microsoft.azure.management.appservice.OperatingSystem;
 import com.microsoft.azure.management.appservice.PricingTier;
 import com.microsoft.azure.management.appservice.RuntimeStack;
 import com.microsoft.azure.management.appservice.WebAppBase;
+import com.microsoft.azure.toolkit.lib.common.cache.ResourceCache;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Field;
@@ -93,6 +94,14 @@ public class AppServiceUtils {
         return webApp.manager().appServicePlans().getById(webApp.appServicePlanId());
     }
 
+    /**
+     * Get the app service plan of the app, the plan is only fetched once when the cache is specified.
+     */
+    public static AppServicePlan getAppServicePlanByAppService(final WebAppBase webApp, final ResourceCache cache) {
+        return cache == null ? getAppServicePlanByAppService(webApp) :
+                cache.get(webApp.appServicePlanId(), () -> getAppServicePlanByAppService(webApp));
+    }
+
     public static AppServicePlan updateAppServicePlan(final AppServicePlan appServicePlan,
                                                       final PricingTier pricingTier) throws AzureExecutionException {
         if (appServicePlan == null) {
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.utils;
+
+import com.microsoft.azure.common.logging.Log;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+/**
+ * Installation id is the hashed MAC address of this machine. Getting the MAC address forks a process, so the id is
+ * computed once per machine and cached in a file next to the plugin configuration file, and once per JVM in memory.
+ */
+public class InstallationIdUtils {
+    private static final Path CACHE_PATH = Paths.get(System.getProperty("user.home"), ".azure", "mavenplugins.installationid");
+    private static final Pattern INSTALLATION_ID_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static volatile boolean loaded = false;
+    private static String installationId;
+
+    /**
+     * @return hashed MAC address, null if there is no valid MAC address
+     */
+    public static String getInstallationId() {
+        if (!loaded) {
+            synchronized (InstallationIdUtils.class) {
+                if (!loaded) {
+                    installationId = getInstallationId(CACHE_PATH.toFile());
+                    loaded = true;
+                }
+            }
+        }
+        return installationId;
+    }
+
+    static String getInstallationId(final File cacheFile) {
+        final String cached = readCache(cacheFile);
+        if (cached != null) {
+            return cached;
+        }
+        final String computed = GetHashMac.getHashMac();
+        if (computed != null) {
+            writeCache(cacheFile, computed);
+        }
+        return computed;
+    }
+
+    private static String readCache(final File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try {
+            final String value = StringUtils.trim(new String(Files.readAllBytes(cacheFile.toPath()), StandardCharsets.UTF_8));
+            return INSTALLATION_ID_PATTERN.matcher(value).matches() ? value : null;
+        } catch (IOException e) {
+            Log.debug(e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeCache(final File cacheFile, final String value) {
+        try {
+            cacheFile.getParentFile().mkdirs();
+            // Write to a temporary file first, so concurrent builds never read a partial id
+            final Path temp = Files.createTempFile(cacheFile.getParentFile().toPath(), cacheFile.getName(), ".tmp");
+            Files.write(temp, value.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // catch exceptions here to avoid blocking mojo execution.
+            Log.debug(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.utils;
+
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.zeroturnaround.zip.ZipException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Pack a directory into a zip archive in a single pass, filtered entries are never written.
+ * Entries which are compressed already are stored as is, and other entries can be deflated in parallel.
+ */
+public class ZipPackager {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final Set<String> STORED_EXTENSIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "jar", "war", "ear", "zip", "gz", "tgz", "bz2", "xz", "7z", "png", "jpg", "jpeg", "gif", "webp", "mp3", "mp4", "woff", "woff2")));
+    private static final String DIRECTORY_NOT_FOUND = "Given directory '%s' doesn't exist!";
+
+    private final File sourceDirectory;
+    private final Map<String, File> sourceFiles;
+    private Predicate<String> filter = entry -> true;
+    private int threads = 1;
+
+    public ZipPackager(final File sourceDirectory) {
+        this.sourceDirectory = sourceDirectory;
+        this.sourceFiles = null;
+    }
+
+    /**
+     * @param sourceFiles files keyed by their entry names, so files from different directories can be packed without
+     *                    copying them to a staging directory first
+     */
+    public ZipPackager(final Map<String, File> sourceFiles) {
+        this.sourceDirectory = null;
+        this.sourceFiles = new TreeMap<>(sourceFiles);
+    }
+
+    /**
+     * @param entries names of entries which won't be packed, e.g. "local.settings.json"
+     */
+    public ZipPackager exclude(final String... entries) {
+        final Set<String> excludedEntries = new HashSet<>(Arrays.asList(entries));
+        return include(entry -> !excludedEntries.contains(entry));
+    }
+
+    /**
+     * @param entryFilter only entries accepted by the filter are packed, names of directory entries end with '/'
+     */
+    public ZipPackager include(final Predicate<String> entryFilter) {
+        this.filter = this.filter.and(entryFilter);
+        return this;
+    }
+
+    /**
+     * @param value whether to deflate entries with all available processors
+     */
+    public ZipPackager parallel(final boolean value) {
+        return parallel(value ? Runtime.getRuntime().availableProcessors() : 1);
+    }
+
+    /**
+     * @param value number of threads to deflate entries with, 1 to write entries sequentially
+     */
+    public ZipPackager parallel(final int value) {
+        this.threads = Math.max(1, value);
+        return this;
+    }
+
+    public File pack(final File zipFile) {
+        final Map<String, Path> entries = listEntries();
+        try (final ZipArchiveOutputStream output = new ZipArchiveOutputStream(zipFile)) {
+            // Archive on disk is seekable, so sizes and CRCs of stored entries are written back after their content
+            writeEntries(entries, output, false);
+        } catch (IOException e) {
+            throw new ZipException(e);
+        }
+        return zipFile;
+    }
+
+    /**
+     * Write the archive to a stream, e.g. a http request body, the stream is not closed.
+     */
+    public void pack(final OutputStream outputStream) {
+        final Map<String, Path> entries = listEntries();
+        try {
+            final ZipArchiveOutputStream output = new ZipArchiveOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE));
+            writeEntries(entries, output, true);
+            output.finish();
+            output.flush();
+        } catch (IOException e) {
+            throw new ZipException(e);
+        }
+    }
+
+    private Map<String, Path> listEntries() {
+        final Map<String, Path> result = new TreeMap<>();
+        if (sourceFiles != null) {
+            sourceFiles.forEach((name, file) -> {
+                if (filter.test(name)) {
+                    result.put(name, file.toPath());
+                }
+            });
+            return result;
+        }
+        if (!sourceDirectory.isDirectory()) {
+            throw new ZipException(String.format(DIRECTORY_NOT_FOUND, sourceDirectory.getPath()));
+        }
+        final Path root = sourceDirectory.toPath();
+        try (final Stream<Path> paths = Files.walk(root)) {
+            paths.filter(path -> !path.equals(root)).forEach(path -> {
+                final String name = getEntryName(root, path);
+                if (filter.test(name)) {
+                    result.put(name, path);
+                }
+            });
+        } catch (IOException e) {
+            throw new ZipException(e);
+        }
+        return result;
+    }
+
+    private void writeEntries(final Map<String, Path> entries, final ZipArchiveOutputStream output, final boolean streaming)
+            throws IOException {
+        if (threads > 1) {
+            writeEntriesInParallel(entries, output, threads);
+            return;
+        }
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        for (final Map.Entry<String, Path> source : entries.entrySet()) {
+            final Path path = source.getValue();
+            final ZipArchiveEntry entry = createEntry(source.getKey(), path);
+            if (streaming && entry.getMethod() == ZipEntry.STORED && !entry.isDirectory()) {
+                // Stored entries written to a stream must declare their CRC before the content
+                entry.setCrc(getCrc(path, buffer));
+            }
+            output.putArchiveEntry(entry);
+            if (!entry.isDirectory()) {
+                try (final InputStream input = Files.newInputStream(path)) {
+                    IOUtils.copyLarge(input, output, buffer);
+                }
+            }
+            output.closeArchiveEntry();
+        }
+    }
+
+    private void writeEntriesInParallel(final Map<String, Path> entries, final ZipArchiveOutputStream output, final int threads)
+            throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor);
+            for (final Map.Entry<String, Path> source : entries.entrySet()) {
+                final Path path = source.getValue();
+                final ZipArchiveEntry entry = createEntry(source.getKey(), path);
+                creator.addArchiveEntry(entry, () -> openEntry(path, entry));
+            }
+            creator.writeTo(output);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        } finally {
+            // The creator only shuts the executor down when all entries are written, not when it fails halfway
+            executor.shutdownNow();
+        }
+    }
+
+    private static ZipArchiveEntry createEntry(final String name, final Path path) {
+        final File file = path.toFile();
+        final ZipArchiveEntry entry = new ZipArchiveEntry(file, name);
+        final boolean isStored = file.isDirectory() || STORED_EXTENSIONS.contains(FilenameUtils.getExtension(file.getName()).toLowerCase());
+        entry.setMethod(isStored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+        if (file.isDirectory()) {
+            entry.setSize(0);
+            entry.setCrc(0);
+        }
+        return entry;
+    }
+
+    private static String getEntryName(final Path root, final Path path) {
+        final String name = root.relativize(path).toString().replace(File.separatorChar, '/');
+        return Files.isDirectory(path) ? name + "/" : name;
+    }
+
+    private static InputStream openEntry(final Path path, final ZipArchiveEntry entry) {
+        if (entry.isDirectory()) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        try {
+            return Files.newInputStream(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long getCrc(final Path path, final byte[] buffer) throws IOException {
+        final CRC32 crc = new CRC32();
+        try (final InputStream input = Files.newInputStream(path)) {
+            int length;
+            while ((length = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, length);
+            }
+        }
+        return crc.getValue();
+    }
+}
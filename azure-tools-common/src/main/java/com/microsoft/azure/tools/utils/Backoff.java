@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.tools.utils;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with random jitter, shared by {@link Poller} and {@link Hydrator}: the interval starts at the
+ * initial one and is multiplied after every attempt up to the max interval, and a random fraction of it is added or
+ * subtracted so concurrent clients spread out.
+ */
+class Backoff {
+    private final long initialInMillis;
+    private final long maxInMillis;
+    private final double multiplier;
+    private final double jitter;
+
+    Backoff(Duration initial, Duration max, double multiplier, double jitter) {
+        this.initialInMillis = initial.toMillis();
+        this.maxInMillis = max.toMillis();
+        this.multiplier = Math.max(1, multiplier);
+        this.jitter = Math.min(1, Math.max(0, jitter));
+    }
+
+    /**
+     * @return interval after the given one, without jitter
+     */
+    long grow(long intervalInMillis) {
+        return (long) Math.min(intervalInMillis * multiplier, maxInMillis);
+    }
+
+    /**
+     * @return jittered interval before the attempt (starts from 1), the initial interval for the first one
+     */
+    long getDelay(int attempt) {
+        long interval = Math.min(initialInMillis, maxInMillis);
+        for (int i = 1; i < attempt && interval < maxInMillis; i++) {
+            interval = grow(interval);
+        }
+        return withJitter(interval);
+    }
+
+    long withJitter(long intervalInMillis) {
+        final double factor = jitter == 0 ? 1 : ThreadLocalRandom.current().nextDouble(1 - jitter, 1 + jitter);
+        return Math.min((long) (intervalInMillis * factor), maxInMillis);
+    }
+
+    /**
+     * @return delay of a {@code Retry-After} header in seconds, null if the header is absent or a http date
+     */
+    static Duration parseRetryAfter(String header) {
+        final long seconds = NumberUtils.toLong(header, -1);
+        return seconds >= 0 ? Duration.ofSeconds(seconds) : null;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.tools.utils;
+
+import com.microsoft.azure.common.logging.Log;
+import com.microsoft.rest.RestException;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Loads the details of many resources, e.g. the site config of every web app in a listing, with a bounded number of
+ * requests in flight, so a large subscription doesn't burst hundreds of concurrent requests and get throttled.
+ * <p>
+ * A load throttled by the service (HTTP 429) is retried after the delay of its {@code Retry-After} header, or after an
+ * exponential backoff with random jitter if there is none. Other failures are not retried.
+ */
+public class Hydrator {
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final String THROTTLED = "Request is throttled, retry in %d ms (attempt %d of %d).";
+    private static final double JITTER = 0.2;
+
+    private final int concurrency;
+    private final int maxRetries;
+    private final Backoff backoff;
+    private final Scheduler scheduler;
+
+    public static class Builder {
+        private int concurrency = 8;
+        private int maxRetries = 5;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+        private Scheduler scheduler = Schedulers.io();
+
+        /**
+         * Max number of loads running at the same time.
+         */
+        public Builder concurrency(final int value) {
+            this.concurrency = value;
+            return this;
+        }
+
+        /**
+         * Max number of retries of a throttled load, the load fails with the last error after that.
+         */
+        public Builder maxRetries(final int value) {
+            this.maxRetries = value;
+            return this;
+        }
+
+        /**
+         * Backoff before the first retry when the service doesn't suggest one, doubled for every following retry.
+         */
+        public Builder backoff(final Duration initial, final Duration max) {
+            this.initialBackoff = initial;
+            this.maxBackoff = max;
+            return this;
+        }
+
+        public Builder scheduler(final Scheduler value) {
+            this.scheduler = value;
+            return this;
+        }
+
+        public Hydrator build() {
+            return new Hydrator(this);
+        }
+    }
+
+    protected Hydrator(Builder builder) {
+        this.concurrency = Math.max(1, builder.concurrency);
+        this.maxRetries = Math.max(0, builder.maxRetries);
+        this.backoff = new Backoff(Objects.requireNonNull(builder.initialBackoff), Objects.requireNonNull(builder.maxBackoff), 2, JITTER);
+        this.scheduler = Objects.requireNonNull(builder.scheduler);
+    }
+
+    /**
+     * Run the loader for every item and wait until all of them are loaded.
+     *
+     * @throws RuntimeException the error of the first item which fails to load, the loads in flight are cancelled
+     */
+    public <T> void hydrate(Collection<T> items, Consumer<? super T> loader) {
+        Observable.from(items)
+            .flatMap(item -> Observable.fromCallable(() -> {
+                loader.accept(item);
+                return item;
+            }).subscribeOn(scheduler).retryWhen(errors -> errors
+                .zipWith(Observable.range(1, Integer.MAX_VALUE), Pair::of)
+                .flatMap(this::delayRetry)), concurrency)
+            .toCompletable()
+            .await();
+    }
+
+    private Observable<Long> delayRetry(Pair<? extends Throwable, Integer> retry) {
+        final Throwable error = retry.getLeft();
+        final int attempt = retry.getRight();
+        final Duration delay = attempt > maxRetries ? null : getThrottlingDelay(error, attempt);
+        if (delay == null) {
+            return Observable.error(error);
+        }
+        Log.debug(String.format(THROTTLED, delay.toMillis(), attempt, maxRetries));
+        return Observable.timer(delay.toMillis(), TimeUnit.MILLISECONDS, scheduler);
+    }
+
+    /**
+     * @return delay before retrying the load, null if the error is not caused by throttling
+     */
+    private Duration getThrottlingDelay(Throwable error, int attempt) {
+        for (final Throwable cause : ExceptionUtils.getThrowableList(error)) {
+            if (cause instanceof RestException && ((RestException) cause).response() != null &&
+                    ((RestException) cause).response().code() == HTTP_TOO_MANY_REQUESTS) {
+                // Retry-After may also be a http date, fall back to the backoff for it
+                final Duration retryAfter = Backoff.parseRetryAfter(((RestException) cause).response().headers().get(RETRY_AFTER));
+                return retryAfter != null ? retryAfter : Duration.ofMillis(backoff.getDelay(attempt));
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.tools.utils;
+
+import com.microsoft.azure.common.logging.Log;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Polls a resource until it matches a predicate, the deadline passes or the poller is cancelled.
+ * <p>
+ * The first polls run at a short fixed interval, since most operations finish quickly. After that the interval grows
+ * exponentially with random jitter up to a max interval, so long operations don't flood the control plane with requests.
+ * A delay suggested by the service, e.g. the {@code Retry-After} header of an ARM async operation, is used instead of the
+ * computed one when the caller provides it.
+ */
+public class Poller<T> {
+    private static final String POLLING_DONE = "Polling%s finished after %d poll(s) in %d ms, ready: %s.";
+
+    private final String name;
+    private final Duration initialDelay;
+    private final Duration fastInterval;
+    private final int fastPolls;
+    private final Backoff backoff;
+    private final Duration timeout;
+    private final Function<? super T, Duration> retryAfter;
+    private final Consumer<PollingStatistics> listener;
+    private final CountDownLatch cancelLatch = new CountDownLatch(1);
+
+    public static class Builder<T> {
+        private String name;
+        private Duration initialDelay = Duration.ZERO;
+        private Duration fastInterval = Duration.ofSeconds(1);
+        private int fastPolls = 5;
+        private Duration maxInterval = Duration.ofSeconds(15);
+        private double multiplier = 2;
+        private double jitter = 0.2;
+        private Duration timeout = Duration.ofMinutes(10);
+        private Function<? super T, Duration> retryAfter;
+        private Consumer<PollingStatistics> listener;
+
+        /**
+         * Name of the operation, used in logs and statistics.
+         */
+        public Builder<T> name(final String value) {
+            this.name = value;
+            return this;
+        }
+
+        /**
+         * Delay before the first poll.
+         */
+        public Builder<T> initialDelay(final Duration value) {
+            this.initialDelay = value;
+            return this;
+        }
+
+        /**
+         * Interval of the first {@code count} polls, before the backoff starts.
+         */
+        public Builder<T> fastPhase(final Duration interval, final int count) {
+            this.fastInterval = interval;
+            this.fastPolls = count;
+            return this;
+        }
+
+        public Builder<T> maxInterval(final Duration value) {
+            this.maxInterval = value;
+            return this;
+        }
+
+        /**
+         * Factor the interval grows by after the fast phase, 1 to keep polling at a fixed interval.
+         */
+        public Builder<T> multiplier(final double value) {
+            this.multiplier = value;
+            return this;
+        }
+
+        /**
+         * Max fraction of the interval which is randomly added or subtracted, so concurrent pollers spread out.
+         */
+        public Builder<T> jitter(final double value) {
+            this.jitter = value;
+            return this;
+        }
+
+        public Builder<T> timeout(final Duration value) {
+            this.timeout = value;
+            return this;
+        }
+
+        /**
+         * Delay suggested by the service for the next poll based on the last result, null if there is no suggestion.
+         */
+        public Builder<T> retryAfter(final Function<? super T, Duration> value) {
+            this.retryAfter = value;
+            return this;
+        }
+
+        /**
+         * Listener which receives the statistics when polling finishes.
+         */
+        public Builder<T> listener(final Consumer<PollingStatistics> value) {
+            this.listener = value;
+            return this;
+        }
+
+        public Poller<T> build() {
+            return new Poller<>(this);
+        }
+    }
+
+    protected Poller(Builder<T> builder) {
+        this.name = builder.name;
+        this.initialDelay = Objects.requireNonNull(builder.initialDelay);
+        this.fastInterval = Objects.requireNonNull(builder.fastInterval);
+        this.fastPolls = Math.max(0, builder.fastPolls);
+        this.backoff = new Backoff(fastInterval, Objects.requireNonNull(builder.maxInterval), builder.multiplier, builder.jitter);
+        this.timeout = Objects.requireNonNull(builder.timeout);
+        this.retryAfter = builder.retryAfter;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * Get resource repeatedly until it matches the predicate, times out or the poller is cancelled. Exceptions thrown
+     * by the callable are treated as a result which doesn't match and polling continues.
+     *
+     * @return the first resource which matches the predicate, or the last result before timeout or cancellation
+     */
+    public T pollUntil(Callable<T> callable, Predicate<T> predicate) {
+        final long start = System.currentTimeMillis();
+        final long deadline = start + timeout.toMillis();
+        T result = null;
+        int polls = 0;
+        boolean ready = false;
+        long delay = initialDelay.toMillis();
+        long interval = fastInterval.toMillis();
+        while (await(Math.min(delay, deadline - System.currentTimeMillis()))) {
+            polls++;
+            try {
+                result = callable.call();
+                ready = predicate.test(result);
+            } catch (Exception e) {
+                Log.debug(e);
+                result = null;
+            }
+            if (ready || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            if (polls >= fastPolls) {
+                interval = backoff.grow(interval);
+            }
+            final Duration suggested = retryAfter == null || result == null ? null : retryAfter.apply(result);
+            delay = suggested != null ? suggested.toMillis() : backoff.withJitter(interval);
+        }
+        final PollingStatistics statistics = new PollingStatistics(name, polls, System.currentTimeMillis() - start, ready, isCancelled());
+        Log.debug(String.format(POLLING_DONE, name == null ? "" : " " + name, polls, statistics.getElapsedInMillis(), ready));
+        if (listener != null) {
+            listener.accept(statistics);
+        }
+        return result;
+    }
+
+    /**
+     * Stop polling, the ongoing {@link #pollUntil(Callable, Predicate)} returns the last result once the current poll
+     * finishes.
+     */
+    public void cancel() {
+        cancelLatch.countDown();
+    }
+
+    public boolean isCancelled() {
+        return cancelLatch.getCount() == 0;
+    }
+
+    /**
+     * @return false if the poller is cancelled or the thread is interrupted while waiting
+     */
+    private boolean await(long delayInMillis) {
+        try {
+            return !cancelLatch.await(Math.max(0, delayInMillis), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public static class PollingStatistics {
+        private final String name;
+        private final int pollCount;
+        private final long elapsedInMillis;
+        private final boolean ready;
+        private final boolean cancelled;
+
+        PollingStatistics(String name, int pollCount, long elapsedInMillis, boolean ready, boolean cancelled) {
+            this.name = name;
+            this.pollCount = pollCount;
+            this.elapsedInMillis = elapsedInMillis;
+            this.ready = ready;
+            this.cancelled = cancelled;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPollCount() {
+            return pollCount;
+        }
+
+        /**
+         * @return time to readiness if {@link #isReady()}, otherwise the time until polling gave up
+         */
+        public long getElapsedInMillis() {
+            return elapsedInMillis;
+        }
+
+        public boolean isReady() {
+            return ready;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -5,11 +5,8 @@
 
 package com.microsoft.azure.tools.utils;
 
-import rx.Observable;
-import rx.schedulers.Schedulers;
-
+import java.time.Duration;
 import java.util.concurrent.Callable;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 public class RxUtils {
@@ -37,12 +34,15 @@ public class RxUtils {
      * @return the first resource which fit the predicate or the last result before timeout
      */
     public static <T> T pollUntil(Callable<T> callable, Predicate<T> predicate, int timeOutInSeconds, int pollingInterval) {
-        final long timeout = System.currentTimeMillis() + timeOutInSeconds * 1000;
-        return Observable.interval(pollingInterval, TimeUnit.SECONDS)
-            .timeout(timeOutInSeconds, TimeUnit.SECONDS)
-            .flatMap(aLong -> Observable.fromCallable(callable))
-            .subscribeOn(Schedulers.io())
-            .takeUntil(resource -> predicate.test(resource) || System.currentTimeMillis() > timeout)
-            .toBlocking().last();
+        // fixed interval polling, use Poller directly for backoff and polling statistics
+        return new Poller.Builder<T>()
+            .initialDelay(Duration.ofSeconds(pollingInterval))
+            .fastPhase(Duration.ofSeconds(pollingInterval), 0)
+            .multiplier(1)
+            .jitter(0)
+            .maxInterval(Duration.ofSeconds(pollingInterval))
+            .timeout(Duration.ofSeconds(timeOutInSeconds))
+            .build()
+            .pollUntil(callable, predicate);
     }
 }
@@ -5,19 +5,74 @@
 
 package com.microsoft.azure.tools.utils;
 
+import com.microsoft.azure.common.UploadJournal;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
+import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.file.CloudFile;
 
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.net.URI;
+import java.net.URISyntaxException;
 
 public class StorageUtils {
+    private static final int RANGE_SIZE = 4 * 1024 * 1024;
+    private static final String RESUME_UPLOAD = "Resuming upload of %s, %d of %d ranges were uploaded by the last run";
+
     public static void uploadFileToStorage(File file, String sasUrl) throws AzureExecutionException {
+        uploadFileToStorage(file, sasUrl, null);
+    }
+
+    /**
+     * @param journal journal of the upload, ranges uploaded by the last run with the same journal and url are skipped
+     */
+    public static void uploadFileToStorage(File file, String sasUrl, @Nullable UploadJournal journal) throws AzureExecutionException {
         try {
             final CloudFile cloudFile = new CloudFile(new URI(sasUrl));
-            cloudFile.uploadFromFile(file.getPath());
+            if (journal == null) {
+                cloudFile.uploadFromFile(file.getPath());
+            } else {
+                journal.begin(sasUrl, RANGE_SIZE);
+                uploadRanges(cloudFile, file, RANGE_SIZE, journal);
+            }
         } catch (Exception e) {
             throw new AzureExecutionException(e.getMessage(), e);
         }
     }
+
+    /**
+     * Upload the file range by range, each uploaded range is recorded in the journal right away.
+     */
+    protected static void uploadRanges(CloudFile cloudFile, File file, int rangeSize, UploadJournal journal)
+            throws StorageException, IOException, URISyntaxException {
+        final long length = file.length();
+        final int rangeCount = (int) ((length + rangeSize - 1) / rangeSize);
+        if (journal.getCommittedChunkCount() > 0 && (!cloudFile.exists() || cloudFile.getProperties().getLength() != length)) {
+            journal.reset();
+        }
+        if (journal.getCommittedChunkCount() == 0) {
+            cloudFile.create(length);
+        } else {
+            Log.info(String.format(RESUME_UPLOAD, file.getName(), journal.getCommittedChunkCount(), rangeCount));
+        }
+        final byte[] buffer = new byte[rangeSize];
+        try (final RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            for (int i = 0; i < rangeCount; i++) {
+                if (journal.isCommitted(i)) {
+                    continue;
+                }
+                final long offset = (long) i * rangeSize;
+                final int size = (int) Math.min(rangeSize, length - offset);
+                input.seek(offset);
+                input.readFully(buffer, 0, size);
+                cloudFile.uploadRange(new ByteArrayInputStream(buffer, 0, size), offset, size);
+                journal.commit(i);
+            }
+        }
+        journal.complete();
+    }
 }
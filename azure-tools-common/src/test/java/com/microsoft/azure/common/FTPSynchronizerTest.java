@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPReply;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FTPSynchronizerTest {
+    private static final String TARGET = "/site/wwwroot";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sourceDirectory;
+
+    private FTPClient ftpClient;
+
+    private ParallelFTPUploader uploader;
+
+    @Before
+    public void setUp() throws IOException {
+        sourceDirectory = folder.newFolder("staging");
+        FileUtils.write(new File(sourceDirectory, "index.html"), "index", StandardCharsets.UTF_8);
+        FileUtils.write(new File(sourceDirectory, "lib/app.jar"), "app-v2", StandardCharsets.UTF_8);
+        FileUtils.write(new File(sourceDirectory, "static/site.css"), "css", StandardCharsets.UTF_8);
+        new File(sourceDirectory, "index.html").setLastModified(1000L);
+        new File(sourceDirectory, "lib/app.jar").setLastModified(1000L);
+        new File(sourceDirectory, "static/site.css").setLastModified(1000L);
+
+        ftpClient = mock(FTPClient.class);
+        doReturn(true).when(ftpClient).isConnected();
+        doReturn(FTPReply.FILE_ACTION_OK).when(ftpClient).getReplyCode();
+        doReturn(new FTPFile[]{directory("lib"), file("index.html", 5, 2000L), file("old.html", 3, 2000L)})
+                .when(ftpClient).mlistDir(TARGET);
+        doReturn(new FTPFile[]{file("app.jar", 6, 500L)}).when(ftpClient).mlistDir(TARGET + "/lib");
+        doReturn(true).when(ftpClient).deleteFile(anyString());
+        uploader = mock(ParallelFTPUploader.class);
+    }
+
+    @Test
+    public void synchronizeBySizeAndModificationTime() throws Exception {
+        final FTPSynchronizer synchronizer = new FTPSynchronizer(false, null);
+
+        final FTPSynchronizer.SyncPlan plan = synchronizer.synchronize(() -> ftpClient, uploader, "ftp", sourceDirectory.getPath(), TARGET);
+
+        // index.html is unchanged, app.jar is older on server and site.css doesn't exist on server
+        assertEquals(Arrays.asList("lib/app.jar", "static/site.css"), getRelativePaths(plan.getFilesToUpload()));
+        assertEquals(Collections.singletonList("static"), getRelativePaths(plan.getDirectoriesToCreate()));
+        assertEquals(1, plan.getUnchangedFileCount());
+        assertEquals(Collections.singletonList("old.html"), plan.getStaleFiles());
+        verify(uploader, times(1)).uploadFiles(any(Path.class), anyList(), anyList(), eq(TARGET));
+        verify(ftpClient, never()).deleteFile(anyString());
+    }
+
+    @Test
+    public void synchronizeWithManifestAndDeleteStaleFiles() throws Exception {
+        final File manifest = new File(folder.getRoot(), "manifest.properties");
+        final FTPSynchronizer synchronizer = new FTPSynchronizer(true, manifest);
+        synchronizer.synchronize(() -> ftpClient, uploader, "ftp", sourceDirectory.getPath(), TARGET);
+        assertTrue(manifest.exists());
+        verify(ftpClient, times(1)).deleteFile(TARGET + "/old.html");
+
+        // app.jar is older on server but its content hash is the same as the last sync
+        doReturn(new FTPFile[]{directory("lib"), directory("static"), file("index.html", 5, 2000L)})
+                .when(ftpClient).mlistDir(TARGET);
+        doReturn(new FTPFile[]{file("site.css", 3, 2000L)}).when(ftpClient).mlistDir(TARGET + "/static");
+        final FTPSynchronizer.SyncPlan plan = synchronizer.synchronize(() -> ftpClient, uploader, "ftp", sourceDirectory.getPath(), TARGET);
+        assertTrue(plan.getFilesToUpload().isEmpty());
+        assertTrue(plan.getDirectoriesToCreate().isEmpty());
+        assertEquals(3, plan.getUnchangedFileCount());
+
+        // content changed with the same size
+        FileUtils.write(new File(sourceDirectory, "lib/app.jar"), "app-v3", StandardCharsets.UTF_8);
+        new File(sourceDirectory, "lib/app.jar").setLastModified(1000L);
+        final FTPSynchronizer.SyncPlan changedPlan = synchronizer.synchronize(() -> ftpClient, uploader, "ftp",
+                sourceDirectory.getPath(), TARGET);
+        assertEquals(Collections.singletonList("lib/app.jar"), getRelativePaths(changedPlan.getFilesToUpload()));
+    }
+
+    @Test
+    public void listFilesFallbackToList() throws Exception {
+        final FTPClient client = mock(FTPClient.class);
+        doReturn(FTPReply.COMMAND_NOT_IMPLEMENTED).when(client).getReplyCode();
+        doReturn(new FTPFile[]{file("index.html", 5, 2000L)}).when(client).listFiles(TARGET);
+
+        final List<FTPFile> files = FTPSynchronizer.listFiles(client, TARGET);
+        assertEquals(1, files.size());
+        verify(client, times(1)).listFiles(TARGET);
+    }
+
+    @Test
+    public void isFileChanged() {
+        final File local = new File(sourceDirectory, "index.html");
+        assertTrue(FTPSynchronizer.isFileChanged(local, null));
+        assertTrue(FTPSynchronizer.isFileChanged(local, file("index.html", 4, 2000L)));
+        assertTrue(FTPSynchronizer.isFileChanged(local, file("index.html", 5, 500L)));
+        assertFalse(FTPSynchronizer.isFileChanged(local, file("index.html", 5, 2000L)));
+    }
+
+    private List<String> getRelativePaths(List<Path> paths) {
+        return paths.stream().map(path -> sourceDirectory.toPath().relativize(path).toString().replace(File.separatorChar, '/'))
+                .sorted().collect(Collectors.toList());
+    }
+
+    private static FTPFile file(String name, long size, long timestamp) {
+        final FTPFile result = new FTPFile();
+        result.setName(name);
+        result.setType(FTPFile.FILE_TYPE);
+        result.setSize(size);
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timestamp);
+        result.setTimestamp(calendar);
+        return result;
+    }
+
+    private static FTPFile directory(String name) {
+        final FTPFile result = new FTPFile();
+        result.setName(name);
+        result.setType(FTPFile.DIRECTORY_TYPE);
+        return result;
+    }
+}
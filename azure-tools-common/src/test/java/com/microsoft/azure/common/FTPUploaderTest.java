@@ -14,12 +14,18 @@ import org.junit.runner.RunWith;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.IOException;
+
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -57,6 +63,30 @@ public class FTPUploaderTest {
         uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", "sourceDir", "targetDir", 1);
     }
 
+    @Test
+    public void uploadDirectoryWithRetriesInParallel() throws Exception {
+        final FTPUploader uploaderSpy = spy(new FTPUploader(4));
+        doReturn(true).when(uploaderSpy).uploadDirectoryInParallel(anyString(), anyString(), anyString(), anyString(),
+                anyString());
+
+        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", "sourceDir", "targetDir", 1);
+        verify(uploaderSpy, times(1)).uploadDirectoryInParallel("ftpServer", "username", "password", "sourceDir", "targetDir");
+        verify(uploaderSpy, never()).uploadDirectory(anyString(), anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void uploadDirectoryInParallel() throws Exception {
+        final FTPUploader uploaderSpy = spy(new FTPUploader(4));
+        final ParallelFTPUploader parallelUploader = mock(ParallelFTPUploader.class);
+        doReturn(parallelUploader).when(uploaderSpy).getParallelUploader(anyString(), anyString(), anyString());
+
+        assertTrue(uploaderSpy.uploadDirectoryInParallel("ftpServer", "username", "password", "sourceDir", "targetDir"));
+        verify(parallelUploader, times(1)).uploadDirectory("sourceDir", "targetDir");
+
+        doThrow(new IOException()).when(parallelUploader).uploadDirectory(anyString(), anyString());
+        assertFalse(uploaderSpy.uploadDirectoryInParallel("ftpServer", "username", "password", "sourceDir", "targetDir"));
+    }
+
     @Test
     public void uploadDirectory() throws Exception {
         final FTPUploader uploaderSpy = spy(ftpUploader);
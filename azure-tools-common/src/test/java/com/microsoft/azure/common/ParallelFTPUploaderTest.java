@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ParallelFTPUploaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sourceDirectory;
+
+    private FTPClient ftpClient;
+
+    @Before
+    public void setUp() throws IOException {
+        sourceDirectory = folder.newFolder("staging");
+        FileUtils.write(new File(sourceDirectory, "index.html"), "index", StandardCharsets.UTF_8);
+        FileUtils.write(new File(sourceDirectory, "static/css/site.css"), "css", StandardCharsets.UTF_8);
+        FileUtils.write(new File(sourceDirectory, "static/js/site.js"), "js", StandardCharsets.UTF_8);
+        ftpClient = mock(FTPClient.class);
+        doReturn(true).when(ftpClient).isConnected();
+    }
+
+    @Test
+    public void uploadDirectory() throws Exception {
+        doReturn(true).when(ftpClient).storeFile(anyString(), any(InputStream.class));
+        final ParallelFTPUploader uploader = new ParallelFTPUploader(() -> ftpClient, 4, 3);
+
+        final ParallelFTPUploader.UploadResult result = uploader.uploadDirectory(sourceDirectory.getAbsolutePath(), "/site/wwwroot");
+
+        assertEquals(3, result.getFileCount());
+        assertEquals(10, result.getTotalBytes());
+        verify(ftpClient, times(1)).makeDirectory("/site/wwwroot");
+        verify(ftpClient, times(1)).makeDirectory("/site/wwwroot/static");
+        verify(ftpClient, times(1)).makeDirectory("/site/wwwroot/static/css");
+        verify(ftpClient, times(1)).makeDirectory("/site/wwwroot/static/js");
+        verify(ftpClient, times(1)).storeFile(eq("/site/wwwroot/index.html"), any(InputStream.class));
+        verify(ftpClient, times(1)).storeFile(eq("/site/wwwroot/static/css/site.css"), any(InputStream.class));
+        verify(ftpClient, times(1)).storeFile(eq("/site/wwwroot/static/js/site.js"), any(InputStream.class));
+    }
+
+    @Test
+    public void uploadDirectoryWithFileRetry() throws Exception {
+        doReturn(true).when(ftpClient).storeFile(anyString(), any(InputStream.class));
+        doReturn(false, true).when(ftpClient).storeFile(eq("/site/wwwroot/index.html"), any(InputStream.class));
+        final ParallelFTPUploader uploader = new ParallelFTPUploader(() -> ftpClient, 2, 3);
+
+        final ParallelFTPUploader.UploadResult result = uploader.uploadDirectory(sourceDirectory.getAbsolutePath(), "/site/wwwroot");
+
+        assertEquals(3, result.getFileCount());
+        verify(ftpClient, times(2)).storeFile(eq("/site/wwwroot/index.html"), any(InputStream.class));
+    }
+
+    @Test
+    public void uploadDirectoryFailedAfterRetries() throws Exception {
+        doReturn(true).when(ftpClient).storeFile(anyString(), any(InputStream.class));
+        doReturn(false).when(ftpClient).storeFile(eq("/site/wwwroot/index.html"), any(InputStream.class));
+        final ParallelFTPUploader uploader = new ParallelFTPUploader(() -> ftpClient, 2, 2);
+
+        IOException exception = null;
+        try {
+            uploader.uploadDirectory(sourceDirectory.getAbsolutePath(), "/site/wwwroot");
+        } catch (IOException e) {
+            exception = e;
+        } finally {
+            assertNotNull(exception);
+        }
+        verify(ftpClient, times(2)).storeFile(eq("/site/wwwroot/index.html"), any(InputStream.class));
+    }
+}
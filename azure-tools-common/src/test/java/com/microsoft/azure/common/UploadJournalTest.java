@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UploadJournalTest {
+    private static final String TARGET = "https://account.blob.core.windows.net/packages/app.zip";
+    private static final String TARGET_URL = TARGET + "?sv=2019-02-02&sig=secret";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File artifact;
+
+    @Before
+    public void setUp() throws IOException {
+        artifact = folder.newFile("app.zip");
+        FileUtils.write(artifact, "0123456789abcdefghij", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void resumeWithSameArtifactAndTarget() throws IOException {
+        final UploadJournal journal = UploadJournal.open(artifact);
+        journal.setAttribute("relativePath", "resources/app.zip");
+        journal.begin(TARGET_URL, 8);
+        journal.commit(0);
+        journal.commit(2);
+
+        final UploadJournal resumed = UploadJournal.open(artifact);
+        assertEquals(TARGET, resumed.getTarget());
+        assertEquals("resources/app.zip", resumed.getAttribute("relativePath"));
+        resumed.begin(TARGET + "?sv=2019-02-02&sig=renewed", 8);
+        assertEquals(2, resumed.getCommittedChunkCount());
+        assertTrue(resumed.isCommitted(2));
+        assertFalse(resumed.isCommitted(1));
+    }
+
+    @Test
+    public void discardProgressOfChangedUpload() throws IOException {
+        final UploadJournal journal = UploadJournal.open(artifact);
+        journal.begin(TARGET, 8);
+        journal.commit(0);
+
+        final UploadJournal otherTarget = UploadJournal.open(artifact);
+        otherTarget.begin(TARGET + "2", 8);
+        assertEquals(0, otherTarget.getCommittedChunkCount());
+        otherTarget.commit(1);
+
+        FileUtils.write(artifact, "changed", StandardCharsets.UTF_8);
+        final UploadJournal changedArtifact = UploadJournal.open(artifact);
+        assertNull(changedArtifact.getTarget());
+        assertEquals(0, changedArtifact.getCommittedChunkCount());
+    }
+
+    @Test
+    public void complete() throws IOException {
+        final UploadJournal journal = UploadJournal.open(artifact);
+        journal.begin(TARGET, 8);
+        journal.commit(0);
+        final File journalFile = new File(folder.getRoot(), "app.zip.upload.properties");
+        assertTrue(journalFile.exists());
+
+        journal.complete();
+        assertFalse(journalFile.exists());
+        assertNull(UploadJournal.open(artifact).getTarget());
+    }
+
+    @Test
+    public void neverSaveSasToken() throws IOException {
+        final UploadJournal journal = UploadJournal.open(artifact);
+        journal.begin(TARGET_URL, 8);
+        journal.commit(0);
+
+        final String content = FileUtils.readFileToString(new File(folder.getRoot(), "app.zip.upload.properties"), StandardCharsets.UTF_8);
+        assertTrue(content.contains("chunks"));
+        assertFalse(content.contains("sig="));
+    }
+
+    @Test
+    public void dropLegacyJournalWithSasToken() throws IOException {
+        final UploadJournal journal = UploadJournal.open(artifact);
+        journal.begin(TARGET_URL, 8);
+        journal.commit(0);
+        final File journalFile = new File(folder.getRoot(), "app.zip.upload.properties");
+        final String content = FileUtils.readFileToString(journalFile, StandardCharsets.UTF_8);
+        FileUtils.write(journalFile, content + "target.url=" + TARGET_URL.replace(":", "\\:") + "\n",
+                StandardCharsets.UTF_8);
+
+        final UploadJournal legacy = UploadJournal.open(artifact);
+        assertEquals(0, legacy.getCommittedChunkCount());
+        assertFalse(FileUtils.readFileToString(journalFile, StandardCharsets.UTF_8).contains("sig="));
+    }
+}
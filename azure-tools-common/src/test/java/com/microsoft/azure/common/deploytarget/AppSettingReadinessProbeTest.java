@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.deploytarget;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AppSettingReadinessProbeTest {
+    private static final String KEY = "WEBSITE_RUN_FROM_PACKAGE";
+
+    @Test
+    public void waitUntilObserved() {
+        final AtomicInteger counter = new AtomicInteger();
+        // kudu is restarting for the first request, and still has the old settings for the second one
+        final AppSettingReadinessProbe probe = new AppSettingReadinessProbe(() -> {
+            switch (counter.incrementAndGet()) {
+                case 1:
+                    throw new IOException("503 Service Unavailable");
+                case 2:
+                    return Collections.emptyMap();
+                default:
+                    return Collections.singletonMap(KEY, "1");
+            }
+        }, Duration.ofSeconds(30));
+
+        assertTrue(probe.waitUntilObserved(KEY, "1"));
+        assertEquals(3, counter.get());
+    }
+
+    @Test
+    public void timeout() {
+        final AppSettingReadinessProbe probe = new AppSettingReadinessProbe(() -> Collections.singletonMap(KEY, "0"),
+            Duration.ofMillis(500));
+
+        assertFalse(probe.waitUntilObserved(KEY, "1"));
+    }
+}
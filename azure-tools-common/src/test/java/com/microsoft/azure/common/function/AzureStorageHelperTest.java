@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.function;
+
+import com.microsoft.azure.common.UploadJournal;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class AzureStorageHelperTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void uploadBlocks() throws Exception {
+        final File file = folder.newFile("package.zip");
+        FileUtils.write(file, "0123456789abcdefghij", StandardCharsets.UTF_8);
+        final CloudBlockBlob blob = mock(CloudBlockBlob.class);
+        final Map<String, String> blockContents = new ConcurrentHashMap<>();
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        doAnswer(invocation -> {
+            final String content = IOUtils.toString((InputStream) invocation.getArgument(1), StandardCharsets.UTF_8);
+            // the first attempt of the second block fails
+            if (content.startsWith("89") && failed.compareAndSet(false, true)) {
+                throw new IOException("connection reset");
+            }
+            blockContents.put(invocation.getArgument(0), content);
+            return null;
+        }).when(blob).uploadBlock(anyString(), any(InputStream.class), anyLong());
+
+        AzureStorageHelper.uploadBlocks(blob, file, 8, 2, 3);
+
+        verify(blob, times(4)).uploadBlock(anyString(), any(InputStream.class), anyLong());
+        final ArgumentCaptor<Iterable<BlockEntry>> blocks = ArgumentCaptor.forClass(Iterable.class);
+        verify(blob, times(1)).commitBlockList(blocks.capture());
+        final List<String> contents = new ArrayList<>();
+        blocks.getValue().forEach(block -> contents.add(blockContents.get(block.getId())));
+        assertEquals("01234567,89abcdef,ghij", contents.stream().collect(Collectors.joining(",")));
+    }
+
+    @Test
+    public void resumeUploadBlocks() throws Exception {
+        final File file = folder.newFile("package.zip");
+        FileUtils.write(file, "0123456789abcdefghij", StandardCharsets.UTF_8);
+        final CloudBlockBlob blob = mock(CloudBlockBlob.class);
+        doReturn(new URI("https://account.blob.core.windows.net/packages/package.zip")).when(blob).getUri();
+        final List<String> uploadedContents = new ArrayList<>();
+        doAnswer(invocation -> {
+            final String content = IOUtils.toString((InputStream) invocation.getArgument(1), StandardCharsets.UTF_8);
+            if (content.startsWith("gh")) {
+                throw new IOException("connection reset");
+            }
+            uploadedContents.add(content);
+            return null;
+        }).when(blob).uploadBlock(anyString(), any(InputStream.class), anyLong());
+        try {
+            AzureStorageHelper.uploadBlocks(blob, file, 8, 1, 1, UploadJournal.open(file));
+        } catch (IOException e) {
+            // expected, the last block can't be uploaded
+        }
+        verify(blob, times(0)).commitBlockList(any());
+
+        // the next run uploads the last block only
+        uploadedContents.clear();
+        doAnswer(invocation -> {
+            uploadedContents.add(IOUtils.toString((InputStream) invocation.getArgument(1), StandardCharsets.UTF_8));
+            return null;
+        }).when(blob).uploadBlock(anyString(), any(InputStream.class), anyLong());
+        AzureStorageHelper.uploadBlocks(blob, file, 8, 1, 1, UploadJournal.open(file));
+
+        assertEquals(Collections.singletonList("ghij"), uploadedContents);
+        verify(blob, times(1)).commitBlockList(any());
+        assertFalse(new File(folder.getRoot(), "package.zip.upload.properties").exists());
+    }
+
+    @Test(expected = StorageException.class)
+    public void uploadBlocksFailedAfterRetries() throws Exception {
+        final File file = folder.newFile("package.zip");
+        FileUtils.write(file, "0123456789abcdefghij", StandardCharsets.UTF_8);
+        final CloudBlockBlob blob = mock(CloudBlockBlob.class);
+        doAnswer(invocation -> {
+            throw new StorageException("ServerBusy", "server busy", null);
+        }).when(blob).uploadBlock(anyString(), any(InputStream.class), anyLong());
+
+        AzureStorageHelper.uploadBlocks(blob, file, 8, 2, 2);
+    }
+}
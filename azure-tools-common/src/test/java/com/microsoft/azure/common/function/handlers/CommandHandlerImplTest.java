@@ -5,11 +5,23 @@
 
 package com.microsoft.azure.common.function.handlers;
 
+import com.microsoft.azure.common.exceptions.AzureExecutionException;
+import com.microsoft.azure.common.function.utils.CommandUtils;
+import com.microsoft.azure.toolkit.lib.common.process.ProcessResult;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 public class CommandHandlerImplTest {
     @Test
@@ -18,9 +30,53 @@ public class CommandHandlerImplTest {
     }
 
     @Test
-    public void getStdoutRedirect() {
-        assertEquals(ProcessBuilder.Redirect.INHERIT, CommandHandlerImpl.getStdoutRedirect(true));
-        assertEquals(ProcessBuilder.Redirect.PIPE, CommandHandlerImpl.getStdoutRedirect(false));
+    public void runCommandAndGetOutput() throws Exception {
+        assertEquals("hello", new CommandHandlerImpl().runCommandAndGetOutput("echo hello", false, null));
+    }
+
+    @Test
+    public void runCommandAndGetLongOutput() throws Exception {
+        final String command = CommandUtils.isWindows() ? "for /l %i in (1,1,1500) do @echo %i" : "i=1; while [ $i -le 1500 ]; do echo $i; i=$((i+1)); done";
+        final String output = new CommandHandlerImpl().runCommandAndGetOutput(command, false, null);
+
+        assertTrue(output.startsWith("123"));
+        assertTrue(output.endsWith("14991500"));
+    }
+
+    @Test
+    public void runCommandWithTruncatedOutput() throws Exception {
+        final String command = CommandUtils.isWindows() ? "for /l %i in (1,1,20) do @echo %i" : "i=1; while [ $i -le 20 ]; do echo $i; i=$((i+1)); done";
+        final ProcessResult truncated = new CommandHandlerImpl().runCommand(command, false, null, 10);
+        final ProcessResult whole = new CommandHandlerImpl().runCommand(command, false, null, 0);
+
+        assertTrue(truncated.isTruncated());
+        assertEquals(Arrays.asList("11", "12", "13", "14", "15", "16", "17", "18", "19", "20"), truncated.getStdout());
+        assertFalse(whole.isTruncated());
+        assertEquals(20, whole.getStdout().size());
+    }
+
+    @Test(expected = AzureExecutionException.class)
+    public void runCommandWithTimeout() throws Exception {
+        final String command = CommandUtils.isWindows() ? "ping -n 30 127.0.0.1" : "sleep 30";
+        new CommandHandlerImpl(Duration.ofMillis(500)).runCommandWithReturnCodeCheck(command, false, null, Arrays.asList(0L), "");
+    }
+
+    @Test
+    public void showOutputOfFailedCommandOnce() throws Exception {
+        final CommandHandlerImpl handler = spy(new CommandHandlerImpl());
+        final String command = "echo failed && exit 1";
+        try {
+            handler.runCommandWithReturnCodeCheck(command, true, null, Arrays.asList(0L), "error");
+            fail("command should fail");
+        } catch (AzureExecutionException e) {
+            verify(handler, never()).showErrorIfAny(anyString());
+        }
+        try {
+            handler.runCommandWithReturnCodeCheck(command, false, null, Arrays.asList(0L), "error");
+            fail("command should fail");
+        } catch (AzureExecutionException e) {
+            verify(handler).showErrorIfAny(contains("failed"));
+        }
     }
 
     @Test(expected = Exception.class)
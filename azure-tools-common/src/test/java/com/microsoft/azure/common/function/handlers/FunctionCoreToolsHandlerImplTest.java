@@ -7,10 +7,13 @@ package com.microsoft.azure.common.function.handlers;
 
 import com.microsoft.azure.common.function.utils.CommandUtils;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentMatchers;
 
 import java.io.File;
+import java.time.Duration;
 
 import static com.microsoft.azure.common.function.handlers.FunctionCoreToolsHandlerImpl.FUNC_EXTENSIONS_INSTALL_TEMPLATE;
 import static com.microsoft.azure.common.function.handlers.FunctionCoreToolsHandlerImpl.INSTALL_FUNCTION_EXTENSIONS_FAIL;
@@ -22,17 +25,25 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class FunctionCoreToolsHandlerImplTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FunctionCoreToolsVersionCache getVersionCache() {
+        return new FunctionCoreToolsVersionCache(new File(folder.getRoot(), "mavenplugins.funccoretools"),
+                Duration.ofHours(1), Duration.ofMinutes(1));
+    }
 
     @Test
     public void installExtension() throws Exception {
         final CommandHandler commandHandler = mock(CommandHandler.class);
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandler =
-                new FunctionCoreToolsHandlerImpl(commandHandler);
+                new FunctionCoreToolsHandlerImpl(commandHandler, getVersionCache());
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandlerSpy = spy(functionCoreToolsHandler);
 
         doReturn("3.0.0").when(functionCoreToolsHandlerSpy).getLocalFunctionCoreToolsVersion();
@@ -46,7 +57,7 @@ public class FunctionCoreToolsHandlerImplTest {
     public void getLocalFunctionCoreToolsVersion() throws Exception {
         final CommandHandler commandHandler = mock(CommandHandler.class);
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandler =
-                new FunctionCoreToolsHandlerImpl(commandHandler);
+                new FunctionCoreToolsHandlerImpl(commandHandler, getVersionCache());
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandlerSpy = spy(functionCoreToolsHandler);
         doReturn("2.0.1-beta.26")
                 .when(commandHandler).runCommandAndGetOutput(anyString(), anyBoolean(), any());
@@ -57,7 +68,7 @@ public class FunctionCoreToolsHandlerImplTest {
     public void getLocalFunctionCoreToolsVersionFailed() throws Exception {
         final CommandHandler commandHandler = mock(CommandHandler.class);
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandler =
-                new FunctionCoreToolsHandlerImpl(commandHandler);
+                new FunctionCoreToolsHandlerImpl(commandHandler, getVersionCache());
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandlerSpy = spy(functionCoreToolsHandler);
         doReturn("unexpected output")
                 .when(commandHandler).runCommandAndGetOutput(anyString(), anyBoolean(), any());
@@ -68,7 +79,7 @@ public class FunctionCoreToolsHandlerImplTest {
     public void installFunctionExtension() throws Exception {
         final CommandHandler commandHandler = mock(CommandHandler.class);
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandler =
-                new FunctionCoreToolsHandlerImpl(commandHandler);
+                new FunctionCoreToolsHandlerImpl(commandHandler, getVersionCache());
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandlerSpy = spy(functionCoreToolsHandler);
         doNothing().when(commandHandler).runCommandWithReturnCodeCheck(anyString(),
                 anyBoolean(), any(), ArgumentMatchers.anyList(), anyString());
@@ -87,7 +98,7 @@ public class FunctionCoreToolsHandlerImplTest {
     public void isLocalVersionSupportAutoInstall() {
         final CommandHandler commandHandler = mock(CommandHandler.class);
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandler =
-                new FunctionCoreToolsHandlerImpl(commandHandler);
+                new FunctionCoreToolsHandlerImpl(commandHandler, getVersionCache());
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandlerSpy = spy(functionCoreToolsHandler);
 
         doReturn("2.0.1-beta.26").when(functionCoreToolsHandlerSpy).getLocalFunctionCoreToolsVersion();
@@ -98,7 +109,7 @@ public class FunctionCoreToolsHandlerImplTest {
     public void isLocalVersionSupportAutoInstallWhenLocalVersionTooLow() throws Exception {
         final CommandHandler commandHandler = mock(CommandHandler.class);
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandler =
-                new FunctionCoreToolsHandlerImpl(commandHandler);
+                new FunctionCoreToolsHandlerImpl(commandHandler, getVersionCache());
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandlerSpy = spy(functionCoreToolsHandler);
 
         doReturn("2.0.0").when(functionCoreToolsHandlerSpy).getLocalFunctionCoreToolsVersion();
@@ -110,7 +121,7 @@ public class FunctionCoreToolsHandlerImplTest {
     public void checkVersion() throws Exception {
         final CommandHandler commandHandler = mock(CommandHandler.class);
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandler =
-                new FunctionCoreToolsHandlerImpl(commandHandler);
+                new FunctionCoreToolsHandlerImpl(commandHandler, getVersionCache());
         final FunctionCoreToolsHandlerImpl functionCoreToolsHandlerSpy = spy(functionCoreToolsHandler);
 
         // Equal to newest version
@@ -123,4 +134,16 @@ public class FunctionCoreToolsHandlerImplTest {
         doReturn("3.0.0").when(functionCoreToolsHandlerSpy).getLatestFunctionCoreToolsVersion();
         functionCoreToolsHandlerSpy.assureRequirementAddressed();
     }
+
+    @Test
+    public void getLatestVersionFromCache() throws Exception {
+        final CommandHandler commandHandler = mock(CommandHandler.class);
+        final FunctionCoreToolsVersionCache versionCache = getVersionCache();
+        versionCache.putLatestVersion("3.0.0");
+        final FunctionCoreToolsHandlerImpl functionCoreToolsHandler =
+                new FunctionCoreToolsHandlerImpl(commandHandler, versionCache);
+
+        assertEquals("3.0.0", functionCoreToolsHandler.getLatestFunctionCoreToolsVersionAsync().get());
+        verify(commandHandler, never()).runCommandAndGetOutput(anyString(), anyBoolean(), any());
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.function.handlers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FunctionCoreToolsVersionCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void getLocalVersion() throws Exception {
+        final File cacheFile = new File(folder.getRoot(), "mavenplugins.funccoretools");
+        final File func = folder.newFile("func");
+        new FunctionCoreToolsVersionCache(cacheFile, Duration.ofHours(1), Duration.ofMinutes(1)).putLocalVersion(func, "3.0.2630");
+
+        final FunctionCoreToolsVersionCache cache = new FunctionCoreToolsVersionCache(cacheFile, Duration.ofHours(1), Duration.ofMinutes(1));
+        assertEquals("3.0.2630", cache.getLocalVersion(func));
+        assertNull(cache.getLocalVersion(folder.newFile("func.cmd")));
+
+        // core tools is updated
+        assertTrue(func.setLastModified(func.lastModified() - 10000));
+        assertNull(cache.getLocalVersion(func));
+    }
+
+    @Test
+    public void getLatestVersion() {
+        final File cacheFile = new File(folder.getRoot(), "mavenplugins.funccoretools");
+        final FunctionCoreToolsVersionCache cache = new FunctionCoreToolsVersionCache(cacheFile, Duration.ofHours(1), Duration.ZERO);
+        assertFalse(cache.isLatestVersionFresh());
+
+        cache.putLatestVersion("3.0.0");
+        assertTrue(new FunctionCoreToolsVersionCache(cacheFile, Duration.ofHours(1), Duration.ZERO).isLatestVersionFresh());
+        assertEquals("3.0.0", cache.getLatestVersion());
+
+        // failed lookups expire with their own ttl
+        cache.putLatestVersion(null);
+        assertFalse(cache.isLatestVersionFresh());
+        assertNull(cache.getLatestVersion());
+    }
+}
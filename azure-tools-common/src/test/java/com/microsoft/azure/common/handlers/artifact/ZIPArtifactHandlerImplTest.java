@@ -10,20 +10,33 @@ import com.microsoft.azure.common.deploytarget.DeployTarget;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.management.appservice.WebApp;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.zeroturnaround.zip.ZipException;
+import org.zeroturnaround.zip.ZipUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -31,6 +44,9 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ZIPArtifactHandlerImplTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private ZIPArtifactHandlerImpl.Builder builder = new ZIPArtifactHandlerImpl.Builder();
 
     private ZIPArtifactHandlerImpl handler;
@@ -102,10 +118,81 @@ public class ZIPArtifactHandlerImplTest {
         assertEquals(zipTestDirectory.getAbsolutePath() + ".zip", handlerSpy.getZipFile().getAbsolutePath());
     }
 
+    @Test
+    public void getZipFileWithParallelCompression() {
+        buildHandler();
+        assertFalse(handler.parallelCompression);
+
+        handler = builder.stagingDirectoryPath("src/test/resources/ziptest").parallelCompression(true).build();
+        assertTrue(handler.parallelCompression);
+        assertTrue(ZipUtil.containsEntry(handler.getZipFile(), "test.html"));
+    }
+
     @Test(expected = ZipException.class)
     public void getZipFileThrowException() {
         handler = builder.stagingDirectoryPath("").build();
         handlerSpy = spy(handler);
         handlerSpy.getZipFile();
     }
+
+    @Test
+    public void publishDelta() throws Exception {
+        final File stagingDirectory = folder.newFolder("staging");
+        FileUtils.write(new File(stagingDirectory, "host.json"), "{}", StandardCharsets.UTF_8);
+        FileUtils.write(new File(stagingDirectory, "local.settings.json"), "{}", StandardCharsets.UTF_8);
+        FileUtils.write(new File(stagingDirectory, "lib/app.jar"), "v1", StandardCharsets.UTF_8);
+        FileUtils.write(new File(stagingDirectory, "lib/old.jar"), "old", StandardCharsets.UTF_8);
+        handler = builder.stagingDirectoryPath(stagingDirectory.getAbsolutePath())
+                .buildDirectoryAbsolutePath(folder.newFolder("target").getAbsolutePath())
+                .deltaDeploy(true)
+                .build();
+        final WebApp app = mock(WebApp.class);
+        final DeployTarget target = mock(DeployTarget.class);
+        doReturn(app).when(target).getApp();
+        doReturn("appId").when(app).id();
+        doReturn(Collections.emptyMap()).when(target).getAppSettings();
+
+        // no manifest, deploy the full package
+        handler.publish(target);
+        verify(target, times(1)).zipDeploy(any(File.class));
+        verify(target, never()).deltaZipDeploy(any(File.class), anyCollection());
+
+        FileUtils.write(new File(stagingDirectory, "lib/app.jar"), "v2", StandardCharsets.UTF_8);
+        FileUtils.forceDelete(new File(stagingDirectory, "lib/old.jar"));
+        handler.publish(target);
+        final ArgumentCaptor<File> deltaZipFile = ArgumentCaptor.forClass(File.class);
+        verify(target, times(1)).deltaZipDeploy(deltaZipFile.capture(), eq(Collections.singletonList("lib/old.jar")));
+        assertTrue(ZipUtil.containsEntry(deltaZipFile.getValue(), "lib/app.jar"));
+        assertFalse(ZipUtil.containsEntry(deltaZipFile.getValue(), "host.json"));
+        assertFalse(ZipUtil.containsEntry(deltaZipFile.getValue(), "local.settings.json"));
+
+        // nothing changed
+        handler.publish(target);
+        verify(target, times(1)).zipDeploy(any(File.class));
+        verify(target, times(1)).deltaZipDeploy(any(File.class), anyCollection());
+    }
+
+    @Test
+    public void publishSkipUnchanged() throws Exception {
+        final File stagingDirectory = folder.newFolder("staging");
+        FileUtils.write(new File(stagingDirectory, "host.json"), "{}", StandardCharsets.UTF_8);
+        FileUtils.write(new File(stagingDirectory, "lib/app.jar"), "v1", StandardCharsets.UTF_8);
+        handler = builder.stagingDirectoryPath(stagingDirectory.getAbsolutePath()).skipUnchanged(true).build();
+        final DeployTarget target = mock(DeployTarget.class);
+
+        handler.publish(target);
+        final ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        verify(target, times(1)).zipDeploy(any(File.class));
+        verify(target, times(2)).setDeployFingerprint(fingerprint.capture());
+        assertEquals(null, fingerprint.getAllValues().get(0));
+
+        // the deployed package has the same content
+        doReturn(fingerprint.getAllValues().get(1)).when(target).getDeployFingerprint();
+        handler.publish(target);
+        verify(target, times(1)).zipDeploy(any(File.class));
+
+        FileUtils.write(new File(stagingDirectory, "lib/app.jar"), "v2", StandardCharsets.UTF_8);
+        handler.publish(target);
+        verify(target, times(2)).zipDeploy(any(File.class));
+    }
 }
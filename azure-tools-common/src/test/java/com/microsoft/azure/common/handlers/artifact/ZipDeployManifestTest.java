@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.handlers.artifact;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class ZipDeployManifestTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void getEntryHashes() throws Exception {
+        final File stagingDirectory = folder.newFolder("staging");
+        FileUtils.write(new File(stagingDirectory, "host.json"), "{}", StandardCharsets.UTF_8);
+        FileUtils.write(new File(stagingDirectory, "local.settings.json"), "{}", StandardCharsets.UTF_8);
+        FileUtils.write(new File(stagingDirectory, "lib/app.jar"), "app", StandardCharsets.UTF_8);
+
+        final Map<String, String> hashes = ZipDeployManifest.getEntryHashes(stagingDirectory, Collections.singleton("local.settings.json"));
+
+        assertEquals(Arrays.asList("host.json", "lib/app.jar"), Arrays.asList(hashes.keySet().toArray()));
+        assertEquals("44136fa355b3678a1146ad16f7e8649e94fb4fc21fe77e8310c060f61caaff8a", hashes.get("host.json"));
+    }
+
+    @Test
+    public void saveAndLoad() throws Exception {
+        final ZipDeployManifest manifest = new ZipDeployManifest(new File(folder.getRoot(), "target/manifest.properties"));
+        assertNull(manifest.load("app"));
+
+        final Map<String, String> hashes = new HashMap<>();
+        hashes.put("host.json", "hash");
+        manifest.save("app", hashes);
+        assertEquals(hashes, manifest.load("app"));
+        assertNull(manifest.load("another-app"));
+
+        manifest.delete();
+        assertNull(manifest.load("app"));
+    }
+
+    @Test
+    public void getChangedAndDeletedEntries() {
+        final Map<String, String> previous = new HashMap<>();
+        previous.put("host.json", "1");
+        previous.put("lib/app.jar", "1");
+        previous.put("lib/old.jar", "1");
+        final Map<String, String> current = new HashMap<>();
+        current.put("host.json", "1");
+        current.put("lib/app.jar", "2");
+        current.put("lib/new.jar", "1");
+
+        assertEquals(Arrays.asList("lib/app.jar", "lib/new.jar"), ZipDeployManifest.getChangedEntries(previous, current).stream()
+                .sorted().collect(Collectors.toList()));
+        assertEquals(Collections.singletonList("lib/old.jar"), ZipDeployManifest.getDeletedEntries(previous, current));
+    }
+
+    @Test
+    public void getFingerprint() {
+        final Map<String, String> hashes = new HashMap<>();
+        hashes.put("host.json", "1");
+        hashes.put("lib/app.jar", "2");
+        final String fingerprint = ZipDeployManifest.getFingerprint(hashes);
+
+        final Map<String, String> renamed = new HashMap<>();
+        renamed.put("host.json", "1");
+        renamed.put("lib/app2.jar", "2");
+        assertEquals(fingerprint, ZipDeployManifest.getFingerprint(new TreeMap<>(hashes)));
+        assertNotEquals(fingerprint, ZipDeployManifest.getFingerprint(renamed));
+    }
+}
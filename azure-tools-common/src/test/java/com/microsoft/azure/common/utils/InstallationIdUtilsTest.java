@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class InstallationIdUtilsTest {
+    private static final String INSTALLATION_ID = StringUtils.repeat("0123456789abcdef", 4);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void getCachedInstallationId() throws Exception {
+        final File cacheFile = new File(folder.getRoot(), ".azure/mavenplugins.installationid");
+        FileUtils.write(cacheFile, INSTALLATION_ID + "\n", StandardCharsets.UTF_8);
+
+        assertEquals(INSTALLATION_ID, InstallationIdUtils.getInstallationId(cacheFile));
+    }
+
+    @Test
+    public void ignoreInvalidCache() throws Exception {
+        final File cacheFile = new File(folder.getRoot(), ".azure/mavenplugins.installationid");
+        FileUtils.write(cacheFile, "invalid", StandardCharsets.UTF_8);
+
+        final String installationId = InstallationIdUtils.getInstallationId(cacheFile);
+
+        assertEquals(GetHashMac.getHashMac(), installationId);
+        if (installationId != null) {
+            assertEquals(installationId, FileUtils.readFileToString(cacheFile, StandardCharsets.UTF_8));
+        }
+    }
+}
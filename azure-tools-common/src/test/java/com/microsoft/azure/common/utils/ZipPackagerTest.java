@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.common.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zeroturnaround.zip.ZipException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class ZipPackagerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File stagingDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        stagingDirectory = folder.newFolder("staging");
+        FileUtils.write(new File(stagingDirectory, "host.json"), "{\"version\": \"2.0\"}", StandardCharsets.UTF_8);
+        FileUtils.write(new File(stagingDirectory, "local.settings.json"), "{}", StandardCharsets.UTF_8);
+        FileUtils.write(new File(stagingDirectory, "lib/app.jar"), "jar content", StandardCharsets.UTF_8);
+        new File(stagingDirectory, "empty").mkdirs();
+    }
+
+    @Test
+    public void packToFile() throws IOException {
+        final File zipFile = new ZipPackager(stagingDirectory).exclude("local.settings.json").pack(folder.newFile("app.zip"));
+
+        try (final ZipFile zip = new ZipFile(zipFile)) {
+            final List<String> entries = new ArrayList<>();
+            zip.stream().forEach(entry -> entries.add(entry.getName()));
+            assertEquals(Arrays.asList("empty/", "host.json", "lib/", "lib/app.jar"), entries);
+            assertEquals(ZipEntry.STORED, zip.getEntry("lib/app.jar").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zip.getEntry("host.json").getMethod());
+            assertEquals("jar content", IOUtils.toString(zip.getInputStream(zip.getEntry("lib/app.jar")), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void packToStream() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ZipPackager(stagingDirectory).include(entry -> !entry.endsWith("/")).pack(output);
+
+        final Map<String, String> entries = readEntries(output.toByteArray());
+        assertEquals(Arrays.asList("host.json", "lib/app.jar", "local.settings.json"), new ArrayList<>(entries.keySet()));
+        assertEquals("jar content", entries.get("lib/app.jar"));
+    }
+
+    @Test
+    public void packInParallel() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ZipPackager(stagingDirectory).exclude("local.settings.json", "empty/").parallel(2).pack(output);
+
+        final Map<String, String> entries = readEntries(output.toByteArray());
+        assertEquals(Arrays.asList("host.json", "lib/", "lib/app.jar"), new ArrayList<>(entries.keySet()));
+        assertEquals("{\"version\": \"2.0\"}", entries.get("host.json"));
+    }
+
+    @Test(expected = ZipException.class)
+    public void packInParallelWithMissingFile() throws IOException {
+        final Map<String, File> files = new HashMap<>();
+        files.put("host.json", new File(stagingDirectory, "host.json"));
+        files.put("missing.json", new File(stagingDirectory, "missing.json"));
+
+        new ZipPackager(files).parallel(2).pack(folder.newFile("missing.zip"));
+    }
+
+    @Test
+    public void packFilesToFile() throws IOException {
+        final Map<String, File> files = new HashMap<>();
+        files.put("app.jar", new File(stagingDirectory, "lib/app.jar"));
+        files.put("config/host.json", new File(stagingDirectory, "host.json"));
+
+        final File zipFile = new ZipPackager(files).pack(folder.newFile("files.zip"));
+
+        final Map<String, String> entries = readEntries(FileUtils.readFileToByteArray(zipFile));
+        assertEquals(Arrays.asList("app.jar", "config/host.json"), new ArrayList<>(entries.keySet()));
+        assertEquals("jar content", entries.get("app.jar"));
+    }
+
+    @Test(expected = ZipException.class)
+    public void packNonExistingDirectory() throws IOException {
+        new ZipPackager(new File(stagingDirectory, "non-existing")).pack(folder.newFile("app.zip"));
+    }
+
+    private static Map<String, String> readEntries(byte[] zip) throws IOException {
+        final Map<String, String> result = new TreeMap<>();
+        try (final ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = input.getNextEntry()) != null) {
+                result.put(entry.getName(), IOUtils.toString(input, StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+}
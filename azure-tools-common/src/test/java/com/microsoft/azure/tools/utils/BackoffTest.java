@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.tools.utils;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BackoffTest {
+    @Test
+    public void growUpToMax() {
+        final Backoff backoff = new Backoff(Duration.ofMillis(100), Duration.ofMillis(500), 2, 0);
+
+        assertEquals(200, backoff.grow(100));
+        assertEquals(500, backoff.grow(400));
+        assertEquals(100, backoff.getDelay(1));
+        assertEquals(400, backoff.getDelay(3));
+        assertEquals(500, backoff.getDelay(100));
+    }
+
+    @Test
+    public void withJitter() {
+        final Backoff backoff = new Backoff(Duration.ofMillis(1000), Duration.ofMillis(1100), 2, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            final long delay = backoff.withJitter(1000);
+            assertTrue(delay >= 800 && delay <= 1100);
+        }
+    }
+
+    @Test
+    public void parseRetryAfter() {
+        assertEquals(Duration.ofSeconds(3), Backoff.parseRetryAfter("3"));
+        assertNull(Backoff.parseRetryAfter(null));
+        assertNull(Backoff.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.tools.utils;
+
+import com.microsoft.azure.CloudException;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+import retrofit2.Response;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HydratorTest {
+    @Test
+    public void hydrateWithBoundedConcurrency() {
+        final List<Integer> items = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger loaded = new AtomicInteger();
+
+        new Hydrator.Builder().concurrency(3).build().hydrate(items, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            loaded.incrementAndGet();
+        });
+
+        assertEquals(20, loaded.get());
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void retryThrottledLoads() {
+        final Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+        new Hydrator.Builder().concurrency(2).backoff(Duration.ofMillis(10), Duration.ofMillis(50)).build()
+            .hydrate(IntStream.range(0, 4).boxed().collect(Collectors.toList()), item -> {
+                // the first two attempts are throttled, with and without Retry-After
+                final int attempt = attempts.computeIfAbsent(item, key -> new AtomicInteger()).incrementAndGet();
+                if (attempt <= 2) {
+                    throw createException(429, attempt == 1 ? "0" : null);
+                }
+            });
+
+        attempts.values().forEach(count -> assertEquals(3, count.get()));
+    }
+
+    @Test
+    public void failWithoutRetryForOtherErrors() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final CloudException error = createException(500, null);
+        try {
+            new Hydrator.Builder().backoff(Duration.ofMillis(10), Duration.ofMillis(50)).build()
+                .hydrate(IntStream.range(0, 1).boxed().collect(Collectors.toList()), item -> {
+                    attempts.incrementAndGet();
+                    throw error;
+                });
+            fail("should throw the error of the load");
+        } catch (CloudException e) {
+            assertSame(error, e);
+        }
+        assertEquals(1, attempts.get());
+    }
+
+    private static CloudException createException(int code, String retryAfter) {
+        final okhttp3.Response.Builder raw = new okhttp3.Response.Builder().code(code).message("error").protocol(Protocol.HTTP_1_1)
+            .request(new Request.Builder().url("http://localhost/").build());
+        if (retryAfter != null) {
+            raw.header("Retry-After", retryAfter);
+        }
+        return new CloudException("error", Response.error(ResponseBody.create(MediaType.parse("application/json"), "{}"), raw.build()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
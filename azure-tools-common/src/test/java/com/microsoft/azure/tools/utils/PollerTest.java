@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.tools.utils;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PollerTest {
+    @Test
+    public void pollUntilReady() {
+        final AtomicInteger counter = new AtomicInteger();
+        final AtomicReference<Poller.PollingStatistics> statistics = new AtomicReference<>();
+        final Integer result = new Poller.Builder<Integer>()
+            .fastPhase(Duration.ofMillis(10), 2)
+            .timeout(Duration.ofSeconds(10))
+            .listener(statistics::set)
+            .build()
+            .pollUntil(() -> {
+                if (counter.incrementAndGet() == 2) {
+                    throw new IllegalStateException("transient error");
+                }
+                return counter.get();
+            }, value -> value >= 4);
+
+        assertEquals(4, result.intValue());
+        assertEquals(4, statistics.get().getPollCount());
+        assertTrue(statistics.get().isReady());
+        assertFalse(statistics.get().isCancelled());
+    }
+
+    @Test
+    public void returnLastResultWhenTimeout() {
+        final AtomicInteger counter = new AtomicInteger();
+        final AtomicReference<Poller.PollingStatistics> statistics = new AtomicReference<>();
+        final long start = System.currentTimeMillis();
+        final Integer result = new Poller.Builder<Integer>()
+            .fastPhase(Duration.ofMillis(10), 1)
+            .maxInterval(Duration.ofMillis(100))
+            .timeout(Duration.ofMillis(300))
+            .listener(statistics::set)
+            .build()
+            .pollUntil(counter::incrementAndGet, value -> false);
+
+        assertEquals(counter.get(), result.intValue());
+        assertFalse(statistics.get().isReady());
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        // backoff: 10ms, 20ms, 40ms, 80ms and then 100ms at most
+        assertTrue(statistics.get().getPollCount() < 10);
+    }
+
+    @Test
+    public void honourRetryAfter() {
+        final AtomicInteger counter = new AtomicInteger();
+        final long start = System.currentTimeMillis();
+        new Poller.Builder<Integer>()
+            .fastPhase(Duration.ofMillis(1), 5)
+            .retryAfter(value -> Duration.ofMillis(200))
+            .build()
+            .pollUntil(counter::incrementAndGet, value -> value >= 3);
+
+        assertTrue(System.currentTimeMillis() - start >= 400);
+    }
+
+    @Test
+    public void cancel() throws Exception {
+        final Poller<Integer> poller = new Poller.Builder<Integer>()
+            .fastPhase(Duration.ofSeconds(10), 1)
+            .build();
+        final AtomicReference<Integer> result = new AtomicReference<>();
+        final Thread thread = new Thread(() -> result.set(poller.pollUntil(() -> 1, value -> false)));
+        thread.start();
+        Thread.sleep(200);
+        poller.cancel();
+        thread.join(5000);
+
+        assertFalse(thread.isAlive());
+        assertTrue(poller.isCancelled());
+        assertEquals(1, result.get().intValue());
+    }
+}
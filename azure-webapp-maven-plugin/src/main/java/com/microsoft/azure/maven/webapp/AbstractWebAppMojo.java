@@ -17,6 +17,7 @@ import com.microsoft.azure.management.appservice.DeploymentSlot;
 import com.microsoft.azure.management.appservice.WebApp;
 import com.microsoft.azure.management.appservice.WebContainer;
 import com.microsoft.azure.maven.AbstractAppServiceMojo;
+import com.microsoft.azure.maven.AzureSessionRegistry;
 import com.microsoft.azure.maven.auth.AzureAuthFailureException;
 import com.microsoft.azure.maven.auth.MavenAuthManager;
 import com.microsoft.azure.maven.model.MavenAuthConfiguration;
@@ -71,6 +72,7 @@ public abstract class AbstractWebAppMojo extends AbstractAppServiceMojo {
     public static final String OS_KEY = "os";
     public static final String INVALID_CONFIG_KEY = "invalidConfiguration";
     public static final String SCHEMA_VERSION_KEY = "schemaVersion";
+    private static final String APP_SERVICE_CLIENT_KEY = "appService";
 
     //region Properties
 
@@ -254,6 +256,14 @@ public abstract class AbstractWebAppMojo extends AbstractAppServiceMojo {
     @Parameter(property = "deployment")
     protected Deployment deployment;
 
+    /**
+     * Skip uploading resources which have the same size and are not newer than the files on FTP server.
+     *
+     * @since 1.14.0
+     */
+    @Parameter(property = "webapp.ftpIncrementalSync", defaultValue = "false")
+    protected boolean ftpIncrementalSync;
+
     private WebAppConfiguration webAppConfiguration;
 
     protected File stagingDirectory;
@@ -320,6 +330,10 @@ public abstract class AbstractWebAppMojo extends AbstractAppServiceMojo {
         return stopAppDuringDeployment;
     }
 
+    public boolean isFtpIncrementalSync() {
+        return ftpIncrementalSync;
+    }
+
     @Override
     public List<Resource> getResources() {
         return resources == null ? Collections.emptyList() : resources;
@@ -420,10 +434,26 @@ public abstract class AbstractWebAppMojo extends AbstractAppServiceMojo {
     }
 
     protected AzureAppService getOrCreateAzureAppServiceClient() throws AzureExecutionException {
+        final MavenAuthConfiguration mavenAuthConfiguration = auth == null ? new MavenAuthConfiguration() : auth;
+        mavenAuthConfiguration.setType(getAuthType());
+        // modules of a reactor build with the same auth configuration and subscription share one app service client
+        final String key = String.join("|", APP_SERVICE_CLIENT_KEY, AzureSessionRegistry.getAuthKey(mavenAuthConfiguration), subscriptionId);
+        final AzureSessionRegistry registry = AzureSessionRegistry.forSession(session);
+        synchronized (registry) {
+            AzureAppService appService = registry.get(key);
+            if (appService == null) {
+                appService = createAzureAppServiceClient(mavenAuthConfiguration);
+                if (appService != null) {
+                    registry.put(key, appService);
+                }
+            }
+            return appService;
+        }
+    }
+
+    private AzureAppService createAzureAppServiceClient(MavenAuthConfiguration mavenAuthConfiguration) throws AzureExecutionException {
         try {
-            final MavenAuthConfiguration mavenAuthConfiguration = auth == null ? new MavenAuthConfiguration() : auth;
-            mavenAuthConfiguration.setType(getAuthType());
-            final AzureCredentialWrapper azureCredentialWrapper = MavenAuthManager.getInstance().login(session, settingsDecrypter, mavenAuthConfiguration);
+            final AzureCredentialWrapper azureCredentialWrapper = new MavenAuthManager().login(session, settingsDecrypter, mavenAuthConfiguration);
             if (Objects.isNull(azureCredentialWrapper)) {
                 return null;
             }
@@ -5,6 +5,7 @@
 
 package com.microsoft.azure.maven.webapp;
 
+import com.microsoft.azure.PagedList;
 import com.microsoft.azure.common.Utils;
 import com.microsoft.azure.common.appservice.DeploymentSlotSetting;
 import com.microsoft.azure.common.appservice.OperatingSystemEnum;
@@ -21,6 +22,7 @@ import com.microsoft.azure.management.appservice.PricingTier;
 import com.microsoft.azure.management.appservice.RuntimeStack;
 import com.microsoft.azure.management.appservice.WebApp;
 import com.microsoft.azure.management.appservice.WebContainer;
+import com.microsoft.azure.management.appservice.implementation.SiteInner;
 import com.microsoft.azure.management.appservice.implementation.WebAppsInner;
 import com.microsoft.azure.management.resources.Subscription;
 import com.microsoft.azure.management.resources.fluentcore.arm.Region;
@@ -38,26 +40,27 @@ import com.microsoft.azure.maven.webapp.utils.JavaVersionUtils;
 import com.microsoft.azure.maven.webapp.utils.RuntimeStackUtils;
 import com.microsoft.azure.maven.webapp.utils.WebContainerUtils;
 import com.microsoft.azure.maven.webapp.validator.V2ConfigurationValidator;
+import com.microsoft.azure.tools.utils.Hydrator;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.beryx.textio.TextIO;
 import org.beryx.textio.TextIoFactory;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.dom4j.DocumentException;
 
-import rx.Observable;
-import rx.schedulers.Schedulers;
-
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -89,7 +92,7 @@ public class ConfigMojo extends AbstractWebAppMojo {
 
     private static final String PRICE_TIER_NOT_AVAIL = "The price tier \"P1\", \"P2\", \"P3\" are only available for Windows runtime, use \"%s\" instead.";
     private static final String NO_JAVA_WEB_APPS = "There are no Java Web Apps in current subscription, please follow the following steps to create a new one.";
-    private static final String LONG_LOADING_HINT = "It may take a few minutes to load all Java Web Apps, please be patient.";
+    private static final String LONG_LOADING_HINT = "It may take a while to load Java Web Apps, please be patient.";
     private static final String[] configTypes = { "Application", "Runtime", "DeploymentSlot" };
     private static final String SETTING_DOCKER_IMAGE = "DOCKER_CUSTOM_IMAGE_NAME";
     private static final String SETTING_REGISTRY_SERVER = "DOCKER_REGISTRY_SERVER_URL";
@@ -99,6 +102,12 @@ public class ConfigMojo extends AbstractWebAppMojo {
     private static final List<String> WEB_APP_PROPERTIES = Arrays.asList("subscriptionId", "resourceGroup", "appName", "runtime", "deployment", "region",
             "appServicePlanResourceGroup", "appServicePlanName", "deploymentSlot");
 
+    /**
+     * Max number of web apps whose configuration is loaded at the same time when choosing an existing web app.
+     */
+    @Parameter(property = "webapp.loadingConcurrency", defaultValue = "8")
+    protected int loadingConcurrency;
+
     private MavenPluginQueryer queryer;
     private WebAppPomHandler pomHandler;
 
@@ -508,28 +517,35 @@ public class ConfigMojo extends AbstractWebAppMojo {
         this.subscriptionId = targetSubscription.subscriptionId();
         // here is a walk around to solve the bad app service listing issue
         final WebAppsInner webappClient = az.webApps().manager().inner().webApps();
-        final List<WebAppOption> siteInners = webappClient.list().stream()
-                .filter(site -> site.kind() != null && !Arrays.asList(site.kind().split(",")).contains("functionapp"))
-                .map(t -> new WebAppOption(t, webappClient)).sorted().collect(Collectors.toList());
-
-        // check empty: first time
-        if (siteInners.isEmpty()) {
-            Log.warn(NO_JAVA_WEB_APPS);
-            return null;
-        }
-        Log.info(LONG_LOADING_HINT);
-
-        // load configuration to detecting java or docker
-        Observable.from(siteInners).flatMap(WebAppOption::loadConfigurationSync, siteInners.size()).subscribeOn(Schedulers.io()).toBlocking().subscribe();
-
+        final Iterator<List<SiteInner>> pages = getPages(webappClient.list());
+        final Hydrator hydrator = new Hydrator.Builder().concurrency(loadingConcurrency).build();
         final boolean isContainer = !Utils.isJarPackagingProject(this.project.getPackaging());
         final boolean isDockerOnly = Utils.isPomPackagingProject(this.project.getPackaging());
-        final List<WebAppOption> javaOrDockerWebapps = siteInners.stream().filter(app -> app.isJavaWebApp() || app.isDockerWebapp())
-                .filter(app -> checkWebAppVisible(isContainer, isDockerOnly, app.isJavaSE(), app.isDockerWebapp())).sorted()
-                .collect(Collectors.toList());
+        final List<WebAppOption> javaOrDockerWebapps = new ArrayList<>();
         final TextIO textIO = TextIoFactory.getTextIO();
-        final WebAppOption selectedApp = selectAzureWebApp(textIO, javaOrDockerWebapps,
-                getWebAppTypeByPackaging(this.project.getPackaging()), targetSubscription);
+        boolean isLoading = false;
+        WebAppOption selectedApp;
+        do {
+            // load pages until there are new apps to choose from, so they are shown without waiting for the whole subscription
+            final int count = javaOrDockerWebapps.size();
+            while (javaOrDockerWebapps.size() == count && pages.hasNext()) {
+                final List<WebAppOption> webapps = pages.next().stream()
+                        .filter(site -> site.kind() != null && !Arrays.asList(site.kind().split(",")).contains("functionapp"))
+                        .map(t -> new WebAppOption(t, webappClient)).collect(Collectors.toList());
+                if (!isLoading && !webapps.isEmpty()) {
+                    isLoading = true;
+                    Log.info(LONG_LOADING_HINT);
+                }
+                // load configuration to detecting java or docker
+                hydrator.hydrate(webapps, WebAppOption::loadConfiguration);
+                webapps.stream().filter(app -> app.isJavaWebApp() || app.isDockerWebapp())
+                        .filter(app -> checkWebAppVisible(isContainer, isDockerOnly, app.isJavaSE(), app.isDockerWebapp()))
+                        .forEach(javaOrDockerWebapps::add);
+            }
+            Collections.sort(javaOrDockerWebapps);
+            selectedApp = selectAzureWebApp(textIO, javaOrDockerWebapps, pages.hasNext(),
+                    getWebAppTypeByPackaging(this.project.getPackaging()), targetSubscription);
+        } while (selectedApp != null && selectedApp.isLoadMore());
         if (selectedApp == null || selectedApp.isCreateNew()) {
             return null;
         }
@@ -548,15 +564,44 @@ public class ConfigMojo extends AbstractWebAppMojo {
         return getConfigurationFromExisting(webapp, servicePlan, builder);
     }
 
-    private static WebAppOption selectAzureWebApp(TextIO textIO, List<WebAppOption> javaOrDockerWebapps, String webAppType, Subscription targetSubscription) {
+    /**
+     * Sites of the listing page by page, the next page is only listed when the iteration reaches it.
+     */
+    private static Iterator<List<SiteInner>> getPages(PagedList<SiteInner> sites) {
+        return new Iterator<List<SiteInner>>() {
+            private boolean isFirstPage = true;
+
+            @Override
+            public boolean hasNext() {
+                return isFirstPage || sites.hasNextPage();
+            }
+
+            @Override
+            public List<SiteInner> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (!isFirstPage) {
+                    sites.loadNextPage();
+                }
+                isFirstPage = false;
+                return sites.currentPage().items();
+            }
+        };
+    }
+
+    private static WebAppOption selectAzureWebApp(TextIO textIO, List<WebAppOption> javaOrDockerWebapps, boolean hasMore, String webAppType,
+                                                  Subscription targetSubscription) {
         final List<WebAppOption> options = new ArrayList<>();
         options.add(WebAppOption.CREATE_NEW);
-        // check empty: second time
         if (javaOrDockerWebapps.isEmpty()) {
             Log.warn(NO_JAVA_WEB_APPS);
             return null;
         }
         options.addAll(javaOrDockerWebapps);
+        if (hasMore) {
+            options.add(WebAppOption.LOAD_MORE);
+        }
         return new CustomTextIoStringListReader<WebAppOption>(() -> textIO.getTextTerminal(), null)
                 .withCustomPrompt(String.format("Please choose a %s Web App%s: ", webAppType, highlightDefaultValue(WebAppOption.CREATE_NEW.toString())))
                 .withNumberedPossibleValues(options).withDefaultValue(WebAppOption.CREATE_NEW)
@@ -9,6 +9,7 @@ import com.azure.core.management.exception.ManagementException;
 import com.azure.resourcemanager.resources.models.ResourceGroup;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.logging.Log;
+import com.microsoft.azure.common.utils.ZipPackager;
 import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
 import com.microsoft.azure.maven.webapp.utils.DeployUtils;
 import com.microsoft.azure.maven.webapp.utils.Utils;
@@ -26,20 +27,18 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
-import org.zeroturnaround.zip.ZipUtil;
+import org.zeroturnaround.zip.ZipException;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * Deploy an Azure Web App, either Windows-based or Linux-based.
  */
-@Mojo(name = "deploy", defaultPhase = LifecyclePhase.DEPLOY)
+@Mojo(name = "deploy", defaultPhase = LifecyclePhase.DEPLOY, threadSafe = true)
 public class DeployMojo extends AbstractWebAppMojo {
     private static final String CREATE_WEBAPP = "Creating web app %s...";
     private static final String CREATE_WEB_APP_DONE = "Successfully created Web App %s.";
@@ -55,6 +54,7 @@ public class DeployMojo extends AbstractWebAppMojo {
     private static final String CREATE_DEPLOYMENT_SLOT_DONE = "Successfully created the Deployment Slot.";
     private static final String DEPLOY_START = "Trying to deploy artifact to %s...";
     private static final String DEPLOY_FINISH = "Successfully deployed the artifact to https://%s";
+    private static final String PACKAGE_FAILED = "Failed to package artifacts: %s";
     private static final String SKIP_DEPLOYMENT_FOR_DOCKER_APP_SERVICE = "Skip deployment for docker app service";
     private static final String NO_RUNTIME_CONFIG = "You need to specified runtime in pom.xml for creating azure webapps. " +
             "For V1 schema version, please use <javaVersion>, <linuxRuntime> or <containerSettings>, " +
@@ -64,6 +64,8 @@ public class DeployMojo extends AbstractWebAppMojo {
     protected void doExecute() throws AzureExecutionException {
         // initialize library client
         az = getOrCreateAzureAppServiceClient();
+        // the client is shared by the modules of a reactor build, models cached by other deployments may be stale by now
+        az.getResourceCache().invalidateAll();
 
         final WebAppConfig config = getWebAppConfig();
         final IAppService target = createOrUpdateResource(config);
@@ -228,38 +230,25 @@ public class DeployMojo extends AbstractWebAppMojo {
     }
 
     private void deployArtifactsWithZipDeploy(IAppService target, List<WebAppArtifact> artifacts) throws AzureExecutionException {
-        final File stagingDirectory = prepareStagingDirectory(artifacts);
-        // Rename jar once java_se runtime
-        if (target.getRuntime().getWebContainer() == WebContainer.JAVA_SE) {
-            final List<File> files = new ArrayList<>(FileUtils.listFiles(stagingDirectory, null, true));
-            DeployUtils.prepareJavaSERuntimeJarArtifact(files, project.getBuild().getFinalName());
-        }
+        final boolean isJavaSERuntime = target.getRuntime().getWebContainer() == WebContainer.JAVA_SE;
+        final Map<String, File> entries = DeployUtils.getZipEntries(artifacts, isJavaSERuntime, project.getBuild().getFinalName());
+        // Pack artifacts straight into the archive without a staging directory, the archive is deployed as a file
+        // so that the SDK can send it again when retrying a timed out request
         final File zipFile = Utils.createTempFile(appName + UUID.randomUUID().toString(), ".zip");
-        ZipUtil.pack(stagingDirectory, zipFile);
-        // Deploy zip with zip deploy
-        target.deploy(DeployType.ZIP, zipFile);
-    }
-
-    private static File prepareStagingDirectory(List<WebAppArtifact> webAppArtifacts) throws AzureExecutionException {
         try {
-            final File stagingDirectory = Files.createTempDirectory("azure-functions").toFile();
-            FileUtils.forceDeleteOnExit(stagingDirectory);
-            // Copy maven artifacts to staging folder
-            for (final WebAppArtifact webAppArtifact : webAppArtifacts) {
-                final File targetFolder = StringUtils.isEmpty(webAppArtifact.getPath()) ? stagingDirectory :
-                        new File(stagingDirectory, webAppArtifact.getPath());
-                FileUtils.copyFileToDirectory(webAppArtifact.getFile(), targetFolder);
-            }
-            return stagingDirectory;
-        } catch (IOException e) {
-            throw new AzureExecutionException("Failed to package resources", e);
+            new ZipPackager(entries).pack(zipFile);
+            target.deploy(DeployType.ZIP, zipFile);
+        } catch (ZipException e) {
+            throw new AzureExecutionException(String.format(PACKAGE_FAILED, e.getMessage()), e);
+        } finally {
+            FileUtils.deleteQuietly(zipFile);
         }
     }
 
     private void deployExternalResources(IAppService target) throws AzureExecutionException {
         final List<Resource> resources = this.deployment == null ? null : this.deployment.getResources();
         final List<Resource> externalResources = resources.stream().filter(DeployUtils::isExternalResource).collect(Collectors.toList());
-        DeployUtils.deployResourcesWithFtp(target, externalResources);
+        DeployUtils.deployResourcesWithFtp(target, externalResources, isFtpIncrementalSync());
     }
 
 }
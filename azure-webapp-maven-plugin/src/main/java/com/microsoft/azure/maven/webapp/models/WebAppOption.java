@@ -13,15 +13,17 @@ import com.microsoft.azure.management.appservice.implementation.SiteConfigResour
 import com.microsoft.azure.management.appservice.implementation.SiteInner;
 import com.microsoft.azure.management.appservice.implementation.WebAppsInner;
 import org.apache.commons.lang3.StringUtils;
-import rx.Observable;
 
 public class WebAppOption implements Comparable<WebAppOption> {
-    public static final WebAppOption CREATE_NEW = new WebAppOption();
+    public static final WebAppOption CREATE_NEW = new WebAppOption(true, false);
+    public static final WebAppOption LOAD_MORE = new WebAppOption(false, true);
     private static final String CREATE_NEW_STRING = "<create>";
+    private static final String LOAD_MORE_STRING = "<load more>";
     private SiteInner siteInner;
     private SiteConfigResourceInner siteConfig;
     private WebAppsInner webappClient;
     private boolean createNewPlaceHolder = false;
+    private boolean loadMorePlaceHolder = false;
 
     public WebAppOption(SiteInner siteInner, WebAppsInner webappClient) {
         this.siteInner = siteInner;
@@ -37,6 +39,9 @@ public class WebAppOption implements Comparable<WebAppOption> {
         if (this.isCreateNew()) {
             return CREATE_NEW_STRING;
         }
+        if (this.isLoadMore()) {
+            return LOAD_MORE_STRING;
+        }
         return siteInner != null ? String.format("%s (%s)", siteInner.name(), getDescription().toLowerCase()) : null;
     }
 
@@ -53,19 +58,21 @@ public class WebAppOption implements Comparable<WebAppOption> {
 
     }
 
-    private WebAppOption() {
-        this.createNewPlaceHolder = true;
+    private WebAppOption(boolean createNewPlaceHolder, boolean loadMorePlaceHolder) {
+        this.createNewPlaceHolder = createNewPlaceHolder;
+        this.loadMorePlaceHolder = loadMorePlaceHolder;
     }
 
     public boolean isCreateNew() {
         return this.createNewPlaceHolder;
     }
 
-    public Observable<WebAppOption> loadConfigurationSync() {
-        return Observable.fromCallable(() -> {
-            this.siteConfig = webappClient.getConfiguration(siteInner.resourceGroup(), siteInner.name());
-            return this;
-        });
+    public boolean isLoadMore() {
+        return this.loadMorePlaceHolder;
+    }
+
+    public void loadConfiguration() {
+        this.siteConfig = webappClient.getConfiguration(siteInner.resourceGroup(), siteInner.name());
     }
 
     public String getServicePlanId() {
@@ -5,6 +5,7 @@
 
 package com.microsoft.azure.maven.webapp.utils;
 
+import com.microsoft.azure.common.FTPSynchronizer;
 import com.microsoft.azure.common.exceptions.AzureExecutionException;
 import com.microsoft.azure.common.logging.Log;
 import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
@@ -14,6 +15,7 @@ import com.microsoft.azure.toolkit.lib.appservice.service.IAppService;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
 import org.apache.maven.model.Resource;
 
 import java.io.File;
@@ -21,7 +23,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.jar.JarInputStream;
 import java.util.jar.Manifest;
@@ -32,10 +37,9 @@ public class DeployUtils {
     private static final String DEFAULT_APP_SERVICE_JAR_NAME = "app.jar";
     private static final String WEB_CONFIG = "web.config";
     private static final String RENAMING_MESSAGE = "Renaming %s to %s";
-    private static final String RENAMING_FAILED_MESSAGE = "Failed to rename artifact to %s, which is required in Java SE environment, " +
-            "refer to https://docs.microsoft.com/en-us/azure/app-service/containers/configure-language-java#set-java-runtime-options for details.";
     private static final String NO_EXECUTABLE_JAR = "No executable jar found in target folder according to resource filter in <resource>, " +
             "please make sure the resource filter is correct and you have built the jar.";
+    private static final String SKIP_UNCHANGED_RESOURCE = "Skip uploading unchanged resource %s";
     private static final String MULTI_EXECUTABLE_JARS = "Multi executable jars found in <resources>, please check the configuration";
 
     public static boolean isExternalResource(Resource resource) {
@@ -44,6 +48,14 @@ public class DeployUtils {
     }
 
     public static void deployResourcesWithFtp(IAppService appService, List<Resource> externalResources) throws AzureExecutionException {
+        deployResourcesWithFtp(appService, externalResources, false);
+    }
+
+    /**
+     * Upload resources with FTP, unchanged files are skipped when incremental sync is enabled
+     */
+    public static void deployResourcesWithFtp(IAppService appService, List<Resource> externalResources, boolean incrementalSync)
+            throws AzureExecutionException {
         if (externalResources.isEmpty()) {
             return;
         }
@@ -53,7 +65,7 @@ public class DeployUtils {
 
             final FTPClient ftpClient = FTPUtils.getFTPClient(serverUrl, publishingProfile.getFtpUsername(), publishingProfile.getFtpPassword());
             for (final Resource externalResource : externalResources) {
-                uploadResource(externalResource, ftpClient);
+                uploadResource(externalResource, ftpClient, incrementalSync);
             }
         } catch (IOException e) {
             throw new AzureExecutionException(e.getMessage(), e);
@@ -65,10 +77,15 @@ public class DeployUtils {
         return deployTypes.size() == 1 && deployTypes.iterator().next() == DeployType.WAR;
     }
 
-    private static void uploadResource(Resource resource, FTPClient ftpClient) throws IOException {
+    private static void uploadResource(Resource resource, FTPClient ftpClient, boolean incrementalSync) throws IOException {
         final List<File> files = Utils.getArtifacts(resource);
         final String target = getAbsoluteTargetPath(resource.getTargetPath());
+        final Map<String, FTPFile> remoteFiles = incrementalSync ? FTPUtils.listRemoteFiles(ftpClient, target) : null;
         for (final File file : files) {
+            if (remoteFiles != null && !FTPSynchronizer.isFileChanged(file, remoteFiles.get(file.getName()))) {
+                Log.info(String.format(SKIP_UNCHANGED_RESOURCE, file.getPath()));
+                continue;
+            }
             FTPUtils.uploadFile(ftpClient, file.getPath(), target);
         }
     }
@@ -81,20 +98,30 @@ public class DeployUtils {
     }
 
     /**
-     * Rename project jar to app.jar for java se app service
+     * Map artifacts to their entries in the zip package, the jar started by Java SE runtime is renamed to app.jar
+     * unless the start up is customized by web.config
      */
-    public static void prepareJavaSERuntimeJarArtifact(final List<File> artifacts, final String finalName) throws AzureExecutionException {
-        if (existsWebConfig(artifacts)) {
-            return;
+    public static Map<String, File> getZipEntries(final List<WebAppArtifact> artifacts, final boolean isJavaSERuntime,
+                                                  final String finalName) throws AzureExecutionException {
+        final Map<String, File> result = new LinkedHashMap<>();
+        for (final WebAppArtifact artifact : artifacts) {
+            final String directory = StringUtils.strip(FilenameUtils.separatorsToUnix(artifact.getPath()), "/");
+            final String entry = StringUtils.isEmpty(directory) ? artifact.getFile().getName() : directory + "/" + artifact.getFile().getName();
+            result.put(entry, artifact.getFile());
         }
-        final File artifact = getProjectJarArtifact(artifacts, finalName);
-        final File renamedArtifact = new File(artifact.getParent(), DEFAULT_APP_SERVICE_JAR_NAME);
-        if (!StringUtils.equals(artifact.getName(), DEFAULT_APP_SERVICE_JAR_NAME)) {
+        final List<File> files = new ArrayList<>(result.values());
+        if (!isJavaSERuntime || existsWebConfig(files)) {
+            return result;
+        }
+        final File artifact = getProjectJarArtifact(files, finalName);
+        final String entry = result.entrySet().stream().filter(e -> e.getValue() == artifact).map(Map.Entry::getKey).findFirst().orElse(null);
+        final String renamedEntry = StringUtils.removeEnd(entry, artifact.getName()) + DEFAULT_APP_SERVICE_JAR_NAME;
+        if (!StringUtils.equals(entry, renamedEntry)) {
             Log.info(String.format(RENAMING_MESSAGE, artifact.getAbsolutePath(), DEFAULT_APP_SERVICE_JAR_NAME));
-            if (!artifact.renameTo(renamedArtifact)) {
-                throw new AzureExecutionException(String.format(RENAMING_FAILED_MESSAGE, DEFAULT_APP_SERVICE_JAR_NAME));
-            }
+            result.remove(entry);
+            result.put(renamedEntry, artifact);
         }
+        return result;
     }
 
     private static File getProjectJarArtifact(final List<File> artifacts, final String finalName) throws AzureExecutionException {
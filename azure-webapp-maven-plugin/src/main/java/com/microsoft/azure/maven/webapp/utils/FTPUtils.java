@@ -4,10 +4,12 @@
  */
 package com.microsoft.azure.maven.webapp.utils;
 
+import com.microsoft.azure.common.FTPSynchronizer;
 import com.microsoft.azure.common.logging.Log;
 
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -15,7 +17,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Stack;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 // Todo: Merge this class with FTPUploader in lib to reduce duplicate
 public class FTPUtils {
@@ -51,6 +56,15 @@ public class FTPUtils {
         }
     }
 
+    /**
+     * List files directly under the remote directory by name, empty if the directory doesn't exist
+     */
+    public static Map<String, FTPFile> listRemoteFiles(final FTPClient ftpClient, final String targetPath) throws IOException {
+        return FTPSynchronizer.listFiles(ftpClient, targetPath).stream()
+                .filter(FTPFile::isFile)
+                .collect(Collectors.toMap(FTPFile::getName, Function.identity(), (first, second) -> first));
+    }
+
     private static void changeDirectoryWithCreate(final FTPClient ftpClient, String targetPath) throws IOException {
         final Stack<Path> pathStacks = new Stack<>();
         Path path = Paths.get(targetPath);
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.maven.webapp.utils;
+
+import com.microsoft.azure.common.exceptions.AzureExecutionException;
+import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DeployUtilsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void renameExecutableJarForJavaSE() throws Exception {
+        final File jar = createJar("demo-1.0.jar", true);
+        final File library = createJar("library.jar", false);
+
+        final Map<String, File> entries = DeployUtils.getZipEntries(Arrays.asList(artifact(jar, null), artifact(library, "lib")), true, "demo-1.0");
+
+        assertEquals(Arrays.asList("lib/library.jar", "app.jar"), new ArrayList<>(entries.keySet()));
+        assertSame(jar, entries.get("app.jar"));
+    }
+
+    @Test
+    public void renameExecutableJarUnderPath() throws Exception {
+        final File jar = createJar("demo-1.0.jar", true);
+
+        final Map<String, File> entries = DeployUtils.getZipEntries(Arrays.asList(artifact(jar, "/bin\\")), true, "demo-1.0");
+
+        assertEquals(Arrays.asList("bin/app.jar"), new ArrayList<>(entries.keySet()));
+        assertSame(jar, entries.get("bin/app.jar"));
+    }
+
+    @Test
+    public void keepJarNameWithWebConfig() throws Exception {
+        final File jar = createJar("demo-1.0.jar", true);
+        final File webConfig = folder.newFile("web.config");
+
+        final Map<String, File> entries = DeployUtils.getZipEntries(Arrays.asList(artifact(jar, null), artifact(webConfig, null)), true, "demo-1.0");
+
+        assertEquals(Arrays.asList("demo-1.0.jar", "web.config"), new ArrayList<>(entries.keySet()));
+    }
+
+    @Test
+    public void keepJarNameForOtherRuntimes() throws Exception {
+        final File jar = createJar("demo-1.0.jar", true);
+
+        final Map<String, File> entries = DeployUtils.getZipEntries(Arrays.asList(artifact(jar, "lib")), false, "demo-1.0");
+
+        assertEquals(Arrays.asList("lib/demo-1.0.jar"), new ArrayList<>(entries.keySet()));
+    }
+
+    @Test(expected = AzureExecutionException.class)
+    public void failWithoutExecutableJarForJavaSE() throws Exception {
+        final File library = createJar("library.jar", false);
+
+        DeployUtils.getZipEntries(Arrays.asList(artifact(library, null)), true, "demo-1.0");
+    }
+
+    private File createJar(final String name, final boolean executable) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (executable) {
+            manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "com.example.Main");
+        }
+        final File jar = folder.newFile(name);
+        try (final JarOutputStream output = new JarOutputStream(new FileOutputStream(jar), manifest)) {
+            output.flush();
+        }
+        return jar;
+    }
+
+    private static WebAppArtifact artifact(final File file, final String path) {
+        return WebAppArtifact.builder().file(file).path(path).build();
+    }
+}